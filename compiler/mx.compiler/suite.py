@@ -1335,6 +1335,7 @@ suite = {
         "org.graalvm.compiler.api.test",
         "org.graalvm.compiler.java",
         "org.graalvm.compiler.runtime",
+        "org.graalvm.compiler.truffle.runtime",
       ],
       "checkstyle" : "org.graalvm.compiler.graph",
       "javaCompliance" : "8+",
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2021, 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.hotspot.jdk9.test;
+
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+
+import org.graalvm.compiler.api.test.Graal;
+import org.graalvm.compiler.hotspot.HotSpotGraalRuntimeProvider;
+import org.graalvm.compiler.hotspot.test.HotSpotGraalCompilerTest;
+import org.graalvm.compiler.runtime.RuntimeProvider;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the {@code ArraysSupport.vectorizedMismatch} intrinsic through the {@link Arrays} mismatch
+ * methods for all primitive widths, with unaligned start offsets and mismatches at every position
+ * of the compared ranges.
+ */
+public final class VectorizedMismatchTest extends HotSpotGraalCompilerTest {
+
+    private static final int[] LENGTHS = {0, 1, 3, 7, 8, 15, 16, 31, 32, 33, 63, 64, 65, 127, 257};
+    private static final int MAX_OFFSET = 9;
+    private static final int BASE_LENGTH = 257;
+
+    @Before
+    public void sanity() {
+        HotSpotGraalRuntimeProvider rt = (HotSpotGraalRuntimeProvider) Graal.getRequiredCapability(RuntimeProvider.class);
+        assumeTrue("Enable test case when the hotspot intrinsic is available", rt.getVMConfig().useVectorizedMismatchIntrinsic);
+    }
+
+    public static int mismatchBytes(byte[] a, int aFrom, byte[] b, int bFrom, int length) {
+        return Arrays.mismatch(a, aFrom, aFrom + length, b, bFrom, bFrom + length);
+    }
+
+    public static int mismatchChars(char[] a, int aFrom, char[] b, int bFrom, int length) {
+        return Arrays.mismatch(a, aFrom, aFrom + length, b, bFrom, bFrom + length);
+    }
+
+    public static int mismatchShorts(short[] a, int aFrom, short[] b, int bFrom, int length) {
+        return Arrays.mismatch(a, aFrom, aFrom + length, b, bFrom, bFrom + length);
+    }
+
+    public static int mismatchInts(int[] a, int aFrom, int[] b, int bFrom, int length) {
+        return Arrays.mismatch(a, aFrom, aFrom + length, b, bFrom, bFrom + length);
+    }
+
+    public static int mismatchLongs(long[] a, int aFrom, long[] b, int bFrom, int length) {
+        return Arrays.mismatch(a, aFrom, aFrom + length, b, bFrom, bFrom + length);
+    }
+
+    public static int mismatchFloats(float[] a, int aFrom, float[] b, int bFrom, int length) {
+        return Arrays.mismatch(a, aFrom, aFrom + length, b, bFrom, bFrom + length);
+    }
+
+    public static int mismatchDoubles(double[] a, int aFrom, double[] b, int bFrom, int length) {
+        return Arrays.mismatch(a, aFrom, aFrom + length, b, bFrom, bFrom + length);
+    }
+
+    /**
+     * Runs {@code snippet} on copies of {@code base} that differ in at most one element, for all
+     * lengths in {@link #LENGTHS}, a selection of start offsets and every mismatch position.
+     */
+    private void testMismatch(String snippet, Object base, Object different) {
+        int baseLength = Array.getLength(base);
+        for (int length : LENGTHS) {
+            for (int aFrom = 0; aFrom < MAX_OFFSET; aFrom += 4) {
+                for (int bFrom = 0; bFrom < MAX_OFFSET; bFrom += 3) {
+                    Object a = copyShifted(base, aFrom, baseLength);
+                    Object b = copyShifted(base, bFrom, baseLength);
+                    test(snippet, a, aFrom, b, bFrom, length);
+                    for (int pos = 0; pos < length; pos++) {
+                        Object b2 = copyShifted(base, bFrom, baseLength);
+                        System.arraycopy(different, 0, b2, bFrom + pos, 1);
+                        test(snippet, a, aFrom, b2, bFrom, length);
+                    }
+                }
+            }
+        }
+    }
+
+    private static Object copyShifted(Object base, int offset, int length) {
+        Object result = Array.newInstance(base.getClass().getComponentType(), length + MAX_OFFSET);
+        System.arraycopy(base, 0, result, offset, length);
+        return result;
+    }
+
+    @Test
+    public void testBytes() {
+        byte[] base = new byte[BASE_LENGTH];
+        for (int i = 0; i < base.length; i++) {
+            base[i] = (byte) (i * 31);
+        }
+        testMismatch("mismatchBytes", base, new byte[]{(byte) 0xA5});
+    }
+
+    @Test
+    public void testChars() {
+        char[] base = new char[BASE_LENGTH];
+        for (int i = 0; i < base.length; i++) {
+            base[i] = (char) (i * 0x101);
+        }
+        testMismatch("mismatchChars", base, new char[]{'\uffff'});
+    }
+
+    @Test
+    public void testShorts() {
+        short[] base = new short[BASE_LENGTH];
+        for (int i = 0; i < base.length; i++) {
+            base[i] = (short) (i * 0x3F1);
+        }
+        testMismatch("mismatchShorts", base, new short[]{Short.MIN_VALUE});
+    }
+
+    @Test
+    public void testInts() {
+        int[] base = new int[BASE_LENGTH];
+        for (int i = 0; i < base.length; i++) {
+            base[i] = i * 0x01000193;
+        }
+        testMismatch("mismatchInts", base, new int[]{-1});
+    }
+
+    @Test
+    public void testLongs() {
+        long[] base = new long[BASE_LENGTH];
+        for (int i = 0; i < base.length; i++) {
+            base[i] = i * 0x100000001B3L;
+        }
+        testMismatch("mismatchLongs", base, new long[]{Long.MIN_VALUE});
+    }
+
+    @Test
+    public void testFloats() {
+        float[] base = new float[BASE_LENGTH];
+        for (int i = 0; i < base.length; i++) {
+            base[i] = i * 0.5f;
+        }
+        testMismatch("mismatchFloats", base, new float[]{-0.0f});
+        // NaNs with different bit patterns must not be reported as a mismatch
+        float[] a = new float[]{Float.NaN, 1.0f};
+        float[] b = new float[]{Float.intBitsToFloat(0x7fc00001), 1.0f};
+        test("mismatchFloats", a, 0, b, 0, 2);
+    }
+
+    @Test
+    public void testDoubles() {
+        double[] base = new double[BASE_LENGTH];
+        for (int i = 0; i < base.length; i++) {
+            base[i] = i * 0.25d;
+        }
+        testMismatch("mismatchDoubles", base, new double[]{-0.0d});
+        // NaNs with different bit patterns must not be reported as a mismatch
+        double[] a = new double[]{Double.NaN, 1.0d};
+        double[] b = new double[]{Double.longBitsToDouble(0x7ff8000000000001L), 1.0d};
+        test("mismatchDoubles", a, 0, b, 0, 2);
+    }
+}
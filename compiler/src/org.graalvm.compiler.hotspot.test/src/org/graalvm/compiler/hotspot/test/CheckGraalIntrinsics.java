@@ -285,10 +285,6 @@ public class CheckGraalIntrinsics extends GraalTest {
             add(toBeInvestigated,
                             // Only used as a marker for vectorization?
                             "java/util/stream/Streams$RangeIntSpliterator.forEachRemaining(Ljava/util/function/IntConsumer;)V",
-                            // Only implemented on non-AMD64 platforms (some logic and runtime call)
-                            "java/util/zip/Adler32.updateByteBuffer(IJII)I",
-                            // Only implemented on non-AMD64 platforms (some logic and runtime call)
-                            "java/util/zip/Adler32.updateBytes(I[BII)I",
                             // Emits a slow and a fast path and some dispatching logic
                             "jdk/internal/misc/Unsafe.allocateUninitializedArray0(Ljava/lang/Class;I)Ljava/lang/Object;",
 
@@ -374,6 +370,15 @@ public class CheckGraalIntrinsics extends GraalTest {
             }
         }
 
+        if (isJDK16OrHigher()) {
+            // JDK-8248188: Add IntrinsicCandidate and API for Base64 decoding
+            if (!config.useBase64DecodeIntrinsic()) {
+                add(ignore,
+                                "java/util/Base64$Decoder.decodeBlock([BII[BIZ)I",
+                                "java/util/Base64$Decoder.decodeBlock([BII[BIZZ)I");
+            }
+        }
+
         if (isJDK13OrHigher()) {
             if (!(arch instanceof AArch64)) {
                 add(toBeInvestigated,
@@ -404,9 +409,6 @@ public class CheckGraalIntrinsics extends GraalTest {
                             // JDK-8254231: Implementation of Foreign Linker API (Incubator)
                             "java/lang/invoke/MethodHandle.linkToNative*",
 
-                            // JDK-8248188: Add IntrinsicCandidate and API for Base64 decoding
-                            "java/util/Base64$Decoder.decodeBlock([BII[BIZ)I",
-
                             // JDK-8255150: Add utility methods to check long indexes and ranges
                             "jdk/internal/util/Preconditions.checkIndex(JJLjava/util/function/BiFunction;)J",
 
@@ -505,6 +507,18 @@ public class CheckGraalIntrinsics extends GraalTest {
                             "java/util/zip/CRC32C.updateDirectByteBuffer(IJII)I");
         }
 
+        // Adler32 intrinsics
+        if (isJDK9OrHigher() && !config.useAdler32Intrinsics) {
+            add(ignore,
+                            "java/util/zip/Adler32.updateByteBuffer(IJII)I",
+                            "java/util/zip/Adler32.updateBytes(I[BII)I");
+        }
+
+        // ArraysSupport intrinsics
+        if (isJDK10OrHigher() && !config.useVectorizedMismatchIntrinsic) {
+            add(ignore, "jdk/internal/util/ArraysSupport.vectorizedMismatch(Ljava/lang/Object;JLjava/lang/Object;JII)I");
+        }
+
         String cbcEncryptName = HotSpotGraphBuilderPlugins.lookupIntrinsicName(config, "com/sun/crypto/provider/CipherBlockChaining", "implEncrypt", "encrypt");
         String cbcDecryptName = HotSpotGraphBuilderPlugins.lookupIntrinsicName(config, "com/sun/crypto/provider/CipherBlockChaining", "implDecrypt", "decrypt");
         String aesEncryptName = HotSpotGraphBuilderPlugins.lookupIntrinsicName(config, "com/sun/crypto/provider/AESCrypt", "implEncryptBlock", "encryptBlock");
@@ -34,6 +34,8 @@ import org.graalvm.compiler.runtime.RuntimeProvider;
 import org.junit.Before;
 import org.junit.Test;
 
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+
 public class HotSpotBase64Test extends HotSpotGraalCompilerTest {
 
     // @formatter:off
@@ -46,9 +48,34 @@ public class HotSpotBase64Test extends HotSpotGraalCompilerTest {
         assumeTrue("Enable test case when the hotspot intrinsic is available", rt.getVMConfig().useBase64Intrinsics());
     }
 
+    private static void assumeDecodeIntrinsic() {
+        HotSpotGraalRuntimeProvider rt = (HotSpotGraalRuntimeProvider) Graal.getRequiredCapability(RuntimeProvider.class);
+        assumeTrue("Enable test case when the hotspot decode intrinsic is available", rt.getVMConfig().useBase64DecodeIntrinsic());
+    }
+
     @Test
     public void testEncode() {
         test(getResolvedJavaMethod(Base64.Encoder.class, "encode", byte[].class), Base64.getEncoder(), lipsum.getBytes());
     }
 
+    @Test
+    public void testDecode() {
+        assumeDecodeIntrinsic();
+        ResolvedJavaMethod decode = getResolvedJavaMethod(Base64.Decoder.class, "decode", byte[].class);
+        test(decode, Base64.getDecoder(), Base64.getEncoder().encode(lipsum.getBytes()));
+        test(decode, Base64.getUrlDecoder(), Base64.getUrlEncoder().encode(lipsum.getBytes()));
+        test(decode, Base64.getMimeDecoder(), Base64.getMimeEncoder().encode(lipsum.getBytes()));
+    }
+
+    @Test
+    public void testDecodeIllegal() {
+        assumeDecodeIntrinsic();
+        byte[] encoded = Base64.getEncoder().encode(lipsum.getBytes());
+        encoded[encoded.length / 2] = '*';
+        // the basic decoder rejects the input, the MIME decoder skips the illegal character
+        ResolvedJavaMethod decode = getResolvedJavaMethod(Base64.Decoder.class, "decode", byte[].class);
+        test(decode, Base64.getDecoder(), encoded);
+        test(decode, Base64.getMimeDecoder(), encoded);
+    }
+
 }
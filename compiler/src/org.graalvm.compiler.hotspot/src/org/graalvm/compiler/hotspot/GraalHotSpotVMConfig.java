@@ -132,6 +132,7 @@ public class GraalHotSpotVMConfig extends GraalHotSpotVMConfigAccess {
     public final boolean useAESCTRIntrinsics = getFlag("UseAESCTRIntrinsics", Boolean.class, false, (JDK == 8 && !IS_OPENJDK) || JDK >= 9);
     public final boolean useCRC32Intrinsics = getFlag("UseCRC32Intrinsics", Boolean.class);
     public final boolean useCRC32CIntrinsics = getFlag("UseCRC32CIntrinsics", Boolean.class, false, JDK >= 9); // JDK-8073583
+    public final boolean useAdler32Intrinsics = getFlag("UseAdler32Intrinsics", Boolean.class, false, JDK >= 9); // JDK-8132081
     public final boolean useThreadLocalPolling;
     {
         if (JDK >= 14) {
@@ -187,6 +188,19 @@ public class GraalHotSpotVMConfig extends GraalHotSpotVMConfigAccess {
         return useBase64Intrinsics && base64EncodeBlock != 0;
     }
 
+    public boolean useBase64DecodeIntrinsic() {
+        return useBase64Intrinsics && base64DecodeBlock != 0;
+    }
+
+    /**
+     * JDK-8268276 added the {@code isMIME} parameter to {@code Base64.Decoder.decodeBlock} and to
+     * its stub in JDK 18 and it was backported to 17.0.2. JDK 16 and older JDK 17 updates only have
+     * the {@code ([BII[BIZ)I} variant.
+     */
+    public boolean base64DecodeBlockHasIsMIME() {
+        return JDK >= 18 || (JDK == 17 && JDK_UPDATE >= 2);
+    }
+
     public boolean useMontgomeryMultiplyIntrinsic() {
         return useMontgomeryMultiplyIntrinsic && montgomeryMultiply != 0;
     }
@@ -737,6 +751,7 @@ public class GraalHotSpotVMConfig extends GraalHotSpotVMConfigAccess {
     public final long counterModeAESCrypt = getFieldValue("StubRoutines::_counterMode_AESCrypt", Long.class, "address", 0L, (JDK == 8 && !IS_OPENJDK) || JDK >= 9);
     public final long ghashProcessBlocks = getFieldValue("StubRoutines::_ghash_processBlocks", Long.class, "address", 0L, isJDK8OrJDK11Plus);
     public final long base64EncodeBlock = getFieldValue("StubRoutines::_base64_encodeBlock", Long.class, "address", 0L, isJDK11Plus);
+    public final long base64DecodeBlock = getFieldValue("StubRoutines::_base64_decodeBlock", Long.class, "address", 0L, JDK >= 16); // JDK-8248188
     public final long crc32cTableTddr = getFieldValue("StubRoutines::_crc32c_table_addr", Long.class, "address", 0L, isJDK11Plus);
     public final long updateBytesCRC32C = getFieldValue("StubRoutines::_updateBytesCRC32C", Long.class, "address", 0L, isJDK11Plus);
     public final long updateBytesAdler32 = getFieldValue("StubRoutines::_updateBytesAdler32", Long.class, "address", 0L, isJDK11Plus);
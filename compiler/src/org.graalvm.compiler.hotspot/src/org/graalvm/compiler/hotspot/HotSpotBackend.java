@@ -278,6 +278,19 @@ public abstract class HotSpotBackend extends Backend implements FrameMap.Referen
     public static final HotSpotForeignCallDescriptor BASE64_ENCODE_BLOCK = new HotSpotForeignCallDescriptor(LEAF, NOT_REEXECUTABLE, any(), "base64EncodeBlock", void.class, Word.class,
                     int.class, int.class, Word.class, int.class, boolean.class);
 
+    /**
+     * Descriptor for {@code StubRoutines::_base64_decodeBlock}.
+     */
+    public static final HotSpotForeignCallDescriptor BASE64_DECODE_BLOCK = new HotSpotForeignCallDescriptor(LEAF, NOT_REEXECUTABLE, any(), "base64DecodeBlock", int.class, Word.class,
+                    int.class, int.class, Word.class, int.class, boolean.class, boolean.class);
+
+    /**
+     * Descriptor for {@code StubRoutines::_base64_decodeBlock} before JDK-8268276 added the
+     * {@code isMIME} parameter.
+     */
+    public static final HotSpotForeignCallDescriptor BASE64_DECODE_BLOCK_WITHOUT_MIME = new HotSpotForeignCallDescriptor(LEAF, NOT_REEXECUTABLE, any(), "base64DecodeBlock", int.class,
+                    Word.class, int.class, int.class, Word.class, int.class, boolean.class);
+
     /**
      * Descriptor for {@code StubRoutines::_counterMode_AESCrypt}.
      */
@@ -307,6 +320,12 @@ public abstract class HotSpotBackend extends Backend implements FrameMap.Referen
     public static final HotSpotForeignCallDescriptor UPDATE_BYTES_CRC32C = new HotSpotForeignCallDescriptor(LEAF_NO_VZERO, NOT_REEXECUTABLE, any(), "updateBytesCRC32C", int.class, int.class,
                     WordBase.class, int.class);
 
+    /**
+     * Descriptor for {@code StubRoutines::_updateBytesAdler32}.
+     */
+    public static final HotSpotForeignCallDescriptor UPDATE_BYTES_ADLER32 = new HotSpotForeignCallDescriptor(LEAF, NOT_REEXECUTABLE, any(), "updateBytesAdler32", int.class, int.class,
+                    WordBase.class, int.class);
+
     public static String copyMemoryName = JavaVersionUtil.JAVA_SPEC <= 8 ? "copyMemory" : "copyMemory0";
 
     /**
@@ -27,9 +27,12 @@ package org.graalvm.compiler.hotspot.meta;
 import static jdk.vm.ci.services.Services.IS_IN_NATIVE_IMAGE;
 import static org.graalvm.compiler.core.common.GraalOptions.GeneratePIC;
 import static org.graalvm.compiler.hotspot.GraalHotSpotVMConfigAccess.JDK;
+import static org.graalvm.compiler.hotspot.HotSpotBackend.BASE64_DECODE_BLOCK;
+import static org.graalvm.compiler.hotspot.HotSpotBackend.BASE64_DECODE_BLOCK_WITHOUT_MIME;
 import static org.graalvm.compiler.hotspot.HotSpotBackend.BASE64_ENCODE_BLOCK;
 import static org.graalvm.compiler.hotspot.HotSpotBackend.CRC_TABLE_LOCATION;
 import static org.graalvm.compiler.hotspot.HotSpotBackend.GHASH_PROCESS_BLOCKS;
+import static org.graalvm.compiler.hotspot.HotSpotBackend.UPDATE_BYTES_ADLER32;
 import static org.graalvm.compiler.hotspot.HotSpotBackend.UPDATE_BYTES_CRC32;
 import static org.graalvm.compiler.hotspot.HotSpotBackend.UPDATE_BYTES_CRC32C;
 import static org.graalvm.compiler.hotspot.meta.HotSpotAOTProfilingPlugin.Options.TieredAOT;
@@ -221,6 +224,7 @@ public class HotSpotGraphBuilderPlugins {
                 registerAESPlugins(invocationPlugins, config, replacements);
                 registerCRC32Plugins(invocationPlugins, config, replacements);
                 registerCRC32CPlugins(invocationPlugins, config, replacements);
+                registerAdler32Plugins(invocationPlugins, config, replacements);
                 registerBigIntegerPlugins(invocationPlugins, config, replacements);
                 registerSHAPlugins(invocationPlugins, config, replacements);
                 registerGHASHPlugins(invocationPlugins, config, metaAccess);
@@ -953,6 +957,53 @@ public class HotSpotGraphBuilderPlugins {
                                 }
                             });
         }
+        if (config.useBase64DecodeIntrinsic()) {
+            if (config.base64DecodeBlockHasIsMIME()) {
+                // decodeBlock has more arguments than there are apply methods
+                plugins.register(new InvocationPlugin() {
+                    @Override
+                    public boolean defaultHandler(GraphBuilderContext b, ResolvedJavaMethod targetMethod, Receiver receiver, ValueNode... args) {
+                        // args[0] is the receiver
+                        ValueNode[] addresses = decodeBlockAddresses(b, metaAccess, args[1], args[4]);
+                        b.addPush(JavaKind.Int, new ForeignCallNode(BASE64_DECODE_BLOCK, addresses[0], args[2], args[3], addresses[1], args[5], args[6], args[7]));
+                        return true;
+                    }
+                }, "java.util.Base64$Decoder", "decodeBlock", Receiver.class, byte[].class, int.class, int.class, byte[].class, int.class, boolean.class, boolean.class);
+            } else {
+                Registration r = new Registration(plugins, "java.util.Base64$Decoder");
+                r.register7("decodeBlock",
+                                Receiver.class,
+                                byte[].class,
+                                int.class,
+                                int.class,
+                                byte[].class,
+                                int.class,
+                                boolean.class,
+                                new InvocationPlugin() {
+                                    @Override
+                                    public boolean apply(GraphBuilderContext b,
+                                                    ResolvedJavaMethod targetMethod,
+                                                    Receiver receiver,
+                                                    ValueNode src,
+                                                    ValueNode sp,
+                                                    ValueNode sl,
+                                                    ValueNode dst,
+                                                    ValueNode dp,
+                                                    ValueNode isURL) {
+                                        ValueNode[] addresses = decodeBlockAddresses(b, metaAccess, src, dst);
+                                        b.addPush(JavaKind.Int, new ForeignCallNode(BASE64_DECODE_BLOCK_WITHOUT_MIME, addresses[0], sp, sl, addresses[1], dp, isURL));
+                                        return true;
+                                    }
+                                });
+            }
+        }
+    }
+
+    private static ValueNode[] decodeBlockAddresses(GraphBuilderContext b, MetaAccessProvider metaAccess, ValueNode src, ValueNode dst) {
+        int byteArrayBaseOffset = metaAccess.getArrayBaseOffset(JavaKind.Byte);
+        ComputeObjectAddressNode srcAddress = b.add(new ComputeObjectAddressNode(src, ConstantNode.forInt(byteArrayBaseOffset)));
+        ComputeObjectAddressNode dstAddress = b.add(new ComputeObjectAddressNode(dst, ConstantNode.forInt(byteArrayBaseOffset)));
+        return new ValueNode[]{srcAddress, dstAddress};
     }
 
     private static void registerCRC32Plugins(InvocationPlugins plugins, GraalHotSpotVMConfig config, Replacements replacements) {
@@ -1017,6 +1068,29 @@ public class HotSpotGraphBuilderPlugins {
         }
     }
 
+    private static void registerAdler32Plugins(InvocationPlugins plugins, GraalHotSpotVMConfig config, Replacements replacements) {
+        if (JavaVersionUtil.JAVA_SPEC > 8 && config.useAdler32Intrinsics) {
+            Registration r = new Registration(plugins, "java.util.zip.Adler32", replacements);
+            r.register4("updateBytes", int.class, byte[].class, int.class, int.class, new InvocationPlugin() {
+                @Override
+                public boolean apply(GraphBuilderContext b, ResolvedJavaMethod targetMethod, Receiver receiver, ValueNode adler, ValueNode buf, ValueNode off, ValueNode len) {
+                    int byteArrayBaseOffset = b.getMetaAccess().getArrayBaseOffset(JavaKind.Byte);
+                    ValueNode bufAddr = b.add(new ComputeObjectAddressNode(buf, new AddNode(ConstantNode.forInt(byteArrayBaseOffset), off)));
+                    b.addPush(JavaKind.Int, new ForeignCallNode(UPDATE_BYTES_ADLER32, adler, bufAddr, len));
+                    return true;
+                }
+            });
+            r.register4("updateByteBuffer", int.class, long.class, int.class, int.class, new InvocationPlugin() {
+                @Override
+                public boolean apply(GraphBuilderContext b, ResolvedJavaMethod targetMethod, Receiver receiver, ValueNode adler, ValueNode addr, ValueNode off, ValueNode len) {
+                    ValueNode bufAddr = b.add(new AddNode(addr, new SignExtendNode(off, 32, 64)));
+                    b.addPush(JavaKind.Int, new ForeignCallNode(UPDATE_BYTES_ADLER32, adler, bufAddr, len));
+                    return true;
+                }
+            });
+        }
+    }
+
     private static void registerArraysSupportPlugins(InvocationPlugins plugins, GraalHotSpotVMConfig config, Replacements replacements) {
         if (JavaVersionUtil.JAVA_SPEC > 8 && config.useVectorizedMismatchIntrinsic) {
             Registration r = new Registration(plugins, "jdk.internal.util.ArraysSupport", replacements);
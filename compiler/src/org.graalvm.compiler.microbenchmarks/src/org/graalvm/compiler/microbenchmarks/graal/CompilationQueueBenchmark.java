@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.microbenchmarks.graal;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.graalvm.compiler.truffle.runtime.ShardedCompilationQueue;
+import org.graalvm.compiler.truffle.runtime.TraversingBlockingQueue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Compares the throughput of the sharded Truffle compilation queue with the default compilation
+ * queue, {@link TraversingBlockingQueue}, when several threads submit and take compilation requests
+ * concurrently. The traversing queue is used with the weight and priority computation of
+ * compilation tasks applied to plain entries. The threshold scaling done by the dynamic thresholds
+ * variant of the default queue does not change the order of the entries and is not included.
+ */
+public class CompilationQueueBenchmark extends GraalBenchmark {
+
+    private static final int TIERS = 3;
+    private static final int THREADS = 8;
+
+    static final class Entry implements Runnable, Comparable<Entry> {
+        private static final AtomicLong SEQUENCE = new AtomicLong();
+
+        final int tier;
+        final long sequence = SEQUENCE.getAndIncrement();
+        private long lastTime;
+        private double weight;
+
+        Entry(int tier) {
+            this.tier = tier;
+        }
+
+        @Override
+        public void run() {
+        }
+
+        /** Mirrors the weight update of a compilation task, with a fake call count. */
+        void updateWeight(long time) {
+            long elapsed = time - lastTime;
+            if (elapsed >= 1_000_000) {
+                int count = (int) (sequence % 1000);
+                weight = (1.0 + (double) count / elapsed) * count;
+                lastTime = time;
+            }
+        }
+
+        boolean isHigherPriorityThan(Entry other) {
+            if (tier != other.tier) {
+                return tier < other.tier;
+            }
+            return weight > other.weight;
+        }
+
+        @Override
+        public int compareTo(Entry o) {
+            int result = Integer.compare(tier, o.tier);
+            return result != 0 ? result : Long.compare(sequence, o.sequence);
+        }
+    }
+
+    static final class TraversingEntryQueue extends TraversingBlockingQueue {
+        @Override
+        protected boolean updatePriority(Runnable entry, long time) {
+            ((Entry) entry).updateWeight(time);
+            return true;
+        }
+
+        @Override
+        protected boolean isHigherPriority(Runnable entry, Runnable other) {
+            return ((Entry) entry).isHigherPriorityThan((Entry) other);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class QueueState {
+        @Param({"sharded", "traversing"}) String kind;
+        @Param({"1000"}) int initialSize;
+
+        BlockingQueue<Runnable> queue;
+
+        @Setup
+        public void setup() {
+            if (kind.equals("sharded")) {
+                queue = new ShardedCompilationQueue(THREADS, TIERS, (e) -> ((Entry) e).tier);
+            } else {
+                queue = new TraversingEntryQueue();
+            }
+            for (int i = 0; i < initialSize; i++) {
+                queue.offer(new Entry(i % TIERS));
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        int next;
+    }
+
+    @Benchmark
+    @Threads(THREADS)
+    public Runnable offerAndPoll(QueueState state, ThreadState thread) {
+        state.queue.offer(new Entry(thread.next++ % TIERS));
+        return state.queue.poll();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Runnable offerAndPollSingleThread(QueueState state, ThreadState thread) {
+        state.queue.offer(new Entry(thread.next++ % TIERS));
+        return state.queue.poll();
+    }
+}
@@ -86,11 +86,15 @@ public final class NewFrameNode extends FixedWithNextNode implements IterableNod
     private final boolean intrinsifyAccessors;
     private final JavaKind[] frameSlotKinds;
     private final int frameSize;
+    private final int numberOfIndexedSlots;
 
     private final SpeculationReason intrinsifyAccessorsSpeculation;
 
     private static JavaKind asJavaKind(JavaConstant frameSlotTag) {
-        int tagValue = frameSlotTag.asInt();
+        return asJavaKind(frameSlotTag.asInt());
+    }
+
+    private static JavaKind asJavaKind(int tagValue) {
         JavaKind rawKind = TruffleCompilerRuntime.getRuntime().getJavaKindForFrameSlotKind(tagValue);
         switch (rawKind) {
             case Boolean:
@@ -159,8 +163,19 @@ public final class NewFrameNode extends FixedWithNextNode implements IterableNod
         final int slotsArrayLength = constantReflection.readArrayLength(slotArray);
         final int frameLength = constantReflection.readFieldValue(types.fieldFrameDescriptorSize, frameDescriptor).asInt();
 
-        JavaKind[] frameSlotKindsCandidate = new JavaKind[frameLength];
-        int limit = -1;
+        /*
+         * Indexed slots occupy the first indices of the frame. Their number is final, so no
+         * defensive checks are necessary. The slot kinds can still change and are copied out like
+         * the kinds of the frame slots.
+         */
+        JavaConstant indexedSlotTags = constantReflection.readFieldValue(types.fieldFrameDescriptorIndexedSlotTags, frameDescriptor);
+        this.numberOfIndexedSlots = constantReflection.readArrayLength(indexedSlotTags);
+
+        JavaKind[] frameSlotKindsCandidate = new JavaKind[Math.max(frameLength, numberOfIndexedSlots)];
+        for (int i = 0; i < numberOfIndexedSlots; i++) {
+            frameSlotKindsCandidate[i] = asJavaKind(constantReflection.readArrayElement(indexedSlotTags, i).asInt());
+        }
+        int limit = numberOfIndexedSlots - 1;
         for (int i = 0; i < slotsArrayLength; i++) {
             JavaConstant slot = constantReflection.readArrayElement(slotArray, i);
             if (slot.isNonNull()) {
@@ -228,6 +243,10 @@ public final class NewFrameNode extends FixedWithNextNode implements IterableNod
         return index >= 0 && index < frameSize && frameSlotKinds[index] != null;
     }
 
+    public boolean isValidIndexedSlotIndex(int index) {
+        return index >= 0 && index < numberOfIndexedSlots;
+    }
+
     private static ResolvedJavaField findField(ResolvedJavaField[] fields, String fieldName) {
         for (ResolvedJavaField field : fields) {
             if (field.getName().equals(fieldName)) {
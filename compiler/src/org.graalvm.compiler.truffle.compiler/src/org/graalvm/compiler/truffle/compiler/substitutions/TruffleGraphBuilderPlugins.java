@@ -531,6 +531,13 @@ public class TruffleGraphBuilderPlugins {
         registerFrameAccessors(r, JavaKind.Float, constantReflection, types);
         registerFrameAccessors(r, JavaKind.Boolean, constantReflection, types);
         registerFrameAccessors(r, JavaKind.Byte, constantReflection, types);
+        registerIndexedFrameAccessors(r, JavaKind.Object);
+        registerIndexedFrameAccessors(r, JavaKind.Long);
+        registerIndexedFrameAccessors(r, JavaKind.Int);
+        registerIndexedFrameAccessors(r, JavaKind.Double);
+        registerIndexedFrameAccessors(r, JavaKind.Float);
+        registerIndexedFrameAccessors(r, JavaKind.Boolean);
+        registerIndexedFrameAccessors(r, JavaKind.Byte);
     }
 
     /**
@@ -593,6 +600,69 @@ public class TruffleGraphBuilderPlugins {
         });
     }
 
+    /**
+     * Intrinsifies the accessors of indexed slots, for example {@code getInt(int)}, under the same
+     * conditions as {@link #registerFrameAccessors}, except that the slot is identified by a
+     * constant index instead of a constant FrameSlot. The number of indexed slots of a
+     * FrameDescriptor never changes, so no version assumption is needed to validate the index.
+     */
+    private static void registerIndexedFrameAccessors(Registration r, JavaKind accessKind) {
+        TruffleCompilerRuntime runtime = getRuntime();
+        int accessTag = runtime.getFrameSlotKindTagForJavaKind(accessKind);
+        String nameSuffix = accessKind.name();
+        r.register2("get" + nameSuffix, Receiver.class, int.class, new InvocationPlugin() {
+            @Override
+            public boolean apply(GraphBuilderContext b, ResolvedJavaMethod targetMethod, Receiver frameNode, ValueNode frameSlotNode) {
+                int frameSlotIndex = maybeGetConstantIndexedSlot(frameNode, frameSlotNode);
+                if (frameSlotIndex >= 0) {
+                    b.addPush(accessKind, new VirtualFrameGetNode(frameNode, frameSlotIndex, accessKind, accessTag));
+                    return true;
+                }
+                return false;
+            }
+        });
+
+        r.register3("set" + nameSuffix, Receiver.class, int.class, getJavaClass(accessKind), new InvocationPlugin() {
+            @Override
+            public boolean apply(GraphBuilderContext b, ResolvedJavaMethod targetMethod, Receiver frameNode, ValueNode frameSlotNode, ValueNode value) {
+                int frameSlotIndex = maybeGetConstantIndexedSlot(frameNode, frameSlotNode);
+                if (frameSlotIndex >= 0) {
+                    b.add(new VirtualFrameSetNode(frameNode, frameSlotIndex, accessTag, value));
+                    return true;
+                }
+                return false;
+            }
+        });
+
+        r.register2("is" + nameSuffix, Receiver.class, int.class, new InvocationPlugin() {
+            @Override
+            public boolean apply(GraphBuilderContext b, ResolvedJavaMethod targetMethod, Receiver frameNode, ValueNode frameSlotNode) {
+                int frameSlotIndex = maybeGetConstantIndexedSlot(frameNode, frameSlotNode);
+                if (frameSlotIndex >= 0) {
+                    b.addPush(JavaKind.Boolean, new VirtualFrameIsNode(frameNode, frameSlotIndex, accessTag));
+                    return true;
+                }
+                return false;
+            }
+        });
+    }
+
+    static int maybeGetConstantIndexedSlot(Receiver frameNode, ValueNode frameSlotNode) {
+        if (frameSlotNode.isConstant()) {
+            ValueNode frameNodeValue = frameNode.get(false);
+            if (frameNodeValue instanceof NewFrameNode) {
+                NewFrameNode newFrameNode = (NewFrameNode) frameNodeValue;
+                if (newFrameNode.getIntrinsifyAccessors()) {
+                    int index = frameSlotNode.asJavaConstant().asInt();
+                    if (newFrameNode.isValidIndexedSlotIndex(index)) {
+                        return index;
+                    }
+                }
+            }
+        }
+        return -1;
+    }
+
     static int maybeGetConstantFrameSlotIndex(Receiver frameNode, ValueNode frameSlotNode, ConstantReflectionProvider constantReflection, KnownTruffleTypes types) {
         if (frameSlotNode.isConstant()) {
             ValueNode frameNodeValue = frameNode.get(false);
@@ -659,6 +729,19 @@ public class TruffleGraphBuilderPlugins {
                 return false;
             }
         });
+
+        r.register2("clear", Receiver.class, int.class, new InvocationPlugin() {
+            @Override
+            public boolean apply(GraphBuilderContext b, ResolvedJavaMethod targetMethod, Receiver receiver, ValueNode frameSlot) {
+                int frameSlotIndex = maybeGetConstantIndexedSlot(receiver, frameSlot);
+                if (frameSlotIndex >= 0) {
+                    TruffleCompilerRuntime runtime = getRuntime();
+                    b.add(new VirtualFrameClearNode(receiver, frameSlotIndex, runtime.getFrameSlotKindTagForJavaKind(JavaKind.Illegal)));
+                    return true;
+                }
+                return false;
+            }
+        });
     }
 
     public static void registerUnsafeCast(Registration r, boolean canDelayIntrinsification, EconomicSet<ResolvedJavaType> primitiveBoxTypes) {
@@ -243,6 +243,9 @@ public final class PolyglotCompilerOptions {
     @Option(help = "Compiles created call targets immediately with last tier. Disables background compilation if enabled.", category = OptionCategory.INTERNAL)
     public static final OptionKey<Boolean> CompileAOTOnCreate = new OptionKey<>(false);
 
+    @Option(help = "Path of a file used to remember compiled call targets across runs. Call targets compiled in a previous run with the same file are compiled on their first call.", category = OptionCategory.EXPERT)
+    public static final OptionKey<String> CompilationHistoryFile = new OptionKey<>("");
+
     @Option(help = "Enable asynchronous truffle compilation in background threads", category = OptionCategory.EXPERT)
     public static final OptionKey<Boolean> BackgroundCompilation = new OptionKey<>(true);
 
@@ -503,6 +506,9 @@ public final class PolyglotCompilerOptions {
     @Option(help = "Use a traversing compilation queue.", category = OptionCategory.INTERNAL)
     public static final OptionKey<Boolean> TraversingCompilationQueue = new OptionKey<>(true);
 
+    @Option(help = "Use a compilation queue sharded per compiler thread with work stealing. Takes precedence over the traversing compilation queue and does not scale compilation thresholds dynamically.", category = OptionCategory.INTERNAL)
+    public static final OptionKey<Boolean> ShardedCompilationQueue = new OptionKey<>(false);
+
     @Option(help = "Traversing queue uses rate as priority for both tier.", category = OptionCategory.INTERNAL)
     public static final OptionKey<Boolean> TraversingQueueWeightingBothTiers = new OptionKey<>(true);
 
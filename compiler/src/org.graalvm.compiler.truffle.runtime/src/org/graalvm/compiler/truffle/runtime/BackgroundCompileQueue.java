@@ -152,7 +152,9 @@ public class BackgroundCompileQueue {
     }
 
     private BlockingQueue<Runnable> createQueue(OptimizedCallTarget callTarget, int threads) {
-        if (callTarget.getOptionValue(PolyglotCompilerOptions.TraversingCompilationQueue)) {
+        if (callTarget.getOptionValue(PolyglotCompilerOptions.ShardedCompilationQueue)) {
+            return new ShardedCompilationQueue(threads);
+        } else if (callTarget.getOptionValue(PolyglotCompilerOptions.TraversingCompilationQueue)) {
             if (callTarget.getOptionValue(PolyglotCompilerOptions.DynamicCompilationThresholds) && callTarget.getOptionValue(PolyglotCompilerOptions.BackgroundCompilation)) {
                 double minScale = callTarget.getOptionValue(PolyglotCompilerOptions.DynamicCompilationThresholdsMinScale);
                 int minNormalLoad = callTarget.getOptionValue(PolyglotCompilerOptions.DynamicCompilationThresholdsMinNormalLoad);
@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.truffle.runtime;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+
+import org.graalvm.compiler.truffle.common.TruffleCompilerListener.CompilationResultInfo;
+import org.graalvm.compiler.truffle.common.TruffleCompilerListener.GraphInfo;
+import org.graalvm.compiler.truffle.options.PolyglotCompilerOptions;
+import org.graalvm.options.OptionValues;
+
+import com.oracle.truffle.api.nodes.LanguageInfo;
+import com.oracle.truffle.api.nodes.RootNode;
+import com.oracle.truffle.api.source.SourceSection;
+
+/**
+ * Remembers which call targets of an engine were compiled, so that a later run of the same
+ * application can compile them on their first call instead of profiling them up to the compilation
+ * thresholds again. The history is stored in the file given by the
+ * {@link PolyglotCompilerOptions#CompilationHistoryFile} option, it is read when the engine is
+ * created and written when the engine is closed.
+ *
+ * A call target is identified by its language, name and source section, including a hash of the
+ * source section characters, so that call targets whose code changed are profiled normally. The
+ * history of a previous run is ignored if it was recorded with different compilation tiers.
+ *
+ * Only the call targets seen in the current run, i.e. compiled or looked up successfully in the
+ * history, are stored, so that the history does not keep growing with call targets that are no
+ * longer used.
+ */
+public final class CompilationHistory {
+
+    private static final String HEADER_PREFIX = "# Truffle compilation history v1 ";
+
+    private final Path file;
+    private final String header;
+    private final Set<String> previouslyCompiled;
+    /** The call targets that were compiled or found in the history in this run. */
+    private final Set<String> seen = ConcurrentHashMap.newKeySet();
+
+    private CompilationHistory(Path file, String header, Set<String> previouslyCompiled) {
+        this.file = file;
+        this.header = header;
+        this.previouslyCompiled = previouslyCompiled;
+    }
+
+    static CompilationHistory load(EngineData engine, OptionValues options) {
+        Path file = Paths.get(options.get(PolyglotCompilerOptions.CompilationHistoryFile));
+        String header = HEADER_PREFIX + "mode=" + options.get(PolyglotCompilerOptions.Mode) + " multiTier=" + engine.multiTier;
+        Set<String> previouslyCompiled = new HashSet<>();
+        if (Files.isRegularFile(file)) {
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                if (header.equals(reader.readLine())) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        if (!line.isEmpty()) {
+                            previouslyCompiled.add(line);
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                engine.getEngineLogger().log(Level.WARNING, "Could not read the compilation history " + file + ": " + e.getMessage());
+                previouslyCompiled.clear();
+            }
+        }
+        return new CompilationHistory(file, header, Collections.unmodifiableSet(previouslyCompiled));
+    }
+
+    /**
+     * Returns {@code true} if the given call target was compiled in a previous run.
+     */
+    boolean wasCompiled(OptimizedCallTarget target) {
+        if (previouslyCompiled.isEmpty()) {
+            return false;
+        }
+        String key = keyOf(target);
+        if (key != null && previouslyCompiled.contains(key)) {
+            seen.add(key);
+            return true;
+        }
+        return false;
+    }
+
+    void onCompilationSuccess(OptimizedCallTarget target) {
+        String key = keyOf(target);
+        if (key != null) {
+            seen.add(key);
+        }
+    }
+
+    void store(EngineData engine) {
+        if (seen.isEmpty() || seen.equals(previouslyCompiled)) {
+            return;
+        }
+        Set<String> entries = new TreeSet<>(seen);
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path tmp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                writer.write(header);
+                writer.newLine();
+                for (String entry : entries) {
+                    writer.write(entry);
+                    writer.newLine();
+                }
+            }
+            // Concurrently closing engines must not observe a partially written history.
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            engine.getEngineLogger().log(Level.WARNING, "Could not write the compilation history " + file + ": " + e.getMessage());
+        }
+    }
+
+    private static String keyOf(OptimizedCallTarget target) {
+        RootNode rootNode = target.getRootNode();
+        SourceSection section = rootNode.getSourceSection();
+        if (section == null || !section.isAvailable()) {
+            return null;
+        }
+        LanguageInfo language = rootNode.getLanguageInfo();
+        StringBuilder key = new StringBuilder();
+        key.append(language != null ? language.getId() : "");
+        key.append(':').append(rootNode.getName());
+        key.append(':').append(section.getSource().getName());
+        key.append(':').append(section.getCharIndex()).append('+').append(section.getCharLength());
+        key.append(':').append(Integer.toHexString(section.getCharacters().toString().hashCode()));
+        for (int i = 0; i < key.length(); i++) {
+            if (key.charAt(i) == '\n' || key.charAt(i) == '\r') {
+                return null;
+            }
+        }
+        return key.toString();
+    }
+
+    static void installListener(GraalTruffleRuntime runtime) {
+        runtime.addListener(new AbstractGraalTruffleRuntimeListener(runtime) {
+            @Override
+            public void onCompilationSuccess(OptimizedCallTarget target, TruffleInlining inliningDecision, GraphInfo graph, CompilationResultInfo result, int tier) {
+                CompilationHistory history = target.engine.compilationHistory;
+                if (history != null) {
+                    history.onCompilationSuccess(target);
+                }
+            }
+
+            @Override
+            public void onEngineClosed(EngineData engine) {
+                CompilationHistory history = engine.compilationHistory;
+                if (history != null) {
+                    history.store(engine);
+                }
+            }
+        });
+    }
+}
@@ -167,6 +167,10 @@ public final class CompilationTask implements TruffleCompilationTask, Callable<V
         return !callTarget.engine.firstTierOnly;
     }
 
+    BackgroundCompileQueue.Priority.Tier priorityTier() {
+        return priority.tier;
+    }
+
     public Future<?> getFuture() {
         return future;
     }
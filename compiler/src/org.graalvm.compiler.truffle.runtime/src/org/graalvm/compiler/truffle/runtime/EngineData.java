@@ -31,6 +31,7 @@ import static org.graalvm.compiler.truffle.options.PolyglotCompilerOptions.Compi
 import static org.graalvm.compiler.truffle.options.PolyglotCompilerOptions.CompilationExceptionsArePrinted;
 import static org.graalvm.compiler.truffle.options.PolyglotCompilerOptions.CompilationExceptionsAreThrown;
 import static org.graalvm.compiler.truffle.options.PolyglotCompilerOptions.CompilationFailureAction;
+import static org.graalvm.compiler.truffle.options.PolyglotCompilerOptions.CompilationHistoryFile;
 import static org.graalvm.compiler.truffle.options.PolyglotCompilerOptions.CompilationStatisticDetails;
 import static org.graalvm.compiler.truffle.options.PolyglotCompilerOptions.CompilationStatistics;
 import static org.graalvm.compiler.truffle.options.PolyglotCompilerOptions.CompileAOTOnCreate;
@@ -101,6 +102,7 @@ public final class EngineData {
     @CompilationFinal OptionValues engineOptions;
     final TruffleSplittingStrategy.SplitStatisticsData splittingStatistics;
     @CompilationFinal public StatisticsListener statisticsListener;
+    @CompilationFinal public CompilationHistory compilationHistory;
 
     /*
      * Important while visible, options must not be modified except in loadOptions.
@@ -284,6 +286,7 @@ public final class EngineData {
         this.profilingEnabled = options.get(Profiling);
         this.traceTransferToInterpreter = options.get(TraceTransferToInterpreter);
         this.compilationFailureAction = computeCompilationFailureAction(options);
+        this.compilationHistory = options.get(CompilationHistoryFile).isEmpty() ? null : CompilationHistory.load(this, options);
         validateOptions();
         parsedCompileOnly = null;
     }
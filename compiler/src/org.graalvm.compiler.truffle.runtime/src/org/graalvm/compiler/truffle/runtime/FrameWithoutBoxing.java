@@ -59,6 +59,13 @@ public final class FrameWithoutBoxing implements VirtualFrame, MaterializedFrame
     public static final byte BYTE_TAG = 6;
     public static final byte ILLEGAL_TAG = 7;
 
+    /*
+     * Location identities of indexed slot accesses. Indexed slots never share an index with a
+     * FrameSlot, so their accesses cannot alias with FrameSlot accesses.
+     */
+    private static final Object OBJECT_LOCATION = new Object();
+    private static final Object PRIMITIVE_LOCATION = new Object();
+
     private static final Object[] EMPTY_OBJECT_ARRAY = {};
     private static final long[] EMPTY_LONG_ARRAY = {};
     private static final byte[] EMPTY_BYTE_ARRAY = {};
@@ -438,6 +445,230 @@ public final class FrameWithoutBoxing implements VirtualFrame, MaterializedFrame
         setLongUnsafe(slotIndex, slot, 0L);
     }
 
+    @Override
+    public Object getObject(int slot) throws FrameSlotTypeException {
+        boolean condition = verifyIndexedGet(slot, OBJECT_TAG);
+        return getIndexedObjectUnsafe(slot, condition);
+    }
+
+    private Object getIndexedObjectUnsafe(int slot, boolean condition) {
+        return unsafeGetObject(getLocals(), Unsafe.ARRAY_OBJECT_BASE_OFFSET + slot * (long) Unsafe.ARRAY_OBJECT_INDEX_SCALE, condition, OBJECT_LOCATION);
+    }
+
+    @Override
+    public void setObject(int slot, Object value) {
+        verifyIndexedSet(slot, OBJECT_TAG);
+        setIndexedObjectUnsafe(slot, value);
+    }
+
+    private void setIndexedObjectUnsafe(int slot, Object value) {
+        unsafePutObject(getLocals(), Unsafe.ARRAY_OBJECT_BASE_OFFSET + slot * (long) Unsafe.ARRAY_OBJECT_INDEX_SCALE, value, OBJECT_LOCATION);
+    }
+
+    @Override
+    public byte getByte(int slot) throws FrameSlotTypeException {
+        boolean condition = verifyIndexedGet(slot, BYTE_TAG);
+        return getIndexedByteUnsafe(slot, condition);
+    }
+
+    private byte getIndexedByteUnsafe(int slot, boolean condition) {
+        long offset = getPrimitiveOffset(slot);
+        return (byte) unsafeGetInt(getPrimitiveLocals(), offset, condition, PRIMITIVE_LOCATION);
+    }
+
+    @Override
+    public void setByte(int slot, byte value) {
+        verifyIndexedSet(slot, BYTE_TAG);
+        long offset = getPrimitiveOffset(slot);
+        unsafePutInt(getPrimitiveLocals(), offset, value, PRIMITIVE_LOCATION);
+    }
+
+    @Override
+    public boolean getBoolean(int slot) throws FrameSlotTypeException {
+        boolean condition = verifyIndexedGet(slot, BOOLEAN_TAG);
+        return getIndexedBooleanUnsafe(slot, condition);
+    }
+
+    private boolean getIndexedBooleanUnsafe(int slot, boolean condition) {
+        long offset = getPrimitiveOffset(slot);
+        return unsafeGetInt(getPrimitiveLocals(), offset, condition, PRIMITIVE_LOCATION) != 0;
+    }
+
+    @Override
+    public void setBoolean(int slot, boolean value) {
+        verifyIndexedSet(slot, BOOLEAN_TAG);
+        long offset = getPrimitiveOffset(slot);
+        unsafePutInt(getPrimitiveLocals(), offset, value ? 1 : 0, PRIMITIVE_LOCATION);
+    }
+
+    @Override
+    public int getInt(int slot) throws FrameSlotTypeException {
+        boolean condition = verifyIndexedGet(slot, INT_TAG);
+        return getIndexedIntUnsafe(slot, condition);
+    }
+
+    private int getIndexedIntUnsafe(int slot, boolean condition) {
+        long offset = getPrimitiveOffset(slot);
+        return unsafeGetInt(getPrimitiveLocals(), offset, condition, PRIMITIVE_LOCATION);
+    }
+
+    @Override
+    public void setInt(int slot, int value) {
+        verifyIndexedSet(slot, INT_TAG);
+        long offset = getPrimitiveOffset(slot);
+        unsafePutInt(getPrimitiveLocals(), offset, value, PRIMITIVE_LOCATION);
+    }
+
+    @Override
+    public long getLong(int slot) throws FrameSlotTypeException {
+        boolean condition = verifyIndexedGet(slot, LONG_TAG);
+        return getIndexedLongUnsafe(slot, condition);
+    }
+
+    private long getIndexedLongUnsafe(int slot, boolean condition) {
+        long offset = getPrimitiveOffset(slot);
+        return unsafeGetLong(getPrimitiveLocals(), offset, condition, PRIMITIVE_LOCATION);
+    }
+
+    @Override
+    public void setLong(int slot, long value) {
+        verifyIndexedSet(slot, LONG_TAG);
+        long offset = getPrimitiveOffset(slot);
+        unsafePutLong(getPrimitiveLocals(), offset, value, PRIMITIVE_LOCATION);
+    }
+
+    @Override
+    public float getFloat(int slot) throws FrameSlotTypeException {
+        boolean condition = verifyIndexedGet(slot, FLOAT_TAG);
+        return getIndexedFloatUnsafe(slot, condition);
+    }
+
+    private float getIndexedFloatUnsafe(int slot, boolean condition) {
+        long offset = getPrimitiveOffset(slot);
+        return unsafeGetFloat(getPrimitiveLocals(), offset, condition, PRIMITIVE_LOCATION);
+    }
+
+    @Override
+    public void setFloat(int slot, float value) {
+        verifyIndexedSet(slot, FLOAT_TAG);
+        long offset = getPrimitiveOffset(slot);
+        unsafePutFloat(getPrimitiveLocals(), offset, value, PRIMITIVE_LOCATION);
+    }
+
+    @Override
+    public double getDouble(int slot) throws FrameSlotTypeException {
+        boolean condition = verifyIndexedGet(slot, DOUBLE_TAG);
+        return getIndexedDoubleUnsafe(slot, condition);
+    }
+
+    private double getIndexedDoubleUnsafe(int slot, boolean condition) {
+        long offset = getPrimitiveOffset(slot);
+        return unsafeGetDouble(getPrimitiveLocals(), offset, condition, PRIMITIVE_LOCATION);
+    }
+
+    @Override
+    public void setDouble(int slot, double value) {
+        verifyIndexedSet(slot, DOUBLE_TAG);
+        long offset = getPrimitiveOffset(slot);
+        unsafePutDouble(getPrimitiveLocals(), offset, value, PRIMITIVE_LOCATION);
+    }
+
+    @Override
+    public Object getValue(int slot) {
+        byte tag = getTag(slot);
+        boolean condition = (tag == BOOLEAN_TAG);
+        if (condition) {
+            return getIndexedBooleanUnsafe(slot, condition);
+        }
+        condition = (tag == BYTE_TAG);
+        if (condition) {
+            return getIndexedByteUnsafe(slot, condition);
+        }
+        condition = (tag == INT_TAG);
+        if (condition) {
+            return getIndexedIntUnsafe(slot, condition);
+        }
+        condition = (tag == DOUBLE_TAG);
+        if (condition) {
+            return getIndexedDoubleUnsafe(slot, condition);
+        }
+        condition = (tag == LONG_TAG);
+        if (condition) {
+            return getIndexedLongUnsafe(slot, condition);
+        }
+        condition = (tag == FLOAT_TAG);
+        if (condition) {
+            return getIndexedFloatUnsafe(slot, condition);
+        }
+        condition = tag == OBJECT_TAG || tag == ILLEGAL_TAG;
+        assert condition;
+        return getIndexedObjectUnsafe(slot, condition);
+    }
+
+    @Override
+    public byte getTag(int slot) {
+        return getTags()[slot];
+    }
+
+    @Override
+    public boolean isObject(int slot) {
+        return getTag(slot) == OBJECT_TAG;
+    }
+
+    @Override
+    public boolean isByte(int slot) {
+        return getTag(slot) == BYTE_TAG;
+    }
+
+    @Override
+    public boolean isBoolean(int slot) {
+        return getTag(slot) == BOOLEAN_TAG;
+    }
+
+    @Override
+    public boolean isInt(int slot) {
+        return getTag(slot) == INT_TAG;
+    }
+
+    @Override
+    public boolean isLong(int slot) {
+        return getTag(slot) == LONG_TAG;
+    }
+
+    @Override
+    public boolean isFloat(int slot) {
+        return getTag(slot) == FLOAT_TAG;
+    }
+
+    @Override
+    public boolean isDouble(int slot) {
+        return getTag(slot) == DOUBLE_TAG;
+    }
+
+    @Override
+    public void clear(int slot) {
+        verifyIndexedSet(slot, ILLEGAL_TAG);
+        setIndexedObjectUnsafe(slot, null);
+        unsafePutLong(getPrimitiveLocals(), getPrimitiveOffset(slot), 0L, PRIMITIVE_LOCATION);
+    }
+
+    /*
+     * Indexed slots are allocated when the frame is created and never need a resize. The tags
+     * array access also performs the bounds check for the unsafe accesses that follow.
+     */
+    private void verifyIndexedSet(int slot, byte tag) {
+        getTags()[slot] = tag;
+    }
+
+    private boolean verifyIndexedGet(int slot, byte tag) throws FrameSlotTypeException {
+        boolean condition = getTags()[slot] == tag;
+        if (!condition) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            throw new FrameSlotTypeException();
+        }
+        return condition;
+    }
+
     @SuppressWarnings({"unchecked", "unused"})
     private static <T> T unsafeCast(Object value, Class<T> type, boolean condition, boolean nonNull, boolean exact) {
         return (T) value;
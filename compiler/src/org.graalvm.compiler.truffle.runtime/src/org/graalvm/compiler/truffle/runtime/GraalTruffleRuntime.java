@@ -440,6 +440,7 @@ public abstract class GraalTruffleRuntime implements TruffleRuntime, TruffleComp
         TraceASTCompilationListener.install(this);
         JFRListener.install(this);
         TruffleSplittingStrategy.installListener(this);
+        CompilationHistory.installListener(this);
         Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown));
     }
 
@@ -699,6 +699,12 @@ public abstract class OptimizedCallTarget implements CompilableTruffleAST, RootC
             } else {
                 this.initializedTimestamp = 0L;
             }
+            CompilationHistory history = engine.compilationHistory;
+            if (history != null && history.wasCompiled(this)) {
+                // Compiled in a previous run, so compile on the first call.
+                this.callCount = Math.max(this.callCount, engine.callThresholdInInterpreter);
+                this.callAndLoopCount = Math.max(this.callAndLoopCount, engine.callAndLoopThresholdInInterpreter);
+            }
             initialized = true;
         }
     }
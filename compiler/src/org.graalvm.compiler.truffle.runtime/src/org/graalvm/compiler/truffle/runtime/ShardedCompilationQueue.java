@@ -0,0 +1,336 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.truffle.runtime;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToIntFunction;
+
+/**
+ * A compilation queue that splits the pending tasks into several independently locked shards, one
+ * per compiler thread, instead of guarding all of them with a single lock.
+ *
+ * Submitting threads add tasks to a randomly chosen shard. Every compiler thread has a home shard
+ * from which it takes tasks first, and steals from the other shards when its home shard has no
+ * task of the tier being looked for. Within a shard, tasks are ordered by
+ * {@link CompilationTask#compareTo(CompilationTask)}, so the priority across the whole queue is
+ * only approximate. The tier ordering is preserved though: a task of a higher tier is only taken
+ * if no shard contains a task of a lower tier (e.g. first tier compilations are taken before last
+ * tier ones).
+ *
+ * Compiler threads only block on the shared lock when the queue is empty.
+ *
+ * The queue is public and can be used with other entries than compilation tasks so that it can be
+ * tested and benchmarked in isolation. Such entries must be {@link Comparable} and are mapped to
+ * their tier by a function passed to the constructor.
+ */
+public final class ShardedCompilationQueue extends AbstractQueue<Runnable> implements BlockingQueue<Runnable> {
+
+    private final ToIntFunction<Runnable> tierFunction;
+    private final int tiers;
+    private final Shard[] shards;
+    private final AtomicInteger nextHomeShard = new AtomicInteger();
+    private final ThreadLocal<Integer> homeShard;
+    /*
+     * Number of tasks per tier, used to find the lowest tier with pending tasks without locking
+     * the shards.
+     */
+    private final AtomicIntegerArray tierCounts;
+    private final AtomicInteger count = new AtomicInteger();
+    private final AtomicInteger waitingTakers = new AtomicInteger();
+    private final ReentrantLock takeLock = new ReentrantLock();
+    private final Condition notEmpty = takeLock.newCondition();
+
+    ShardedCompilationQueue(int threads) {
+        this(threads, BackgroundCompileQueue.Priority.Tier.values().length, ShardedCompilationQueue::compilationTier);
+    }
+
+    /**
+     * Creates a queue with {@code shardCount} shards for entries whose tier, a value between 0 and
+     * {@code tiers - 1}, is computed by {@code tierFunction}. Lower tiers are taken first.
+     */
+    public ShardedCompilationQueue(int shardCount, int tiers, ToIntFunction<Runnable> tierFunction) {
+        this.tierFunction = tierFunction;
+        this.tiers = tiers;
+        this.tierCounts = new AtomicIntegerArray(tiers);
+        this.shards = new Shard[Math.max(1, shardCount)];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new Shard();
+        }
+        this.homeShard = ThreadLocal.withInitial(() -> Math.floorMod(nextHomeShard.getAndIncrement(), shards.length));
+    }
+
+    private static int compilationTier(Runnable entry) {
+        return ((CompilationTask.ExecutorServiceWrapper) entry).getCompileTask().priorityTier().ordinal();
+    }
+
+    private int tier(Runnable entry) {
+        return tierFunction.applyAsInt(entry);
+    }
+
+    private final class Shard {
+        private final PriorityQueue<Runnable> entries = new PriorityQueue<>();
+
+        synchronized void add(Runnable entry) {
+            entries.add(entry);
+            tierCounts.incrementAndGet(tier(entry));
+        }
+
+        /**
+         * Removes the head of this shard if it belongs to the given tier.
+         */
+        synchronized Runnable poll(int tier) {
+            Runnable head = entries.peek();
+            if (head == null || tier(head) != tier) {
+                return null;
+            }
+            entries.poll();
+            tierCounts.decrementAndGet(tier);
+            return head;
+        }
+
+        synchronized Runnable peek() {
+            return entries.peek();
+        }
+
+        synchronized boolean remove(Object o) {
+            if (entries.remove(o)) {
+                tierCounts.decrementAndGet(tier((Runnable) o));
+                return true;
+            }
+            return false;
+        }
+
+        synchronized void copyTo(List<Runnable> result) {
+            result.addAll(entries);
+        }
+    }
+
+    @Override
+    public boolean offer(Runnable e) {
+        if (e == null) {
+            throw new NullPointerException();
+        }
+        shards[ThreadLocalRandom.current().nextInt(shards.length)].add(e);
+        count.incrementAndGet();
+        /*
+         * A taker increments waitingTakers before it checks the count under the takeLock, so
+         * either it observes the new count or we observe it waiting and signal it.
+         */
+        if (waitingTakers.get() > 0) {
+            takeLock.lock();
+            try {
+                notEmpty.signal();
+            } finally {
+                takeLock.unlock();
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void put(Runnable e) {
+        offer(e);
+    }
+
+    @Override
+    public boolean offer(Runnable e, long timeout, TimeUnit unit) {
+        return offer(e);
+    }
+
+    @Override
+    public Runnable poll() {
+        if (count.get() <= 0) {
+            return null;
+        }
+        int home = homeShard.get();
+        for (int tier = 0; tier < tiers; tier++) {
+            if (tierCounts.get(tier) <= 0) {
+                continue;
+            }
+            for (int i = 0; i < shards.length; i++) {
+                Runnable entry = shards[(home + i) % shards.length].poll(tier);
+                if (entry != null) {
+                    count.decrementAndGet();
+                    return entry;
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Runnable take() throws InterruptedException {
+        while (true) {
+            Runnable entry = poll();
+            if (entry != null) {
+                return entry;
+            }
+            waitingTakers.incrementAndGet();
+            try {
+                takeLock.lockInterruptibly();
+                try {
+                    while (count.get() <= 0) {
+                        notEmpty.await();
+                    }
+                } finally {
+                    takeLock.unlock();
+                }
+            } finally {
+                waitingTakers.decrementAndGet();
+            }
+        }
+    }
+
+    @Override
+    public Runnable poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        while (true) {
+            Runnable entry = poll();
+            if (entry != null) {
+                return entry;
+            }
+            if (nanos <= 0) {
+                return null;
+            }
+            waitingTakers.incrementAndGet();
+            try {
+                takeLock.lockInterruptibly();
+                try {
+                    while (count.get() <= 0 && nanos > 0) {
+                        nanos = notEmpty.awaitNanos(nanos);
+                    }
+                } finally {
+                    takeLock.unlock();
+                }
+            } finally {
+                waitingTakers.decrementAndGet();
+            }
+        }
+    }
+
+    @Override
+    public Runnable peek() {
+        Runnable best = null;
+        for (Shard shard : shards) {
+            Runnable head = shard.peek();
+            if (head != null && (best == null || tier(head) < tier(best))) {
+                best = head;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (o == null) {
+            return false;
+        }
+        for (Shard shard : shards) {
+            if (shard.remove(o)) {
+                count.decrementAndGet();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int size() {
+        return Math.max(0, count.get());
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * Returns a weakly consistent iterator over a snapshot of the queued entries. Removing through
+     * the iterator removes the entry from the queue, as needed by
+     * {@link java.util.concurrent.ThreadPoolExecutor#purge()}.
+     */
+    @Override
+    public Iterator<Runnable> iterator() {
+        List<Runnable> snapshot = new ArrayList<>();
+        for (Shard shard : shards) {
+            shard.copyTo(snapshot);
+        }
+        return new Iterator<Runnable>() {
+            private final Iterator<Runnable> delegate = snapshot.iterator();
+            private Runnable last;
+
+            @Override
+            public boolean hasNext() {
+                return delegate.hasNext();
+            }
+
+            @Override
+            public Runnable next() {
+                last = delegate.next();
+                return last;
+            }
+
+            @Override
+            public void remove() {
+                if (last == null) {
+                    throw new IllegalStateException();
+                }
+                ShardedCompilationQueue.this.remove(last);
+                last = null;
+            }
+        };
+    }
+
+    @Override
+    public int drainTo(Collection<? super Runnable> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super Runnable> c, int maxElements) {
+        int drained = 0;
+        while (drained < maxElements) {
+            Runnable entry = poll();
+            if (entry == null) {
+                break;
+            }
+            c.add(entry);
+            drained++;
+        }
+        return drained;
+    }
+}
@@ -30,9 +30,21 @@ import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingDeque;
 import java.util.concurrent.TimeUnit;
 
-class TraversingBlockingQueue implements BlockingQueue<Runnable> {
+/**
+ * The default compilation queue. Entries are kept in submission order, and every take traverses
+ * all entries to pick the one with the highest priority according to
+ * {@link CompilationTask#isHigherPriorityThan(CompilationTask)}.
+ *
+ * The queue is public so that it can be benchmarked with other entries than compilation tasks, by
+ * overriding {@link #updatePriority(Runnable, long)} and
+ * {@link #isHigherPriority(Runnable, Runnable)}.
+ */
+public class TraversingBlockingQueue implements BlockingQueue<Runnable> {
     final BlockingQueue<Runnable> entries = new LinkedBlockingDeque<>();
 
+    public TraversingBlockingQueue() {
+    }
+
     @SuppressWarnings("unchecked")
     private static CompilationTask task(Runnable entry) {
         return ((CompilationTask.ExecutorServiceWrapper) entry).getCompileTask();
@@ -84,13 +96,11 @@ class TraversingBlockingQueue implements BlockingQueue<Runnable> {
         Runnable max = null;
         while (it.hasNext()) {
             Runnable entry = it.next();
-            CompilationTask task = task(entry);
-            // updateWeight returns false only if the task's target does not exist
-            if (task.isCancelled() || !task.updateWeight(time)) {
+            if (!updatePriority(entry, time)) {
                 it.remove();
                 continue;
             }
-            if (max == null || task.isHigherPriorityThan(task(max))) {
+            if (max == null || isHigherPriority(entry, max)) {
                 max = entry;
             }
         }
@@ -98,6 +108,23 @@ class TraversingBlockingQueue implements BlockingQueue<Runnable> {
         return entries.remove(max) ? max : null;
     }
 
+    /**
+     * Updates the priority of {@code entry} at {@code time}, the current {@link System#nanoTime()}.
+     * Returns {@code false} if the entry is obsolete and should be removed from the queue.
+     */
+    protected boolean updatePriority(Runnable entry, long time) {
+        CompilationTask task = task(entry);
+        // updateWeight returns false only if the task's target does not exist
+        return !task.isCancelled() && task.updateWeight(time);
+    }
+
+    /**
+     * Returns {@code true} if {@code entry} should be taken before {@code other}.
+     */
+    protected boolean isHigherPriority(Runnable entry, Runnable other) {
+        return task(entry).isHigherPriorityThan(task(other));
+    }
+
     @Override
     public boolean offer(Runnable e) {
         return entries.offer(e);
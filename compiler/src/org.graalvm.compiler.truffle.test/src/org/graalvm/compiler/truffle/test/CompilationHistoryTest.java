@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.truffle.test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.graalvm.compiler.truffle.runtime.OptimizedCallTarget;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.RootNode;
+import com.oracle.truffle.api.source.Source;
+import com.oracle.truffle.api.source.SourceSection;
+
+public class CompilationHistoryTest extends TestWithSynchronousCompiling {
+
+    private static final class SourceRootNode extends RootNode {
+        private final SourceSection sourceSection;
+
+        SourceRootNode(SourceSection sourceSection) {
+            super(null);
+            this.sourceSection = sourceSection;
+        }
+
+        @Override
+        public SourceSection getSourceSection() {
+            return sourceSection;
+        }
+
+        @Override
+        public String getName() {
+            return "historyRoot";
+        }
+
+        @Override
+        public Object execute(VirtualFrame frame) {
+            return 42;
+        }
+    }
+
+    private static OptimizedCallTarget createTarget(String code) {
+        Source source = Source.newBuilder("test", code, "history.test").build();
+        return (OptimizedCallTarget) Truffle.getRuntime().createCallTarget(new SourceRootNode(source.createSection(0, code.length())));
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        Path historyFile = Files.createTempFile("compilation-history", ".txt");
+        try {
+            setupContext("engine.CompilationHistoryFile", historyFile.toString());
+            OptimizedCallTarget target = createTarget("return 42");
+            for (int i = 0; i < 10; i++) {
+                target.call();
+            }
+            assertCompiled(target);
+            // Closing the engine stores the history.
+            cleanup();
+
+            List<String> lines = Files.readAllLines(historyFile, StandardCharsets.UTF_8);
+            Assert.assertEquals(lines.toString(), 2, lines.size());
+            Assert.assertTrue(lines.get(0), lines.get(0).startsWith("# Truffle compilation history"));
+            Assert.assertTrue(lines.get(1), lines.get(1).contains(":historyRoot:history.test:"));
+
+            setupContext("engine.CompilationHistoryFile", historyFile.toString());
+            OptimizedCallTarget remembered = createTarget("return 42");
+            OptimizedCallTarget changed = createTarget("return 43");
+            remembered.call();
+            changed.call();
+            assertCompiled(remembered);
+            assertNotCompiled(changed);
+        } finally {
+            cleanup();
+            Files.deleteIfExists(historyFile);
+        }
+    }
+
+    @Test
+    public void testUnusedEntriesAreDropped() throws IOException {
+        Path historyFile = Files.createTempFile("compilation-history", ".txt");
+        try {
+            setupContext("engine.CompilationHistoryFile", historyFile.toString());
+            OptimizedCallTarget used = createTarget("return 42");
+            OptimizedCallTarget unused = createTarget("return 43");
+            for (int i = 0; i < 10; i++) {
+                used.call();
+                unused.call();
+            }
+            assertCompiled(used);
+            assertCompiled(unused);
+            cleanup();
+            Assert.assertEquals(3, Files.readAllLines(historyFile, StandardCharsets.UTF_8).size());
+
+            setupContext("engine.CompilationHistoryFile", historyFile.toString());
+            OptimizedCallTarget remembered = createTarget("return 42");
+            remembered.call();
+            assertCompiled(remembered);
+            cleanup();
+
+            List<String> lines = Files.readAllLines(historyFile, StandardCharsets.UTF_8);
+            Assert.assertEquals(lines.toString(), 2, lines.size());
+            String usedHash = Integer.toHexString("return 42".hashCode());
+            Assert.assertTrue(lines.get(1), lines.get(1).endsWith(":" + usedHash));
+        } finally {
+            cleanup();
+            Files.deleteIfExists(historyFile);
+        }
+    }
+
+    @Test
+    public void testDifferentTiersIgnoreHistory() throws IOException {
+        Path historyFile = Files.createTempFile("compilation-history", ".txt");
+        try {
+            setupContext("engine.CompilationHistoryFile", historyFile.toString());
+            OptimizedCallTarget target = createTarget("return 42");
+            for (int i = 0; i < 10; i++) {
+                target.call();
+            }
+            assertCompiled(target);
+            cleanup();
+
+            setupContext("engine.CompilationHistoryFile", historyFile.toString(), "engine.MultiTier", Boolean.toString(!target.engine.multiTier));
+            OptimizedCallTarget remembered = createTarget("return 42");
+            remembered.call();
+            assertNotCompiled(remembered);
+        } finally {
+            cleanup();
+            Files.deleteIfExists(historyFile);
+        }
+    }
+}
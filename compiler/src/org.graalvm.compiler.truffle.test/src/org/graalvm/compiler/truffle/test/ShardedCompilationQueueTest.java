@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.truffle.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.graalvm.compiler.truffle.runtime.ShardedCompilationQueue;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ShardedCompilationQueueTest {
+
+    private static final int TIERS = 3;
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    static final class Entry extends FutureTask<Void> implements Comparable<Entry> {
+        final int tier;
+        final long sequence = SEQUENCE.getAndIncrement();
+
+        Entry(int tier, Runnable action) {
+            super(action, null);
+            this.tier = tier;
+        }
+
+        Entry(int tier) {
+            this(tier, () -> {
+            });
+        }
+
+        @Override
+        public int compareTo(Entry o) {
+            int result = Integer.compare(tier, o.tier);
+            return result != 0 ? result : Long.compare(sequence, o.sequence);
+        }
+    }
+
+    private static ShardedCompilationQueue createQueue(int shards) {
+        return new ShardedCompilationQueue(shards, TIERS, (e) -> ((Entry) e).tier);
+    }
+
+    @Test
+    public void testOrderWithinShard() {
+        ShardedCompilationQueue queue = createQueue(1);
+        List<Entry> entries = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            Entry entry = new Entry(TIERS - 1 - i % TIERS);
+            entries.add(entry);
+            queue.offer(entry);
+        }
+        Assert.assertEquals(entries.size(), queue.size());
+        entries.sort(null);
+        for (Entry expected : entries) {
+            Assert.assertSame(expected, queue.poll());
+        }
+        Assert.assertNull(queue.poll());
+        Assert.assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void testTierOrderAcrossShards() {
+        ShardedCompilationQueue queue = createQueue(8);
+        for (int i = 0; i < 200; i++) {
+            queue.offer(new Entry(TIERS - 1 - i % TIERS));
+        }
+        Assert.assertEquals(0, ((Entry) queue.peek()).tier);
+        int lastTier = 0;
+        for (int i = 0; i < 200; i++) {
+            Entry entry = (Entry) queue.poll();
+            Assert.assertNotNull(entry);
+            Assert.assertTrue("tier order violated", entry.tier >= lastTier);
+            lastTier = entry.tier;
+        }
+        Assert.assertNull(queue.poll());
+    }
+
+    @Test
+    public void testStealing() throws InterruptedException {
+        ShardedCompilationQueue queue = createQueue(4);
+        int count = 100;
+        for (int i = 0; i < count; i++) {
+            queue.offer(new Entry(1));
+        }
+        /*
+         * A single consumer has only one home shard, so it must steal from the other shards to
+         * see all entries.
+         */
+        AtomicInteger taken = new AtomicInteger();
+        Thread consumer = new Thread(() -> {
+            while (queue.poll() != null) {
+                taken.incrementAndGet();
+            }
+        });
+        consumer.start();
+        consumer.join();
+        Assert.assertEquals(count, taken.get());
+        Assert.assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testRemove() {
+        ShardedCompilationQueue queue = createQueue(4);
+        List<Entry> firstTier = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Entry entry = new Entry(0);
+            firstTier.add(entry);
+            queue.offer(entry);
+        }
+        Entry lastTier = new Entry(2);
+        queue.offer(lastTier);
+        for (Entry entry : firstTier) {
+            Assert.assertTrue(queue.remove(entry));
+        }
+        Assert.assertFalse(queue.remove(firstTier.get(0)));
+        Assert.assertEquals(1, queue.size());
+        Assert.assertSame(lastTier, queue.poll());
+        Assert.assertNull(queue.poll());
+    }
+
+    @Test
+    public void testTakeWaitsForOffer() throws InterruptedException {
+        ShardedCompilationQueue queue = createQueue(2);
+        Entry entry = new Entry(0);
+        List<Runnable> result = new ArrayList<>();
+        CountDownLatch started = new CountDownLatch(1);
+        Thread taker = new Thread(() -> {
+            started.countDown();
+            try {
+                result.add(queue.take());
+            } catch (InterruptedException e) {
+                throw new AssertionError(e);
+            }
+        });
+        taker.start();
+        started.await();
+        Assert.assertNull(queue.poll(10, TimeUnit.MILLISECONDS));
+        queue.offer(entry);
+        taker.join();
+        Assert.assertSame(entry, result.get(0));
+    }
+
+    @Test
+    public void testCancelledEntriesInExecutor() throws InterruptedException {
+        ShardedCompilationQueue queue = createQueue(4);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(4, 4, 0, TimeUnit.MILLISECONDS, queue);
+        try {
+            CountDownLatch blocked = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            for (int i = 0; i < 4; i++) {
+                executor.execute(new Entry(0, () -> {
+                    blocked.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        throw new AssertionError(e);
+                    }
+                }));
+            }
+            blocked.await();
+            AtomicInteger executed = new AtomicInteger();
+            List<Entry> entries = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                Entry entry = new Entry(i % TIERS, executed::incrementAndGet);
+                entries.add(entry);
+                executor.execute(entry);
+            }
+            int cancelled = 0;
+            for (int i = 0; i < entries.size(); i += 2) {
+                Assert.assertTrue(entries.get(i).cancel(false));
+                cancelled++;
+            }
+            executor.purge();
+            Assert.assertEquals(entries.size() - cancelled, queue.size());
+            release.countDown();
+            executor.shutdown();
+            Assert.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+            Assert.assertEquals(entries.size() - cancelled, executed.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2021, 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package micro.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.ShortBuffer;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks cost of array comparisons that are based on {@code ArraysSupport.vectorizedMismatch}
+ * on JDK 11+: {@link Arrays#equals} for all primitive widths and, for unaligned start offsets,
+ * {@code equals} and {@code compareTo} of heap buffers wrapping array slices. The compared arrays
+ * are equal except for their last element.
+ */
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ArraysMismatchBenchmark extends BenchmarkBase {
+
+    @State(Scope.Benchmark)
+    public static class BenchState {
+        @Param({"16", "256", "4096"}) int size;
+        @Param({"0", "3"}) int offset;
+
+        byte[] bytesA;
+        byte[] bytesB;
+        char[] charsA;
+        char[] charsB;
+        short[] shortsA;
+        short[] shortsB;
+        int[] intsA;
+        int[] intsB;
+        long[] longsA;
+        long[] longsB;
+        float[] floatsA;
+        float[] floatsB;
+        double[] doublesA;
+        double[] doublesB;
+
+        ByteBuffer byteBufferA;
+        ByteBuffer byteBufferB;
+        CharBuffer charBufferA;
+        CharBuffer charBufferB;
+        ShortBuffer shortBufferA;
+        ShortBuffer shortBufferB;
+        IntBuffer intBufferA;
+        IntBuffer intBufferB;
+        LongBuffer longBufferA;
+        LongBuffer longBufferB;
+        FloatBuffer floatBufferA;
+        FloatBuffer floatBufferB;
+        DoubleBuffer doubleBufferA;
+        DoubleBuffer doubleBufferB;
+
+        @Setup
+        public void setup() {
+            int length = size + offset;
+            bytesA = new byte[length];
+            charsA = new char[length];
+            shortsA = new short[length];
+            intsA = new int[length];
+            longsA = new long[length];
+            floatsA = new float[length];
+            doublesA = new double[length];
+            for (int i = 0; i < length; i++) {
+                bytesA[i] = (byte) i;
+                charsA[i] = (char) i;
+                shortsA[i] = (short) i;
+                intsA[i] = i;
+                longsA[i] = i;
+                floatsA[i] = i;
+                doublesA[i] = i;
+            }
+            bytesB = bytesA.clone();
+            charsB = charsA.clone();
+            shortsB = shortsA.clone();
+            intsB = intsA.clone();
+            longsB = longsA.clone();
+            floatsB = floatsA.clone();
+            doublesB = doublesA.clone();
+            bytesB[length - 1]++;
+            charsB[length - 1]++;
+            shortsB[length - 1]++;
+            intsB[length - 1]++;
+            longsB[length - 1]++;
+            floatsB[length - 1]++;
+            doublesB[length - 1]++;
+
+            byteBufferA = ByteBuffer.wrap(bytesA, offset, size).slice();
+            byteBufferB = ByteBuffer.wrap(bytesB, offset, size).slice();
+            charBufferA = CharBuffer.wrap(charsA, offset, size).slice();
+            charBufferB = CharBuffer.wrap(charsB, offset, size).slice();
+            shortBufferA = ShortBuffer.wrap(shortsA, offset, size).slice();
+            shortBufferB = ShortBuffer.wrap(shortsB, offset, size).slice();
+            intBufferA = IntBuffer.wrap(intsA, offset, size).slice();
+            intBufferB = IntBuffer.wrap(intsB, offset, size).slice();
+            longBufferA = LongBuffer.wrap(longsA, offset, size).slice();
+            longBufferB = LongBuffer.wrap(longsB, offset, size).slice();
+            floatBufferA = FloatBuffer.wrap(floatsA, offset, size).slice();
+            floatBufferB = FloatBuffer.wrap(floatsB, offset, size).slice();
+            doubleBufferA = DoubleBuffer.wrap(doublesA, offset, size).slice();
+            doubleBufferB = DoubleBuffer.wrap(doublesB, offset, size).slice();
+        }
+    }
+
+    @Benchmark
+    public boolean equalsBytes(BenchState state) {
+        return Arrays.equals(state.bytesA, state.bytesB);
+    }
+
+    @Benchmark
+    public boolean equalsChars(BenchState state) {
+        return Arrays.equals(state.charsA, state.charsB);
+    }
+
+    @Benchmark
+    public boolean equalsShorts(BenchState state) {
+        return Arrays.equals(state.shortsA, state.shortsB);
+    }
+
+    @Benchmark
+    public boolean equalsInts(BenchState state) {
+        return Arrays.equals(state.intsA, state.intsB);
+    }
+
+    @Benchmark
+    public boolean equalsLongs(BenchState state) {
+        return Arrays.equals(state.longsA, state.longsB);
+    }
+
+    @Benchmark
+    public boolean equalsFloats(BenchState state) {
+        return Arrays.equals(state.floatsA, state.floatsB);
+    }
+
+    @Benchmark
+    public boolean equalsDoubles(BenchState state) {
+        return Arrays.equals(state.doublesA, state.doublesB);
+    }
+
+    @Benchmark
+    public int compareByteBuffers(BenchState state) {
+        return state.byteBufferA.compareTo(state.byteBufferB);
+    }
+
+    @Benchmark
+    public int compareCharBuffers(BenchState state) {
+        return state.charBufferA.compareTo(state.charBufferB);
+    }
+
+    @Benchmark
+    public int compareShortBuffers(BenchState state) {
+        return state.shortBufferA.compareTo(state.shortBufferB);
+    }
+
+    @Benchmark
+    public int compareIntBuffers(BenchState state) {
+        return state.intBufferA.compareTo(state.intBufferB);
+    }
+
+    @Benchmark
+    public int compareLongBuffers(BenchState state) {
+        return state.longBufferA.compareTo(state.longBufferB);
+    }
+
+    @Benchmark
+    public int compareFloatBuffers(BenchState state) {
+        return state.floatBufferA.compareTo(state.floatBufferB);
+    }
+
+    @Benchmark
+    public int compareDoubleBuffers(BenchState state) {
+        return state.doubleBufferA.compareTo(state.doubleBufferB);
+    }
+
+    @Benchmark
+    public boolean equalsByteBuffers(BenchState state) {
+        return state.byteBufferA.equals(state.byteBufferB);
+    }
+
+    @Benchmark
+    public boolean equalsLongBuffers(BenchState state) {
+        return state.longBufferA.equals(state.longBufferB);
+    }
+}
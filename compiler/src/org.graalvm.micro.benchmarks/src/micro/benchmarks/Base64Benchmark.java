@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2021, 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package micro.benchmarks;
+
+import java.util.Base64;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks cost of {@link Base64.Encoder#encode(byte[])} and {@link Base64.Decoder#decode(byte[])}
+ * for the basic, URL-safe and MIME variants.
+ */
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class Base64Benchmark extends BenchmarkBase {
+
+    @State(Scope.Benchmark)
+    public static class BenchState {
+        @Param({"64", "1024", "65536"}) int size;
+
+        byte[] raw;
+        byte[] basicEncoded;
+        byte[] urlEncoded;
+        byte[] mimeEncoded;
+
+        @Setup
+        public void setup() {
+            raw = new byte[size];
+            new Random(42).nextBytes(raw);
+            basicEncoded = Base64.getEncoder().encode(raw);
+            urlEncoded = Base64.getUrlEncoder().encode(raw);
+            mimeEncoded = Base64.getMimeEncoder().encode(raw);
+        }
+    }
+
+    @Benchmark
+    public byte[] encodeBasic(BenchState state) {
+        return Base64.getEncoder().encode(state.raw);
+    }
+
+    @Benchmark
+    public byte[] encodeURL(BenchState state) {
+        return Base64.getUrlEncoder().encode(state.raw);
+    }
+
+    @Benchmark
+    public byte[] encodeMIME(BenchState state) {
+        return Base64.getMimeEncoder().encode(state.raw);
+    }
+
+    @Benchmark
+    public byte[] decodeBasic(BenchState state) {
+        return Base64.getDecoder().decode(state.basicEncoded);
+    }
+
+    @Benchmark
+    public byte[] decodeURL(BenchState state) {
+        return Base64.getUrlDecoder().decode(state.urlEncoded);
+    }
+
+    @Benchmark
+    public byte[] decodeMIME(BenchState state) {
+        return Base64.getMimeDecoder().decode(state.mimeEncoded);
+    }
+}
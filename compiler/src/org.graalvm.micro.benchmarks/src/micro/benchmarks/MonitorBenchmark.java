@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2021, 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package micro.benchmarks;
+
+import java.util.Vector;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Control;
+
+/**
+ * Benchmarks the uncontended, contended, and wait/notify paths of object monitors. Uncontended
+ * locking is exercised both directly and through legacy synchronized collections.
+ */
+public class MonitorBenchmark extends BenchmarkBase {
+
+    public static class Counter {
+        private int value;
+
+        public synchronized int increment() {
+            return ++value;
+        }
+
+        public synchronized int incrementNested() {
+            return increment();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        final Counter counter = new Counter();
+        final StringBuffer stringBuffer = new StringBuffer();
+        final Vector<Integer> vector = new Vector<>();
+    }
+
+    @State(Scope.Benchmark)
+    public static class SharedState {
+        final Counter counter = new Counter();
+    }
+
+    @Benchmark
+    public int uncontended(ThreadState state) {
+        return state.counter.increment();
+    }
+
+    @Benchmark
+    public int uncontendedNested(ThreadState state) {
+        return state.counter.incrementNested();
+    }
+
+    @Benchmark
+    public int uncontendedStringBuffer(ThreadState state) {
+        StringBuffer sb = state.stringBuffer;
+        sb.setLength(0);
+        for (int i = 0; i < 16; i++) {
+            sb.append('x');
+        }
+        return sb.length();
+    }
+
+    @Benchmark
+    public int uncontendedVector(ThreadState state) {
+        Vector<Integer> vector = state.vector;
+        vector.clear();
+        for (int i = 0; i < 16; i++) {
+            vector.add(i);
+        }
+        return vector.size();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int contended(SharedState state) {
+        return state.counter.increment();
+    }
+
+    /**
+     * Two threads alternate strictly, so that every iteration performs a wait and a notify on an
+     * object monitor.
+     */
+    @State(Scope.Group)
+    public static class PingPongState {
+        private boolean ping = true;
+
+        synchronized void await(boolean expected, Control control) throws InterruptedException {
+            while (ping != expected) {
+                if (control.stopMeasurement) {
+                    /* The other thread may already have stopped. */
+                    return;
+                }
+                wait(10);
+            }
+            ping = !expected;
+            notifyAll();
+        }
+    }
+
+    @Benchmark
+    @Group("waitNotify")
+    @GroupThreads(1)
+    public void ping(PingPongState state, Control control) throws InterruptedException {
+        state.await(true, control);
+    }
+
+    @Benchmark
+    @Group("waitNotify")
+    @GroupThreads(1)
+    public void pong(PingPongState state, Control control) throws InterruptedException {
+        state.await(false, control);
+    }
+}
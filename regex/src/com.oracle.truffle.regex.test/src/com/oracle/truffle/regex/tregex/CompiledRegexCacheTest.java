@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2021, 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.regex.tregex;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import com.oracle.truffle.api.source.Source;
+import com.oracle.truffle.regex.CompiledRegexCache;
+import com.oracle.truffle.regex.RegexLanguage;
+import com.oracle.truffle.regex.RegexOptions;
+import com.oracle.truffle.regex.RegexSource;
+
+public class CompiledRegexCacheTest {
+
+    private static RegexSource source(String pattern, String flags) {
+        String src = "/" + pattern + "/" + flags;
+        return new RegexSource(pattern, flags, RegexOptions.DEFAULT, Source.newBuilder(RegexLanguage.ID, src, "test").build());
+    }
+
+    @Test
+    public void testHitsAndMisses() {
+        CompiledRegexCache cache = new CompiledRegexCache(4);
+        Object regex = new Object();
+        assertNull(cache.get(source("a+", "")));
+        assertSame(regex, cache.putIfAbsent(source("a+", ""), regex));
+        assertSame(regex, cache.get(source("a+", "")));
+        assertNull(cache.get(source("a+", "i")));
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    public void testPutIfAbsentKeepsFirst() {
+        CompiledRegexCache cache = new CompiledRegexCache(4);
+        Object first = new Object();
+        assertSame(first, cache.putIfAbsent(source("b", ""), first));
+        assertSame(first, cache.putIfAbsent(source("b", ""), new Object()));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEviction() {
+        CompiledRegexCache cache = new CompiledRegexCache(2);
+        Object a = new Object();
+        Object b = new Object();
+        cache.putIfAbsent(source("a", ""), a);
+        cache.putIfAbsent(source("b", ""), b);
+        // touch "a", so that "b" becomes the eldest entry
+        assertSame(a, cache.get(source("a", "")));
+        cache.putIfAbsent(source("c", ""), new Object());
+        assertEquals(2, cache.size());
+        assertSame(a, cache.get(source("a", "")));
+        assertNull(cache.get(source("b", "")));
+    }
+}
@@ -133,17 +133,23 @@ public final class RegexLanguage extends TruffleLanguage<RegexLanguage.RegexCont
     private final GroupBoundaries[] cachedGroupBoundaries;
     public final RegexParserGlobals parserGlobals;
     public final PureNFAIndex emptyNFAIndex;
+    private final CompiledRegexCache compiledRegexCache;
 
     public RegexLanguage() {
         this.cachedGroupBoundaries = GroupBoundaries.createCachedGroupBoundaries();
         this.parserGlobals = new RegexParserGlobals(this);
         this.emptyNFAIndex = new PureNFAIndex(0);
+        this.compiledRegexCache = new CompiledRegexCache(CompiledRegexCache.DEFAULT_CAPACITY);
     }
 
     public GroupBoundaries[] getCachedGroupBoundaries() {
         return cachedGroupBoundaries;
     }
 
+    public CompiledRegexCache getCompiledRegexCache() {
+        return compiledRegexCache;
+    }
+
     @Override
     protected CallTarget parse(ParsingRequest parsingRequest) {
         return Truffle.getRuntime().createCallTarget(RootNode.createConstantNode(createRegexObject(createRegexSource(parsingRequest.getSource()))));
@@ -182,11 +188,21 @@ public final class RegexLanguage extends TruffleLanguage<RegexLanguage.RegexCont
             }
             return TruffleNull.INSTANCE;
         }
+        // automaton dumps and step execution are debugging side effects of compilation
+        boolean cacheable = !source.getOptions().isDumpAutomata() && !source.getOptions().isStepExecution();
+        if (cacheable) {
+            Object cached = compiledRegexCache.get(source);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        Object regex;
         try {
-            return TRegexCompiler.compile(this, source);
+            regex = TRegexCompiler.compile(this, source);
         } catch (UnsupportedRegexException e) {
-            return TruffleNull.INSTANCE;
+            regex = TruffleNull.INSTANCE;
         }
+        return cacheable ? compiledRegexCache.putIfAbsent(source, regex) : regex;
     }
 
     @Override
@@ -48,6 +48,7 @@ import com.oracle.truffle.api.interop.UnsupportedMessageException;
 import com.oracle.truffle.api.interop.UnsupportedTypeException;
 import com.oracle.truffle.api.library.CachedLibrary;
 import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.strings.TruffleString;
 
 @GenerateUncached
 public abstract class ExpectStringOrTruffleObjectNode extends Node {
@@ -59,6 +60,17 @@ public abstract class ExpectStringOrTruffleObjectNode extends Node {
         return input;
     }
 
+    /*
+     * The input nodes of TRegex do not read the byte[] or char[] contents of Truffle strings
+     * directly yet. Instead, the string is converted to a Java string. The first match on a Truffle
+     * string therefore copies it. The Java string is cached in the Truffle string, so later matches
+     * on the same string do not copy it again.
+     */
+    @Specialization
+    static Object doTruffleString(TruffleString input) {
+        return input.toJavaString();
+    }
+
     @Specialization(guards = "inputs.isString(input)", limit = "2")
     static Object doBoxedString(Object input, @CachedLibrary("input") InteropLibrary inputs) throws UnsupportedTypeException {
         try {
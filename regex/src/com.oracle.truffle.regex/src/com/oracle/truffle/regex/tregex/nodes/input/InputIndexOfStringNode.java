@@ -77,9 +77,16 @@ public abstract class InputIndexOfStringNode extends Node {
         return ArrayUtils.indexOfWithOrMask(input, fromIndex, maxIndex - fromIndex, match, mask);
     }
 
+    /*
+     * Foreign inputs cannot use the vectorized array intrinsics, so we filter candidate positions
+     * by their first code unit before comparing the whole region. The region comparison also
+     * queries the input length on every call, which is expensive for foreign objects.
+     */
+
     @Specialization
     public int doTruffleObjBytes(TruffleObject input, int fromIndex, int maxIndex, byte[] match, Object mask,
                     @Cached InputLengthNode lengthNode,
+                    @Cached InputReadNode charAtNode,
                     @Cached InputRegionMatchesNode regionMatchesNode) {
         if (maxIndex > lengthNode.execute(input)) {
             return -1;
@@ -87,11 +94,16 @@ public abstract class InputIndexOfStringNode extends Node {
         if (fromIndex + match.length > maxIndex) {
             return -1;
         }
+        if (match.length == 0) {
+            return fromIndex;
+        }
+        byte[] byteMask = (byte[]) mask;
+        int first = Byte.toUnsignedInt(match[0]);
         for (int i = fromIndex; i <= maxIndex - match.length; i++) {
             if (CompilerDirectives.inInterpreter()) {
                 RegexRootNode.checkThreadInterrupted();
             }
-            if (regionMatchesNode.execute(input, i, match, 0, match.length, mask)) {
+            if (InputReadNode.readWithMask(input, i, byteMask, 0, charAtNode) == first && regionMatchesNode.execute(input, i, match, 0, match.length, mask)) {
                 return i;
             }
         }
@@ -101,6 +113,7 @@ public abstract class InputIndexOfStringNode extends Node {
     @Specialization
     public int doTruffleObjString(TruffleObject input, int fromIndex, int maxIndex, String match, Object mask,
                     @Cached InputLengthNode lengthNode,
+                    @Cached InputReadNode charAtNode,
                     @Cached InputRegionMatchesNode regionMatchesNode) {
         if (maxIndex > lengthNode.execute(input)) {
             return -1;
@@ -108,11 +121,16 @@ public abstract class InputIndexOfStringNode extends Node {
         if (fromIndex + match.length() > maxIndex) {
             return -1;
         }
+        if (match.isEmpty()) {
+            return fromIndex;
+        }
+        String stringMask = (String) mask;
+        int first = match.charAt(0);
         for (int i = fromIndex; i <= maxIndex - match.length(); i++) {
             if (CompilerDirectives.inInterpreter()) {
                 RegexRootNode.checkThreadInterrupted();
             }
-            if (regionMatchesNode.execute(input, i, match, 0, match.length(), mask)) {
+            if (InputReadNode.readWithMask(input, i, stringMask, 0, charAtNode) == first && regionMatchesNode.execute(input, i, match, 0, match.length(), mask)) {
                 return i;
             }
         }
@@ -321,6 +321,8 @@ def svm_gate_body(args, tasks):
                 helloworld(['--output-path', svmbuild_dir(), '--shared'])  # Build and run helloworld as shared library
                 cinterfacetutorial([])
                 clinittest([])
+                pgotest([])
+                skipunchangedtest([])
 
     with Task('image demos debuginfo', tasks, tags=[GraalTags.helloworld_debug]) as t:
         if t:
@@ -411,6 +413,15 @@ def svm_gate_body(args, tasks):
             hellomodule([])
 
 
+# Tests of image features that are off by default. Each of them runs in its own image built with
+# the options that enable the feature, so that the image with all other tests keeps the defaults.
+_native_unittest_option_tests = [
+    ('com.oracle.svm.test.ResourceSectionTest', ['-H:+ResourcesInImageSection']),
+    ('com.oracle.svm.test.ThinLockTest', ['-H:+ThinLocks']),
+    ('com.oracle.svm.test.PerfDataTest', ['-H:+UsePerfData']),
+]
+
+
 def native_unittests_task():
     if mx.is_windows():
         # GR-24075
@@ -422,7 +433,14 @@ def native_unittests_task():
         '-H:+AllowVMInspection'
     ]
 
-    native_unittest(['--build-args', _native_unittest_features] + additional_build_args)
+    mkpath(svmbuild_dir())
+    blacklist = join(svmbuild_dir(), 'native-unittest-option-tests.txt')
+    with open(blacklist, 'w') as f:
+        f.write('\n'.join(test for test, _ in _native_unittest_option_tests) + '\n')
+    native_unittest(['--blacklist', blacklist, '--build-args', _native_unittest_features] + additional_build_args)
+
+    for test, build_args in _native_unittest_option_tests:
+        native_unittest([test, '--build-args'] + build_args)
 
 
 def javac_image_command(javac_path):
@@ -1172,6 +1190,114 @@ def clinittest(args):
     native_image_context_run(build_and_test_clinittest_image, args)
 
 
+@mx.command(suite.name, 'pgotest', 'Runs the PGO instrumentation and profile round trip')
+def pgotest(args):
+    def build_and_test_pgo_images(native_image, args=None):
+        args = [] if args is None else args
+        test_cp = classpath('com.oracle.svm.test')
+        test_class = 'com.oracle.svm.test.pgo.PGOInstrumentationTest'
+        build_dir = join(svmbuild_dir(), 'pgotest')
+        profile = join(build_dir, 'pgotest.iprof')
+
+        # clean / create output directory
+        if exists(build_dir):
+            remove_tree(build_dir)
+        mkpath(build_dir)
+
+        def build_and_run(name, build_args, run_args):
+            native_image(['-H:Path=' + build_dir, '-cp', test_cp, '-H:Class=' + test_class, '-H:Name=' + name] + build_args + args)
+            out = mx.OutputCapture()
+            mx.run([join(build_dir, name)] + run_args, out=out)
+            return out.data.strip()
+
+        # Build and run the instrumented image
+        expected_output = build_and_run('pgotest-instrumented', ['-H:+PGOInstrument'], ['-XX:PGOProfileOutput=' + profile])
+        calls, leaf_calls, inner_calls = expected_output.split()
+
+        # Check that every call and branch was recorded, including concurrent ones
+        counts = {}
+        with open(profile) as f:
+            for line in f:
+                count, name = line.rstrip('\n').split('\t', 1)
+                counts[name] = counts.get(name, 0) + int(count)
+        fib = test_class + '.fib(int)'
+        for name, count in [(fib, int(calls)), (test_class + '.main(java.lang.String[])', 1)]:
+            if counts.get(name) != count:
+                mx.abort('Expected count {} for {} in {} but got {}'.format(count, name, profile, counts.get(name)))
+        fib_branches = sorted(count for name, count in counts.items() if name.startswith(fib + '@'))
+        if fib_branches != sorted([int(leaf_calls), int(inner_calls)]):
+            mx.abort('Expected branch counts {} and {} for {} in {} but got {}'.format(leaf_calls, inner_calls, fib, profile, fib_branches))
+
+        # Rebuild with the profile and check that the optimized image behaves the same
+        optimized_output = build_and_run('pgotest', ['-H:PGO=' + profile], [])
+        if optimized_output != expected_output:
+            mx.abort('Unexpected output of the profile-optimized image: ' + optimized_output)
+
+    native_image_context_run(build_and_test_pgo_images, args)
+
+
+@mx.command(suite.name, 'skipunchangedtest', 'Checks that --skip-unchanged-build rebuilds images when their inputs change')
+def skipunchangedtest(args):
+    def build_and_test_skip_unchanged(native_image, args=None):
+        args = [] if args is None else args
+        build_dir = join(svmbuild_dir(), 'skipunchangedtest')
+        classes_dir = join(build_dir, 'classes')
+        config_dir = join(classes_dir, 'META-INF', 'native-image', 'skipunchangedtest')
+        reflect_config = join(build_dir, 'reflect-config.json')
+        resource_config = join(config_dir, 'resource-config.json')
+        lib_dir = join(build_dir, 'lib')
+
+        # clean / create output directory
+        if exists(build_dir):
+            remove_tree(build_dir)
+        mkpath(config_dir)
+        mkpath(lib_dir)
+
+        hello_file = join(build_dir, 'HelloWorld.java')
+        with open(hello_file, 'w') as fp:
+            fp.write('public class HelloWorld { public static void main(String[] args) { System.out.println("Hello"); } }')
+        mx.run([mx.get_jdk().javac, '-d', classes_dir, hello_file])
+
+        def write_unnoticeably(path, content):
+            # Same size and modification time as before, only the contents differ
+            stat = os.stat(path) if exists(path) else None
+            with open(path, 'w') as fp:
+                fp.write(content)
+            if stat:
+                os.utime(path, (stat.st_atime, stat.st_mtime))
+
+        write_unnoticeably(reflect_config, '[{"name":"java.lang.Object"}]')
+        write_unnoticeably(resource_config, '{"resources":[{"pattern":"aaaa"}]}')
+
+        def build(expect_skip, reason, extra_args=None, env=None):
+            out = mx.OutputCapture()
+            native_image(['-H:Path=' + build_dir, '-H:Name=skipunchangedtest', '-cp', classes_dir, '--skip-unchanged-build',
+                          '-H:ReflectionConfigurationFiles=' + reflect_config, 'HelloWorld'] + (extra_args or []) + args, out=out, env=env)
+            skipped = 'is up to date, skipping the whole image build' in out.data
+            if skipped != expect_skip:
+                mx.abort('Expected the image to be ' + ('reused' if expect_skip else 'rebuilt') + ' ' + reason + ':\n' + out.data)
+
+        build(False, 'on the first build')
+        build(True, 'when nothing changed')
+        write_unnoticeably(reflect_config, '[{"name":"java.lang.Thread"}]')
+        build(False, 'after a change of a -H:ReflectionConfigurationFiles file')
+        build(True, 'when nothing changed since the rebuild')
+        write_unnoticeably(resource_config, '{"resources":[{"pattern":"bbbb"}]}')
+        build(False, 'after a change of a META-INF/native-image file in a class path directory')
+        linker_args = ['-H:NativeLinkerOption=-L' + lib_dir]
+        build(False, 'after adding a linker option', linker_args)
+        build(True, 'when nothing changed since the rebuild', linker_args)
+        with open(join(lib_dir, 'libskipunchangedtest.a'), 'w') as fp:
+            fp.write('')
+        build(False, 'after a change of a -L directory of a linker option', linker_args)
+        env = dict(os.environ, SKIPUNCHANGEDTEST_VARIABLE='changed')
+        build(False, 'after a change of the environment', linker_args, env)
+        build(True, 'when nothing changed since the rebuild', linker_args, env)
+        mx.run([join(build_dir, 'skipunchangedtest')])
+
+    native_image_context_run(build_and_test_skip_unchanged, args)
+
+
 class SubstrateJvmFuncsFallbacksBuilder(mx.Project):
     def __init__(self, suite, name, deps, workingSets, theLicense, **kwArgs):
         mx.Project.__init__(self, suite, name, "", [], deps, workingSets, suite.dir, theLicense, **kwArgs)
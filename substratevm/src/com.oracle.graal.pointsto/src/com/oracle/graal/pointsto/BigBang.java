@@ -525,10 +525,10 @@ public abstract class BigBang {
     }
 
     public void postFlow(final TypeFlow<?> operation) {
-        if (operation.inQueue) {
+        if (!operation.markInQueue()) {
+            PointsToStats.registerTypeFlowCoalescedUpdate(this);
             return;
         }
-        operation.inQueue = true;
 
         executor.execute(new TypeFlowRunnable() {
 
@@ -536,7 +536,7 @@ public abstract class BigBang {
             public void run(DebugContext ignored) {
                 PointsToStats.registerTypeFlowQueuedUpdate(BigBang.this, operation);
 
-                operation.inQueue = false;
+                operation.clearInQueue();
                 operation.update(BigBang.this);
             }
 
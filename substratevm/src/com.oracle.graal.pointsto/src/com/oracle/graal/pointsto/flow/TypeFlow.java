@@ -26,6 +26,7 @@ package com.oracle.graal.pointsto.flow;
 
 import java.util.Collection;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 import org.graalvm.compiler.debug.DebugContext;
@@ -86,7 +87,12 @@ public abstract class TypeFlow<T> {
      */
     protected boolean usedAsAReceiver;
 
-    public volatile boolean inQueue;
+    /**
+     * Non-zero while an update of this flow is queued in the {@link BigBang} executor. The flag is
+     * claimed atomically so that concurrent state changes of the same flow, done by different
+     * analysis threads, are coalesced into a single queued update.
+     */
+    private volatile int inQueue;
 
     /**
      * A TypeFlow is saturated when its type count is beyond a predetermined limit set via
@@ -113,6 +119,9 @@ public abstract class TypeFlow<T> {
     @SuppressWarnings("rawtypes")//
     private static final AtomicReferenceFieldUpdater<TypeFlow, TypeState> STATE_UPDATER = AtomicReferenceFieldUpdater.newUpdater(TypeFlow.class, TypeState.class, "state");
 
+    @SuppressWarnings("rawtypes")//
+    private static final AtomicIntegerFieldUpdater<TypeFlow> IN_QUEUE_UPDATER = AtomicIntegerFieldUpdater.newUpdater(TypeFlow.class, "inQueue");
+
     private TypeFlow(T source, AnalysisType declaredType, TypeState typeState, int slot, boolean isClone, MethodFlowsGraph graphRef) {
         this.id = nextId.incrementAndGet();
         this.source = source;
@@ -278,6 +287,22 @@ public abstract class TypeFlow<T> {
         return addState(bb, add, true);
     }
 
+    /**
+     * Marks this flow as queued for an update. Returns false if an update is already queued, in
+     * which case that update will also propagate the current state.
+     */
+    public boolean markInQueue() {
+        return inQueue == 0 && IN_QUEUE_UPDATER.compareAndSet(this, 0, 1);
+    }
+
+    /**
+     * Clears the queued mark. Must be called before the update reads the state, so that a state
+     * change concurrent with the update queues a new update.
+     */
+    public void clearInQueue() {
+        inQueue = 0;
+    }
+
     /* Add state and notify inputs of the result. */
     public boolean addState(BigBang bb, TypeState add, boolean postFlow) {
         PointsToStats.registerTypeFlowUpdate(bb, this, add);
@@ -39,6 +39,7 @@ import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -99,7 +100,18 @@ public class PointsToStats {
 
     static boolean reportStatistics;
 
+    /* Analysis wide propagation counters, independent of the individual flows. */
+    private static final AtomicLong executedUpdates = new AtomicLong();
+    private static final AtomicLong coalescedUpdates = new AtomicLong();
+    private static final AtomicLong firstQueuedUpdateNanos = new AtomicLong();
+    private static final AtomicLong lastQueuedUpdateNanos = new AtomicLong();
+
     public static void init(BigBang bb) {
+        /* The counters are static, so they would otherwise accumulate over several analyses. */
+        executedUpdates.set(0);
+        coalescedUpdates.set(0);
+        firstQueuedUpdateNanos.set(0);
+        lastQueuedUpdateNanos.set(0);
         registerTypeState(bb, EmptyTypeState.SINGLETON);
         registerTypeState(bb, NullTypeState.SINGLETON);
         reportStatistics = bb.reportAnalysisStatistics();
@@ -116,6 +128,7 @@ public class PointsToStats {
             doReport(statsDirectory, reportNameRoot, "union operation stats", timeStamp, PointsToStats::reportUnionOpertationsStats);
             doReport(statsDirectory, reportNameRoot, "type flow stats", timeStamp, PointsToStats::reportTypeFlowStats);
             doReport(statsDirectory, reportNameRoot, "pruned type flow stats", timeStamp, PointsToStats::reportPrunedTypeFlows);
+            doReport(statsDirectory, reportNameRoot, "propagation stats", timeStamp, PointsToStats::reportPropagationStats);
 
         } catch (IOException e) {
             throw JVMCIError.shouldNotReachHere(e);
@@ -305,6 +318,40 @@ public class PointsToStats {
 
         TypeFlowStats stats = typeFlowStats.computeIfAbsent(flow, TypeFlowStats::new);
         stats.registerQueuedUpdate();
+
+        long now = System.nanoTime();
+        firstQueuedUpdateNanos.compareAndSet(0, now);
+        lastQueuedUpdateNanos.accumulateAndGet(now, Math::max);
+        executedUpdates.incrementAndGet();
+    }
+
+    /**
+     * Registers a flow update request that was folded into an update of the same flow that is
+     * already queued.
+     */
+    public static void registerTypeFlowCoalescedUpdate(BigBang bb) {
+        if (!bb.reportAnalysisStatistics()) {
+            return;
+        }
+
+        coalescedUpdates.incrementAndGet();
+    }
+
+    private static void reportPropagationStats(BufferedWriter out) {
+        long executed = executedUpdates.get();
+        long coalesced = coalescedUpdates.get();
+        long elapsedNanos = Math.max(lastQueuedUpdateNanos.get() - firstQueuedUpdateNanos.get(), 1);
+        long allUpdates = typeFlowStats.values().stream().mapToLong(TypeFlowStats::allUpdatesCount).sum();
+        long successfulUpdates = typeFlowStats.values().stream().mapToLong(TypeFlowStats::successfulUpdatesCount).sum();
+
+        doWrite(out, String.format("%-35s\t%-10s\n", "Statistic", "Value"));
+        doWrite(out, String.format("%-35s\t%-10d\n", "ExecutedUpdates", executed));
+        doWrite(out, String.format("%-35s\t%-10d\n", "CoalescedUpdates", coalesced));
+        doWrite(out, String.format("%-35s\t%-10d\n", "TypeStateAdds", allUpdates));
+        doWrite(out, String.format("%-35s\t%-10d\n", "SuccessfulTypeStateAdds", successfulUpdates));
+        doWrite(out, String.format("%-35s\t%-10d\n", "PropagationTimeMillis", elapsedNanos / 1_000_000));
+        doWrite(out, String.format("%-35s\t%-10.1f\n", "ExecutedUpdatesPerSecond", executed * 1e9 / elapsedNanos));
+        doWrite(out, String.format("%-35s\t%-10.1f\n", "TypeStateAddsPerSecond", allUpdates * 1e9 / elapsedNanos));
     }
 
     static final Comparator<Long> longComparator = Comparator.naturalOrder();
@@ -87,6 +87,7 @@ public abstract class SectionName {
     public static final SectionName TEXT = new ProgbitsSectionName("text");
     public static final SectionName BSS = new NobitsSectionName("bss");
     public static final SectionName SVM_HEAP = new ProgbitsSectionName("svm_heap");
+    public static final SectionName SVM_RESOURCES = new ProgbitsSectionName("svm_resources");
     // proprietary
     public static final SectionName APPLE_NAMES = new ProgbitsSectionName("apple_names");
     public static final SectionName APPLE_TYPES = new ProgbitsSectionName("apple_types");
@@ -33,6 +33,7 @@ import org.graalvm.nativeimage.Platform;
 import org.graalvm.nativeimage.Platforms;
 import org.graalvm.nativeimage.hosted.Feature.FeatureAccess;
 import org.graalvm.word.UnsignedWord;
+import org.graalvm.word.WordFactory;
 
 import com.oracle.svm.core.SubstrateOptions;
 import com.oracle.svm.core.log.Log;
@@ -49,6 +50,12 @@ public abstract class CollectionPolicy {
 
         @Option(help = "Percentage of total collection time that should be spent on young generation collections.")//
         public static final RuntimeOptionKey<Integer> PercentTimeInIncrementalCollection = new RuntimeOptionKey<>(50);
+
+        @Option(help = "The pause time goal of the adaptive collection policy, in milliseconds.")//
+        public static final RuntimeOptionKey<Long> MaxGCPauseMillis = new RuntimeOptionKey<>(200L);
+
+        @Option(help = "The throughput goal of the adaptive collection policy: at most 1 / (1 + GCTimeRatio) of the time should be spent in collections.")//
+        public static final RuntimeOptionKey<Integer> GCTimeRatio = new RuntimeOptionKey<>(12);
     }
 
     @Platforms(Platform.HOSTED_ONLY.class)
@@ -90,6 +97,19 @@ public abstract class CollectionPolicy {
     CollectionPolicy() {
     }
 
+    /**
+     * Returns the size of the young generation at which a collection is triggered, given the
+     * {@linkplain HeapPolicy#getMaximumYoungGenerationSize() maximum young generation size}.
+     */
+    UnsignedWord getYoungGenerationSize(UnsignedWord maximumYoungGenerationSize) {
+        return maximumYoungGenerationSize;
+    }
+
+    /** Called at the end of every collection, before the mutator resumes. */
+    @SuppressWarnings("unused")
+    void onCollectionEnd(boolean completeCollection, Timers timers) {
+    }
+
     public abstract void nameToLog(Log log);
 
     public abstract String getName();
@@ -215,4 +235,134 @@ public abstract class CollectionPolicy {
             return "by space and time";
         }
     }
+
+    /**
+     * A collection policy that adapts the size of the young generation and the frequency of
+     * complete collections to a pause time goal ({@link Options#MaxGCPauseMillis}) and a throughput
+     * goal ({@link Options#GCTimeRatio}), based on the measured times of recent collections.
+     * <p>
+     * The young generation shrinks while incremental collections exceed the pause time goal, and
+     * grows while the time spent in collections exceeds the throughput goal. Complete collections
+     * are balanced with incremental collections like in {@link BySpaceAndTime}, unless they exceed
+     * the pause time goal, in which case they are only done when the heap would otherwise run out
+     * of space.
+     */
+    public static class Adaptive extends CollectionPolicy {
+        /** Weight, in percent, of the most recent collection in the moving averages. */
+        private static final int SAMPLE_WEIGHT_PERCENT = 25;
+        private static final int SHRINK_PERCENT = 10;
+        private static final int GROW_PERCENT = 20;
+        private static final int MIN_YOUNG_GENERATION_CHUNKS = 8;
+
+        /** The current young generation size, or zero before the first collection. */
+        private UnsignedWord youngGenerationSize = WordFactory.zero();
+        private long avgIncrementalPauseNanos;
+        private long avgCompletePauseNanos;
+        private long avgCollectionNanos;
+        private long avgMutatorNanos;
+
+        @Override
+        public boolean collectIncrementally() {
+            return true;
+        }
+
+        @Override
+        public boolean collectCompletely() {
+            if (estimateUsedHeapAtNextIncrementalCollection().aboveThan(getMaximumHeapSize())) {
+                return true;
+            }
+            if (GCImpl.getChunkBytes().belowOrEqual(getMinimumHeapSize())) {
+                return false;
+            }
+            return isWithinPauseGoal(avgCompletePauseNanos, getPauseGoalNanos()) && BySpaceAndTime.enoughTimeSpentOnIncrementalGCs();
+        }
+
+        /**
+         * Returns true if complete collections with the given average pause may be scheduled for
+         * balance with incremental collections, rather than only when space requires them.
+         */
+        static boolean isWithinPauseGoal(long avgCompletePauseNanos, long pauseGoalNanos) {
+            return avgCompletePauseNanos <= pauseGoalNanos;
+        }
+
+        /**
+         * Estimates the heap size at the next incremental collection assuming that the whole
+         * current young generation gets promoted.
+         */
+        private UnsignedWord estimateUsedHeapAtNextIncrementalCollection() {
+            UnsignedWord currentYoungBytes = HeapImpl.getHeapImpl().getYoungGeneration().getChunkBytes();
+            UnsignedWord youngBytes = getYoungGenerationSize(HeapPolicy.getMaximumYoungGenerationSize());
+            UnsignedWord oldBytes = getAccounting().getOldGenerationAfterChunkBytes();
+            return currentYoungBytes.add(youngBytes).add(oldBytes);
+        }
+
+        @Override
+        UnsignedWord getYoungGenerationSize(UnsignedWord maximumYoungGenerationSize) {
+            if (youngGenerationSize.equal(0) || youngGenerationSize.aboveThan(maximumYoungGenerationSize)) {
+                return maximumYoungGenerationSize;
+            }
+            return youngGenerationSize;
+        }
+
+        @Override
+        void onCollectionEnd(boolean completeCollection, Timers timers) {
+            long pauseNanos = timers.collection.getLastIntervalNanos();
+            if (completeCollection) {
+                avgCompletePauseNanos = average(avgCompletePauseNanos, pauseNanos);
+            } else {
+                avgIncrementalPauseNanos = average(avgIncrementalPauseNanos, pauseNanos);
+            }
+            avgCollectionNanos = average(avgCollectionNanos, pauseNanos);
+            avgMutatorNanos = average(avgMutatorNanos, timers.mutator.getLastIntervalNanos());
+
+            UnsignedWord maxSize = HeapPolicy.getMaximumYoungGenerationSize();
+            UnsignedWord minSize = HeapPolicy.getAlignedHeapChunkSize().multiply(MIN_YOUNG_GENERATION_CHUNKS);
+            long size = computeYoungGenerationSize(getYoungGenerationSize(maxSize).rawValue(), minSize.rawValue(), maxSize.rawValue(),
+                            avgIncrementalPauseNanos, avgCollectionNanos, avgMutatorNanos, getPauseGoalNanos(), Options.GCTimeRatio.getValue());
+            youngGenerationSize = WordFactory.unsigned(size);
+        }
+
+        /**
+         * Computes the young generation size for the next collection cycle from the current size
+         * and the moving averages of the recent collection and mutator times. The result is
+         * bounded by {@code minSize} and {@code maxSize}, where {@code maxSize} takes precedence.
+         */
+        static long computeYoungGenerationSize(long size, long minSize, long maxSize, long avgIncrementalPauseNanos, long avgCollectionNanos, long avgMutatorNanos,
+                        long pauseGoalNanos, int gcTimeRatio) {
+            long result = size;
+            if (avgIncrementalPauseNanos > pauseGoalNanos) {
+                /* Fewer live young objects to copy per collection. */
+                result -= result / 100 * SHRINK_PERCENT;
+            } else if (avgCollectionNanos * gcTimeRatio > avgMutatorNanos) {
+                /* Fewer collections for the same allocation volume. */
+                result += result / 100 * GROW_PERCENT;
+            }
+            return Math.min(Math.max(result, minSize), maxSize);
+        }
+
+        /**
+         * Returns the moving average after adding {@code sample}, weighted by
+         * {@code SAMPLE_WEIGHT_PERCENT}. The first sample is taken as is.
+         */
+        static long average(long average, long sample) {
+            if (average == 0) {
+                return sample;
+            }
+            return (average * (100 - SAMPLE_WEIGHT_PERCENT) + sample * SAMPLE_WEIGHT_PERCENT) / 100;
+        }
+
+        private static long getPauseGoalNanos() {
+            return TimeUtils.millisToNanos(Options.MaxGCPauseMillis.getValue());
+        }
+
+        @Override
+        public void nameToLog(Log log) {
+            log.string(getName()).string(": ").signed(Options.MaxGCPauseMillis.getValue()).string("ms pause goal, GC time ratio ").signed(Options.GCTimeRatio.getValue());
+        }
+
+        @Override
+        public String getName() {
+            return "adaptive";
+        }
+    }
 }
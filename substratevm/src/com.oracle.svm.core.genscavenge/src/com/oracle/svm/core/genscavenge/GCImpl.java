@@ -102,6 +102,7 @@ public final class GCImpl implements GC {
 
     private final GCAccounting accounting = new GCAccounting();
     private final Timers timers = new Timers();
+    private final GCPerfData perfData = new GCPerfData();
 
     private final CollectionVMOperation collectOperation = new CollectionVMOperation();
     private final NoAllocationVerifier noAllocationVerifier = NoAllocationVerifier.factory("GCImpl.GCImpl()", false);
@@ -168,9 +169,11 @@ public final class GCImpl implements GC {
         ThreadLocalAllocation.disableAndFlushForAllThreads();
 
         printGCBefore(cause.getName());
+        perfData.beforeCollection(cause.getName(), HeapImpl.getHeapImpl().getYoungGeneration().getEden().getChunkBytes());
         boolean outOfMemory = collectImpl(forceFullGC);
         HeapPolicy.setEdenAndYoungGenBytes(WordFactory.unsigned(0), accounting.getYoungChunkBytesAfter());
         printGCAfter(cause.getName());
+        perfData.afterCollection(cause.getName(), completeCollection, accounting, timers);
 
         finishCollection();
         timers.mutator.open();
@@ -229,6 +232,7 @@ public final class GCImpl implements GC {
         CommittedMemoryProvider.get().afterGarbageCollection(completeCollection);
 
         accounting.afterCollection(completeCollection, timers.collection);
+        policy.onCollectionEnd(completeCollection, timers);
         UnsignedWord maxBytes = HeapPolicy.getMaximumHeapSize();
         UnsignedWord usedBytes = getChunkBytes();
         boolean outOfMemory = usedBytes.aboveThan(maxBytes);
@@ -439,6 +443,10 @@ public final class GCImpl implements GC {
         return RuntimeAssertionsSupport.singleton().desiredAssertionStatus(GCImpl.class);
     }
 
+    GCPerfData getPerfData() {
+        return perfData;
+    }
+
     @Fold
     public static GCImpl getGCImpl() {
         GCImpl gcImpl = HeapImpl.getHeapImpl().getGCImpl();
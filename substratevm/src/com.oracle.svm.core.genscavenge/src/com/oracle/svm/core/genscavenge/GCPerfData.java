@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2021, 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.svm.core.genscavenge;
+
+import java.util.concurrent.TimeUnit;
+
+import org.graalvm.nativeimage.Platform;
+import org.graalvm.nativeimage.Platforms;
+import org.graalvm.nativeimage.hosted.Feature;
+import org.graalvm.word.UnsignedWord;
+
+import com.oracle.svm.core.SubstrateOptions;
+import com.oracle.svm.core.annotate.AutomaticFeature;
+import com.oracle.svm.core.annotate.Uninterruptible;
+import com.oracle.svm.core.jdk.UninterruptibleUtils;
+import com.oracle.svm.core.jvmstat.PerfDataHolder;
+import com.oracle.svm.core.jvmstat.PerfLong;
+import com.oracle.svm.core.jvmstat.PerfManager;
+import com.oracle.svm.core.jvmstat.PerfString;
+import com.oracle.svm.core.jvmstat.PerfUnit;
+import com.oracle.svm.core.jvmstat.PerfVariability;
+
+/**
+ * The performance counters of the garbage collector. The counters use the names that HotSpot uses
+ * for its serial collector, so that tools like jstat can display them. The young generation is
+ * reported as eden and a single survivor space that contains all survivor spaces.
+ *
+ * Apart from the eden usage, which is updated whenever a new chunk is handed out, all counters are
+ * updated at the end of each collection. Allocation is aggregated over all threads, so there are no
+ * per-thread allocation rates.
+ */
+final class GCPerfData implements PerfDataHolder {
+    private static final int MAX_CAUSE_LENGTH = 64;
+    private static final long[] PAUSE_HISTOGRAM_LIMITS_MILLIS = {1, 10, 100, 1000};
+    private static final UninterruptibleUtils.AtomicLong tlabFills = new UninterruptibleUtils.AtomicLong(0);
+
+    private final CollectorPerfData incrementalCollector = new CollectorPerfData(0);
+    private final CollectorPerfData completeCollector = new CollectorPerfData(1);
+    private final PerfString cause = new PerfString("sun.gc.cause", PerfVariability.VARIABLE, MAX_CAUSE_LENGTH);
+    private final PerfString lastCause = new PerfString("sun.gc.lastCause", PerfVariability.VARIABLE, MAX_CAUSE_LENGTH);
+
+    private final PerfLong youngCapacity = new PerfLong("sun.gc.generation.0.capacity", PerfUnit.BYTES, PerfVariability.VARIABLE);
+    private final PerfLong edenCapacity = new PerfLong("sun.gc.generation.0.space.0.capacity", PerfUnit.BYTES, PerfVariability.VARIABLE);
+    private final PerfLong edenUsed = new PerfLong("sun.gc.generation.0.space.0.used", PerfUnit.BYTES, PerfVariability.VARIABLE);
+    private final PerfLong survivorCapacity = new PerfLong("sun.gc.generation.0.space.1.capacity", PerfUnit.BYTES, PerfVariability.VARIABLE);
+    private final PerfLong survivorUsed = new PerfLong("sun.gc.generation.0.space.1.used", PerfUnit.BYTES, PerfVariability.VARIABLE);
+    private final PerfLong oldCapacity = new PerfLong("sun.gc.generation.1.capacity", PerfUnit.BYTES, PerfVariability.VARIABLE);
+    private final PerfLong oldSpaceCapacity = new PerfLong("sun.gc.generation.1.space.0.capacity", PerfUnit.BYTES, PerfVariability.VARIABLE);
+    private final PerfLong oldSpaceUsed = new PerfLong("sun.gc.generation.1.space.0.used", PerfUnit.BYTES, PerfVariability.VARIABLE);
+
+    private final PerfLong tlabFillsCounter = new PerfLong("sun.gc.tlab.fills", PerfUnit.EVENTS, PerfVariability.VARIABLE);
+    private final PerfLong tlabAlloc = new PerfLong("sun.gc.tlab.alloc", PerfUnit.BYTES, PerfVariability.VARIABLE);
+    private final PerfLong allocatedBytes = new PerfLong("com.oracle.svm.gc.allocatedBytes", PerfUnit.BYTES, PerfVariability.MONOTONIC);
+    private final PerfLong rootScanTime = new PerfLong("com.oracle.svm.gc.phases.rootScan.time", PerfUnit.TICKS, PerfVariability.MONOTONIC);
+    private final PerfLong scanGreyObjectsTime = new PerfLong("com.oracle.svm.gc.phases.scanGreyObjects.time", PerfUnit.TICKS, PerfVariability.MONOTONIC);
+    private final PerfLong referenceObjectsTime = new PerfLong("com.oracle.svm.gc.phases.referenceObjects.time", PerfUnit.TICKS, PerfVariability.MONOTONIC);
+    private final PerfLong releaseSpacesTime = new PerfLong("com.oracle.svm.gc.phases.releaseSpaces.time", PerfUnit.TICKS, PerfVariability.MONOTONIC);
+    private final PerfLong[] pauseHistogram = new PerfLong[PAUSE_HISTOGRAM_LIMITS_MILLIS.length + 1];
+    private long collectionStartNanos;
+
+    @Platforms(Platform.HOSTED_ONLY.class)
+    GCPerfData() {
+        for (int i = 0; i < PAUSE_HISTOGRAM_LIMITS_MILLIS.length; i++) {
+            pauseHistogram[i] = new PerfLong("com.oracle.svm.gc.pauseHistogram.under" + PAUSE_HISTOGRAM_LIMITS_MILLIS[i] + "ms", PerfUnit.EVENTS, PerfVariability.MONOTONIC);
+        }
+        long last = PAUSE_HISTOGRAM_LIMITS_MILLIS[PAUSE_HISTOGRAM_LIMITS_MILLIS.length - 1];
+        pauseHistogram[PAUSE_HISTOGRAM_LIMITS_MILLIS.length] = new PerfLong("com.oracle.svm.gc.pauseHistogram.over" + last + "ms", PerfUnit.EVENTS, PerfVariability.MONOTONIC);
+    }
+
+    @Override
+    public void allocate() {
+        incrementalCollector.allocate("young generation scavenger");
+        completeCollector.allocate("complete scavenger");
+        cause.allocate("No GC");
+        lastCause.allocate("No GC");
+        PerfManager.allocateConstant("sun.gc.policy.name", "Serial");
+        PerfManager.allocateConstant("sun.gc.policy.collectors", PerfUnit.NONE, 2);
+        PerfManager.allocateConstant("sun.gc.policy.generations", PerfUnit.NONE, 2);
+        PerfManager.allocateConstant("sun.gc.policy.maxTenuringThreshold", PerfUnit.NONE, HeapPolicy.getMaxSurvivorSpaces());
+        PerfManager.allocateConstant("sun.gc.policy.tenuringThreshold", PerfUnit.NONE, HeapPolicy.getMaxSurvivorSpaces());
+
+        long maxYoung = HeapPolicy.getMaximumYoungGenerationSize().rawValue();
+        long maxOld = HeapPolicy.getMaximumHeapSize().rawValue() - maxYoung;
+        allocateGeneration(0, "new", maxYoung);
+        allocateSpace(0, 0, "eden", maxYoung);
+        allocateSpace(0, 1, "s0", maxYoung);
+        allocateSpace(0, 2, "s1", 0);
+        allocateGeneration(1, "old", maxOld);
+        allocateSpace(1, 0, "old", maxOld);
+        youngCapacity.allocate();
+        edenCapacity.allocate();
+        edenUsed.allocate();
+        survivorCapacity.allocate();
+        survivorUsed.allocate();
+        PerfManager.allocateConstant("sun.gc.generation.0.space.2.capacity", PerfUnit.BYTES, 0);
+        PerfManager.allocateConstant("sun.gc.generation.0.space.2.used", PerfUnit.BYTES, 0);
+        oldCapacity.allocate();
+        oldSpaceCapacity.allocate();
+        oldSpaceUsed.allocate();
+
+        /* There is no separate memory for class metadata, it is part of the image heap. */
+        for (String space : new String[]{"metaspace", "compressedclassspace"}) {
+            PerfManager.allocateConstant("sun.gc." + space + ".capacity", PerfUnit.BYTES, 0);
+            PerfManager.allocateConstant("sun.gc." + space + ".maxCapacity", PerfUnit.BYTES, 0);
+            PerfManager.allocateConstant("sun.gc." + space + ".minCapacity", PerfUnit.BYTES, 0);
+            PerfManager.allocateConstant("sun.gc." + space + ".used", PerfUnit.BYTES, 0);
+        }
+
+        tlabFillsCounter.allocate();
+        tlabAlloc.allocate();
+        allocatedBytes.allocate();
+        rootScanTime.allocate();
+        scanGreyObjectsTime.allocate();
+        referenceObjectsTime.allocate();
+        releaseSpacesTime.allocate();
+        for (PerfLong bucket : pauseHistogram) {
+            bucket.allocate();
+        }
+    }
+
+    private static void allocateGeneration(int generation, String name, long maxCapacity) {
+        String prefix = "sun.gc.generation." + generation;
+        PerfManager.allocateConstant(prefix + ".name", name);
+        PerfManager.allocateConstant(prefix + ".spaces", PerfUnit.NONE, generation == 0 ? 3 : 1);
+        PerfManager.allocateConstant(prefix + ".minCapacity", PerfUnit.BYTES, 0);
+        PerfManager.allocateConstant(prefix + ".maxCapacity", PerfUnit.BYTES, maxCapacity);
+    }
+
+    private static void allocateSpace(int generation, int space, String name, long maxCapacity) {
+        String prefix = "sun.gc.generation." + generation + ".space." + space;
+        PerfManager.allocateConstant(prefix + ".name", name);
+        PerfManager.allocateConstant(prefix + ".initCapacity", PerfUnit.BYTES, 0);
+        PerfManager.allocateConstant(prefix + ".maxCapacity", PerfUnit.BYTES, maxCapacity);
+    }
+
+    @Uninterruptible(reason = "Called from uninterruptible code.", mayBeInlined = true)
+    static void noteTlabFill() {
+        if (PerfManager.isEnabled()) {
+            tlabFills.incrementAndGet();
+        }
+    }
+
+    /** Eden consists of whole chunks, so its capacity is always equal to its usage. */
+    void noteEdenUsed(UnsignedWord bytes) {
+        edenCapacity.setValue(bytes.rawValue());
+        edenUsed.setValue(bytes.rawValue());
+        youngCapacity.setValue(survivorCapacity.getValue() + bytes.rawValue());
+    }
+
+    /** Called at the start of a collection, after all TLABs have been flushed to eden. */
+    void beforeCollection(String causeName, UnsignedWord edenBytes) {
+        if (!PerfManager.isEnabled()) {
+            return;
+        }
+        collectionStartNanos = System.nanoTime();
+        cause.setValue(causeName);
+        tlabFillsCounter.setValue(tlabFills.getAndSet(0));
+        tlabAlloc.setValue(edenBytes.rawValue());
+    }
+
+    void afterCollection(String causeName, boolean completeCollection, GCAccounting accounting, Timers timers) {
+        if (!PerfManager.isEnabled()) {
+            return;
+        }
+        cause.setValue("No GC");
+        lastCause.setValue(causeName);
+
+        long endNanos = timers.collection.getFinish();
+        if (completeCollection) {
+            completeCollector.update(accounting.getCompleteCollectionCount(), accounting.getCompleteCollectionTotalNanos(), collectionStartNanos, endNanos);
+        } else {
+            incrementalCollector.update(accounting.getIncrementalCollectionCount(), accounting.getIncrementalCollectionTotalNanos(), collectionStartNanos, endNanos);
+        }
+
+        long survivorBytes = accounting.getYoungChunkBytesAfter().rawValue();
+        long oldBytes = accounting.getOldGenerationAfterChunkBytes().rawValue();
+        edenCapacity.setValue(0);
+        edenUsed.setValue(0);
+        survivorCapacity.setValue(survivorBytes);
+        survivorUsed.setValue(survivorBytes);
+        youngCapacity.setValue(survivorBytes);
+        oldCapacity.setValue(oldBytes);
+        oldSpaceCapacity.setValue(oldBytes);
+        oldSpaceUsed.setValue(oldBytes);
+
+        allocatedBytes.setValue(accounting.getAllocatedChunkBytes().rawValue());
+        rootScanTime.addValue(timers.rootScan.getMeasuredNanos());
+        scanGreyObjectsTime.addValue(timers.scanGreyObjects.getMeasuredNanos());
+        referenceObjectsTime.addValue(timers.referenceObjects.getMeasuredNanos());
+        releaseSpacesTime.addValue(timers.releaseSpaces.getMeasuredNanos());
+
+        long pauseMillis = TimeUnit.NANOSECONDS.toMillis(timers.collection.getMeasuredNanos());
+        int bucket = 0;
+        while (bucket < PAUSE_HISTOGRAM_LIMITS_MILLIS.length && pauseMillis >= PAUSE_HISTOGRAM_LIMITS_MILLIS[bucket]) {
+            bucket++;
+        }
+        pauseHistogram[bucket].increment();
+    }
+
+    private static final class CollectorPerfData {
+        private final int index;
+        final PerfLong invocations;
+        final PerfLong time;
+        final PerfLong lastEntryTime;
+        final PerfLong lastExitTime;
+
+        @Platforms(Platform.HOSTED_ONLY.class)
+        CollectorPerfData(int index) {
+            this.index = index;
+            String prefix = "sun.gc.collector." + index;
+            this.invocations = new PerfLong(prefix + ".invocations", PerfUnit.EVENTS, PerfVariability.MONOTONIC);
+            this.time = new PerfLong(prefix + ".time", PerfUnit.TICKS, PerfVariability.MONOTONIC);
+            this.lastEntryTime = new PerfLong(prefix + ".lastEntryTime", PerfUnit.TICKS, PerfVariability.VARIABLE);
+            this.lastExitTime = new PerfLong(prefix + ".lastExitTime", PerfUnit.TICKS, PerfVariability.VARIABLE);
+        }
+
+        void allocate(String name) {
+            PerfManager.allocateConstant("sun.gc.collector." + index + ".name", name);
+            invocations.allocate();
+            time.allocate();
+            lastEntryTime.allocate();
+            lastExitTime.allocate();
+        }
+
+        void update(long count, long totalNanos, long startNanos, long endNanos) {
+            invocations.setValue(count);
+            time.setValue(totalNanos);
+            lastEntryTime.setValue(startNanos);
+            lastExitTime.setValue(endNanos);
+        }
+    }
+}
+
+@AutomaticFeature
+class GCPerfDataFeature implements Feature {
+    @Override
+    public boolean isInConfiguration(IsInConfigurationAccess access) {
+        return SubstrateOptions.UseSerialGC.getValue() && PerfManager.isEnabled();
+    }
+
+    @Override
+    public void beforeAnalysis(BeforeAnalysisAccess access) {
+        PerfManager.singleton().register(GCImpl.getGCImpl().getPerfData());
+    }
+}
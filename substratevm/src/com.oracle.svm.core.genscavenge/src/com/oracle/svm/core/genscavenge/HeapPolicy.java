@@ -38,6 +38,7 @@ import com.oracle.svm.core.heap.GCCause;
 import com.oracle.svm.core.heap.PhysicalMemory;
 import com.oracle.svm.core.heap.ReferenceAccess;
 import com.oracle.svm.core.jdk.UninterruptibleUtils;
+import com.oracle.svm.core.jvmstat.PerfManager;
 import com.oracle.svm.core.option.RuntimeOptionValues;
 import com.oracle.svm.core.thread.VMOperation;
 import com.oracle.svm.core.util.UserError;
@@ -228,7 +229,10 @@ public final class HeapPolicy {
 
     public static void increaseEdenUsedBytes(UnsignedWord value) {
         youngUsedBytes.addAndGet(value);
-        edenUsedBytes.addAndGet(value);
+        UnsignedWord edenBytes = edenUsedBytes.addAndGet(value);
+        if (PerfManager.isEnabled()) {
+            GCImpl.getGCImpl().getPerfData().noteEdenUsed(edenBytes);
+        }
     }
 
     @Uninterruptible(reason = "Called from uninterruptible code.", mayBeInlined = true)
@@ -253,7 +257,7 @@ public final class HeapPolicy {
                 throw OUT_OF_MEMORY_ERROR;
             }
         } else {
-            UnsignedWord maxYoungSize = getMaximumYoungGenerationSize();
+            UnsignedWord maxYoungSize = GCImpl.getPolicy().getYoungGenerationSize(getMaximumYoungGenerationSize());
             boolean outOfMemory = maybeCollectOnAllocation(maxYoungSize);
             if (outOfMemory) {
                 throw OUT_OF_MEMORY_ERROR;
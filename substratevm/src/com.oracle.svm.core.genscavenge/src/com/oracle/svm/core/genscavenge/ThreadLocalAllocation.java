@@ -239,6 +239,7 @@ public final class ThreadLocalAllocation {
 
         HeapChunk.setNext(newTlabChunk, tlab.getUnalignedChunk());
         tlab.setUnalignedChunk(newTlabChunk);
+        GCPerfData.noteTlabFill();
 
         Pointer memory = UnalignedHeapChunk.allocateMemory(newTlabChunk, size);
         assert memory.isNonNull();
@@ -254,6 +255,7 @@ public final class ThreadLocalAllocation {
 
         retireCurrentAllocationChunk(tlab);
         registerNewAllocationChunk(tlab, newTlabChunk);
+        GCPerfData.noteTlabFill();
         assert size.belowOrEqual(availableTlabMemory(tlab)) : "Not enough TLAB space for allocation";
 
         // We just registered a new chunk, so TLAB top cannot be null.
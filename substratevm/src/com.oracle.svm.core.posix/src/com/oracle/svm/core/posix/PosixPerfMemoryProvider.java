@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2021, 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.svm.core.posix;
+
+import java.io.File;
+
+import org.graalvm.nativeimage.ImageSingletons;
+import org.graalvm.nativeimage.Platform;
+import org.graalvm.nativeimage.Platforms;
+import org.graalvm.nativeimage.StackValue;
+import org.graalvm.nativeimage.c.type.CCharPointer;
+import org.graalvm.nativeimage.c.type.CTypeConversion;
+import org.graalvm.nativeimage.c.type.CTypeConversion.CCharPointerHolder;
+import org.graalvm.nativeimage.hosted.Feature;
+import org.graalvm.word.Pointer;
+import org.graalvm.word.WordFactory;
+
+import com.oracle.svm.core.CErrorNumber;
+import com.oracle.svm.core.annotate.AutomaticFeature;
+import com.oracle.svm.core.jvmstat.PerfManager;
+import com.oracle.svm.core.jvmstat.PerfMemoryProvider;
+import com.oracle.svm.core.posix.headers.Errno;
+import com.oracle.svm.core.posix.headers.Fcntl;
+import com.oracle.svm.core.posix.headers.Mman;
+import com.oracle.svm.core.posix.headers.Unistd;
+
+/**
+ * Maps the performance data memory from the file {@code <tmpdir>/hsperfdata_<user>/<pid>}, which
+ * is where HotSpot places it and where jps, jstat and jcmd look for it. The file is only readable
+ * by the current user. It is deleted at shutdown, but the mapping stays valid until the process
+ * exits.
+ */
+class PosixPerfMemoryProvider implements PerfMemoryProvider {
+    private static final int DIRECTORY_PERMISSIONS = 0700;
+    private static final int GROUP_AND_OTHER_WRITE_PERMISSIONS = 0022;
+    private static final int FILE_PERMISSIONS = 0600;
+
+    private File backingFile;
+
+    @Platforms(Platform.HOSTED_ONLY.class)
+    PosixPerfMemoryProvider() {
+    }
+
+    @Override
+    public Pointer create(int size) {
+        File directory = new File(System.getProperty("java.io.tmpdir"), "hsperfdata_" + System.getProperty("user.name"));
+        int dirFd = openSecureDirectory(directory.getPath());
+        if (dirFd < 0) {
+            return WordFactory.nullPointer();
+        }
+        try {
+            return createBackingFile(directory, dirFd, size);
+        } finally {
+            Unistd.NoTransitions.close(dirFd);
+        }
+    }
+
+    /**
+     * Creates the directory if needed and opens it. Like HotSpot, the directory is only used if it
+     * is not a symbolic link, is owned by the current user and cannot be written by anyone else, so
+     * that other users can neither replace the file nor redirect it somewhere else. A directory
+     * created by HotSpot is readable by others, so that is accepted. All further operations are
+     * relative to the opened directory, which cannot be replaced after the checks.
+     */
+    private static int openSecureDirectory(String path) {
+        try (CCharPointerHolder cPath = CTypeConversion.toCString(path)) {
+            if (PosixStat.mkdir(cPath.get(), DIRECTORY_PERMISSIONS) != 0 && CErrorNumber.getCErrorNumber() != Errno.EEXIST()) {
+                return -1;
+            }
+            int fd = Fcntl.NoTransitions.open(cPath.get(), Fcntl.O_RDONLY() | Fcntl.O_DIRECTORY() | Fcntl.O_NOFOLLOW(), 0);
+            if (fd < 0) {
+                return -1;
+            }
+            if (!PosixStat.isOwnedByCurrentUser(fd, GROUP_AND_OTHER_WRITE_PERMISSIONS)) {
+                Unistd.NoTransitions.close(fd);
+                return -1;
+            }
+            return fd;
+        }
+    }
+
+    private Pointer createBackingFile(File directory, int dirFd, int size) {
+        String name = Integer.toString(Unistd.getpid());
+        int fd;
+        try (CCharPointerHolder cName = CTypeConversion.toCString(name)) {
+            /* The file may be a leftover of a crashed process that had the same pid. */
+            Unistd.unlinkat(dirFd, cName.get(), 0);
+            fd = Fcntl.openat(dirFd, cName.get(), Fcntl.O_RDWR() | Fcntl.O_CREAT() | Fcntl.O_EXCL() | Fcntl.O_NOFOLLOW(), FILE_PERMISSIONS);
+            if (fd < 0) {
+                return WordFactory.nullPointer();
+            }
+            try {
+                /* Extend the file to its final size, all bytes read as zero. */
+                CCharPointer zero = StackValue.get(CCharPointer.class);
+                zero.write((byte) 0);
+                Pointer memory = WordFactory.nullPointer();
+                if (Unistd.lseek(fd, WordFactory.signed(size - 1), Unistd.SEEK_SET()).equal(size - 1) && Unistd.write(fd, zero, WordFactory.unsigned(1)).equal(1)) {
+                    memory = Mman.mmap(WordFactory.nullPointer(), WordFactory.unsigned(size), Mman.PROT_READ() | Mman.PROT_WRITE(), Mman.MAP_SHARED(), fd, 0);
+                }
+                if (memory.isNull() || memory.equal(Mman.MAP_FAILED())) {
+                    Unistd.unlinkat(dirFd, cName.get(), 0);
+                    return WordFactory.nullPointer();
+                }
+                backingFile = new File(directory, name);
+                return memory;
+            } finally {
+                Unistd.NoTransitions.close(fd);
+            }
+        }
+    }
+
+    @Override
+    public void teardown() {
+        if (backingFile != null) {
+            backingFile.delete();
+            backingFile = null;
+        }
+    }
+}
+
+@AutomaticFeature
+class PosixPerfMemoryFeature implements Feature {
+    @Override
+    public boolean isInConfiguration(IsInConfigurationAccess access) {
+        return PerfManager.isEnabled();
+    }
+
+    @Override
+    public void afterRegistration(AfterRegistrationAccess access) {
+        ImageSingletons.add(PerfMemoryProvider.class, new PosixPerfMemoryProvider());
+    }
+}
@@ -49,6 +49,7 @@ import com.oracle.svm.core.util.VMError;
 
 public class PosixRawFileOperationSupport extends AbstractRawFileOperationSupport {
     private static final int DEFAULT_PERMISSIONS = 0666;
+    private static final int PRIVATE_PERMISSIONS = 0600;
 
     @Platforms(Platform.HOSTED_ONLY.class)
     public PosixRawFileOperationSupport(boolean useNativeByteOrder) {
@@ -65,6 +66,16 @@ public class PosixRawFileOperationSupport extends AbstractRawFileOperationSuppor
         }
     }
 
+    @Override
+    public RawFileDescriptor createPrivate(File file, FileAccessMode mode) {
+        String path = file.getPath();
+        int flags = parseMode(mode) | Fcntl.O_CREAT() | Fcntl.O_EXCL() | Fcntl.O_NOFOLLOW();
+
+        try (CTypeConversion.CCharPointerHolder cPath = CTypeConversion.toCString(path)) {
+            return WordFactory.signed(Fcntl.NoTransitions.open(cPath.get(), flags, PRIVATE_PERMISSIONS));
+        }
+    }
+
     @Uninterruptible(reason = "Called from uninterruptible code.", mayBeInlined = true)
     @Override
     public boolean isValid(RawFileDescriptor fd) {
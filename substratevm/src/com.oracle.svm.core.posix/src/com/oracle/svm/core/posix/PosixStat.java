@@ -27,12 +27,14 @@ package com.oracle.svm.core.posix;
 import org.graalvm.nativeimage.Platform;
 import org.graalvm.nativeimage.Platforms;
 import org.graalvm.nativeimage.StackValue;
+import org.graalvm.nativeimage.c.type.CCharPointer;
 import org.graalvm.word.SignedWord;
 import org.graalvm.word.WordFactory;
 
 import com.oracle.svm.core.CErrorNumber;
 import com.oracle.svm.core.annotate.Uninterruptible;
 import com.oracle.svm.core.posix.headers.Errno;
+import com.oracle.svm.core.posix.headers.Unistd;
 import com.oracle.svm.core.posix.headers.darwin.DarwinStat;
 import com.oracle.svm.core.posix.headers.linux.LinuxStat;
 import com.oracle.svm.core.util.VMError;
@@ -70,6 +72,43 @@ public final class PosixStat {
         return WordFactory.signed(size);
     }
 
+    public static int mkdir(CCharPointer pathname, int mode) {
+        if (Platform.includedIn(Platform.LINUX.class)) {
+            return LinuxStat.mkdir(pathname, mode);
+        } else if (Platform.includedIn(Platform.DARWIN.class)) {
+            return DarwinStat.mkdir(pathname, mode);
+        } else {
+            throw VMError.shouldNotReachHere("Unsupported platform");
+        }
+    }
+
+    /**
+     * Returns true if the open file is owned by the effective user of the process and none of the
+     * given permission bits are set in its mode.
+     */
+    public static boolean isOwnedByCurrentUser(int fd, int disallowedPermissions) {
+        int mode;
+        int owner;
+        if (Platform.includedIn(Platform.LINUX.class)) {
+            LinuxStat.stat64 stat = StackValue.get(LinuxStat.stat64.class);
+            if (LinuxStat.fstat64(fd, stat) != 0) {
+                return false;
+            }
+            mode = stat.st_mode();
+            owner = stat.st_uid();
+        } else if (Platform.includedIn(Platform.DARWIN.class)) {
+            DarwinStat.stat64 stat = StackValue.get(DarwinStat.stat64.class);
+            if (DarwinStat.fstat64(fd, stat) != 0) {
+                return false;
+            }
+            mode = stat.st_mode();
+            owner = stat.st_uid();
+        } else {
+            throw VMError.shouldNotReachHere("Unsupported platform");
+        }
+        return owner == Unistd.geteuid() && (mode & disallowedPermissions) == 0;
+    }
+
     @Platforms(Platform.HOSTED_ONLY.class)
     private PosixStat() {
     }
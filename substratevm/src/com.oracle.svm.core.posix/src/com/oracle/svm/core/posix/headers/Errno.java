@@ -55,6 +55,9 @@ public class Errno {
     @CConstant
     public static native int EBUSY();
 
+    @CConstant
+    public static native int EEXIST();
+
     @CConstant
     public static native int ETIMEDOUT();
 
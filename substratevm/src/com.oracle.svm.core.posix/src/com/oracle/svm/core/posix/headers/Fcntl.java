@@ -50,6 +50,18 @@ public class Fcntl {
     @CConstant
     public static native int O_CREAT();
 
+    @CConstant
+    public static native int O_EXCL();
+
+    @CConstant
+    public static native int O_NOFOLLOW();
+
+    @CConstant
+    public static native int O_DIRECTORY();
+
+    @CFunction
+    public static native int openat(int dirfd, CCharPointer pathname, int flags, int mode);
+
     public static class NoTransitions {
         @CFunction(transition = Transition.NO_TRANSITION)
         public static native int open(CCharPointer pathname, int flags, int mode);
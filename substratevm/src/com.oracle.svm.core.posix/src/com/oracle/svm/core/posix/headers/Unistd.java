@@ -91,6 +91,9 @@ public class Unistd {
     @CFunction
     public static native int getpid();
 
+    @CFunction
+    public static native int unlinkat(int dirfd, CCharPointer pathname, int flags);
+
     @CFunction
     public static native int getuid();
 
@@ -26,8 +26,10 @@ package com.oracle.svm.core.posix.headers.darwin;
 
 import org.graalvm.nativeimage.c.CContext;
 import org.graalvm.nativeimage.c.function.CFunction;
+import org.graalvm.nativeimage.c.struct.AllowWideningCast;
 import org.graalvm.nativeimage.c.struct.CField;
 import org.graalvm.nativeimage.c.struct.CStruct;
+import org.graalvm.nativeimage.c.type.CCharPointer;
 import org.graalvm.word.PointerBase;
 
 import com.oracle.svm.core.posix.headers.PosixDirectives;
@@ -42,6 +44,13 @@ public class DarwinStat {
 
     @CStruct(addStructKeyword = true)
     public interface stat64 extends PointerBase {
+        @CField
+        @AllowWideningCast
+        int st_mode();
+
+        @CField
+        int st_uid();
+
         @CField
         long st_size();
     }
@@ -49,6 +58,9 @@ public class DarwinStat {
     @CFunction("fstat64")
     public static native int fstat64(int fd, stat64 buf);
 
+    @CFunction
+    public static native int mkdir(CCharPointer pathname, int mode);
+
     public static class NoTransitions {
         @CFunction(transition = CFunction.Transition.NO_TRANSITION)
         public static native int fstat64(int fd, stat64 buf);
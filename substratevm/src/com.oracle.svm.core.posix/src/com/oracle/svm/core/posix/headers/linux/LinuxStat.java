@@ -28,6 +28,7 @@ import org.graalvm.nativeimage.c.CContext;
 import org.graalvm.nativeimage.c.function.CFunction;
 import org.graalvm.nativeimage.c.struct.CField;
 import org.graalvm.nativeimage.c.struct.CStruct;
+import org.graalvm.nativeimage.c.type.CCharPointer;
 import org.graalvm.word.PointerBase;
 
 import com.oracle.svm.core.posix.headers.PosixDirectives;
@@ -45,6 +46,12 @@ public class LinuxStat {
         @CField
         long st_ino();
 
+        @CField
+        int st_mode();
+
+        @CField
+        int st_uid();
+
         @CField
         long st_size();
     }
@@ -52,6 +59,9 @@ public class LinuxStat {
     @CFunction
     public static native int fstat64(int fd, stat64 buf);
 
+    @CFunction
+    public static native int mkdir(CCharPointer pathname, int mode);
+
     public static class NoTransitions {
         @CFunction(transition = CFunction.Transition.NO_TRANSITION)
         public static native int fstat64(int fd, stat64 buf);
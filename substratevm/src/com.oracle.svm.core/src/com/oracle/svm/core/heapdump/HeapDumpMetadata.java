@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2021, 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.svm.core.heapdump;
+
+import org.graalvm.compiler.api.replacements.Fold;
+import org.graalvm.nativeimage.ImageSingletons;
+import org.graalvm.nativeimage.Platform;
+import org.graalvm.nativeimage.Platforms;
+
+import com.oracle.svm.core.annotate.UnknownObjectField;
+import com.oracle.svm.core.hub.DynamicHub;
+
+import jdk.vm.ci.meta.JavaKind;
+
+/**
+ * The class and field layout information that is necessary to write a heap dump at run time. The
+ * image does not contain field metadata for all classes, so the names, HPROF types and locations
+ * of all fields are collected at image build time and stored in a few flat arrays in the image
+ * heap. All arrays that are indexed by a type are indexed by {@link DynamicHub#getTypeID()}.
+ * <p>
+ * Like {@link com.oracle.svm.core.StaticFieldsSupport}, the arrays are filled after static analysis
+ * when the field locations are known.
+ */
+public final class HeapDumpMetadata {
+
+    /** The hub of every class that is part of the heap dump, or null. */
+    @UnknownObjectField(types = {DynamicHub[].class}) DynamicHub[] hubs;
+    /** The class names in the internal form that is used by HPROF, e.g., {@code java/lang/Object}. */
+    @UnknownObjectField(types = {String[].class}) String[] classNames;
+    /** 0 for instance classes, the {@link HeapDumpWriter HPROF type} of the elements for arrays. */
+    @UnknownObjectField(types = {byte[].class}) byte[] arrayElementTypes;
+    /** The number of bytes of field values in an instance dump, including superclass fields. */
+    @UnknownObjectField(types = {int[].class}) int[] instanceDumpSizes;
+
+    /**
+     * Start indices into the field arrays. The instance fields declared by the type with ID
+     * {@code t} are {@code [fieldStarts[2 * t], fieldStarts[2 * t + 1])}, its static fields are
+     * {@code [fieldStarts[2 * t + 1], fieldStarts[2 * t + 2])}.
+     */
+    @UnknownObjectField(types = {int[].class}) int[] fieldStarts;
+    @UnknownObjectField(types = {String[].class}) String[] fieldNames;
+    @UnknownObjectField(types = {byte[].class}) byte[] fieldTypes;
+    /**
+     * The offset of an instance field in its object, or of a static field in the static field
+     * array that holds it.
+     */
+    @UnknownObjectField(types = {int[].class}) int[] fieldLocations;
+
+    /** All distinct class and field names, which are written as HPROF string records. */
+    @UnknownObjectField(types = {String[].class}) String[] names;
+    /** The empty string from {@link #names}, used for names that are unknown at run time. */
+    @UnknownObjectField(types = {String.class}) String emptyName;
+
+    @Platforms(Platform.HOSTED_ONLY.class)
+    public HeapDumpMetadata() {
+    }
+
+    @Fold
+    static HeapDumpMetadata singleton() {
+        return ImageSingletons.lookup(HeapDumpMetadata.class);
+    }
+
+    /** Returns the HPROF type of values of the given kind. */
+    @Platforms(Platform.HOSTED_ONLY.class)
+    public static byte typeOf(JavaKind kind) {
+        return HeapDumpWriter.typeOf(kind);
+    }
+
+    /** Returns the number of bytes of a value of the given HPROF type in a heap dump. */
+    @Platforms(Platform.HOSTED_ONLY.class)
+    public static int sizeOf(byte type) {
+        return HeapDumpWriter.sizeOf(type);
+    }
+
+    @Platforms(Platform.HOSTED_ONLY.class)
+    public void setClassData(DynamicHub[] newHubs, String[] newClassNames, byte[] newArrayElementTypes, int[] newInstanceDumpSizes) {
+        this.hubs = newHubs;
+        this.classNames = newClassNames;
+        this.arrayElementTypes = newArrayElementTypes;
+        this.instanceDumpSizes = newInstanceDumpSizes;
+    }
+
+    @Platforms(Platform.HOSTED_ONLY.class)
+    public void setFieldData(int[] newFieldStarts, String[] newFieldNames, byte[] newFieldTypes, int[] newFieldLocations) {
+        this.fieldStarts = newFieldStarts;
+        this.fieldNames = newFieldNames;
+        this.fieldTypes = newFieldTypes;
+        this.fieldLocations = newFieldLocations;
+    }
+
+    @Platforms(Platform.HOSTED_ONLY.class)
+    public void setNames(String[] newNames, String newEmptyName) {
+        this.names = newNames;
+        this.emptyName = newEmptyName;
+    }
+}
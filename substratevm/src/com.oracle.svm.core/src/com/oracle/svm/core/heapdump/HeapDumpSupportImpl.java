@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2021, 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.svm.core.heapdump;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.graalvm.nativeimage.Platform;
+import org.graalvm.nativeimage.Platforms;
+import org.graalvm.nativeimage.UnmanagedMemory;
+import org.graalvm.nativeimage.impl.HeapDumpSupport;
+import org.graalvm.word.Pointer;
+import org.graalvm.word.WordFactory;
+
+import com.oracle.svm.core.heap.GCCause;
+import com.oracle.svm.core.heap.Heap;
+import com.oracle.svm.core.os.RawFileOperationSupport;
+import com.oracle.svm.core.os.RawFileOperationSupport.FileAccessMode;
+import com.oracle.svm.core.os.RawFileOperationSupport.RawFileDescriptor;
+import com.oracle.svm.core.thread.JavaVMOperation;
+
+/**
+ * Implements {@link org.graalvm.nativeimage.VMRuntime#dumpHeap} by writing an HPROF file, see
+ * {@link HeapDumpWriter}.
+ */
+public final class HeapDumpSupportImpl implements HeapDumpSupport {
+
+    @Platforms(Platform.HOSTED_ONLY.class)
+    public HeapDumpSupportImpl() {
+    }
+
+    @Override
+    public void dumpHeap(String outputFile, boolean live) throws IOException {
+        File file = new File(outputFile);
+        if (file.exists()) {
+            throw new IOException("File exists: " + outputFile);
+        }
+        if (live) {
+            /* Only objects that survive a full collection are part of the dump. */
+            Heap.getHeap().getGC().collectCompletely(GCCause.JavaLangSystemGC);
+        }
+
+        RawFileOperationSupport fs = RawFileOperationSupport.bigEndian();
+        /* Like HotSpot, never overwrite a file and keep the dump private to the current user. */
+        RawFileDescriptor fd = fs.createPrivate(file, FileAccessMode.READ_WRITE);
+        if (!fs.isValid(fd)) {
+            throw new IOException("Could not create heap dump file: " + outputFile);
+        }
+        Pointer buffer = WordFactory.nullPointer();
+        try {
+            buffer = UnmanagedMemory.malloc(HeapDumpWriter.bufferSize());
+            DumpHeapOperation operation = new DumpHeapOperation(new HeapDumpWriter(fd, buffer));
+            operation.enqueue();
+            if (!operation.success) {
+                throw new IOException("Could not write heap dump file: " + outputFile);
+            }
+        } finally {
+            if (buffer.isNonNull()) {
+                UnmanagedMemory.free(buffer);
+            }
+            fs.close(fd);
+        }
+    }
+
+    private static class DumpHeapOperation extends JavaVMOperation {
+        private final HeapDumpWriter writer;
+        private boolean success;
+
+        DumpHeapOperation(HeapDumpWriter writer) {
+            super("DumpHeap", SystemEffect.SAFEPOINT);
+            this.writer = writer;
+        }
+
+        @Override
+        protected void operate() {
+            success = writer.writeHeapDump();
+        }
+    }
+}
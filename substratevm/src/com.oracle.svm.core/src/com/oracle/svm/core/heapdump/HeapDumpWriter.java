@@ -0,0 +1,735 @@
+/*
+ * Copyright (c) 2021, 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.svm.core.heapdump;
+
+import org.graalvm.compiler.nodes.java.ArrayLengthNode;
+import org.graalvm.compiler.word.Word;
+import org.graalvm.nativeimage.CurrentIsolate;
+import org.graalvm.nativeimage.IsolateThread;
+import org.graalvm.nativeimage.Platform;
+import org.graalvm.nativeimage.Platforms;
+import org.graalvm.nativeimage.c.function.CodePointer;
+import org.graalvm.word.Pointer;
+import org.graalvm.word.WordFactory;
+
+import com.oracle.svm.core.StaticFieldsSupport;
+import com.oracle.svm.core.annotate.NeverInline;
+import com.oracle.svm.core.annotate.RestrictHeapAccess;
+import com.oracle.svm.core.c.NonmovableObjectArray;
+import com.oracle.svm.core.code.CodeInfo;
+import com.oracle.svm.core.code.CodeInfoAccess;
+import com.oracle.svm.core.code.CodeInfoTable;
+import com.oracle.svm.core.code.FrameInfoDecoder.FrameInfoQueryResultAllocator;
+import com.oracle.svm.core.code.FrameInfoDecoder.ValueInfoAllocator;
+import com.oracle.svm.core.code.FrameInfoQueryResult;
+import com.oracle.svm.core.code.FrameInfoQueryResult.ValueInfo;
+import com.oracle.svm.core.code.ReusableTypeReader;
+import com.oracle.svm.core.deopt.DeoptimizedFrame;
+import com.oracle.svm.core.heap.Heap;
+import com.oracle.svm.core.heap.ObjectHeader;
+import com.oracle.svm.core.heap.ObjectReferenceVisitor;
+import com.oracle.svm.core.heap.ObjectVisitor;
+import com.oracle.svm.core.heap.ReferenceAccess;
+import com.oracle.svm.core.hub.DynamicHub;
+import com.oracle.svm.core.hub.LayoutEncoding;
+import com.oracle.svm.core.os.RawFileOperationSupport;
+import com.oracle.svm.core.os.RawFileOperationSupport.RawFileDescriptor;
+import com.oracle.svm.core.snippets.KnownIntrinsics;
+import com.oracle.svm.core.stack.JavaStackWalker;
+import com.oracle.svm.core.stack.ParameterizedStackFrameVisitor;
+import com.oracle.svm.core.thread.JavaThreads;
+import com.oracle.svm.core.thread.VMOperation;
+import com.oracle.svm.core.thread.VMThreads;
+
+import jdk.vm.ci.meta.JavaKind;
+
+/**
+ * Writes a heap dump in the HPROF binary format (version 1.0.2) that is understood by the usual
+ * heap analysis tools. The dump contains a class dump for every class of the image, an instance or
+ * array dump for every object of the image heap and the collected heap, the stack traces of all
+ * threads, and the following GC roots: classes, thread objects, references from stack frames, and
+ * all objects of the image heap.
+ * <p>
+ * The writer must run in a VM operation at a safepoint and must not allocate Java objects while
+ * dumping, so that the heap does not change while it is walked. All output is staged in a native
+ * buffer of a fixed size that is flushed to the file whenever it is full, i.e., the extra memory
+ * needed for a heap dump does not depend on the size of the heap. Object IDs are the addresses of
+ * the objects, string IDs are the addresses of the {@link String} objects.
+ */
+final class HeapDumpWriter {
+
+    /* HPROF basic types. */
+    static final byte TYPE_OBJECT = 2;
+    static final byte TYPE_BOOLEAN = 4;
+    static final byte TYPE_CHAR = 5;
+    static final byte TYPE_FLOAT = 6;
+    static final byte TYPE_DOUBLE = 7;
+    static final byte TYPE_BYTE = 8;
+    static final byte TYPE_SHORT = 9;
+    static final byte TYPE_INT = 10;
+    static final byte TYPE_LONG = 11;
+
+    /* Top-level record tags. */
+    private static final int TAG_STRING = 0x01;
+    private static final int TAG_LOAD_CLASS = 0x02;
+    private static final int TAG_STACK_FRAME = 0x04;
+    private static final int TAG_STACK_TRACE = 0x05;
+    private static final int TAG_HEAP_DUMP_SEGMENT = 0x1C;
+    private static final int TAG_HEAP_DUMP_END = 0x2C;
+
+    /* Sub-record tags of heap dump segments. */
+    private static final int ROOT_UNKNOWN = 0xFF;
+    private static final int ROOT_JAVA_FRAME = 0x03;
+    private static final int ROOT_STICKY_CLASS = 0x05;
+    private static final int ROOT_THREAD_OBJECT = 0x08;
+    private static final int CLASS_DUMP = 0x20;
+    private static final int INSTANCE_DUMP = 0x21;
+    private static final int OBJECT_ARRAY_DUMP = 0x22;
+    private static final int PRIMITIVE_ARRAY_DUMP = 0x23;
+
+    private static final int ID_SIZE = 8;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    /**
+     * A heap dump segment is closed and a new one started once it exceeds this size, so that the
+     * segment length always fits into the unsigned 32-bit length field of the record header.
+     */
+    private static final long MAX_SEGMENT_SIZE = 1L << 30;
+    /** Serial of the empty stack trace that is used for all classes and objects. */
+    private static final int EMPTY_STACK_TRACE_SERIAL = 1;
+
+    private final HeapDumpMetadata metadata;
+    private final RawFileDescriptor fd;
+    private final Pointer buffer;
+    private final HeapObjectVisitor heapObjectVisitor;
+    private final StackTraceVisitor stackTraceVisitor;
+    private final StackRootVisitor stackRootVisitor;
+    private final ReusableTypeReader frameInfoReader;
+    private final SingleShotFrameInfoQueryResultAllocator frameInfoAllocator;
+    private final NullValueInfoAllocator valueInfoAllocator;
+
+    private int bufferPosition;
+    private long flushedBytes;
+    private boolean error;
+    /** File position of the body of the current heap dump segment. */
+    private long segmentStart;
+    private long nextFrameId;
+
+    /** Allocates all data structures of the writer, must be called before the VM operation. */
+    HeapDumpWriter(RawFileDescriptor fd, Pointer buffer) {
+        this.metadata = HeapDumpMetadata.singleton();
+        this.fd = fd;
+        this.buffer = buffer;
+        this.heapObjectVisitor = new HeapObjectVisitor();
+        this.stackTraceVisitor = new StackTraceVisitor();
+        this.stackRootVisitor = new StackRootVisitor();
+        this.frameInfoReader = new ReusableTypeReader();
+        this.frameInfoAllocator = new SingleShotFrameInfoQueryResultAllocator();
+        this.valueInfoAllocator = new NullValueInfoAllocator();
+    }
+
+    static int bufferSize() {
+        return BUFFER_SIZE;
+    }
+
+    @Platforms(Platform.HOSTED_ONLY.class)
+    static byte typeOf(JavaKind kind) {
+        switch (kind) {
+            case Object:
+                return TYPE_OBJECT;
+            case Boolean:
+                return TYPE_BOOLEAN;
+            case Char:
+                return TYPE_CHAR;
+            case Float:
+                return TYPE_FLOAT;
+            case Double:
+                return TYPE_DOUBLE;
+            case Byte:
+                return TYPE_BYTE;
+            case Short:
+                return TYPE_SHORT;
+            case Int:
+                return TYPE_INT;
+            case Long:
+                return TYPE_LONG;
+            default:
+                throw new IllegalArgumentException(kind.toString());
+        }
+    }
+
+    static int sizeOf(byte type) {
+        switch (type) {
+            case TYPE_BOOLEAN:
+            case TYPE_BYTE:
+                return 1;
+            case TYPE_CHAR:
+            case TYPE_SHORT:
+                return 2;
+            case TYPE_FLOAT:
+            case TYPE_INT:
+                return 4;
+            case TYPE_DOUBLE:
+            case TYPE_LONG:
+                return 8;
+            default:
+                return ID_SIZE;
+        }
+    }
+
+    /**
+     * Writes the complete heap dump. Returns false if writing to the file failed, in which case
+     * the file is incomplete.
+     */
+    @RestrictHeapAccess(access = RestrictHeapAccess.Access.NO_ALLOCATION, reason = "Must not allocate while dumping the heap.")
+    boolean writeHeapDump() {
+        assert VMOperation.isInProgressAtSafepoint();
+
+        writeHeader();
+        writeNames();
+        writeStackTraceHeader(EMPTY_STACK_TRACE_SERIAL, 0, 0);
+        writeLoadClasses();
+        writeThreadStackTraces();
+
+        startSegment();
+        writeClassDumps();
+        writeThreadRoots();
+        heapObjectVisitor.imageHeap = true;
+        Heap.getHeap().walkImageHeapObjects(heapObjectVisitor);
+        heapObjectVisitor.imageHeap = false;
+        Heap.getHeap().walkCollectedHeapObjects(heapObjectVisitor);
+        endSegment();
+
+        writeRecordHeader(TAG_HEAP_DUMP_END, 0);
+        flush();
+        return !error;
+    }
+
+    private void writeHeader() {
+        String format = "JAVA PROFILE 1.0.2";
+        for (int i = 0; i < format.length(); i++) {
+            writeByte(format.charAt(i));
+        }
+        writeByte(0);
+        writeInt(ID_SIZE);
+        writeLong(System.currentTimeMillis());
+    }
+
+    private void writeNames() {
+        for (String name : metadata.names) {
+            writeString(name);
+        }
+    }
+
+    private void writeString(String value) {
+        writeRecordHeader(TAG_STRING, ID_SIZE + utf8Length(value));
+        writeObjectId(value);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c != 0 && c < 0x80) {
+                writeByte(c);
+            } else if (c < 0x800) {
+                writeByte(0xC0 | (c >> 6));
+                writeByte(0x80 | (c & 0x3F));
+            } else {
+                writeByte(0xE0 | (c >> 12));
+                writeByte(0x80 | ((c >> 6) & 0x3F));
+                writeByte(0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    private static int utf8Length(String value) {
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c != 0 && c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    private void writeLoadClasses() {
+        DynamicHub[] hubs = metadata.hubs;
+        for (int typeId = 0; typeId < hubs.length; typeId++) {
+            if (hubs[typeId] != null) {
+                writeRecordHeader(TAG_LOAD_CLASS, 4 + ID_SIZE + 4 + ID_SIZE);
+                writeInt(classSerial(typeId));
+                writeObjectId(hubs[typeId]);
+                writeInt(EMPTY_STACK_TRACE_SERIAL);
+                writeObjectId(metadata.classNames[typeId]);
+            }
+        }
+    }
+
+    private static int classSerial(int typeId) {
+        return typeId + 1;
+    }
+
+    private static int threadSerial(int threadIndex) {
+        return threadIndex + 1;
+    }
+
+    private static int stackTraceSerial(int threadIndex) {
+        return EMPTY_STACK_TRACE_SERIAL + 1 + threadIndex;
+    }
+
+    private void writeStackTraceHeader(int serial, int threadSerial, int frameCount) {
+        writeRecordHeader(TAG_STACK_TRACE, 4 + 4 + 4 + frameCount * ID_SIZE);
+        writeInt(serial);
+        writeInt(threadSerial);
+        writeInt(frameCount);
+    }
+
+    /**
+     * Writes a stack frame record for every (inlined) Java frame of every thread, followed by one
+     * stack trace record per thread that lists the IDs of its stack frames.
+     */
+    private void writeThreadStackTraces() {
+        int threadIndex = 0;
+        for (IsolateThread thread = VMThreads.firstThread(); thread.isNonNull(); thread = VMThreads.nextThread(thread)) {
+            long firstFrameId = nextFrameId + 1;
+            stackTraceVisitor.frameCount = 0;
+            walkStack(thread, stackTraceVisitor);
+
+            int frameCount = stackTraceVisitor.frameCount;
+            writeStackTraceHeader(stackTraceSerial(threadIndex), threadSerial(threadIndex), frameCount);
+            for (int i = 0; i < frameCount; i++) {
+                writeId(firstFrameId + i);
+            }
+            threadIndex++;
+        }
+    }
+
+    private void writeStackFrame(FrameInfoQueryResult frameInfo) {
+        String methodName = frameInfo.getSourceMethodName();
+        if (methodName == null) {
+            methodName = metadata.emptyName;
+        }
+        String sourceFileName = frameInfo.getSourceFileName();
+        if (sourceFileName == null) {
+            sourceFileName = metadata.emptyName;
+        }
+        Class<?> sourceClass = frameInfo.getSourceClass();
+        int lineNumber = frameInfo.getSourceLineNumber();
+
+        /* These strings are not known at image build time, so we write them on demand. */
+        writeString(methodName);
+        writeString(sourceFileName);
+
+        writeRecordHeader(TAG_STACK_FRAME, 4 * ID_SIZE + 4 + 4);
+        writeId(++nextFrameId);
+        writeObjectId(methodName);
+        writeObjectId(metadata.emptyName);
+        writeObjectId(sourceFileName);
+        writeInt(sourceClass == null ? 0 : classSerial(DynamicHub.fromClass(sourceClass).getTypeID()));
+        writeInt(lineNumber >= 0 ? lineNumber : -1);
+    }
+
+    /**
+     * Visits the (inlined) Java frames of one physical stack frame and optionally writes a stack
+     * frame record for each of them. Returns the number of Java frames.
+     */
+    private int visitJavaFrames(CodePointer ip, CodeInfo codeInfo, DeoptimizedFrame deoptimizedFrame, boolean write) {
+        int count = 0;
+        if (deoptimizedFrame != null) {
+            for (DeoptimizedFrame.VirtualFrame frame = deoptimizedFrame.getTopFrame(); frame != null; frame = frame.getCaller()) {
+                if (write) {
+                    writeStackFrame(frame.getFrameInfo());
+                }
+                count++;
+            }
+        } else {
+            frameInfoReader.reset();
+            long entryOffset = CodeInfoAccess.initFrameInfoReader(codeInfo, ip, frameInfoReader);
+            if (entryOffset >= 0) {
+                boolean isFirst = true;
+                FrameInfoQueryResult frameInfo;
+                frameInfoAllocator.reload();
+                while ((frameInfo = CodeInfoAccess.nextFrameInfo(codeInfo, entryOffset, frameInfoReader, frameInfoAllocator, valueInfoAllocator, isFirst)) != null) {
+                    frameInfoAllocator.reload();
+                    if (write) {
+                        writeStackFrame(frameInfo);
+                    }
+                    count++;
+                    isFirst = false;
+                }
+            }
+        }
+        return count;
+    }
+
+    @NeverInline("Starting a stack walk in the caller frame.")
+    private static void walkStack(IsolateThread thread, ParameterizedStackFrameVisitor<Void> visitor) {
+        if (thread == CurrentIsolate.getCurrentThread()) {
+            JavaStackWalker.walkCurrentThread(KnownIntrinsics.readCallerStackPointer(), visitor, null);
+        } else {
+            JavaStackWalker.walkThread(thread, visitor, null);
+        }
+    }
+
+    private void writeClassDumps() {
+        DynamicHub[] hubs = metadata.hubs;
+        for (int typeId = 0; typeId < hubs.length; typeId++) {
+            DynamicHub hub = hubs[typeId];
+            if (hub != null) {
+                checkSegmentSize();
+                writeByte(ROOT_STICKY_CLASS);
+                writeObjectId(hub);
+                writeClassDump(hub, typeId);
+            }
+        }
+    }
+
+    private void writeClassDump(DynamicHub hub, int typeId) {
+        int layoutEncoding = hub.getLayoutEncoding();
+        int instanceFieldsStart = metadata.fieldStarts[2 * typeId];
+        int staticFieldsStart = metadata.fieldStarts[2 * typeId + 1];
+        int staticFieldsEnd = metadata.fieldStarts[2 * typeId + 2];
+
+        writeByte(CLASS_DUMP);
+        writeObjectId(hub);
+        writeInt(EMPTY_STACK_TRACE_SERIAL);
+        writeObjectId(hub.getSuperHub());
+        /* Class loader, signers, protection domain, and two reserved IDs. */
+        for (int i = 0; i < 5; i++) {
+            writeId(0);
+        }
+        writeInt(LayoutEncoding.isInstance(layoutEncoding) ? (int) LayoutEncoding.getInstanceSize(layoutEncoding).rawValue() : 0);
+        /* Constant pool entries. */
+        writeShort(0);
+
+        writeShort(staticFieldsEnd - staticFieldsStart);
+        Pointer staticObjectFields = Word.objectToUntrackedPointer(StaticFieldsSupport.getStaticObjectFields());
+        Pointer staticPrimitiveFields = Word.objectToUntrackedPointer(StaticFieldsSupport.getStaticPrimitiveFields());
+        for (int i = staticFieldsStart; i < staticFieldsEnd; i++) {
+            byte type = metadata.fieldTypes[i];
+            writeObjectId(metadata.fieldNames[i]);
+            writeByte(type);
+            writeFieldValue(type == TYPE_OBJECT ? staticObjectFields : staticPrimitiveFields, type, metadata.fieldLocations[i]);
+        }
+
+        writeShort(staticFieldsStart - instanceFieldsStart);
+        for (int i = instanceFieldsStart; i < staticFieldsStart; i++) {
+            writeObjectId(metadata.fieldNames[i]);
+            writeByte(metadata.fieldTypes[i]);
+        }
+    }
+
+    private void writeThreadRoots() {
+        int threadIndex = 0;
+        for (IsolateThread thread = VMThreads.firstThread(); thread.isNonNull(); thread = VMThreads.nextThread(thread)) {
+            Thread javaThread = JavaThreads.fromVMThread(thread);
+            if (javaThread != null) {
+                checkSegmentSize();
+                writeByte(ROOT_THREAD_OBJECT);
+                writeObjectId(javaThread);
+                writeInt(threadSerial(threadIndex));
+                writeInt(stackTraceSerial(threadIndex));
+            }
+
+            stackRootVisitor.threadSerial = threadSerial(threadIndex);
+            stackRootVisitor.frameNumber = 0;
+            walkStack(thread, stackRootVisitor);
+            threadIndex++;
+        }
+    }
+
+    private void writeObject(Object obj, DynamicHub hub) {
+        int typeId = hub.getTypeID();
+        if (hub.isArray()) {
+            byte elementType = metadata.arrayElementTypes[typeId];
+            int layoutEncoding = hub.getLayoutEncoding();
+            int elementSize = sizeOf(elementType);
+            /* HotSpot also truncates arrays that are too large for a single segment. */
+            int length = (int) Math.min(ArrayLengthNode.arrayLength(obj), MAX_SEGMENT_SIZE / elementSize);
+
+            writeByte(elementType == TYPE_OBJECT ? OBJECT_ARRAY_DUMP : PRIMITIVE_ARRAY_DUMP);
+            writeObjectId(obj);
+            writeInt(EMPTY_STACK_TRACE_SERIAL);
+            writeInt(length);
+            if (elementType == TYPE_OBJECT) {
+                writeObjectId(hub);
+            } else {
+                writeByte(elementType);
+            }
+            Pointer elements = Word.objectToUntrackedPointer(obj).add(LayoutEncoding.getArrayBaseOffset(layoutEncoding));
+            int indexScale = LayoutEncoding.getArrayIndexScale(layoutEncoding);
+            for (int i = 0; i < length; i++) {
+                writeFieldValue(elements, elementType, i * indexScale);
+            }
+        } else {
+            writeByte(INSTANCE_DUMP);
+            writeObjectId(obj);
+            writeInt(EMPTY_STACK_TRACE_SERIAL);
+            writeObjectId(hub);
+            writeInt(metadata.instanceDumpSizes[typeId]);
+            /* Field values are written starting with the fields declared by the class itself. */
+            Pointer objPointer = Word.objectToUntrackedPointer(obj);
+            for (DynamicHub cur = hub; cur != null; cur = cur.getSuperHub()) {
+                int curTypeId = cur.getTypeID();
+                for (int i = metadata.fieldStarts[2 * curTypeId]; i < metadata.fieldStarts[2 * curTypeId + 1]; i++) {
+                    writeFieldValue(objPointer, metadata.fieldTypes[i], metadata.fieldLocations[i]);
+                }
+            }
+        }
+    }
+
+    private void writeFieldValue(Pointer base, byte type, int offset) {
+        switch (type) {
+            case TYPE_OBJECT:
+                ReferenceAccess referenceAccess = ReferenceAccess.singleton();
+                writeObjectId(referenceAccess.readObjectAt(base.add(offset), referenceAccess.haveCompressedReferences()));
+                break;
+            case TYPE_BOOLEAN:
+            case TYPE_BYTE:
+                writeByte(base.readByte(offset));
+                break;
+            case TYPE_CHAR:
+            case TYPE_SHORT:
+                writeShort(base.readShort(offset));
+                break;
+            case TYPE_FLOAT:
+            case TYPE_INT:
+                writeInt(base.readInt(offset));
+                break;
+            case TYPE_DOUBLE:
+            case TYPE_LONG:
+                writeLong(base.readLong(offset));
+                break;
+            default:
+                error = true;
+        }
+    }
+
+    private void startSegment() {
+        writeRecordHeader(TAG_HEAP_DUMP_SEGMENT, 0);
+        segmentStart = position();
+    }
+
+    private void checkSegmentSize() {
+        if (position() - segmentStart > MAX_SEGMENT_SIZE) {
+            endSegment();
+            startSegment();
+        }
+    }
+
+    /** Patches the length of the current segment, which is only known once it is complete. */
+    private void endSegment() {
+        long length = position() - segmentStart;
+        flush();
+        RawFileOperationSupport fs = RawFileOperationSupport.bigEndian();
+        if (!error) {
+            error = !fs.seek(fd, WordFactory.signed(segmentStart - 4)) || !fs.writeInt(fd, (int) length) || !fs.seek(fd, WordFactory.signed(flushedBytes));
+        }
+    }
+
+    private void writeRecordHeader(int tag, int length) {
+        writeByte(tag);
+        /* Microseconds since the time stamp in the header. */
+        writeInt(0);
+        writeInt(length);
+    }
+
+    private long position() {
+        return flushedBytes + bufferPosition;
+    }
+
+    private void writeObjectId(Object obj) {
+        writeId(obj == null ? 0 : Word.objectToUntrackedPointer(obj).rawValue());
+    }
+
+    private void writeId(long id) {
+        writeLong(id);
+    }
+
+    private void writeByte(int value) {
+        ensureCapacity(1);
+        buffer.writeByte(bufferPosition, (byte) value);
+        bufferPosition++;
+    }
+
+    private void writeShort(int value) {
+        ensureCapacity(2);
+        buffer.writeByte(bufferPosition, (byte) (value >>> 8));
+        buffer.writeByte(bufferPosition + 1, (byte) value);
+        bufferPosition += 2;
+    }
+
+    private void writeInt(int value) {
+        ensureCapacity(4);
+        buffer.writeByte(bufferPosition, (byte) (value >>> 24));
+        buffer.writeByte(bufferPosition + 1, (byte) (value >>> 16));
+        buffer.writeByte(bufferPosition + 2, (byte) (value >>> 8));
+        buffer.writeByte(bufferPosition + 3, (byte) value);
+        bufferPosition += 4;
+    }
+
+    private void writeLong(long value) {
+        writeInt((int) (value >>> 32));
+        writeInt((int) value);
+    }
+
+    private void ensureCapacity(int size) {
+        if (bufferPosition + size > BUFFER_SIZE) {
+            flush();
+        }
+    }
+
+    private void flush() {
+        if (bufferPosition > 0 && !error) {
+            error = !RawFileOperationSupport.bigEndian().write(fd, buffer, WordFactory.unsigned(bufferPosition));
+        }
+        flushedBytes += bufferPosition;
+        bufferPosition = 0;
+    }
+
+    private final class HeapObjectVisitor implements ObjectVisitor {
+        /** Objects of the image heap are always alive and therefore reported as GC roots. */
+        boolean imageHeap;
+
+        @Override
+        @RestrictHeapAccess(access = RestrictHeapAccess.Access.NO_ALLOCATION, reason = "Must not allocate while visiting the heap.")
+        public boolean visitObject(Object obj) {
+            if (obj instanceof DynamicHub) {
+                /* Classes are written as class dumps. */
+                return true;
+            }
+            DynamicHub hub = ObjectHeader.readDynamicHubFromObject(obj);
+            int typeId = hub.getTypeID();
+            if (typeId >= metadata.hubs.length || metadata.hubs[typeId] == null) {
+                return true;
+            }
+            checkSegmentSize();
+            if (imageHeap) {
+                writeByte(ROOT_UNKNOWN);
+                writeObjectId(obj);
+            }
+            writeObject(obj, hub);
+            return !error;
+        }
+    }
+
+    private final class StackTraceVisitor extends ParameterizedStackFrameVisitor<Void> {
+        int frameCount;
+
+        @Override
+        @RestrictHeapAccess(access = RestrictHeapAccess.Access.NO_ALLOCATION, reason = "Must not allocate while dumping the heap.")
+        protected boolean visitFrame(Pointer sp, CodePointer ip, CodeInfo codeInfo, DeoptimizedFrame deoptimizedFrame, Void data) {
+            frameCount += visitJavaFrames(ip, codeInfo, deoptimizedFrame, true);
+            return !error;
+        }
+
+        @Override
+        protected boolean unknownFrame(Pointer sp, CodePointer ip, DeoptimizedFrame deoptimizedFrame, Void data) {
+            /* The frames found so far are still useful. */
+            return false;
+        }
+    }
+
+    private final class StackRootVisitor extends ParameterizedStackFrameVisitor<Void> implements ObjectReferenceVisitor {
+        int threadSerial;
+        /** The index of the first Java frame of the current physical frame in the stack trace. */
+        int frameNumber;
+
+        @Override
+        @RestrictHeapAccess(access = RestrictHeapAccess.Access.NO_ALLOCATION, reason = "Must not allocate while dumping the heap.")
+        protected boolean visitFrame(Pointer sp, CodePointer ip, CodeInfo codeInfo, DeoptimizedFrame deoptimizedFrame, Void data) {
+            CodeInfoTable.visitObjectReferences(sp, ip, codeInfo, deoptimizedFrame, this);
+            frameNumber += visitJavaFrames(ip, codeInfo, deoptimizedFrame, false);
+            return !error;
+        }
+
+        @Override
+        protected boolean unknownFrame(Pointer sp, CodePointer ip, DeoptimizedFrame deoptimizedFrame, Void data) {
+            return false;
+        }
+
+        @Override
+        @RestrictHeapAccess(access = RestrictHeapAccess.Access.NO_ALLOCATION, reason = "Must not allocate while dumping the heap.")
+        public boolean visitObjectReference(Pointer objRef, boolean compressed) {
+            Object obj = ReferenceAccess.singleton().readObjectAt(objRef, compressed);
+            if (obj != null) {
+                checkSegmentSize();
+                writeByte(ROOT_JAVA_FRAME);
+                writeObjectId(obj);
+                writeInt(threadSerial);
+                writeInt(frameNumber);
+            }
+            return !error;
+        }
+    }
+
+    /** Reuses a single {@link FrameInfoQueryResult} so that stack walking does not allocate. */
+    private static final class SingleShotFrameInfoQueryResultAllocator implements FrameInfoQueryResultAllocator {
+        private final FrameInfoQueryResult frameInfoQueryResult = new FrameInfoQueryResult();
+        private boolean fired;
+
+        void reload() {
+            fired = false;
+        }
+
+        @Override
+        @RestrictHeapAccess(access = RestrictHeapAccess.Access.NO_ALLOCATION, reason = "Must not allocate while dumping the heap.")
+        public FrameInfoQueryResult newFrameInfoQueryResult() {
+            if (fired) {
+                return null;
+            }
+            fired = true;
+            frameInfoQueryResult.init();
+            return frameInfoQueryResult;
+        }
+    }
+
+    /** Values of local variables are not needed for stack traces. */
+    private static final class NullValueInfoAllocator implements ValueInfoAllocator {
+        @Override
+        @RestrictHeapAccess(access = RestrictHeapAccess.Access.NO_ALLOCATION, reason = "Must not allocate while dumping the heap.")
+        public ValueInfo newValueInfo() {
+            return null;
+        }
+
+        @Override
+        @RestrictHeapAccess(access = RestrictHeapAccess.Access.NO_ALLOCATION, reason = "Must not allocate while dumping the heap.")
+        public ValueInfo[] newValueInfoArray(int len) {
+            return null;
+        }
+
+        @Override
+        @RestrictHeapAccess(access = RestrictHeapAccess.Access.NO_ALLOCATION, reason = "Must not allocate while dumping the heap.")
+        public ValueInfo[][] newValueInfoArrayArray(int len) {
+            return null;
+        }
+
+        @Override
+        @RestrictHeapAccess(access = RestrictHeapAccess.Access.NO_ALLOCATION, reason = "Must not allocate while dumping the heap.")
+        public void decodeConstant(ValueInfo valueInfo, NonmovableObjectArray<?> frameInfoObjectConstants) {
+        }
+    }
+}
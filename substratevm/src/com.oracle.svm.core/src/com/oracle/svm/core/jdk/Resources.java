@@ -24,27 +24,36 @@
  */
 package com.oracle.svm.core.jdk;
 
-import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLConnection;
 import java.net.URLStreamHandler;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.List;
 
-import com.oracle.svm.core.jdk.resources.ResourceStorageEntry;
-import com.oracle.svm.core.jdk.resources.ResourceURLConnection;
 import org.graalvm.collections.EconomicMap;
+import org.graalvm.collections.MapCursor;
+import org.graalvm.compiler.options.Option;
 import org.graalvm.nativeimage.ImageSingletons;
 import org.graalvm.nativeimage.Platform;
 import org.graalvm.nativeimage.Platforms;
+import org.graalvm.nativeimage.c.type.CCharPointer;
 import org.graalvm.nativeimage.hosted.Feature;
 
+import com.oracle.svm.core.SubstrateUtil;
 import com.oracle.svm.core.annotate.AutomaticFeature;
+import com.oracle.svm.core.c.CGlobalData;
+import com.oracle.svm.core.c.CGlobalDataFactory;
+import com.oracle.svm.core.config.ConfigurationValues;
+import com.oracle.svm.core.jdk.resources.ResourceStorageEntry;
+import com.oracle.svm.core.jdk.resources.ResourceURLConnection;
+import com.oracle.svm.core.option.HostedOptionKey;
 import com.oracle.svm.core.util.ImageHeapMap;
 import com.oracle.svm.core.util.VMError;
 
@@ -57,6 +66,14 @@ import com.oracle.svm.core.util.VMError;
  */
 public final class Resources {
 
+    public static class Options {
+        @Option(help = "Place the content of resources in a read-only section of the image instead of the image heap. Such resources can be accessed as direct byte buffers without copying.")//
+        public static final HostedOptionKey<Boolean> ResourcesInImageSection = new HostedOptionKey<>(false);
+    }
+
+    public static final String SECTION_BEGIN_SYMBOL_NAME = "__svm_resources_begin";
+    private static final CGlobalData<CCharPointer> SECTION_BEGIN = CGlobalDataFactory.forSymbol(SECTION_BEGIN_SYMBOL_NAME);
+
     public static Resources singleton() {
         return ImageSingletons.lookup(Resources.class);
     }
@@ -64,6 +81,9 @@ public final class Resources {
     /** The hosted map used to collect registered resources. */
     private final EconomicMap<String, ResourceStorageEntry> resources = ImageHeapMap.create();
 
+    /** The content of the resources section, only used at image build time. */
+    private final ByteArrayOutputStream sectionContent = new ByteArrayOutputStream();
+
     Resources() {
     }
 
@@ -103,7 +123,44 @@ public final class Resources {
             entry = new ResourceStorageEntry(isDirectory);
             support.resources.put(resourceName, entry);
         }
-        entry.getData().add(data);
+        if (Options.ResourcesInImageSection.getValue()) {
+            entry.addSectionRange(support.appendToSection(data), data.length);
+        } else {
+            entry.getData().add(data);
+        }
+    }
+
+    @Platforms(Platform.HOSTED_ONLY.class)
+    private int appendToSection(byte[] data) {
+        /* Keep every resource word aligned, so that it can be read efficiently as larger units. */
+        int wordSize = ConfigurationValues.getTarget().wordSize;
+        while (sectionContent.size() % wordSize != 0) {
+            sectionContent.write(0);
+        }
+        int offset = sectionContent.size();
+        sectionContent.write(data, 0, data.length);
+        return offset;
+    }
+
+    /**
+     * Returns the content of the resources section, or null if resources are stored in the image
+     * heap.
+     */
+    @Platforms(Platform.HOSTED_ONLY.class)
+    public byte[] getSectionContent() {
+        if (!Options.ResourcesInImageSection.getValue()) {
+            return null;
+        }
+        byte[] content = sectionContent.toByteArray();
+        /* Some object file formats do not support empty sections. */
+        return content.length > 0 ? content : new byte[ConfigurationValues.getTarget().wordSize];
+    }
+
+    /** Returns a read-only direct buffer for a range of the resources section. */
+    public static ByteBuffer sectionByteBuffer(int offset, int length) {
+        VMError.guarantee(Options.ResourcesInImageSection.getValue(), "Resources are stored in the image heap");
+        long address = SECTION_BEGIN.get().rawValue() + offset;
+        return SubstrateUtil.cast(new Target_java_nio_DirectByteBuffer(address, length), ByteBuffer.class).asReadOnlyBuffer();
     }
 
     @Platforms(Platform.HOSTED_ONLY.class)
@@ -157,8 +214,39 @@ public final class Resources {
         if (entry == null) {
             return null;
         }
-        List<byte[]> data = entry.getData();
-        return data.isEmpty() ? null : new ByteArrayInputStream(data.get(0));
+        return entry.getCount() == 0 ? null : entry.createInputStream(0);
+    }
+
+    /**
+     * Returns the content of a resource as a read-only buffer, without copying it, or null if there
+     * is no such resource.
+     */
+    public static ByteBuffer getByteBuffer(String resourceName) {
+        if (resourceName == null) {
+            return null;
+        }
+        ResourceStorageEntry entry = Resources.get(resourceName);
+        if (entry == null || entry.getCount() == 0) {
+            return null;
+        }
+        return entry.getByteBuffer(0);
+    }
+
+    /**
+     * Returns the content of all resources whose name starts with the given prefix, e.g., all
+     * resources of a directory, as read-only buffers without copying them. Directories are not
+     * included. If multiple resources have the same name, only the first one is returned.
+     */
+    public static EconomicMap<String, ByteBuffer> getByteBuffers(String resourceNamePrefix) {
+        EconomicMap<String, ByteBuffer> result = EconomicMap.create();
+        MapCursor<String, ResourceStorageEntry> cursor = singleton().resources.getEntries();
+        while (cursor.advance()) {
+            ResourceStorageEntry entry = cursor.getValue();
+            if (!entry.isDirectory() && entry.getCount() > 0 && cursor.getKey().startsWith(resourceNamePrefix)) {
+                result.put(cursor.getKey(), entry.getByteBuffer(0));
+            }
+        }
+        return result;
     }
 
     public static Enumeration<URL> createURLs(String resourceName) {
@@ -169,7 +257,7 @@ public final class Resources {
         if (entry == null) {
             return Collections.emptyEnumeration();
         }
-        int numberOfResources = entry.getData().size();
+        int numberOfResources = entry.getCount();
         List<URL> resourcesURLs = new ArrayList<>(numberOfResources);
         for (int index = 0; index < numberOfResources; index++) {
             resourcesURLs.add(createURL(resourceName, index));
@@ -191,7 +279,7 @@ final class ResourcesFeature implements Feature {
          * The resources embedded in the image heap are read-only at run time. Note that we do not
          * mark the collection data structures as read-only because Java collections have all sorts
          * of lazily initialized fields. Only the byte[] arrays themselves can be safely made
-         * read-only.
+         * read-only. Resources in the resources section are not in the image heap at all.
          */
         for (ResourceStorageEntry resourceList : Resources.singleton().resources().getValues()) {
             for (byte[] resource : resourceList.getData()) {
@@ -24,7 +24,6 @@
  */
 package com.oracle.svm.core.jdk;
 
-import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 
 import com.oracle.svm.core.annotate.Delete;
@@ -42,7 +41,7 @@ public final class Target_java_lang_Module {
         if (entry == null) {
             return null;
         } else {
-            return new ByteArrayInputStream(entry.getData().get(0));
+            return entry.createInputStream(0);
         }
     }
 
@@ -55,6 +55,7 @@ import com.oracle.svm.core.jdk.RuntimeFeature;
 import com.oracle.svm.core.thread.ThreadListenerFeature;
 import com.oracle.svm.core.thread.ThreadListenerSupport;
 import com.oracle.svm.util.ReflectionUtil;
+import com.sun.management.HotSpotDiagnosticMXBean;
 
 /** See {@link ManagementSupport} for documentation. */
 @AutomaticFeature
@@ -77,7 +78,7 @@ public final class ManagementFeature extends JNIRegistrationUtil implements Feat
     public void duringSetup(DuringSetupAccess access) {
         platformManagedObjectReplacements = new IdentityHashMap<>();
         for (Class<? extends PlatformManagedObject> clazz : Arrays.asList(ClassLoadingMXBean.class, CompilationMXBean.class, RuntimeMXBean.class,
-                        ThreadMXBean.class, OperatingSystemMXBean.class, MemoryMXBean.class)) {
+                        ThreadMXBean.class, OperatingSystemMXBean.class, MemoryMXBean.class, HotSpotDiagnosticMXBean.class)) {
             PlatformManagedObject source = ManagementFactory.getPlatformMXBean(clazz);
             PlatformManagedObject target = (PlatformManagedObject) ManagementSupport.getSingleton().platformManagedObjectsMap.get(clazz);
             if (source != null && target != null) {
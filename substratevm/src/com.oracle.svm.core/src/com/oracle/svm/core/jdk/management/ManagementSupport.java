@@ -117,6 +117,7 @@ public final class ManagementSupport implements ThreadListener {
     private final SubstrateCompilationMXBean compilationMXBean;
     private final SubstrateRuntimeMXBean runtimeMXBean;
     private final SubstrateThreadMXBean threadMXBean;
+    private final SubstrateHotSpotDiagnosticMXBean hotSpotDiagnosticMXBean;
 
     /** The singleton MBean server for the platform, initialized lazily at run time. */
     MBeanServer platformMBeanServer;
@@ -130,6 +131,7 @@ public final class ManagementSupport implements ThreadListener {
         compilationMXBean = new SubstrateCompilationMXBean();
         runtimeMXBean = new SubstrateRuntimeMXBean();
         threadMXBean = new SubstrateThreadMXBean();
+        hotSpotDiagnosticMXBean = new SubstrateHotSpotDiagnosticMXBean();
 
         /*
          * Register the platform objects defined in this package. Note that more platform objects
@@ -139,6 +141,7 @@ public final class ManagementSupport implements ThreadListener {
         addPlatformManagedObjectSingleton(java.lang.management.CompilationMXBean.class, compilationMXBean);
         addPlatformManagedObjectSingleton(java.lang.management.RuntimeMXBean.class, runtimeMXBean);
         addPlatformManagedObjectSingleton(com.sun.management.ThreadMXBean.class, threadMXBean);
+        addPlatformManagedObjectSingleton(com.sun.management.HotSpotDiagnosticMXBean.class, hotSpotDiagnosticMXBean);
         /*
          * The following platform objects must be registered as existing and valid, even though we
          * do not have an implementation yet.
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2021, 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.svm.core.jdk.management;
+
+//Checkstyle: stop
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+import javax.management.ObjectName;
+
+import org.graalvm.nativeimage.ImageSingletons;
+import org.graalvm.nativeimage.Platform;
+import org.graalvm.nativeimage.Platforms;
+import org.graalvm.nativeimage.VMRuntime;
+import org.graalvm.nativeimage.impl.HeapDumpSupport;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+import com.sun.management.VMOption;
+
+import sun.management.Util;
+//Checkstyle: resume
+
+/**
+ * Supports heap dumps, which are only available when the image is built with VM inspection. There
+ * are no HotSpot VM options in a native image.
+ */
+final class SubstrateHotSpotDiagnosticMXBean implements HotSpotDiagnosticMXBean {
+
+    private static final String HOTSPOT_DIAGNOSTIC_MXBEAN_NAME = "com.sun.management:type=HotSpotDiagnostic";
+
+    @Platforms(Platform.HOSTED_ONLY.class)
+    SubstrateHotSpotDiagnosticMXBean() {
+    }
+
+    @Override
+    public ObjectName getObjectName() {
+        return Util.newObjectName(HOTSPOT_DIAGNOSTIC_MXBEAN_NAME);
+    }
+
+    @Override
+    public void dumpHeap(String outputFile, boolean live) throws IOException {
+        if (!ImageSingletons.contains(HeapDumpSupport.class)) {
+            throw new UnsupportedOperationException("Heap dumps are not supported. Build the image with -H:+AllowVMInspection to enable them.");
+        }
+        if (!outputFile.endsWith(".hprof")) {
+            throw new IllegalArgumentException("heapdump file must have .hprof extention");
+        }
+        VMRuntime.dumpHeap(outputFile, live);
+    }
+
+    @Override
+    public List<VMOption> getDiagnosticOptions() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public VMOption getVMOption(String name) {
+        throw new IllegalArgumentException("VM option \"" + name + "\" does not exist");
+    }
+
+    @Override
+    public void setVMOption(String name, String value) {
+        throw new IllegalArgumentException("VM option \"" + name + "\" does not exist");
+    }
+}
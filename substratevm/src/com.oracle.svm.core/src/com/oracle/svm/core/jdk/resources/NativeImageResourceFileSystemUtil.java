@@ -47,7 +47,7 @@ public final class NativeImageResourceFileSystemUtil {
         if (entry == null) {
             return new byte[0];
         }
-        byte[] bytes = entry.getData().get(0);
+        byte[] bytes = entry.getBytes(0);
         if (readOnly) {
             return bytes;
         } else {
@@ -60,7 +60,7 @@ public final class NativeImageResourceFileSystemUtil {
         if (entry == null) {
             return 0;
         } else {
-            return entry.getData().get(0).length;
+            return entry.getLength(0);
         }
     }
 
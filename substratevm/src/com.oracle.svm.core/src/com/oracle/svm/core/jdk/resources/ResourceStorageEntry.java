@@ -22,27 +22,114 @@
  * or visit www.oracle.com if you need additional information or have any
  * questions.
  */
-
 package com.oracle.svm.core.jdk.resources;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
+import com.oracle.svm.core.jdk.Resources;
+
+/**
+ * All resources registered under one name. The content of a resource is either a byte array in
+ * the image heap, or, with {@link Resources.Options#ResourcesInImageSection}, a range of the
+ * read-only resources section of the image.
+ */
 public class ResourceStorageEntry {
 
     private final boolean isDirectory;
     private final List<byte[]> data;
+    /**
+     * The ranges of the resources that are stored in the resources section. Each range is packed
+     * into a single long, with the offset in the upper and the length in the lower 32 bits.
+     */
+    private long[] sectionRanges;
+    private int sectionRangeCount;
 
     public ResourceStorageEntry(boolean isDirectory) {
         this.isDirectory = isDirectory;
         this.data = new ArrayList<>();
+        this.sectionRanges = new long[0];
     }
 
     public boolean isDirectory() {
         return isDirectory;
     }
 
+    /** The resources that are stored in the image heap. */
     public List<byte[]> getData() {
         return data;
     }
+
+    public void addSectionRange(int offset, int length) {
+        assert offset >= 0 && length >= 0;
+        if (sectionRangeCount == sectionRanges.length) {
+            sectionRanges = Arrays.copyOf(sectionRanges, Math.max(1, sectionRangeCount * 2));
+        }
+        sectionRanges[sectionRangeCount++] = ((long) offset << 32) | length;
+    }
+
+    private boolean isInSection() {
+        return sectionRangeCount > 0;
+    }
+
+    private int getSectionOffset(int index) {
+        return (int) (getSectionRange(index) >>> 32);
+    }
+
+    private int getSectionLength(int index) {
+        return (int) getSectionRange(index);
+    }
+
+    private long getSectionRange(int index) {
+        if (index >= sectionRangeCount) {
+            throw new IndexOutOfBoundsException(String.valueOf(index));
+        }
+        return sectionRanges[index];
+    }
+
+    /** Returns the number of resources registered under this name. */
+    public int getCount() {
+        return isInSection() ? sectionRangeCount : data.size();
+    }
+
+    public int getLength(int index) {
+        return isInSection() ? getSectionLength(index) : data.get(index).length;
+    }
+
+    /**
+     * Returns the content of the resource as a read-only buffer, without copying it. For resources
+     * in the resources section, this is a direct buffer.
+     */
+    public ByteBuffer getByteBuffer(int index) {
+        if (isInSection()) {
+            return Resources.sectionByteBuffer(getSectionOffset(index), getSectionLength(index));
+        }
+        return ByteBuffer.wrap(data.get(index)).asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns the content of the resource as a byte array. Resources in the image heap are not
+     * copied, so the returned array must not be modified. Resources in the resources section are
+     * copied into a new array.
+     */
+    public byte[] getBytes(int index) {
+        if (isInSection()) {
+            ByteBuffer buffer = getByteBuffer(index);
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            return bytes;
+        }
+        return data.get(index);
+    }
+
+    public InputStream createInputStream(int index) {
+        if (isInSection()) {
+            return new ByteBufferInputStream(getByteBuffer(index));
+        }
+        return new ByteArrayInputStream(data.get(index));
+    }
 }
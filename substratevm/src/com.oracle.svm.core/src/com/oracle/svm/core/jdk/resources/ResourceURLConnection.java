@@ -25,13 +25,11 @@
 
 package com.oracle.svm.core.jdk.resources;
 
-import java.io.ByteArrayInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.net.URLConnection;
-import java.util.List;
 
 import com.oracle.svm.core.jdk.Resources;
 
@@ -39,7 +37,8 @@ public class ResourceURLConnection extends URLConnection {
 
     private final URL url;
     private final int index;
-    private byte[] data;
+    private ResourceStorageEntry entry;
+    private int dataIndex;
 
     public ResourceURLConnection(URL url) {
         this(url, 0);
@@ -63,18 +62,18 @@ public class ResourceURLConnection extends URLConnection {
         connected = true;
 
         String resourceName = resolveName(url.getPath());
-        ResourceStorageEntry entry = Resources.get(resourceName);
-        if (entry != null) {
-            List<byte[]> bytes = entry.getData();
-            if (index < bytes.size()) {
-                this.data = bytes.get(index);
+        ResourceStorageEntry resourceEntry = Resources.get(resourceName);
+        if (resourceEntry != null && resourceEntry.getCount() > 0) {
+            this.entry = resourceEntry;
+            if (index < resourceEntry.getCount()) {
+                this.dataIndex = index;
             } else {
                 // This will happen only in case that we are creating one URL with the second URL as
                 // a context.
-                this.data = bytes.get(0);
+                this.dataIndex = 0;
             }
         } else {
-            this.data = null;
+            this.entry = null;
         }
     }
 
@@ -83,10 +82,10 @@ public class ResourceURLConnection extends URLConnection {
         // Operations that depend on being connected will implicitly perform the connection, if
         // necessary.
         connect();
-        if (data == null) {
+        if (entry == null) {
             throw new FileNotFoundException(url.toString());
         }
-        return new ByteArrayInputStream(data);
+        return entry.createInputStream(dataIndex);
     }
 
     @Override
@@ -94,7 +93,7 @@ public class ResourceURLConnection extends URLConnection {
         // Operations that depend on being connected will implicitly perform the connection, if
         // necessary.
         connect();
-        return data != null ? data.length : -1L;
+        return entry != null ? entry.getLength(dataIndex) : -1L;
     }
 
 }
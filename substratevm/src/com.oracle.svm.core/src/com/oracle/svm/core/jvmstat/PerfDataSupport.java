@@ -85,8 +85,22 @@ class NoPerfDataSupport implements PerfDataSupport {
 
 @AutomaticFeature
 class PerfDataFeature implements Feature {
+    @Override
+    public void afterRegistration(AfterRegistrationAccess access) {
+        if (PerfManager.isEnabled()) {
+            ImageSingletons.add(PerfManager.class, new PerfManager());
+        }
+    }
+
     @Override
     public void duringSetup(DuringSetupAccess access) {
+        if (PerfManager.isEnabled()) {
+            PerfMemoryProvider provider = ImageSingletons.contains(PerfMemoryProvider.class) ? ImageSingletons.lookup(PerfMemoryProvider.class) : new CHeapPerfMemoryProvider();
+            PerfManager.singleton().setMemoryProvider(provider);
+            if (!ImageSingletons.contains(PerfDataSupport.class)) {
+                ImageSingletons.add(PerfDataSupport.class, new PerfDataSupportImpl());
+            }
+        }
         if (!ImageSingletons.contains(PerfDataSupport.class)) {
             ImageSingletons.add(PerfDataSupport.class, new NoPerfDataSupport());
         }
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2021, 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.svm.core.jvmstat;
+
+import java.nio.ByteBuffer;
+
+import org.graalvm.nativeimage.Platform;
+import org.graalvm.nativeimage.Platforms;
+import org.graalvm.nativeimage.ProcessProperties;
+import org.graalvm.word.Pointer;
+
+import com.oracle.svm.core.SubstrateUtil;
+import com.oracle.svm.core.jdk.Target_java_nio_DirectByteBuffer;
+
+/**
+ * Backs {@code jdk.internal.perf.Perf} with the performance data memory of the
+ * {@link PerfManager}, so that counters created by JDK code end up in the same memory as the
+ * counters of the VM. Counters that are created before the memory is set up, or when it is full,
+ * are backed by a private heap buffer instead.
+ */
+class PerfDataSupportImpl implements PerfDataSupport {
+    @Platforms(Platform.HOSTED_ONLY.class)
+    PerfDataSupportImpl() {
+    }
+
+    @Override
+    public ByteBuffer attach(String user, int lvmid, int mode) {
+        if (lvmid != 0 && lvmid != ProcessProperties.getProcessID()) {
+            throw new IllegalArgumentException("Attaching to the performance data of other processes is not supported.");
+        }
+        PerfMemory memory = PerfManager.singleton().getMemory();
+        if (!memory.isInitialized()) {
+            throw new IllegalArgumentException("Performance data is not available.");
+        }
+        ByteBuffer buffer = toByteBuffer(memory.getStart(), memory.getCapacity());
+        return mode == 0 ? buffer.asReadOnlyBuffer() : buffer;
+    }
+
+    @Override
+    public void detach(ByteBuffer bb) {
+        // nothing to do, the memory is owned by the PerfManager
+    }
+
+    @Override
+    public long highResCounter() {
+        return System.nanoTime();
+    }
+
+    @Override
+    public long highResFrequency() {
+        return 1L * 1000 * 1000 * 1000;
+    }
+
+    @Override
+    public ByteBuffer createLong(String name, int variability, int units, long value) {
+        Pointer data = PerfManager.singleton().getMemory().allocate(name, PerfMemory.TYPE_LONG, toUnit(units), toVariability(variability), 0);
+        if (data.isNull()) {
+            ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+            buffer.putLong(0, value);
+            return buffer;
+        }
+        data.writeLong(0, value);
+        return toByteBuffer(data, Long.BYTES);
+    }
+
+    @Override
+    public ByteBuffer createByteArray(String name, int variability, int units, byte[] value, int maxLength) {
+        int length = Math.max(value.length, maxLength);
+        Pointer data = PerfManager.singleton().getMemory().allocate(name, PerfMemory.TYPE_BYTE, toUnit(units), toVariability(variability), length);
+        if (data.isNull()) {
+            ByteBuffer buffer = ByteBuffer.allocate(length);
+            buffer.put(value);
+            buffer.rewind();
+            return buffer;
+        }
+        for (int i = 0; i < value.length; i++) {
+            data.writeByte(i, value[i]);
+        }
+        return toByteBuffer(data, length);
+    }
+
+    private static ByteBuffer toByteBuffer(Pointer data, int length) {
+        return SubstrateUtil.cast(new Target_java_nio_DirectByteBuffer(data.rawValue(), length), ByteBuffer.class);
+    }
+
+    private static PerfUnit toUnit(int units) {
+        for (PerfUnit unit : PerfUnit.values()) {
+            if (unit.getValue() == units) {
+                return unit;
+            }
+        }
+        throw new IllegalArgumentException("Invalid performance data units: " + units);
+    }
+
+    private static PerfVariability toVariability(int variability) {
+        for (PerfVariability v : PerfVariability.values()) {
+            if (v.getValue() == variability) {
+                return v;
+            }
+        }
+        throw new IllegalArgumentException("Invalid performance data variability: " + variability);
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2021, 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.svm.core.jvmstat;
+
+import org.graalvm.nativeimage.Platform;
+import org.graalvm.nativeimage.Platforms;
+import org.graalvm.word.Pointer;
+import org.graalvm.word.WordFactory;
+
+import com.oracle.svm.core.annotate.Uninterruptible;
+
+/**
+ * A performance counter of type {@code long}. Instances are created during image generation and
+ * their entries are allocated at startup by their {@link PerfDataHolder}. Until then, and if
+ * performance data is disabled, all accesses are no-ops, so updating a counter never needs a
+ * separate check.
+ *
+ * Updates are not atomic. Counters that are updated concurrently by multiple threads must be
+ * updated under a lock or in a VM operation.
+ */
+public final class PerfLong {
+    private final String name;
+    private final PerfUnit unit;
+    private final PerfVariability variability;
+    private Pointer value;
+
+    @Platforms(Platform.HOSTED_ONLY.class)
+    public PerfLong(String name, PerfUnit unit, PerfVariability variability) {
+        this.name = name;
+        this.unit = unit;
+        this.variability = variability;
+        this.value = WordFactory.nullPointer();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void allocate() {
+        value = PerfManager.singleton().getMemory().allocate(name, PerfMemory.TYPE_LONG, unit, variability, 0);
+    }
+
+    public void allocate(long initialValue) {
+        allocate();
+        setValue(initialValue);
+    }
+
+    @Uninterruptible(reason = "Called from uninterruptible code.", mayBeInlined = true)
+    public void setValue(long newValue) {
+        if (PerfManager.isEnabled() && value.isNonNull()) {
+            value.writeLong(0, newValue);
+        }
+    }
+
+    @Uninterruptible(reason = "Called from uninterruptible code.", mayBeInlined = true)
+    public void addValue(long delta) {
+        if (PerfManager.isEnabled() && value.isNonNull()) {
+            value.writeLong(0, value.readLong(0) + delta);
+        }
+    }
+
+    @Uninterruptible(reason = "Called from uninterruptible code.", mayBeInlined = true)
+    public void increment() {
+        addValue(1);
+    }
+
+    @Uninterruptible(reason = "Called from uninterruptible code.", mayBeInlined = true)
+    public long getValue() {
+        if (PerfManager.isEnabled() && value.isNonNull()) {
+            return value.readLong(0);
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2021, 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.svm.core.jvmstat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.graalvm.compiler.api.replacements.Fold;
+import org.graalvm.compiler.options.Option;
+import org.graalvm.nativeimage.ImageSingletons;
+import org.graalvm.nativeimage.Platform;
+import org.graalvm.nativeimage.Platforms;
+import org.graalvm.word.Pointer;
+
+import com.oracle.svm.core.JavaMainWrapper.JavaMainSupport;
+import com.oracle.svm.core.jdk.RuntimeSupport;
+import com.oracle.svm.core.log.Log;
+import com.oracle.svm.core.option.HostedOptionKey;
+import com.oracle.svm.core.option.RuntimeOptionKey;
+
+/**
+ * Sets up the performance data memory at startup and allocates the entries of all registered
+ * {@link PerfDataHolder holders}. The entries are written in place by the VM (e.g., by the garbage
+ * collector or the safepoint mechanism) and can be sampled at any time by external tools without
+ * any cooperation of, or cost for, the running image.
+ */
+public final class PerfManager implements PerfDataHolder {
+    public static class Options {
+        @Option(help = "Maintain performance counters in the hsperfdata format so that tools such as jstat and jcmd can sample them.")//
+        public static final HostedOptionKey<Boolean> UsePerfData = new HostedOptionKey<>(false);
+
+        @Option(help = "Size in bytes of the memory for performance counters.")//
+        public static final RuntimeOptionKey<Integer> PerfDataMemorySize = new RuntimeOptionKey<>(64 * 1024);
+    }
+
+    private final List<PerfDataHolder> holders = new ArrayList<>();
+    private PerfMemory memory;
+    private long startMillis;
+    private long startNanos;
+
+    @Platforms(Platform.HOSTED_ONLY.class)
+    PerfManager() {
+        holders.add(this);
+    }
+
+    @Fold
+    public static boolean isEnabled() {
+        return Options.UsePerfData.getValue();
+    }
+
+    @Fold
+    public static PerfManager singleton() {
+        return ImageSingletons.lookup(PerfManager.class);
+    }
+
+    @Platforms(Platform.HOSTED_ONLY.class)
+    public void register(PerfDataHolder holder) {
+        holders.add(holder);
+    }
+
+    @Platforms(Platform.HOSTED_ONLY.class)
+    void setMemoryProvider(PerfMemoryProvider provider) {
+        assert memory == null;
+        memory = new PerfMemory(provider);
+        RuntimeSupport.getRuntimeSupport().addInitializationHook(this::recordStartTime);
+        RuntimeSupport.getRuntimeSupport().addStartupHook(this::startup);
+        RuntimeSupport.getRuntimeSupport().addShutdownHook(this::shutdown);
+    }
+
+    PerfMemory getMemory() {
+        return memory;
+    }
+
+    private void recordStartTime() {
+        startMillis = System.currentTimeMillis();
+        startNanos = System.nanoTime();
+    }
+
+    private void startup() {
+        if (!memory.initialize(Options.PerfDataMemorySize.getValue())) {
+            Log.log().string("Warning: Could not create the performance data memory.").newline();
+            return;
+        }
+        for (PerfDataHolder holder : holders) {
+            holder.allocate();
+        }
+        memory.setAccessible(true);
+    }
+
+    private void shutdown() {
+        memory.teardown();
+    }
+
+    @Override
+    public void allocate() {
+        long nowMillis = System.currentTimeMillis();
+        long nowNanos = System.nanoTime();
+        allocateConstant("sun.os.hrt.frequency", PerfUnit.HERTZ, 1_000_000_000L);
+        allocateConstant("sun.rt.createVmBeginTime", PerfUnit.NONE, startMillis);
+        allocateConstant("sun.rt.createVmEndTime", PerfUnit.NONE, nowMillis);
+        allocateConstant("sun.rt.vmInitDoneTime", PerfUnit.NONE, nowMillis);
+        allocateConstant("sun.rt.vmInitDoneTicks", PerfUnit.TICKS, nowNanos - startNanos);
+        allocateConstant("sun.rt.jvmCapabilities", "0000000000000000000000000000000000000000000000000000000000000000");
+
+        String javaCommand = "";
+        String vmArgs = "";
+        if (ImageSingletons.contains(JavaMainSupport.class)) {
+            JavaMainSupport mainSupport = ImageSingletons.lookup(JavaMainSupport.class);
+            if (mainSupport.getJavaCommand() != null) {
+                javaCommand = mainSupport.getJavaCommand();
+            }
+            vmArgs = String.join(" ", mainSupport.getInputArguments());
+        }
+        allocateConstant("sun.rt.javaCommand", javaCommand);
+        allocateConstant("java.rt.vmArgs", vmArgs);
+        allocateConstant("java.rt.vmFlags", "");
+        for (String property : new String[]{"java.vm.name", "java.vm.vendor", "java.vm.version", "java.vm.info", "java.vm.specification.version", "java.version", "java.home"}) {
+            String value = System.getProperty(property);
+            if (value != null) {
+                allocateConstant("java.property." + property, value);
+            }
+        }
+    }
+
+    /** Adds a constant entry. Must only be called from {@link PerfDataHolder#allocate()}. */
+    public static void allocateConstant(String name, PerfUnit unit, long value) {
+        Pointer data = singleton().memory.allocate(name, PerfMemory.TYPE_LONG, unit, PerfVariability.CONSTANT, 0);
+        if (data.isNonNull()) {
+            data.writeLong(0, value);
+        }
+    }
+
+    /** Adds a constant string entry. Must only be called from {@link PerfDataHolder#allocate()}. */
+    public static void allocateConstant(String name, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+        Pointer data = singleton().memory.allocate(name, PerfMemory.TYPE_BYTE, PerfUnit.STRING, PerfVariability.CONSTANT, bytes.length + 1);
+        if (data.isNonNull()) {
+            for (int i = 0; i < bytes.length; i++) {
+                data.writeByte(i, bytes[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2021, 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.svm.core.jvmstat;
+
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+import org.graalvm.compiler.nodes.extended.MembarNode;
+import org.graalvm.nativeimage.Platform;
+import org.graalvm.nativeimage.Platforms;
+import org.graalvm.word.Pointer;
+import org.graalvm.word.WordFactory;
+
+import jdk.vm.ci.code.MemoryBarriers;
+
+/**
+ * The performance data memory in the format that HotSpot uses for its {@code hsperfdata} files
+ * (see perfMemory.hpp and perfData.hpp in HotSpot), so that {@code jdk.internal.jvmstat} and the
+ * tools that build on it (jstat, jcmd, jconsole) can read it.
+ *
+ * The memory starts with a fixed-size prologue, followed by a sequence of variable-size entries.
+ * Entries are only ever added, never removed. A new entry is fully written before it is published
+ * by updating the number of entries in the prologue.
+ */
+final class PerfMemory {
+    private static final int PERFDATA_MAJOR_VERSION = 2;
+    private static final int PERFDATA_MINOR_VERSION = 0;
+    private static final int PERFDATA_BIG_ENDIAN = 0;
+    private static final int PERFDATA_LITTLE_ENDIAN = 1;
+
+    /* Layout of the prologue. */
+    private static final int MAGIC_OFFSET = 0;
+    private static final int BYTE_ORDER_OFFSET = 4;
+    private static final int MAJOR_VERSION_OFFSET = 5;
+    private static final int MINOR_VERSION_OFFSET = 6;
+    private static final int ACCESSIBLE_OFFSET = 7;
+    private static final int USED_OFFSET = 8;
+    private static final int OVERFLOW_OFFSET = 12;
+    private static final int MOD_TIME_STAMP_OFFSET = 16;
+    private static final int ENTRY_OFFSET_OFFSET = 24;
+    private static final int NUM_ENTRIES_OFFSET = 28;
+    private static final int PROLOGUE_SIZE = 32;
+
+    /* Layout of an entry header. */
+    private static final int ENTRY_LENGTH_OFFSET = 0;
+    private static final int NAME_OFFSET_OFFSET = 4;
+    private static final int VECTOR_LENGTH_OFFSET = 8;
+    private static final int DATA_TYPE_OFFSET = 12;
+    private static final int FLAGS_OFFSET = 13;
+    private static final int DATA_UNITS_OFFSET = 14;
+    private static final int DATA_VARIABILITY_OFFSET = 15;
+    private static final int DATA_OFFSET_OFFSET = 16;
+    private static final int ENTRY_HEADER_SIZE = 20;
+
+    static final byte TYPE_LONG = 'J';
+    static final byte TYPE_BYTE = 'B';
+    private static final byte FLAG_SUPPORTED = 1;
+
+    private final PerfMemoryProvider provider;
+    private Pointer start;
+    private int capacity;
+    private int used;
+    private int numEntries;
+    private int overflow;
+
+    @Platforms(Platform.HOSTED_ONLY.class)
+    PerfMemory(PerfMemoryProvider provider) {
+        this.provider = provider;
+    }
+
+    boolean initialize(int size) {
+        assert start.isNull();
+        int alignedSize = roundUp(Math.max(size, PROLOGUE_SIZE), Long.BYTES);
+        Pointer memory = provider.create(alignedSize);
+        if (memory.isNull()) {
+            return false;
+        }
+
+        /* The magic number is always stored in big-endian byte order. */
+        memory.writeByte(MAGIC_OFFSET, (byte) 0xca);
+        memory.writeByte(MAGIC_OFFSET + 1, (byte) 0xfe);
+        memory.writeByte(MAGIC_OFFSET + 2, (byte) 0xc0);
+        memory.writeByte(MAGIC_OFFSET + 3, (byte) 0xc0);
+        memory.writeByte(BYTE_ORDER_OFFSET, (byte) (ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN ? PERFDATA_BIG_ENDIAN : PERFDATA_LITTLE_ENDIAN));
+        memory.writeByte(MAJOR_VERSION_OFFSET, (byte) PERFDATA_MAJOR_VERSION);
+        memory.writeByte(MINOR_VERSION_OFFSET, (byte) PERFDATA_MINOR_VERSION);
+        memory.writeByte(ACCESSIBLE_OFFSET, (byte) 0);
+        memory.writeInt(USED_OFFSET, PROLOGUE_SIZE);
+        memory.writeInt(OVERFLOW_OFFSET, 0);
+        memory.writeLong(MOD_TIME_STAMP_OFFSET, 0);
+        memory.writeInt(ENTRY_OFFSET_OFFSET, PROLOGUE_SIZE);
+        memory.writeInt(NUM_ENTRIES_OFFSET, 0);
+
+        start = memory;
+        capacity = alignedSize;
+        used = PROLOGUE_SIZE;
+        return true;
+    }
+
+    boolean isInitialized() {
+        return start.isNonNull();
+    }
+
+    Pointer getStart() {
+        return start;
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+
+    void setAccessible(boolean accessible) {
+        if (isInitialized()) {
+            start.writeByte(ACCESSIBLE_OFFSET, (byte) (accessible ? 1 : 0));
+        }
+    }
+
+    void teardown() {
+        if (isInitialized()) {
+            setAccessible(false);
+            provider.teardown();
+        }
+    }
+
+    /**
+     * Adds an entry with the given name and returns the address of its data, or a null pointer if
+     * the memory is not initialized or full. The data of the new entry is initialized to zero.
+     */
+    synchronized Pointer allocate(String name, byte dataType, PerfUnit unit, PerfVariability variability, int vectorLength) {
+        if (!isInitialized()) {
+            return WordFactory.nullPointer();
+        }
+
+        byte[] nameBytes = name.getBytes(StandardCharsets.US_ASCII);
+        int elementSize = dataType == TYPE_LONG ? Long.BYTES : Byte.BYTES;
+        int dataOffset = roundUp(ENTRY_HEADER_SIZE + nameBytes.length + 1, elementSize);
+        int dataSize = elementSize * Math.max(vectorLength, 1);
+        int entryLength = roundUp(dataOffset + dataSize, Long.BYTES);
+        if (entryLength > capacity - used) {
+            overflow += entryLength;
+            start.writeInt(OVERFLOW_OFFSET, overflow);
+            return WordFactory.nullPointer();
+        }
+
+        Pointer entry = start.add(used);
+        for (int i = 0; i < entryLength; i += Long.BYTES) {
+            entry.writeLong(i, 0);
+        }
+        entry.writeInt(ENTRY_LENGTH_OFFSET, entryLength);
+        entry.writeInt(NAME_OFFSET_OFFSET, ENTRY_HEADER_SIZE);
+        entry.writeInt(VECTOR_LENGTH_OFFSET, vectorLength);
+        entry.writeByte(DATA_TYPE_OFFSET, dataType);
+        entry.writeByte(FLAGS_OFFSET, FLAG_SUPPORTED);
+        entry.writeByte(DATA_UNITS_OFFSET, (byte) unit.getValue());
+        entry.writeByte(DATA_VARIABILITY_OFFSET, (byte) variability.getValue());
+        entry.writeInt(DATA_OFFSET_OFFSET, dataOffset);
+        for (int i = 0; i < nameBytes.length; i++) {
+            entry.writeByte(ENTRY_HEADER_SIZE + i, nameBytes[i]);
+        }
+
+        /* Readers in other processes must never see a partially written entry. */
+        MembarNode.memoryBarrier(MemoryBarriers.STORE_STORE);
+        used += entryLength;
+        numEntries++;
+        start.writeInt(USED_OFFSET, used);
+        start.writeInt(NUM_ENTRIES_OFFSET, numEntries);
+        start.writeLong(MOD_TIME_STAMP_OFFSET, System.nanoTime());
+        return entry.add(dataOffset);
+    }
+
+    private static int roundUp(int value, int alignment) {
+        return (value + alignment - 1) & -alignment;
+    }
+}
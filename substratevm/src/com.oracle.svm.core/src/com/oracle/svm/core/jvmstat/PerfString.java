@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2021, 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.svm.core.jvmstat;
+
+import org.graalvm.nativeimage.Platform;
+import org.graalvm.nativeimage.Platforms;
+import org.graalvm.word.Pointer;
+import org.graalvm.word.WordFactory;
+
+/**
+ * A performance data string, stored as a NUL-terminated byte array with a fixed maximum length.
+ * Non-ASCII characters are replaced with {@code '?'}. Like {@link PerfLong}, all accesses are
+ * no-ops until the entry is allocated.
+ */
+public final class PerfString {
+    private final String name;
+    private final PerfVariability variability;
+    private final int maxLength;
+    private Pointer value;
+
+    @Platforms(Platform.HOSTED_ONLY.class)
+    public PerfString(String name, PerfVariability variability, int maxLength) {
+        this.name = name;
+        this.variability = variability;
+        this.maxLength = maxLength;
+        this.value = WordFactory.nullPointer();
+    }
+
+    public void allocate(String initialValue) {
+        value = PerfManager.singleton().getMemory().allocate(name, PerfMemory.TYPE_BYTE, PerfUnit.STRING, variability, maxLength);
+        setValue(initialValue);
+    }
+
+    /** Does not allocate, so that it can be called during a garbage collection. */
+    public void setValue(String newValue) {
+        if (PerfManager.isEnabled() && value.isNonNull()) {
+            int length = Math.min(newValue.length(), maxLength - 1);
+            for (int i = 0; i < length; i++) {
+                char ch = newValue.charAt(i);
+                value.writeByte(i, (byte) (ch < 0x80 ? ch : '?'));
+            }
+            value.writeByte(length, (byte) 0);
+        }
+    }
+}
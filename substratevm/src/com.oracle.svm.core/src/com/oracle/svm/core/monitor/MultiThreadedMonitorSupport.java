@@ -40,6 +40,8 @@ import java.util.concurrent.locks.LockSupport;
 import java.util.concurrent.locks.ReentrantLock;
 
 import org.graalvm.compiler.core.common.SuppressFBWarnings;
+import org.graalvm.compiler.nodes.PauseNode;
+import org.graalvm.compiler.options.Option;
 import org.graalvm.compiler.serviceprovider.GraalUnsafeAccess;
 import org.graalvm.compiler.serviceprovider.JavaVersionUtil;
 import org.graalvm.compiler.word.BarrieredAccess;
@@ -57,6 +59,7 @@ import com.oracle.svm.core.annotate.RestrictHeapAccess.Access;
 import com.oracle.svm.core.annotate.TargetClass;
 import com.oracle.svm.core.annotate.Uninterruptible;
 import com.oracle.svm.core.hub.DynamicHub;
+import com.oracle.svm.core.option.HostedOptionKey;
 import com.oracle.svm.core.snippets.SubstrateForeignCallTarget;
 import com.oracle.svm.core.stack.StackOverflowCheck;
 import com.oracle.svm.core.thread.JavaContinuations;
@@ -65,6 +68,7 @@ import com.oracle.svm.core.thread.ThreadStatus;
 import com.oracle.svm.core.thread.VMOperationControl;
 import com.oracle.svm.core.threadlocal.FastThreadLocalFactory;
 import com.oracle.svm.core.threadlocal.FastThreadLocalInt;
+import com.oracle.svm.core.threadlocal.FastThreadLocalObject;
 import com.oracle.svm.core.util.VMError;
 
 import sun.misc.Unsafe;
@@ -91,11 +95,43 @@ import sun.misc.Unsafe;
  * {@link Condition} objects are used to implement {@link #wait()} and {@link #notify()}. When an
  * object monitor needs a condition object, it is atomically swapped into its
  * {@link Target_java_util_concurrent_locks_ReentrantLock_NonfairSync#objectMonitorCondition} field.
+ * <p>
+ * With {@link Options#ThinLocks}, objects with a monitor slot are first locked with a
+ * {@link ThinLock}: the slot then references a preallocated per-thread object that identifies the
+ * owner thread and the recursion depth, so that uncontended locking neither allocates nor uses a
+ * {@link ReentrantLock}. The thin lock is inflated to a {@link ReentrantLock} that is owned by the
+ * same thread when another thread contends for it, when the recursion depth exceeds
+ * {@link #MAX_THIN_LOCK_DEPTH}, and when a {@link ReentrantLock} is needed otherwise, e.g., for
+ * {@link #wait()}. Inflated monitors are never deflated.
  */
 public class MultiThreadedMonitorSupport extends MonitorSupport {
 
+    public static class Options {
+        @Option(help = "Lock objects with a monitor slot using a thin lock, which is only inflated to a full monitor on contention or when the monitor is needed for wait().")//
+        public static final HostedOptionKey<Boolean> ThinLocks = new HostedOptionKey<>(false);
+    }
+
     private static final Unsafe UNSAFE = GraalUnsafeAccess.getUnsafe();
 
+    /** The value of a monitor slot while the object is thin-locked. */
+    static final class ThinLock {
+        final Thread owner;
+        final int recursionDepth;
+
+        ThinLock(Thread owner, int recursionDepth) {
+            this.owner = owner;
+            this.recursionDepth = recursionDepth;
+        }
+    }
+
+    protected static final int MAX_THIN_LOCK_DEPTH = 8;
+
+    /** Number of times a thread re-reads a thin lock held by another thread before inflating it. */
+    private static final int THIN_LOCK_SPINS = 64;
+
+    /** The {@link ThinLock} objects of the current thread, indexed by recursion depth. */
+    private static final FastThreadLocalObject<ThinLock[]> thinLocks = FastThreadLocalFactory.createObject(ThinLock[].class);
+
     /**
      * This is only used for preempting a continuation in the experimental Loom JDK support. There's
      * performance impact in this solution.
@@ -259,6 +295,13 @@ public class MultiThreadedMonitorSupport extends MonitorSupport {
     @RestrictHeapAccess(reason = NO_LONGER_UNINTERRUPTIBLE, overridesCallers = true, access = Access.UNRESTRICTED)
     @Override
     public void monitorEnter(Object obj) {
+        if (useThinLocks()) {
+            int monitorOffset = getMonitorOffset(obj);
+            if (monitorOffset != 0 && thinLockEnter(obj, monitorOffset)) {
+                onMonitorLocked();
+                return;
+            }
+        }
         ReentrantLock lockObject = getOrCreateMonitor(obj, true);
         lockObject.lock();
 
@@ -298,6 +341,13 @@ public class MultiThreadedMonitorSupport extends MonitorSupport {
     @RestrictHeapAccess(reason = NO_LONGER_UNINTERRUPTIBLE, overridesCallers = true, access = Access.UNRESTRICTED)
     @Override
     public void monitorExit(Object obj) {
+        if (useThinLocks()) {
+            int monitorOffset = getMonitorOffset(obj);
+            if (monitorOffset != 0 && thinLockExit(obj, monitorOffset)) {
+                onMonitorUnlocked();
+                return;
+            }
+        }
         ReentrantLock lockObject = getOrCreateMonitor(obj, true);
         lockObject.unlock();
 
@@ -360,14 +410,118 @@ public class MultiThreadedMonitorSupport extends MonitorSupport {
         aSync.exclusiveOwnerThread = currentThread;
     }
 
+    protected static boolean useThinLocks() {
+        /* Thin locks are owned by threads, not by continuations that can migrate between them. */
+        return Options.ThinLocks.getValue() && !JavaContinuations.useLoom();
+    }
+
+    /**
+     * Tries to lock the object with a thin lock. Returns false if the monitor of the object is
+     * inflated, i.e., the {@link ReentrantLock} in the monitor slot must be locked instead.
+     */
+    private static boolean thinLockEnter(Object obj, int monitorOffset) {
+        Thread currentThread = Thread.currentThread();
+        for (int spins = 0;; spins++) {
+            Object value = BarrieredAccess.readObject(obj, monitorOffset);
+            if (value == null) {
+                if (UNSAFE.compareAndSwapObject(obj, monitorOffset, null, getThinLock(currentThread, 1))) {
+                    return true;
+                }
+            } else if (value instanceof ThinLock) {
+                ThinLock thinLock = (ThinLock) value;
+                if (thinLock.owner == currentThread && thinLock.recursionDepth < MAX_THIN_LOCK_DEPTH) {
+                    if (UNSAFE.compareAndSwapObject(obj, monitorOffset, thinLock, getThinLock(currentThread, thinLock.recursionDepth + 1))) {
+                        return true;
+                    }
+                } else if (thinLock.owner == currentThread || spins >= THIN_LOCK_SPINS) {
+                    inflateThinLock(obj, monitorOffset, thinLock);
+                } else {
+                    /* Held by another thread: back off before re-reading the monitor slot. */
+                    PauseNode.pause();
+                }
+            } else {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Unlocks a thin lock of the current thread. Returns false if the monitor of the object is
+     * inflated, i.e., the {@link ReentrantLock} in the monitor slot must be unlocked instead.
+     */
+    private static boolean thinLockExit(Object obj, int monitorOffset) {
+        Thread currentThread = Thread.currentThread();
+        while (true) {
+            Object value = BarrieredAccess.readObject(obj, monitorOffset);
+            if (!(value instanceof ThinLock)) {
+                return false;
+            }
+            ThinLock thinLock = (ThinLock) value;
+            if (thinLock.owner != currentThread) {
+                /* Same as ReentrantLock.unlock() for an inflated monitor. */
+                throw new IllegalMonitorStateException();
+            }
+            ThinLock newValue = thinLock.recursionDepth == 1 ? null : getThinLock(currentThread, thinLock.recursionDepth - 1);
+            /* Fails only if another thread inflated the lock in the meantime. */
+            if (UNSAFE.compareAndSwapObject(obj, monitorOffset, thinLock, newValue)) {
+                return true;
+            }
+        }
+    }
+
+    private static ThinLock getThinLock(Thread currentThread, int recursionDepth) {
+        ThinLock[] locks = thinLocks.get();
+        if (locks == null) {
+            locks = new ThinLock[MAX_THIN_LOCK_DEPTH + 1];
+            thinLocks.set(locks);
+        }
+        ThinLock result = locks[recursionDepth];
+        if (result == null) {
+            result = new ThinLock(currentThread, recursionDepth);
+            locks[recursionDepth] = result;
+        }
+        assert result.owner == currentThread;
+        return result;
+    }
+
+    /**
+     * Replaces a thin lock with a {@link ReentrantLock} that is held by the same thread with the
+     * same recursion depth. The owner can unlock or re-lock concurrently, in which case the
+     * inflation fails and the caller needs to re-read the monitor slot.
+     */
+    private static void inflateThinLock(Object obj, int monitorOffset, ThinLock thinLock) {
+        ReentrantLock monitor = newLockedMonitorForThread(thinLock.owner, thinLock.recursionDepth);
+        UNSAFE.compareAndSwapObject(obj, monitorOffset, thinLock, monitor);
+    }
+
+    private static ThinLock getThinLockIfLocked(Object obj) {
+        if (useThinLocks()) {
+            int monitorOffset = getMonitorOffset(obj);
+            if (monitorOffset != 0) {
+                Object value = BarrieredAccess.readObject(obj, monitorOffset);
+                if (value instanceof ThinLock) {
+                    return (ThinLock) value;
+                }
+            }
+        }
+        return null;
+    }
+
     @Override
     public boolean isLockedByCurrentThread(Object obj) {
+        ThinLock thinLock = getThinLockIfLocked(obj);
+        if (thinLock != null) {
+            return thinLock.owner == Thread.currentThread();
+        }
         ReentrantLock lockObject = getOrCreateMonitor(obj, false);
         return lockObject != null && lockObject.isHeldByCurrentThread();
     }
 
     @Override
     public boolean isLockedByAnyThread(Object obj) {
+        if (getThinLockIfLocked(obj) != null) {
+            return true;
+        }
         ReentrantLock lockObject = getOrCreateMonitor(obj, false);
         return lockObject != null && lockObject.isLocked();
     }
@@ -396,6 +550,11 @@ public class MultiThreadedMonitorSupport extends MonitorSupport {
 
     @Override
     public void notify(Object obj, boolean notifyAll) {
+        ThinLock thinLock = getThinLockIfLocked(obj);
+        if (thinLock != null && thinLock.owner == Thread.currentThread()) {
+            /* Waiting inflates the monitor, so there cannot be any waiters for a thin lock. */
+            return;
+        }
         /* Make sure the current thread holds the lock on the receiver. */
         ReentrantLock lock = ensureLocked(obj);
         /* Find the wait/notify condition of the receiver. */
@@ -436,18 +595,28 @@ public class MultiThreadedMonitorSupport extends MonitorSupport {
     }
 
     protected ReentrantLock getOrCreateMonitorFromObject(Object obj, boolean createIfNotExisting, int monitorOffset) {
-        ReentrantLock existingMonitor = (ReentrantLock) BarrieredAccess.readObject(obj, monitorOffset);
-        if (existingMonitor != null || !createIfNotExisting) {
-            assert existingMonitor == null || isMonitorLock(existingMonitor);
-            return existingMonitor;
-        }
-        /* Atomically put a new lock in place of the null at the monitorOffset. */
-        ReentrantLock newMonitor = newMonitorLock();
-        if (UNSAFE.compareAndSwapObject(obj, monitorOffset, null, newMonitor)) {
-            return newMonitor;
+        while (true) {
+            Object existing = BarrieredAccess.readObject(obj, monitorOffset);
+            if (existing instanceof ThinLock) {
+                /* The monitor is needed, so the thin lock must be inflated. */
+                inflateThinLock(obj, monitorOffset, (ThinLock) existing);
+                continue;
+            }
+            ReentrantLock existingMonitor = (ReentrantLock) existing;
+            if (existingMonitor != null || !createIfNotExisting) {
+                assert existingMonitor == null || isMonitorLock(existingMonitor);
+                return existingMonitor;
+            }
+            /* Atomically put a new lock in place of the null at the monitorOffset. */
+            ReentrantLock newMonitor = newMonitorLock();
+            if (UNSAFE.compareAndSwapObject(obj, monitorOffset, null, newMonitor)) {
+                return newMonitor;
+            }
+            /*
+             * We lost the race: some other thread installed a lock or thin-locked the object, so
+             * re-read the monitor slot.
+             */
         }
-        /* We lost the race, use the lock some other thread installed. */
-        return (ReentrantLock) BarrieredAccess.readObject(obj, monitorOffset);
     }
 
     protected ReentrantLock getOrCreateMonitorFromMap(Object obj, boolean createIfNotExisting) {
@@ -490,6 +659,10 @@ public class MultiThreadedMonitorSupport extends MonitorSupport {
      * (for a good reason, because it is a highly unusual operation).
      */
     protected static ReentrantLock newLockedMonitorForThread(IsolateThread isolateThread, int recursionDepth) {
+        return newLockedMonitorForThread(JavaThreads.fromVMThread(isolateThread), recursionDepth);
+    }
+
+    protected static ReentrantLock newLockedMonitorForThread(Thread thread, int recursionDepth) {
         ReentrantLock result = newMonitorLock();
         for (int i = 0; i < recursionDepth; i++) {
             result.lock();
@@ -499,7 +672,7 @@ public class MultiThreadedMonitorSupport extends MonitorSupport {
         Target_java_util_concurrent_locks_AbstractOwnableSynchronizer sync = SubstrateUtil.cast(lock.sync, Target_java_util_concurrent_locks_AbstractOwnableSynchronizer.class);
 
         assert sync.exclusiveOwnerThread == Thread.currentThread() : "Must be locked by current thread";
-        sync.exclusiveOwnerThread = JavaThreads.fromVMThread(isolateThread);
+        sync.exclusiveOwnerThread = thread;
 
         return result;
     }
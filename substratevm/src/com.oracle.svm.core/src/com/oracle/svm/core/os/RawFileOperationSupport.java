@@ -81,6 +81,17 @@ public interface RawFileOperationSupport {
      */
     RawFileDescriptor open(File file, FileAccessMode mode);
 
+    /**
+     * Creates a new file that only the current user can read and write, and opens it with the
+     * specified {@link FileAccessMode access mode}. The operation fails if the file already exists,
+     * also if it is a symbolic link. This should be used for files that may contain sensitive
+     * data, such as heap dumps.
+     *
+     * @return If the operation is successful, it returns the file descriptor. Otherwise, it returns
+     *         a value where {@link #isValid} will return false.
+     */
+    RawFileDescriptor createPrivate(File file, FileAccessMode mode);
+
     /**
      * Checks if a file descriptor is valid or if it represents an error value.
      *
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2021, 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.svm.core.pgo;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.graalvm.compiler.options.Option;
+import org.graalvm.nativeimage.ImageSingletons;
+import org.graalvm.nativeimage.Platform;
+import org.graalvm.nativeimage.Platforms;
+import org.graalvm.nativeimage.hosted.Feature;
+
+import com.oracle.svm.core.ImageProfiles;
+import com.oracle.svm.core.annotate.AutomaticFeature;
+import com.oracle.svm.core.jdk.RuntimeSupport;
+import com.oracle.svm.core.log.Log;
+import com.oracle.svm.core.option.HostedOptionKey;
+import com.oracle.svm.core.option.RuntimeOptionKey;
+
+/**
+ * Method and branch execution counts of an instrumented image. The profile written at exit has one
+ * line per executed method or branch successor, consisting of the execution count and the name
+ * separated by a tab, with the most frequently executed one first. Each name occurs only once. The
+ * image builder reads this format with {@code -H:PGO=<file>}.
+ */
+public final class MethodCounters {
+
+    public static class Options {
+        @Option(help = "Instrument the image to count method and branch executions. The counts are written to PGOProfileOutput at exit and can be used by a later build with -H:PGO=<file>.")//
+        public static final HostedOptionKey<Boolean> PGOInstrument = new HostedOptionKey<>(false);
+
+        @Option(help = "File the method and branch execution counts of an image built with -H:+PGOInstrument are written to at exit.")//
+        public static final RuntimeOptionKey<String> PGOProfileOutput = new RuntimeOptionKey<>("default.iprof");
+    }
+
+    /** Separates the execution count from the method name in a profile line. */
+    public static final char SEPARATOR = '\t';
+
+    /**
+     * Head of the list of all method counters. The counters are created during compilation, when
+     * everything is concurrent.
+     */
+    private static final AtomicReference<MethodCounter> firstCounter = new AtomicReference<>();
+
+    static {
+        /*
+         * The static analysis sees the MethodCounter type as instantiated, but the actual objects
+         * are only created during compilation. Adding an unused counter makes the type reachable
+         * for the static analysis.
+         */
+        create("__unused_to_make_counter_type_reachable__");
+    }
+
+    private MethodCounters() {
+    }
+
+    @Platforms(Platform.HOSTED_ONLY.class)
+    public static MethodCounter create(String methodName) {
+        MethodCounter counter;
+        do {
+            counter = new MethodCounter(methodName, firstCounter.get());
+        } while (!firstCounter.compareAndSet(counter.getNext(), counter));
+        return counter;
+    }
+
+    public static String computeProfile() {
+        /* A method inlined into several callers has a counter in each of them. */
+        Map<String, Long> counts = new HashMap<>();
+        for (MethodCounter counter = firstCounter.get(); counter != null; counter = counter.getNext()) {
+            if (counter.getCount() > 0) {
+                counts.merge(counter.getName(), counter.getCount(), Long::sum);
+            }
+        }
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(counts.entrySet());
+        entries.sort((e1, e2) -> Long.compare(e2.getValue(), e1.getValue()));
+
+        StringBuilder profile = new StringBuilder();
+        for (Map.Entry<String, Long> entry : entries) {
+            profile.append(entry.getValue()).append(SEPARATOR).append(entry.getKey()).append('\n');
+        }
+        return profile.toString();
+    }
+
+    public static void writeProfile() {
+        String path = Options.PGOProfileOutput.getValue();
+        try {
+            Files.write(Paths.get(path), computeProfile().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            Log.log().string("Failed to write method execution profile to ").string(path).string(": ").string(e.getMessage()).newline();
+        }
+    }
+}
+
+final class MethodCountersImageProfiles extends ImageProfiles {
+    @Override
+    protected String computeProfiles() {
+        return MethodCounters.computeProfile();
+    }
+}
+
+@AutomaticFeature
+class MethodCountersFeature implements Feature {
+    @Override
+    public boolean isInConfiguration(IsInConfigurationAccess access) {
+        return MethodCounters.Options.PGOInstrument.getValue();
+    }
+
+    @Override
+    public void afterRegistration(AfterRegistrationAccess access) {
+        ImageSingletons.add(ImageProfiles.class, new MethodCountersImageProfiles());
+        RuntimeSupport.getRuntimeSupport().addShutdownHook(MethodCounters::writeProfile);
+    }
+
+    @Override
+    public void beforeAnalysis(BeforeAnalysisAccess access) {
+        /* The count field is only written by code inserted during compilation. */
+        access.registerAsAccessed(MethodCounter.COUNT_FIELD);
+    }
+}
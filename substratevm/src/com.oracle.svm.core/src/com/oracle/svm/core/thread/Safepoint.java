@@ -55,6 +55,10 @@ import com.oracle.svm.core.annotate.Uninterruptible;
 import com.oracle.svm.core.graal.nodes.KillMemoryNode;
 import com.oracle.svm.core.heap.Heap;
 import com.oracle.svm.core.jdk.UninterruptibleUtils;
+import com.oracle.svm.core.jvmstat.PerfLong;
+import com.oracle.svm.core.jvmstat.PerfManager;
+import com.oracle.svm.core.jvmstat.PerfUnit;
+import com.oracle.svm.core.jvmstat.PerfVariability;
 import com.oracle.svm.core.log.Log;
 import com.oracle.svm.core.nodes.CFunctionEpilogueNode;
 import com.oracle.svm.core.nodes.CFunctionPrologueNode;
@@ -561,11 +565,22 @@ public final class Safepoint {
         /** The thread requesting a safepoint. */
         private volatile IsolateThread requestingThread;
 
+        private final PerfLong perfDataSafepoints = new PerfLong("sun.rt.safepoints", PerfUnit.EVENTS, PerfVariability.MONOTONIC);
+        private final PerfLong perfDataSafepointTime = new PerfLong("sun.rt.safepointTime", PerfUnit.TICKS, PerfVariability.MONOTONIC);
+        private final PerfLong perfDataSafepointSyncTime = new PerfLong("sun.rt.safepointSyncTime", PerfUnit.TICKS, PerfVariability.MONOTONIC);
+        private long perfDataStartNanos;
+
         @Platforms(Platform.HOSTED_ONLY.class)
         private Master() {
             this.safepointState = NOT_AT_SAFEPOINT;
         }
 
+        void allocatePerfData() {
+            perfDataSafepoints.allocate();
+            perfDataSafepointTime.allocate();
+            perfDataSafepointSyncTime.allocate();
+        }
+
         /**
          * Have each of the threads (except myself!) stop at a safepoint.
          *
@@ -587,11 +602,17 @@ public final class Safepoint {
             requestingThread = CurrentIsolate.getCurrentThread();
             Statistics.reset();
             Statistics.setStartNanos();
+            if (PerfManager.isEnabled()) {
+                perfDataStartNanos = System.nanoTime();
+            }
             ImageSingletons.lookup(Heap.class).prepareForSafepoint();
             safepointState = SYNCHRONIZING;
             requestSafepoints(reason);
             waitForSafepoints(reason);
             Statistics.setFrozenNanos();
+            if (PerfManager.isEnabled()) {
+                perfDataSafepointSyncTime.addValue(System.nanoTime() - perfDataStartNanos);
+            }
             safepointState = AT_SAFEPOINT;
             safepointId = safepointId.add(1);
             return lock;
@@ -607,6 +628,10 @@ public final class Safepoint {
             releaseSafepoints(reason);
             ImageSingletons.lookup(Heap.class).endSafepoint();
             Statistics.setThawedNanos();
+            if (PerfManager.isEnabled()) {
+                perfDataSafepoints.increment();
+                perfDataSafepointTime.addValue(System.nanoTime() - perfDataStartNanos);
+            }
             requestingThread = WordFactory.nullPointer();
 
             if (unlock) {
@@ -1084,4 +1109,12 @@ class SafepointFeature implements Feature {
     public void afterRegistration(AfterRegistrationAccess access) {
         Safepoint.Master.initialize();
     }
+
+    @Override
+    public void beforeAnalysis(BeforeAnalysisAccess access) {
+        if (PerfManager.isEnabled()) {
+            Safepoint.Master master = Safepoint.Master.singleton();
+            PerfManager.singleton().register(master::allocatePerfData);
+        }
+    }
 }
@@ -161,6 +161,10 @@ class DefaultOptionHandler extends NativeImage.OptionHandler<NativeImage> {
                 args.poll();
                 nativeImage.setDryRun(true);
                 return true;
+            case "--skip-unchanged-build":
+                args.poll();
+                nativeImage.setSkipUnchangedBuild(true);
+                return true;
             case "--expert-options":
                 args.poll();
                 nativeImage.setPrintFlagsOptionQuery(OptionType.User.name());
@@ -0,0 +1,305 @@
+/*
+ * Copyright (c) 2021, 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.svm.driver;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.graalvm.compiler.options.OptionKey;
+
+import com.oracle.svm.core.OS;
+import com.oracle.svm.core.SubstrateOptions;
+import com.oracle.svm.core.configure.ConfigurationFiles;
+import com.oracle.svm.core.util.VMError;
+import com.oracle.svm.hosted.c.codegen.CCompilerInvoker;
+import com.oracle.svm.hosted.image.CCLinkerInvocation;
+
+/**
+ * Fingerprint of all inputs of an image build: the image builder command line, working directory
+ * and environment, the size and modification time of every file on the builder and image class and
+ * module paths, of the C compiler and linker, and of the files named by C compiler and linker
+ * options, and the contents of the configuration files, substitution files and C libraries the image
+ * builder reads. The fingerprint of a successful build is stored next to the image so that a later
+ * build with the same inputs can skip the whole build and keep the existing image. Nothing is reused
+ * when any input changed: the image is then rebuilt from scratch.
+ */
+final class ImageBuildStamp {
+
+    private static final String STAMP_SUFFIX = ".build-stamp";
+
+    /** Hosted options whose values are comma-separated files or directories read by the builder. */
+    private static final Set<String> CONTENT_INPUT_OPTIONS = Stream.of(
+                    ConfigurationFiles.Options.ConfigurationFileDirectories,
+                    ConfigurationFiles.Options.ReflectionConfigurationFiles,
+                    ConfigurationFiles.Options.DynamicProxyConfigurationFiles,
+                    ConfigurationFiles.Options.SerializationConfigurationFiles,
+                    ConfigurationFiles.Options.SerializationDenyConfigurationFiles,
+                    ConfigurationFiles.Options.ResourceConfigurationFiles,
+                    ConfigurationFiles.Options.JNIConfigurationFiles,
+                    ConfigurationFiles.Options.PredefinedClassesConfigurationFiles,
+                    ConfigurationFiles.Options.SubstitutionFiles,
+                    SubstrateOptions.CLibraryPath).map(OptionKey::getName).collect(Collectors.toSet());
+
+    /**
+     * Hosted options whose values are comma-separated C compiler or linker arguments or tools, some
+     * of which name files or directories.
+     */
+    private static final Set<String> TOOLCHAIN_OPTIONS = Stream.of(
+                    SubstrateOptions.CCompilerPath,
+                    SubstrateOptions.CCompilerOption,
+                    CCLinkerInvocation.Options.NativeLinkerOption).map(OptionKey::getName).collect(Collectors.toSet());
+
+    private static final Pattern HOSTED_OPTION_PATTERN = Pattern.compile("^" + Pattern.quote(NativeImage.oH) + "(\\w+)(@[^=]*)?=(.*)$");
+
+    private final Path imageDirectory;
+    private final String imageName;
+    private final Path stampFile;
+
+    ImageBuildStamp(Path imageDirectory, String imageName) {
+        this.imageDirectory = imageDirectory;
+        this.imageName = imageName;
+        this.stampFile = imageDirectory.resolve("." + imageName + STAMP_SUFFIX);
+    }
+
+    /**
+     * Returns the files and directories named by the configuration file, substitution file and C
+     * library path options of the given image builder arguments. Changes to these inputs do not
+     * necessarily change their size or modification time, so their contents are fingerprinted.
+     */
+    static List<Path> getContentInputPaths(List<String> builderArgs) {
+        List<Path> paths = new ArrayList<>();
+        for (String entry : getOptionEntries(builderArgs, CONTENT_INPUT_OPTIONS)) {
+            try {
+                paths.add(Paths.get(entry).toAbsolutePath());
+            } catch (InvalidPathException e) {
+                /* The image builder reports invalid paths. */
+            }
+        }
+        return paths;
+    }
+
+    /**
+     * Returns the C compiler and linker the image builder uses, and the existing files and
+     * directories named by the C compiler and linker options of the given image builder arguments,
+     * e.g., {@code -L<dir>}, {@code -Wl,--version-script=<file>} or static libraries.
+     */
+    static List<Path> getToolchainPaths(List<String> builderArgs) {
+        List<Path> paths = new ArrayList<>();
+        boolean customCompiler = false;
+        for (String arg : builderArgs) {
+            Matcher matcher = HOSTED_OPTION_PATTERN.matcher(arg);
+            customCompiler |= matcher.matches() && matcher.group(1).equals(SubstrateOptions.CCompilerPath.getName());
+        }
+        if (!customCompiler) {
+            String compiler = OS.getCurrent() == OS.WINDOWS ? "cl.exe" : OS.getCurrent() == OS.DARWIN ? "cc" : "gcc";
+            CCompilerInvoker.lookupSearchPath(compiler).ifPresent(paths::add);
+        }
+        CCompilerInvoker.lookupSearchPath(OS.getCurrent() == OS.WINDOWS ? "link.exe" : "ld").ifPresent(paths::add);
+        for (String entry : getOptionEntries(builderArgs, TOOLCHAIN_OPTIONS)) {
+            if (!addIfExists(paths, entry) && !addIfExists(paths, entry.substring(entry.indexOf('=') + 1)) && (entry.startsWith("-L") || entry.startsWith("-I"))) {
+                addIfExists(paths, entry.substring(2));
+            }
+        }
+        return paths;
+    }
+
+    private static boolean addIfExists(List<Path> paths, String candidate) {
+        try {
+            Path path = Paths.get(candidate);
+            if (!candidate.isEmpty() && Files.exists(path)) {
+                paths.add(path.toAbsolutePath());
+                return true;
+            }
+        } catch (InvalidPathException e) {
+            /* Not a path, e.g., a linker flag. */
+        }
+        return false;
+    }
+
+    private static List<String> getOptionEntries(List<String> builderArgs, Set<String> optionNames) {
+        List<String> entries = new ArrayList<>();
+        for (String arg : builderArgs) {
+            Matcher matcher = HOSTED_OPTION_PATTERN.matcher(arg);
+            if (matcher.matches() && optionNames.contains(matcher.group(1))) {
+                for (String entry : matcher.group(3).split(",")) {
+                    if (!entry.isEmpty()) {
+                        entries.add(entry);
+                    }
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Returns the working directory and the environment of the image builder, which are inherited
+     * from this process and can affect the builder, the C compiler and the linker.
+     */
+    static List<String> getEnvironment() {
+        List<String> environment = new ArrayList<>();
+        environment.add(Paths.get("").toAbsolutePath().toString());
+        for (Map.Entry<String, String> variable : new TreeMap<>(System.getenv()).entrySet()) {
+            environment.add(variable.getKey() + "=" + variable.getValue());
+        }
+        return environment;
+    }
+
+    /**
+     * Computes the fingerprint of the given inputs. The size and modification time of the files in
+     * {@code inputPaths} and below are fingerprinted, of the files in {@code toolchainPaths} and
+     * directly in its directories, and the contents of the files in {@code contentInputPaths} and
+     * below.
+     */
+    static String computeFingerprint(List<String> commandLine, Collection<Path> inputPaths, Collection<Path> toolchainPaths, Collection<Path> contentInputPaths) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw VMError.shouldNotReachHere(e);
+        }
+        for (String arg : commandLine) {
+            update(digest, arg);
+        }
+        for (Path inputPath : inputPaths) {
+            updateWithFiles(digest, inputPath, Integer.MAX_VALUE, false);
+        }
+        for (Path inputPath : toolchainPaths) {
+            /* Linker search directories such as -L/usr/lib are not searched recursively. */
+            updateWithFiles(digest, inputPath, 1, false);
+        }
+        for (Path inputPath : contentInputPaths) {
+            updateWithFiles(digest, inputPath, Integer.MAX_VALUE, true);
+        }
+        StringBuilder sb = new StringBuilder();
+        for (byte b : digest.digest()) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+
+    private static void updateWithFiles(MessageDigest digest, Path inputPath, int maxDepth, boolean contents) {
+        update(digest, inputPath.toString());
+        if (Files.isDirectory(inputPath)) {
+            try (Stream<Path> files = Files.walk(inputPath, maxDepth)) {
+                for (Path file : files.filter(Files::isRegularFile).sorted().collect(Collectors.toList())) {
+                    update(digest, inputPath.relativize(file).toString());
+                    updateWithFile(digest, file, contents);
+                }
+            } catch (IOException e) {
+                /* Unreadable inputs never match a stored fingerprint. */
+                update(digest, e.toString());
+            }
+        } else {
+            updateWithFile(digest, inputPath, contents);
+        }
+    }
+
+    private static void updateWithFile(MessageDigest digest, Path file, boolean contents) {
+        if (contents) {
+            updateWithContents(digest, file);
+        } else {
+            updateWithAttributes(digest, file);
+        }
+    }
+
+    private static void updateWithAttributes(MessageDigest digest, Path file) {
+        try {
+            /* Tools like the C compiler are often symbolic links to the actual executable. */
+            BasicFileAttributes attributes = Files.readAttributes(file.toRealPath(), BasicFileAttributes.class);
+            update(digest, attributes.size() + ":" + attributes.lastModifiedTime().toMillis());
+        } catch (IOException e) {
+            update(digest, "<missing>");
+        }
+    }
+
+    private static void updateWithContents(MessageDigest digest, Path file) {
+        try {
+            digest.update(Files.readAllBytes(file));
+            digest.update((byte) 0);
+        } catch (IOException e) {
+            update(digest, "<missing>");
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    /**
+     * Returns true if the previous successful build had the given fingerprint and its image is
+     * still present.
+     */
+    boolean isUpToDate(String fingerprint) {
+        try {
+            if (!Files.isRegularFile(stampFile) || !fingerprint.equals(new String(Files.readAllBytes(stampFile), StandardCharsets.UTF_8).trim())) {
+                return false;
+            }
+            try (Stream<Path> files = Files.list(imageDirectory)) {
+                return files.anyMatch(this::isImageFile);
+            }
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private boolean isImageFile(Path file) {
+        String fileName = file.getFileName().toString();
+        return Files.isRegularFile(file) && (fileName.equals(imageName) || fileName.startsWith(imageName + "."));
+    }
+
+    void write(String fingerprint) {
+        try {
+            Files.write(stampFile, fingerprint.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            NativeImage.showWarning("Failed to write image build stamp " + stampFile + ": " + e.getMessage());
+        }
+    }
+
+    void delete() {
+        try {
+            Files.deleteIfExists(stampFile);
+        } catch (IOException e) {
+            NativeImage.showWarning("Failed to delete image build stamp " + stampFile + ": " + e.getMessage());
+        }
+    }
+}
@@ -35,6 +35,7 @@ import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
 import java.nio.file.LinkOption;
@@ -255,6 +256,7 @@ public class NativeImage {
     String diagnosticsDir;
     private boolean jarOptionMode = false;
     private boolean dryRun = false;
+    private boolean skipUnchangedBuild = false;
     private String printFlagsOptionQuery = null;
     private String printFlagsWithExtraHelpOptionQuery = null;
 
@@ -647,8 +649,14 @@ public class NativeImage {
     }
 
     class DriverMetaInfProcessor implements NativeImageMetaInfResourceProcessor {
+        /** Configuration files found in class path directories (as opposed to jar files). */
+        final List<Path> directoryConfigFiles = new ArrayList<>();
+
         @Override
         public void processMetaInfResource(Path classpathEntry, Path resourceRoot, Path resourcePath, MetaInfFileType type) throws IOException {
+            if (resourcePath.getFileSystem() == FileSystems.getDefault()) {
+                directoryConfigFiles.add(resourcePath);
+            }
             NativeImageArgsProcessor args = NativeImage.this.new NativeImageArgsProcessor(resourcePath.toUri().toString());
             Path componentDirectory = resourceRoot.relativize(resourcePath).getParent();
             Function<String, String> resolver = str -> {
@@ -1420,6 +1428,32 @@ public class NativeImage {
             command.addAll(Arrays.asList(SubstrateOptions.WATCHPID_PREFIX, "" + ProcessProperties.getProcessID()));
         }
         List<String> finalImageBuilderArgs = createImageBuilderArgs(imageArgs, imagecp, imagemp);
+
+        ImageBuildStamp buildStamp = null;
+        String buildFingerprint = null;
+        if (skipUnchangedBuild && !dryRun && !isDiagnostics() && imagePath != null && imageName != null) {
+            buildStamp = new ImageBuildStamp(canonicalize(Paths.get(imagePath)), imageName);
+            List<String> fingerprintArgs = new ArrayList<>(javaArgs);
+            fingerprintArgs.add(graalvmVersion);
+            fingerprintArgs.add(graalvmConfig);
+            fingerprintArgs.add(config.getJavaExecutable().toString());
+            fingerprintArgs.addAll(finalImageBuilderArgs);
+            fingerprintArgs.addAll(ImageBuildStamp.getEnvironment());
+            List<Path> fingerprintPaths = Stream.of(bcp, cp, imagecp, imagemp).flatMap(Collection::stream).collect(Collectors.toList());
+            /* The runtime image of the builder JDK contains the compiler and JVMCI. */
+            fingerprintPaths.add(config.getJavaHome().resolve(Paths.get("lib", "modules")));
+            List<Path> contentPaths = new ArrayList<>(metaInfProcessor.directoryConfigFiles);
+            contentPaths.addAll(ImageBuildStamp.getContentInputPaths(finalImageBuilderArgs));
+            List<Path> toolchainPaths = ImageBuildStamp.getToolchainPaths(finalImageBuilderArgs);
+            buildFingerprint = ImageBuildStamp.computeFingerprint(fingerprintArgs, fingerprintPaths, toolchainPaths, contentPaths);
+            if (buildStamp.isUpToDate(buildFingerprint)) {
+                showMessage("Image '" + imageName + "' is up to date, skipping the whole image build.");
+                return 0;
+            }
+            /* A failed or interrupted build must not leave a stamp of a previous build behind. */
+            buildStamp.delete();
+        }
+
         List<String> completeCommandList = Stream.concat(command.stream(), finalImageBuilderArgs.stream()).collect(Collectors.toList());
         command.add(createImageBuilderArgumentFile(finalImageBuilderArgs));
         final String commandLine = SubstrateUtil.getShellCommandString(completeCommandList, true);
@@ -1451,6 +1485,9 @@ public class NativeImage {
                 p.destroy();
             }
         }
+        if (buildStamp != null && exitStatus == 0) {
+            buildStamp.write(buildFingerprint);
+        }
         return exitStatus;
     }
 
@@ -1803,6 +1840,10 @@ public class NativeImage {
         return dryRun;
     }
 
+    protected void setSkipUnchangedBuild(boolean val) {
+        skipUnchangedBuild = val;
+    }
+
     public void setPrintFlagsOptionQuery(String val) {
         this.printFlagsOptionQuery = val;
     }
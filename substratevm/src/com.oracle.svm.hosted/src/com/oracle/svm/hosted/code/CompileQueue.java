@@ -79,6 +79,7 @@ import org.graalvm.compiler.nodes.ConstantNode;
 import org.graalvm.compiler.nodes.FixedNode;
 import org.graalvm.compiler.nodes.FixedWithNextNode;
 import org.graalvm.compiler.nodes.FrameState;
+import org.graalvm.compiler.nodes.IfNode;
 import org.graalvm.compiler.nodes.IndirectCallTargetNode;
 import org.graalvm.compiler.nodes.Invoke;
 import org.graalvm.compiler.nodes.InvokeNode;
@@ -152,6 +153,8 @@ import com.oracle.svm.hosted.NativeImageGenerator;
 import com.oracle.svm.hosted.NativeImageOptions;
 import com.oracle.svm.hosted.meta.HostedMethod;
 import com.oracle.svm.hosted.meta.HostedUniverse;
+import com.oracle.svm.hosted.pgo.PGOFeature;
+import com.oracle.svm.hosted.pgo.PGOProfile;
 import com.oracle.svm.hosted.phases.DevirtualizeCallsPhase;
 import com.oracle.svm.hosted.phases.HostedGraphBuilderPhase;
 import com.oracle.svm.hosted.phases.ImplicitAssertionsPhase;
@@ -663,6 +666,9 @@ public class CompileQueue {
         if (selectCallees != null && Arrays.stream(selectCallees.callees()).anyMatch(c -> c.equals(callee.getQualifiedName()))) {
             return true;
         }
+        if (ImageSingletons.contains(PGOProfile.class) && ImageSingletons.lookup(PGOProfile.class).shouldInlineHotCall(invoke, callee)) {
+            return true;
+        }
         return false;
     }
 
@@ -754,6 +760,8 @@ public class CompileQueue {
          * need to preserve them when explicitly enabled, to reduce memory pressure.
          */
         boolean trackNodeSourcePosition = GraalOptions.TrackNodeSourcePosition.getValue(options);
+        /* Profile-guided optimization identifies branches by their bytecode position. */
+        boolean keepBranchSourcePositions = PGOFeature.isEnabled();
         StructuredGraph graph = aGraph.copy(universe.lookup(aGraph.method()), options, debug, trackNodeSourcePosition);
 
         IdentityHashMap<Object, Object> replacements = new IdentityHashMap<>();
@@ -771,7 +779,7 @@ public class CompileQueue {
              * The NodeSourcePosition is not part of the regular "data" fields, so we need to
              * process it manually.
              */
-            if (trackNodeSourcePosition) {
+            if (trackNodeSourcePosition || (keepBranchSourcePositions && node instanceof IfNode)) {
                 node.setNodeSourcePosition((NodeSourcePosition) replaceAnalysisObjects(node.getNodeSourcePosition(), node, replacements, universe));
             } else {
                 node.clearNodeSourcePosition();
@@ -1418,6 +1426,9 @@ public class CompileQueue {
         for (Entry<HostedMethod, CompileTask> entry : compilations.entrySet()) {
             result.put(entry.getKey(), entry.getValue().result);
         }
+        if (ImageSingletons.contains(PGOProfile.class)) {
+            return ImageSingletons.lookup(PGOProfile.class).layoutHotFirst(result);
+        }
         return result;
     }
 
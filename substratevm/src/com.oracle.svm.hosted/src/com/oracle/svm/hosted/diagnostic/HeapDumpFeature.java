@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2021, 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.svm.hosted.diagnostic;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.graalvm.nativeimage.ImageSingletons;
+import org.graalvm.nativeimage.Platform;
+import org.graalvm.nativeimage.hosted.Feature;
+import org.graalvm.nativeimage.impl.HeapDumpSupport;
+
+import com.oracle.svm.core.VMInspection;
+import com.oracle.svm.core.annotate.AutomaticFeature;
+import com.oracle.svm.core.heapdump.HeapDumpMetadata;
+import com.oracle.svm.core.heapdump.HeapDumpSupportImpl;
+import com.oracle.svm.core.hub.DynamicHub;
+import com.oracle.svm.hosted.FeatureImpl.BeforeCompilationAccessImpl;
+import com.oracle.svm.hosted.meta.HostedField;
+import com.oracle.svm.hosted.meta.HostedType;
+import com.oracle.svm.hosted.meta.HostedUniverse;
+
+import jdk.vm.ci.meta.JavaKind;
+import jdk.vm.ci.meta.ResolvedJavaField;
+
+/**
+ * Enables HPROF heap dumps at run time, see {@link HeapDumpSupportImpl}. Heap dumps are part of
+ * the VM inspection features and can be requested with {@code SIGUSR1}, via
+ * {@link org.graalvm.nativeimage.VMRuntime#dumpHeap}, or via the {@code HotSpotDiagnosticMXBean}.
+ */
+@AutomaticFeature
+public class HeapDumpFeature implements Feature {
+
+    @Override
+    public boolean isInConfiguration(IsInConfigurationAccess access) {
+        /* Heap dumps are written with RawFileOperationSupport, which is not available on Windows. */
+        return VMInspection.isEnabled() && !Platform.includedIn(Platform.WINDOWS.class);
+    }
+
+    @Override
+    public void afterRegistration(AfterRegistrationAccess access) {
+        ImageSingletons.add(HeapDumpMetadata.class, new HeapDumpMetadata());
+        ImageSingletons.add(HeapDumpSupport.class, new HeapDumpSupportImpl());
+    }
+
+    @Override
+    public void beforeCompilation(BeforeCompilationAccess access) {
+        HostedUniverse universe = ((BeforeCompilationAccessImpl) access).getUniverse();
+        HeapDumpMetadata metadata = ImageSingletons.lookup(HeapDumpMetadata.class);
+
+        int typeCount = 0;
+        for (HostedType type : universe.getTypes()) {
+            typeCount = Math.max(typeCount, type.getTypeID() + 1);
+        }
+        HostedType[] types = new HostedType[typeCount];
+        for (HostedType type : universe.getTypes()) {
+            if (!type.isPrimitive() && type.getHub() != null) {
+                types[type.getTypeID()] = type;
+            }
+        }
+
+        Map<String, String> names = new HashMap<>();
+        String emptyName = canonicalName(names, "");
+
+        DynamicHub[] hubs = new DynamicHub[typeCount];
+        String[] classNames = new String[typeCount];
+        byte[] arrayElementTypes = new byte[typeCount];
+        int[] instanceDumpSizes = new int[typeCount];
+        int[] fieldStarts = new int[2 * typeCount + 1];
+        List<String> fieldNames = new ArrayList<>();
+        List<Byte> fieldTypes = new ArrayList<>();
+        List<Integer> fieldLocations = new ArrayList<>();
+
+        for (int typeId = 0; typeId < typeCount; typeId++) {
+            HostedType type = types[typeId];
+            fieldStarts[2 * typeId] = fieldNames.size();
+            if (type != null) {
+                hubs[typeId] = type.getHub();
+                classNames[typeId] = canonicalName(names, type.getHub().getName().replace('.', '/'));
+                if (type.isArray()) {
+                    arrayElementTypes[typeId] = HeapDumpMetadata.typeOf(type.getComponentType().getStorageKind());
+                }
+                for (HostedField field : type.getInstanceFields(false)) {
+                    if (field.hasLocation()) {
+                        addField(names, field, fieldNames, fieldTypes, fieldLocations);
+                    }
+                }
+            }
+            fieldStarts[2 * typeId + 1] = fieldNames.size();
+            if (type != null) {
+                for (ResolvedJavaField field : type.getStaticFields()) {
+                    if (((HostedField) field).hasLocation()) {
+                        addField(names, (HostedField) field, fieldNames, fieldTypes, fieldLocations);
+                    }
+                }
+            }
+        }
+        fieldStarts[2 * typeCount] = fieldNames.size();
+
+        for (int typeId = 0; typeId < typeCount; typeId++) {
+            if (types[typeId] != null && !types[typeId].isArray()) {
+                for (HostedType cur = types[typeId]; cur != null; cur = cur.getSuperclass()) {
+                    for (int i = fieldStarts[2 * cur.getTypeID()]; i < fieldStarts[2 * cur.getTypeID() + 1]; i++) {
+                        instanceDumpSizes[typeId] += HeapDumpMetadata.sizeOf(fieldTypes.get(i));
+                    }
+                }
+            }
+        }
+
+        byte[] fieldTypesArray = new byte[fieldTypes.size()];
+        int[] fieldLocationsArray = new int[fieldLocations.size()];
+        for (int i = 0; i < fieldTypesArray.length; i++) {
+            fieldTypesArray[i] = fieldTypes.get(i);
+            fieldLocationsArray[i] = fieldLocations.get(i);
+        }
+
+        metadata.setClassData(hubs, classNames, arrayElementTypes, instanceDumpSizes);
+        metadata.setFieldData(fieldStarts, fieldNames.toArray(new String[0]), fieldTypesArray, fieldLocationsArray);
+        metadata.setNames(names.values().toArray(new String[0]), emptyName);
+    }
+
+    private static void addField(Map<String, String> names, HostedField field, List<String> fieldNames, List<Byte> fieldTypes, List<Integer> fieldLocations) {
+        JavaKind storageKind = field.getStorageKind();
+        fieldNames.add(canonicalName(names, field.getName()));
+        fieldTypes.add(HeapDumpMetadata.typeOf(storageKind));
+        fieldLocations.add(field.getLocation());
+    }
+
+    /** All names are written as string records once, so every name must be a single object. */
+    private static String canonicalName(Map<String, String> names, String name) {
+        return names.computeIfAbsent(name, n -> n);
+    }
+}
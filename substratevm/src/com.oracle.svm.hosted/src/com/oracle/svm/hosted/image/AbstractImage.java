@@ -26,6 +26,7 @@ package com.oracle.svm.hosted.image;
 
 import java.nio.file.Path;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import org.graalvm.compiler.debug.DebugContext;
 
@@ -122,8 +123,11 @@ public abstract class AbstractImage {
     /**
      * Build the image. Calling this method is a precondition to calling {@link #write}. It
      * typically finalizes content of the object. It does not build debug information.
+     *
+     * @param executor the image builder's executor, used for the parts of the build that run in
+     *            parallel
      */
-    public abstract void build(String imageName, DebugContext debug);
+    public abstract void build(String imageName, ForkJoinPool executor, DebugContext debug);
 
     /**
      * Write the image to the named file. This also writes debug information -- either to the same
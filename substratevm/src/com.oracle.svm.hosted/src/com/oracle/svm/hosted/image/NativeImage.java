@@ -48,6 +48,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 
 import org.graalvm.collections.Pair;
@@ -93,6 +94,7 @@ import com.oracle.svm.core.graal.code.CGlobalDataInfo;
 import com.oracle.svm.core.graal.code.CGlobalDataReference;
 import com.oracle.svm.core.image.ImageHeapLayoutInfo;
 import com.oracle.svm.core.image.ImageHeapPartition;
+import com.oracle.svm.core.jdk.Resources;
 import com.oracle.svm.core.meta.SubstrateObjectConstant;
 import com.oracle.svm.core.option.HostedOptionValues;
 import com.oracle.svm.core.util.UserError;
@@ -399,7 +401,7 @@ public abstract class NativeImage extends AbstractImage {
      */
     @Override
     @SuppressWarnings("try")
-    public void build(String imageName, DebugContext debug) {
+    public void build(String imageName, ForkJoinPool executor, DebugContext debug) {
         try (DebugContext.Scope buildScope = debug.scope("NativeImage.build")) {
             final CGlobalDataFeature cGlobals = CGlobalDataFeature.singleton();
 
@@ -433,7 +435,7 @@ public abstract class NativeImage extends AbstractImage {
             objectFile.createDefinedSymbol(roDataSection.getName(), roDataSection, 0, 0, false, false);
             objectFile.createDefinedSymbol(rwDataSection.getName(), rwDataSection, 0, 0, false, false);
 
-            NativeImageHeapWriter writer = new NativeImageHeapWriter(heap, heapLayout);
+            NativeImageHeapWriter writer = new NativeImageHeapWriter(heap, heapLayout, executor);
             // Write the section contents and record relocations.
             // - The code goes in the text section, by itself.
             textImpl.writeTextSection(debug, textSection, entryPoints);
@@ -476,6 +478,15 @@ public abstract class NativeImage extends AbstractImage {
             defineDataSymbol(Isolates.IMAGE_HEAP_WRITABLE_BEGIN_SYMBOL_NAME, heapSection, heapLayout.getWritableOffset());
             defineDataSymbol(Isolates.IMAGE_HEAP_WRITABLE_END_SYMBOL_NAME, heapSection, heapLayout.getWritableOffset() + heapLayout.getWritableSize());
 
+            // - Write the resources to their own read-only section, if requested.
+            byte[] resourcesContent = Resources.singleton().getSectionContent();
+            if (resourcesContent != null) {
+                ProgbitsSectionImpl resourcesSectionImpl = new BasicProgbitsSectionImpl(resourcesContent);
+                Section resourcesSection = objectFile.newProgbitsSection(SectionName.SVM_RESOURCES.getFormatDependentName(objectFile.getFormat()), objectFile.getPageSize(), false, false,
+                                resourcesSectionImpl);
+                defineDataSymbol(Resources.SECTION_BEGIN_SYMBOL_NAME, resourcesSection, 0);
+            }
+
             // Mark the sections with the relocations from the maps.
             markRelocationSitesFromBuffer(textBuffer, textImpl);
             markRelocationSitesFromBuffer(roDataBuffer, roDataImpl);
@@ -28,16 +28,18 @@ import static com.oracle.svm.core.util.VMError.shouldNotReachHere;
 
 import java.lang.reflect.Array;
 import java.lang.reflect.Modifier;
-import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Deque;
 import java.util.HashMap;
 import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
 
 import org.graalvm.compiler.api.replacements.Fold;
 import org.graalvm.compiler.core.common.CompressEncoding;
@@ -106,7 +108,7 @@ public final class NativeImageHeap implements ImageHeap {
     private final Set<Object> blacklist = Collections.newSetFromMap(new IdentityHashMap<>());
 
     /** A map from hosted classes to classes that have hybrid layouts in the native image heap. */
-    private final Map<HostedClass, HybridLayout<?>> hybridLayouts = new HashMap<>();
+    private final Map<HostedClass, HybridLayout<?>> hybridLayouts = new ConcurrentHashMap<>();
 
     /** A Map to build what will be the String intern map in the native image heap. */
     private final Map<String, String> internedStrings = new HashMap<>();
@@ -115,8 +117,16 @@ public final class NativeImageHeap implements ImageHeap {
     private final Phase addObjectsPhase = Phase.factory();
     private final Phase internStringsPhase = Phase.factory();
 
-    /** A queue of objects that need to be added to the native image heap, to avoid recursion. */
-    private final Deque<AddObjectData> addObjectWorklist = new ArrayDeque<>();
+    /**
+     * Objects that need to be added to the native image heap, in the order in which they were
+     * reached. Using a worklist avoids recursion, and it allows scanning all objects of the
+     * worklist in parallel.
+     */
+    private List<AddObjectData> addObjectWorklist = new ArrayList<>();
+    private final Set<Object> addObjectWorklistObjects = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /** Worklists smaller than this are scanned sequentially, the parallel overhead is too high. */
+    private static final int MIN_PARALLEL_SCAN_SIZE = 256;
 
     /** Objects that are known to be immutable in the native image heap. */
     private final Set<Object> knownImmutableObjects = Collections.newSetFromMap(new IdentityHashMap<>());
@@ -290,9 +300,8 @@ public final class NativeImageHeap implements ImageHeap {
             handleImageString((String) original);
         }
 
-        final ObjectInfo existing = objects.get(original);
-        if (existing == null) {
-            addObjectToImageHeap(original, immutableFromParent, identityHashCode, reason);
+        if (objects.get(original) == null && addObjectWorklistObjects.add(original)) {
+            addObjectWorklist.add(new AddObjectData(original, immutableFromParent, identityHashCode, reason));
         }
     }
 
@@ -359,15 +368,19 @@ public final class NativeImageHeap implements ImageHeap {
 
     /**
      * It has been determined that an object should be added to the model of the native image heap.
-     * This is the mechanics of recursively adding the object and all its fields and array elements
-     * to the model of the native image heap.
+     * This is the mechanics of scanning the object and collecting all its fields and array
+     * elements, which are added to the model of the native image heap by
+     * {@link #addScannedObject}. Scanning only reads shared state, so that it can run in parallel
+     * for all objects of the worklist.
      */
-    private void addObjectToImageHeap(final Object object, boolean immutableFromParent, final int identityHashCode, final Object reason) {
+    private ScannedObject scanObject(final Object object, boolean immutableFromParent, final int identityHashCode, final Object reason) {
 
         final Optional<HostedType> optionalType = getMetaAccess().optionalLookupJavaType(object.getClass());
         final HostedType type = requireType(optionalType, object, reason);
         final DynamicHub hub = type.getHub();
         final ObjectInfo info;
+        final List<Object> blacklisted = new ArrayList<>(0);
+        final List<AddObjectData> children = new ArrayList<>();
 
         boolean immutable = immutableFromParent || isKnownImmutable(object);
         boolean written = false;
@@ -390,11 +403,7 @@ public final class NativeImageHeap implements ImageHeap {
             final long size;
 
             if (HybridLayout.isHybrid(clazz)) {
-                HybridLayout<?> hybridLayout = hybridLayouts.get(clazz);
-                if (hybridLayout == null) {
-                    hybridLayout = new HybridLayout<>(clazz, objectLayout);
-                    hybridLayouts.put(clazz, hybridLayout);
-                }
+                HybridLayout<?> hybridLayout = hybridLayouts.computeIfAbsent(clazz, c -> new HybridLayout<>(clazz, objectLayout));
 
                 /*
                  * The hybrid array, bit set, and typeID array are written within the hybrid object.
@@ -407,14 +416,14 @@ public final class NativeImageHeap implements ImageHeap {
                 if (hybridTypeIDSlotsField != null && shouldBlacklist) {
                     Object typeIDSlots = readObjectField(hybridTypeIDSlotsField, con);
                     if (typeIDSlots != null) {
-                        blacklist.add(typeIDSlots);
+                        blacklisted.add(typeIDSlots);
                     }
                 }
 
                 hybridArrayField = hybridLayout.getArrayField();
                 hybridArray = readObjectField(hybridArrayField, con);
                 if (hybridArray != null && shouldBlacklist) {
-                    blacklist.add(hybridArray);
+                    blacklisted.add(hybridArray);
                     written = true;
                 }
 
@@ -423,9 +432,9 @@ public final class NativeImageHeap implements ImageHeap {
                 size = LayoutEncoding.getInstanceSize(hub.getLayoutEncoding()).rawValue();
             }
 
-            info = addToImageHeap(object, clazz, size, identityHashCode, reason);
+            info = new ObjectInfo(object, size, clazz, identityHashCode, reason);
             try {
-                recursiveAddObject(hub, false, info);
+                recursiveAddObject(hub, false, info, children);
                 // Recursively add all the fields of the object.
                 final boolean fieldsAreImmutable = object instanceof String;
                 for (HostedField field : clazz.getInstanceFields(true)) {
@@ -441,7 +450,7 @@ public final class NativeImageHeap implements ImageHeap {
                                 if (spawnIsolates()) {
                                     fieldRelocatable = fieldValue instanceof RelocatedPointer;
                                 }
-                                recursiveAddObject(fieldValue, fieldsAreImmutable, info);
+                                recursiveAddObject(fieldValue, fieldsAreImmutable, info, children);
                                 references = true;
                             }
                         }
@@ -455,7 +464,7 @@ public final class NativeImageHeap implements ImageHeap {
                     written = written || (field.isWritten() && !field.isFinal() && !fieldRelocatable);
                 }
                 if (hybridArray instanceof Object[]) {
-                    relocatable = addArrayElements((Object[]) hybridArray, relocatable, info);
+                    relocatable = addArrayElements((Object[]) hybridArray, relocatable, info, children);
                     references = true;
                 }
             } catch (AnalysisError.TypeNotFoundError ex) {
@@ -465,11 +474,11 @@ public final class NativeImageHeap implements ImageHeap {
         } else if (type.isArray()) {
             HostedArrayClass clazz = (HostedArrayClass) type;
             final long size = objectLayout.getArraySize(type.getComponentType().getStorageKind(), Array.getLength(object));
-            info = addToImageHeap(object, clazz, size, identityHashCode, reason);
+            info = new ObjectInfo(object, size, clazz, identityHashCode, reason);
             try {
-                recursiveAddObject(hub, false, info);
+                recursiveAddObject(hub, false, info, children);
                 if (object instanceof Object[]) {
-                    relocatable = addArrayElements((Object[]) object, false, info);
+                    relocatable = addArrayElements((Object[]) object, false, info, children);
                     references = true;
                 }
                 written = true; /* How to know if any of the array elements are written? */
@@ -484,7 +493,15 @@ public final class NativeImageHeap implements ImageHeap {
         if (relocatable && !isKnownImmutable(object)) {
             VMError.shouldNotReachHere("Object with relocatable pointers must be explicitly immutable: " + object);
         }
-        heapLayouter.assignObjectToPartition(info, !written || immutable, references, relocatable);
+        return new ScannedObject(info, !written || immutable, references, relocatable, blacklisted, children);
+    }
+
+    private void addScannedObject(ScannedObject scanned) {
+        ObjectInfo info = scanned.info;
+        assert !objects.containsKey(info.getObject());
+        objects.put(info.getObject(), info);
+        blacklist.addAll(scanned.blacklisted);
+        heapLayouter.assignObjectToPartition(info, scanned.immutable, scanned.references, scanned.relocatable);
     }
 
     private static HostedType requireType(Optional<HostedType> optionalType, Object object, Object reason) {
@@ -569,14 +586,14 @@ public final class NativeImageHeap implements ImageHeap {
     }
 
     // Deep-copy an array from the host heap to the model of the native image heap.
-    private boolean addArrayElements(Object[] array, boolean otherFieldsRelocatable, Object reason) {
+    private boolean addArrayElements(Object[] array, boolean otherFieldsRelocatable, Object reason, List<AddObjectData> children) {
         boolean relocatable = otherFieldsRelocatable;
         for (Object element : array) {
             Object value = aUniverse.replaceObject(element);
             if (spawnIsolates()) {
                 relocatable = relocatable || value instanceof RelocatedPointer;
             }
-            recursiveAddObject(value, false, reason);
+            recursiveAddObject(value, false, reason, children);
         }
         return relocatable;
     }
@@ -585,32 +602,85 @@ public final class NativeImageHeap implements ImageHeap {
      * Break recursion using a worklist, to support large object graphs that would lead to a stack
      * overflow.
      */
-    private void recursiveAddObject(Object original, boolean immutableFromParent, Object reason) {
+    private static void recursiveAddObject(Object original, boolean immutableFromParent, Object reason, List<AddObjectData> children) {
         if (original != null) {
-            addObjectWorklist.push(new AddObjectData(original, immutableFromParent, reason));
+            children.add(new AddObjectData(original, immutableFromParent, 0, reason));
         }
     }
 
+    /**
+     * Processes the worklist one generation at a time: all objects of the current worklist are
+     * scanned in parallel, and then the scanned objects and the objects they reference are added
+     * sequentially in worklist order. This keeps the object order, and therefore the image heap
+     * layout, independent of thread scheduling.
+     */
     private void processAddObjectWorklist() {
         while (!addObjectWorklist.isEmpty()) {
-            AddObjectData data = addObjectWorklist.pop();
-            addObject(data.original, data.immutableFromParent, data.reason);
+            List<AddObjectData> worklist = addObjectWorklist;
+            addObjectWorklist = new ArrayList<>();
+            addObjectWorklistObjects.clear();
+
+            ScannedObject[] scanned = new ScannedObject[worklist.size()];
+            if (worklist.size() >= MIN_PARALLEL_SCAN_SIZE) {
+                IntStream.range(0, scanned.length).parallel().forEach(i -> scanned[i] = scanObject(worklist.get(i)));
+            } else {
+                for (int i = 0; i < scanned.length; i++) {
+                    scanned[i] = scanObject(worklist.get(i));
+                }
+            }
+
+            /* Register all objects first, so that references among them are not queued again. */
+            for (ScannedObject object : scanned) {
+                addScannedObject(object);
+            }
+            for (ScannedObject object : scanned) {
+                for (AddObjectData child : object.children) {
+                    addObject(child.original, child.immutableFromParent, child.reason);
+                }
+            }
         }
     }
 
+    private ScannedObject scanObject(AddObjectData data) {
+        return scanObject(data.original, data.immutableFromParent, data.identityHashCode, data.reason);
+    }
+
     static class AddObjectData {
 
-        AddObjectData(Object original, boolean immutableFromParent, Object reason) {
+        AddObjectData(Object original, boolean immutableFromParent, int identityHashCode, Object reason) {
             this.original = original;
             this.immutableFromParent = immutableFromParent;
+            this.identityHashCode = identityHashCode;
             this.reason = reason;
         }
 
         final Object original;
         final boolean immutableFromParent;
+        /** Computed when the object is added to the worklist, 0 for references found by a scan. */
+        final int identityHashCode;
         final Object reason;
     }
 
+    /** The result of {@link #scanObject}, which is added to the heap by {@link #addScannedObject}. */
+    static final class ScannedObject {
+
+        ScannedObject(ObjectInfo info, boolean immutable, boolean references, boolean relocatable, List<Object> blacklisted, List<AddObjectData> children) {
+            this.info = info;
+            this.immutable = immutable;
+            this.references = references;
+            this.relocatable = relocatable;
+            this.blacklisted = blacklisted;
+            this.children = children;
+        }
+
+        final ObjectInfo info;
+        final boolean immutable;
+        final boolean references;
+        final boolean relocatable;
+        final List<Object> blacklisted;
+        final List<AddObjectData> children;
+    }
+
     private final int imageHeapOffsetInAddressSpace = Heap.getHeap().getImageHeapOffsetInAddressSpace();
 
     public final class ObjectInfo implements ImageHeapObject {
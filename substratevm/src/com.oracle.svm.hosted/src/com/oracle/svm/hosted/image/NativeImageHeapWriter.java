@@ -29,6 +29,13 @@ import static com.oracle.svm.core.util.VMError.shouldNotReachHere;
 import java.lang.reflect.Array;
 import java.lang.reflect.Modifier;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.graalvm.compiler.core.common.CompressEncoding;
 import org.graalvm.compiler.core.common.NumUtil;
@@ -73,12 +80,20 @@ public final class NativeImageHeapWriter {
 
     private final NativeImageHeap heap;
     private final ImageHeapLayoutInfo heapLayout;
-    private long sectionOffsetOfARelocatablePointer;
+    /**
+     * The lowest offset of a relocatable pointer written so far, or -1. Objects are written in
+     * parallel, so the lowest offset is used rather than the first one, which keeps the result
+     * independent of thread scheduling.
+     */
+    private final AtomicLong sectionOffsetOfARelocatablePointer;
+    /** The image builder's executor, which writes the objects of the heap. */
+    private final ForkJoinPool executor;
 
-    public NativeImageHeapWriter(NativeImageHeap heap, ImageHeapLayoutInfo heapLayout) {
+    public NativeImageHeapWriter(NativeImageHeap heap, ImageHeapLayoutInfo heapLayout, ForkJoinPool executor) {
         this.heap = heap;
         this.heapLayout = heapLayout;
-        this.sectionOffsetOfARelocatablePointer = -1;
+        this.executor = executor;
+        this.sectionOffsetOfARelocatablePointer = new AtomicLong(-1);
     }
 
     /**
@@ -88,10 +103,12 @@ public final class NativeImageHeapWriter {
     @SuppressWarnings("try")
     public long writeHeap(DebugContext debug, RelocatableBuffer buffer) {
         try (Indent perHeapIndent = debug.logAndIndent("NativeImageHeap.writeHeap:")) {
-            for (ObjectInfo info : heap.getObjects()) {
-                assert !heap.isBlacklisted(info.getObject());
-                writeObject(info, buffer);
-            }
+            /*
+             * Every object occupies its own part of the buffer, so the objects are written in
+             * parallel. The relocations are kept sorted by offset, so the written image does not
+             * depend on the order in which objects are written.
+             */
+            writeObjects(buffer);
 
             // Only static fields that are writable get written to the native image heap,
             // the read-only static fields have been inlined into the code.
@@ -99,7 +116,33 @@ public final class NativeImageHeapWriter {
 
             heap.getLayouter().writeMetadata(buffer.getByteBuffer(), 0);
         }
-        return sectionOffsetOfARelocatablePointer;
+        return sectionOffsetOfARelocatablePointer.get();
+    }
+
+    private void writeObjects(RelocatableBuffer buffer) {
+        List<ObjectInfo> objects = new ArrayList<>(heap.getObjects());
+        int chunkCount = Math.max(1, Math.min(executor.getParallelism(), objects.size()));
+        List<Callable<Void>> chunks = new ArrayList<>(chunkCount);
+        for (int i = 0; i < chunkCount; i++) {
+            List<ObjectInfo> chunk = objects.subList((int) ((long) objects.size() * i / chunkCount), (int) ((long) objects.size() * (i + 1) / chunkCount));
+            chunks.add(() -> {
+                for (ObjectInfo info : chunk) {
+                    assert !heap.isBlacklisted(info.getObject());
+                    writeObject(info, buffer);
+                }
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> result : executor.invokeAll(chunks)) {
+                result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw shouldNotReachHere(e);
+        } catch (ExecutionException e) {
+            throw shouldNotReachHere(e.getCause());
+        }
     }
 
     private void writeStaticFields(RelocatableBuffer buffer) {
@@ -222,17 +265,17 @@ public final class NativeImageHeapWriter {
         assert size == 4 || size == 8;
         assert !NativeImageHeap.spawnIsolates() || heapLayout.isReadOnlyRelocatable(index);
         buffer.addRelocationWithoutAddend(index, size == 8 ? ObjectFile.RelocationKind.DIRECT_8 : ObjectFile.RelocationKind.DIRECT_4, target);
-        if (sectionOffsetOfARelocatablePointer == -1) {
-            sectionOffsetOfARelocatablePointer = index;
-        }
+        recordRelocatablePointer(index);
     }
 
     private void addDirectRelocationWithAddend(RelocatableBuffer buffer, int index, DynamicHub target, long objectHeaderBits) {
         assert !NativeImageHeap.spawnIsolates() || heapLayout.isReadOnlyRelocatable(index);
         buffer.addRelocationWithAddend(index, referenceSize() == 8 ? ObjectFile.RelocationKind.DIRECT_8 : ObjectFile.RelocationKind.DIRECT_4, objectHeaderBits, target);
-        if (sectionOffsetOfARelocatablePointer == -1) {
-            sectionOffsetOfARelocatablePointer = index;
-        }
+        recordRelocatablePointer(index);
+    }
+
+    private void recordRelocatablePointer(int index) {
+        sectionOffsetOfARelocatablePointer.accumulateAndGet(index, (current, offset) -> current == -1 ? offset : Math.min(current, offset));
     }
 
     /**
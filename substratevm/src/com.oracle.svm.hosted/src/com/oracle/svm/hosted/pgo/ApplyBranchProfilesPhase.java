@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2021, 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.svm.hosted.pgo;
+
+import static org.graalvm.compiler.nodes.extended.BranchProbabilityNode.EXTREMELY_FAST_PATH_PROBABILITY;
+import static org.graalvm.compiler.nodes.extended.BranchProbabilityNode.EXTREMELY_SLOW_PATH_PROBABILITY;
+
+import org.graalvm.compiler.graph.NodeSourcePosition;
+import org.graalvm.compiler.nodes.IfNode;
+import org.graalvm.compiler.nodes.ProfileData.BranchProbabilityData;
+import org.graalvm.compiler.nodes.ProfileData.ProfileSource;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.phases.Phase;
+
+/**
+ * Sets the probabilities of branches to the ones observed in the profiled run. The static analysis
+ * cannot provide branch probabilities, so without a profile all branches are assumed to be equally
+ * likely. The probabilities guide the later optimizations and the order of the basic blocks in the
+ * generated code.
+ */
+final class ApplyBranchProfilesPhase extends Phase {
+
+    private final PGOProfile profile;
+
+    ApplyBranchProfilesPhase(PGOProfile profile) {
+        this.profile = profile;
+    }
+
+    @Override
+    protected void run(StructuredGraph graph) {
+        for (IfNode ifNode : graph.getNodes(IfNode.TYPE)) {
+            NodeSourcePosition position = ifNode.getNodeSourcePosition();
+            if (position == null || ifNode.getProfileData().getProfileSource() == ProfileSource.INJECTED) {
+                continue;
+            }
+            double probability = profile.getTrueSuccessorProbability(position);
+            if (probability >= 0) {
+                ifNode.setTrueSuccessorProbability(BranchProbabilityData.create(clamp(probability), ProfileSource.PROFILED));
+            }
+        }
+    }
+
+    /**
+     * Successors that were not executed in the profiled run must stay in the image, because
+     * ahead-of-time compiled code cannot deoptimize.
+     */
+    private static double clamp(double probability) {
+        if (probability == 0) {
+            return EXTREMELY_SLOW_PATH_PROBABILITY;
+        } else if (probability == 1) {
+            return EXTREMELY_FAST_PATH_PROBABILITY;
+        }
+        return probability;
+    }
+}
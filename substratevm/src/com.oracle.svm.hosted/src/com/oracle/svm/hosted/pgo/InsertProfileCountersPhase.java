@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2021, 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.svm.hosted.pgo;
+
+import org.graalvm.compiler.api.replacements.SnippetReflectionProvider;
+import org.graalvm.compiler.graph.Node;
+import org.graalvm.compiler.graph.NodeSourcePosition;
+import org.graalvm.compiler.nodes.ConstantNode;
+import org.graalvm.compiler.nodes.FieldLocationIdentity;
+import org.graalvm.compiler.nodes.FixedWithNextNode;
+import org.graalvm.compiler.nodes.FrameState;
+import org.graalvm.compiler.nodes.IfNode;
+import org.graalvm.compiler.nodes.StateSplit;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.java.AtomicReadAndAddNode;
+import org.graalvm.compiler.phases.Phase;
+
+import com.oracle.svm.core.meta.SharedField;
+import com.oracle.svm.core.meta.SharedMethod;
+import com.oracle.svm.core.pgo.MethodCounter;
+import com.oracle.svm.core.pgo.MethodCounters;
+
+import jdk.vm.ci.meta.JavaKind;
+import jdk.vm.ci.meta.MetaAccessProvider;
+
+/**
+ * Inserts the increment of a {@link MethodCounter} at the start of every compiled method and at
+ * the start of both successors of every branch that still knows its bytecode position. The
+ * increment is an atomic add, so concurrent executions of the same method or branch are not lost.
+ * Methods that are inlined during image building are counted as part of their caller, while their
+ * branches are counted together with the branches of the method itself.
+ */
+final class InsertProfileCountersPhase extends Phase {
+
+    private final MetaAccessProvider metaAccess;
+    private final SnippetReflectionProvider snippetReflection;
+
+    InsertProfileCountersPhase(MetaAccessProvider metaAccess, SnippetReflectionProvider snippetReflection) {
+        this.metaAccess = metaAccess;
+        this.snippetReflection = snippetReflection;
+    }
+
+    @Override
+    public boolean checkContract() {
+        /* The instrumentation adds a constant number of nodes to every method and branch. */
+        return false;
+    }
+
+    @Override
+    protected void run(StructuredGraph graph) {
+        SharedMethod method = (SharedMethod) graph.method();
+        if (method == null || method.isUninterruptible() || method.isEntryPoint()) {
+            /*
+             * Uninterruptible methods and entry points can run before the thread and the heap base
+             * are set up, so they must not access the image heap.
+             */
+            return;
+        }
+        for (IfNode ifNode : graph.getNodes(IfNode.TYPE).snapshot()) {
+            NodeSourcePosition position = ifNode.getNodeSourcePosition();
+            FrameState state = findStateBefore(ifNode);
+            if (position != null && state != null) {
+                insertIncrement(graph, ifNode.trueSuccessor(), PGOProfile.branchName(position, true), state);
+                insertIncrement(graph, ifNode.falseSuccessor(), PGOProfile.branchName(position, false), state);
+            }
+        }
+        insertIncrement(graph, graph.start(), PGOProfile.methodName(graph.method()), graph.start().stateAfter());
+    }
+
+    private void insertIncrement(StructuredGraph graph, FixedWithNextNode position, String counterName, FrameState stateBefore) {
+        MethodCounter counter = MethodCounters.create(counterName);
+        SharedField countField = (SharedField) metaAccess.lookupJavaField(MethodCounter.COUNT_FIELD);
+
+        ConstantNode counterNode = ConstantNode.forConstant(snippetReflection.forObject(counter), metaAccess, graph);
+        ConstantNode offset = ConstantNode.forLong(countField.getLocation(), graph);
+        AtomicReadAndAddNode increment = graph.add(new AtomicReadAndAddNode(counterNode, offset, ConstantNode.forLong(1, graph), JavaKind.Long, new FieldLocationIdentity(countField)));
+        if (position instanceof StateSplit && ((StateSplit) position).stateAfter() != null) {
+            /* For example a loop exit, after which the state before the branch is not valid. */
+            increment.setStateAfter(((StateSplit) position).stateAfter());
+        } else {
+            increment.setStateAfter(stateBefore);
+        }
+        graph.addAfterFixed(position, increment);
+    }
+
+    /**
+     * Returns the frame state of the closest preceding state split, which describes the state of
+     * the method before the branch.
+     */
+    private static FrameState findStateBefore(IfNode ifNode) {
+        for (Node node = ifNode.predecessor(); node != null; node = node.predecessor()) {
+            if (node instanceof StateSplit && ((StateSplit) node).stateAfter() != null) {
+                return ((StateSplit) node).stateAfter();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2021, 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.svm.hosted.pgo;
+
+import java.nio.file.Paths;
+
+import org.graalvm.compiler.api.replacements.SnippetReflectionProvider;
+import org.graalvm.compiler.options.Option;
+import org.graalvm.compiler.phases.tiers.Suites;
+import org.graalvm.compiler.phases.util.Providers;
+import org.graalvm.nativeimage.ImageSingletons;
+
+import com.oracle.svm.core.annotate.AutomaticFeature;
+import com.oracle.svm.core.graal.GraalFeature;
+import com.oracle.svm.core.option.HostedOptionKey;
+import com.oracle.svm.core.pgo.MethodCounters;
+
+/**
+ * Profile-guided optimization based on method and branch execution counts. With
+ * {@link MethodCounters.Options#PGOInstrument}, every compiled method counts its executions and
+ * every branch counts the executions of its successors. With {@link Options#PGO}, the method counts
+ * of such an instrumented run are used for inlining of hot calls and for the order of the compiled
+ * methods, and the branch counts are used as branch probabilities, which also determine the order
+ * of the basic blocks within a method.
+ * <p>
+ * Branches are identified by their bytecode position, which is only available when every method is
+ * parsed once for both the static analysis and the compilation, see
+ * {@link com.oracle.svm.core.SubstrateOptions#parseOnce()}. Receiver type profiles are not
+ * collected, so virtual calls are only devirtualized based on the results of the static analysis.
+ */
+@AutomaticFeature
+public final class PGOFeature implements GraalFeature {
+
+    public static class Options {
+        @Option(help = "Use the method and branch execution profile in the given file, written by an image built with -H:+PGOInstrument, for inlining, branch probabilities and code layout.")//
+        public static final HostedOptionKey<String> PGO = new HostedOptionKey<>("");
+
+        @Option(help = "Percentage of all method executions covered by the methods that are considered hot.")//
+        public static final HostedOptionKey<Integer> PGOHotMethodCoverage = new HostedOptionKey<>(95);
+
+        @Option(help = "Maximum number of nodes in a hot method so that it is inlined into hot callers.")//
+        public static final HostedOptionKey<Integer> PGOMaxNodesInHotCallee = new HostedOptionKey<>(100);
+    }
+
+    /**
+     * Returns true if profiles are collected or used, in which case the compiled graphs must keep
+     * the bytecode positions of their branches.
+     */
+    public static boolean isEnabled() {
+        return MethodCounters.Options.PGOInstrument.getValue() || !Options.PGO.getValue().isEmpty();
+    }
+
+    @Override
+    public boolean isInConfiguration(IsInConfigurationAccess access) {
+        return isEnabled();
+    }
+
+    @Override
+    public void afterRegistration(AfterRegistrationAccess access) {
+        if (!Options.PGO.getValue().isEmpty()) {
+            ImageSingletons.add(PGOProfile.class, PGOProfile.load(Paths.get(Options.PGO.getValue()), Options.PGOHotMethodCoverage.getValue()));
+        }
+    }
+
+    @Override
+    public void registerGraalPhases(Providers providers, SnippetReflectionProvider snippetReflection, Suites suites, boolean hosted) {
+        if (hosted && MethodCounters.Options.PGOInstrument.getValue()) {
+            suites.getHighTier().prependPhase(new InsertProfileCountersPhase(providers.getMetaAccess(), snippetReflection));
+        }
+        if (hosted && ImageSingletons.contains(PGOProfile.class)) {
+            suites.getHighTier().prependPhase(new ApplyBranchProfilesPhase(ImageSingletons.lookup(PGOProfile.class)));
+        }
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2021, 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.svm.hosted.pgo;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.graalvm.compiler.graph.NodeSourcePosition;
+import org.graalvm.compiler.nodes.Invoke;
+
+import com.oracle.svm.core.pgo.MethodCounters;
+import com.oracle.svm.core.util.UserError;
+import com.oracle.svm.hosted.meta.HostedMethod;
+
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+
+/**
+ * Method and branch execution counts collected by an image built with
+ * {@link MethodCounters.Options#PGOInstrument} and passed to the image builder with
+ * {@link PGOFeature.Options#PGO}. The hot methods are the most frequently executed methods that
+ * together account for {@link PGOFeature.Options#PGOHotMethodCoverage} percent of all method
+ * executions. A branch is identified by the method and bytecode index it was parsed from, and by
+ * the successor of the branch node.
+ */
+public final class PGOProfile {
+
+    private final Map<String, Long> counts;
+    private final Map<String, Long> branchCounts;
+    private final long hotThreshold;
+
+    PGOProfile(Map<String, Long> counts, Map<String, Long> branchCounts, int hotCoveragePercent) {
+        this.counts = counts;
+        this.branchCounts = branchCounts;
+        this.hotThreshold = computeHotThreshold(counts, hotCoveragePercent);
+    }
+
+    static String methodName(ResolvedJavaMethod method) {
+        return method.format("%H.%n(%P)");
+    }
+
+    /**
+     * Returns the profile name of one successor of a branch. Unlike method names, branch names do
+     * not end with the closing parenthesis of the parameter list.
+     */
+    static String branchName(NodeSourcePosition position, boolean trueSuccessor) {
+        return methodName(position.getMethod()) + "@" + position.getBCI() + (trueSuccessor ? ":true" : ":false");
+    }
+
+    private static boolean isBranchName(String name) {
+        return !name.endsWith(")");
+    }
+
+    static PGOProfile load(Path file, int hotCoveragePercent) {
+        Map<String, Long> counts = new HashMap<>();
+        Map<String, Long> branchCounts = new HashMap<>();
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw UserError.abort(e, "Cannot read profile file %s", file);
+        }
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (line.isEmpty()) {
+                continue;
+            }
+            int separator = line.indexOf(MethodCounters.SEPARATOR);
+            try {
+                if (separator < 0) {
+                    throw new NumberFormatException("missing separator");
+                }
+                String name = line.substring(separator + 1);
+                (isBranchName(name) ? branchCounts : counts).merge(name, Long.parseLong(line.substring(0, separator)), Long::sum);
+            } catch (NumberFormatException e) {
+                throw UserError.abort("Malformed line %d in profile file %s: %s", i + 1, file, line);
+            }
+        }
+        return new PGOProfile(counts, branchCounts, hotCoveragePercent);
+    }
+
+    private static long computeHotThreshold(Map<String, Long> counts, int hotCoveragePercent) {
+        List<Long> sorted = new ArrayList<>(counts.values());
+        sorted.sort(Collections.reverseOrder());
+        long total = 0;
+        for (long count : sorted) {
+            total += count;
+        }
+        long covered = 0;
+        for (long count : sorted) {
+            covered += count;
+            if (covered * 100 >= total * hotCoveragePercent) {
+                return Math.max(count, 1);
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    public long getCount(ResolvedJavaMethod method) {
+        Long count = counts.get(methodName(method));
+        return count == null ? 0 : count;
+    }
+
+    public boolean isHot(ResolvedJavaMethod method) {
+        return getCount(method) >= hotThreshold;
+    }
+
+    /**
+     * Returns the probability that the branch at the given position continues with its true
+     * successor, or a negative value if the branch was not executed in the profiled run.
+     */
+    public double getTrueSuccessorProbability(NodeSourcePosition position) {
+        long trueCount = branchCounts.getOrDefault(branchName(position, true), 0L);
+        long falseCount = branchCounts.getOrDefault(branchName(position, false), 0L);
+        if (trueCount + falseCount == 0) {
+            return -1;
+        }
+        return (double) trueCount / (trueCount + falseCount);
+    }
+
+    /**
+     * Returns true if the call should be inlined because both the caller and the callee are hot
+     * and the callee is small enough.
+     */
+    public boolean shouldInlineHotCall(Invoke invoke, HostedMethod callee) {
+        ResolvedJavaMethod caller = invoke.asNode().graph().method();
+        if (caller == null || !isHot(caller) || !isHot(callee)) {
+            return false;
+        }
+        int maxNodes = PGOFeature.Options.PGOMaxNodesInHotCallee.getValue();
+        return callee.compilationInfo.getGraph().getNodeCount() <= maxNodes;
+    }
+
+    /**
+     * Orders the compiled methods so that hot methods come first, most frequently executed first,
+     * followed by all other methods in their original order. Placing hot code together reduces
+     * instruction cache and TLB misses.
+     */
+    public <T> Map<HostedMethod, T> layoutHotFirst(Map<HostedMethod, T> compilations) {
+        List<HostedMethod> hot = new ArrayList<>();
+        for (HostedMethod method : compilations.keySet()) {
+            if (isHot(method)) {
+                hot.add(method);
+            }
+        }
+        hot.sort((m1, m2) -> Long.compare(getCount(m2), getCount(m1)));
+
+        Map<HostedMethod, T> result = new LinkedHashMap<>();
+        for (HostedMethod method : hot) {
+            result.put(method, compilations.get(method));
+        }
+        for (Map.Entry<HostedMethod, T> entry : compilations.entrySet()) {
+            result.putIfAbsent(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+}
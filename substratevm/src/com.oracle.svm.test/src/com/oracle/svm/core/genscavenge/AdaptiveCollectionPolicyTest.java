@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2021, 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.svm.core.genscavenge;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the decisions of the adaptive collection policy for given collection and mutator times.
+ */
+public class AdaptiveCollectionPolicyTest {
+
+    private static final long MB = 1024 * 1024;
+    private static final long MIN_SIZE = 8 * MB;
+    private static final long MAX_SIZE = 256 * MB;
+    private static final long PAUSE_GOAL = TimeUnit.MILLISECONDS.toNanos(200);
+    private static final int GC_TIME_RATIO = 12;
+
+    private static long nextSize(long size, long avgIncrementalPauseMillis, long avgCollectionMillis, long avgMutatorMillis) {
+        return CollectionPolicy.Adaptive.computeYoungGenerationSize(size, MIN_SIZE, MAX_SIZE, TimeUnit.MILLISECONDS.toNanos(avgIncrementalPauseMillis), TimeUnit.MILLISECONDS.toNanos(avgCollectionMillis),
+                        TimeUnit.MILLISECONDS.toNanos(avgMutatorMillis), PAUSE_GOAL, GC_TIME_RATIO);
+    }
+
+    @Test
+    public void testShrinksWhenPausesExceedGoal() {
+        /* The pause goal takes precedence over the missed throughput goal. */
+        Assert.assertEquals(90 * MB, nextSize(100 * MB, 300, 300, 100));
+    }
+
+    @Test
+    public void testGrowsWhenThroughputGoalIsMissed() {
+        /* 50ms of collection per 500ms of mutator time is more than 1 / (1 + 12). */
+        Assert.assertEquals(120 * MB, nextSize(100 * MB, 50, 50, 500));
+    }
+
+    @Test
+    public void testKeepsSizeWhenGoalsAreMet() {
+        /* 10ms of collection per 1000ms of mutator time meets the throughput goal. */
+        Assert.assertEquals(100 * MB, nextSize(100 * MB, 10, 10, 1000));
+    }
+
+    @Test
+    public void testSizeIsBounded() {
+        Assert.assertEquals(MIN_SIZE, nextSize(MIN_SIZE, 300, 300, 100));
+        Assert.assertEquals(MAX_SIZE, nextSize(MAX_SIZE, 50, 50, 500));
+        /* A minimum above the maximum young generation size is capped. */
+        Assert.assertEquals(4 * MB, CollectionPolicy.Adaptive.computeYoungGenerationSize(4 * MB, MIN_SIZE, 4 * MB, 0, 0, 0, PAUSE_GOAL, GC_TIME_RATIO));
+    }
+
+    @Test
+    public void testRepeatedLongPausesShrinkToMinimum() {
+        long size = MAX_SIZE;
+        for (int i = 0; i < 100; i++) {
+            long next = nextSize(size, 300, 300, 100);
+            Assert.assertTrue(next <= size);
+            size = next;
+        }
+        Assert.assertEquals(MIN_SIZE, size);
+    }
+
+    @Test
+    public void testAverage() {
+        Assert.assertEquals(40, CollectionPolicy.Adaptive.average(0, 40));
+        Assert.assertEquals(50, CollectionPolicy.Adaptive.average(40, 80));
+        Assert.assertEquals(40, CollectionPolicy.Adaptive.average(40, 40));
+    }
+
+    @Test
+    public void testCompleteCollectionsRespectPauseGoal() {
+        Assert.assertTrue(CollectionPolicy.Adaptive.isWithinPauseGoal(TimeUnit.MILLISECONDS.toNanos(150), PAUSE_GOAL));
+        Assert.assertTrue(CollectionPolicy.Adaptive.isWithinPauseGoal(PAUSE_GOAL, PAUSE_GOAL));
+        Assert.assertFalse(CollectionPolicy.Adaptive.isWithinPauseGoal(TimeUnit.MILLISECONDS.toNanos(250), PAUSE_GOAL));
+    }
+}
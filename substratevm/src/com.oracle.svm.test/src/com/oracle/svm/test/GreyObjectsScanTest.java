@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2021, 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.oracle.svm.test;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests that collections keep object graphs intact when the grey objects of a space are scanned in
+ * several rounds. Long chains and wide trees span many aligned chunks, so scanning resumes from the
+ * snapshot taken in the middle of a chunk, and objects promoted later in a collection must still
+ * be visited.
+ */
+public class GreyObjectsScanTest {
+
+    private static final int CHAIN_LENGTH = 200_000;
+    private static final int TREE_DEPTH = 14;
+    private static final int COLLECTIONS = 5;
+
+    static final class Node {
+        final int value;
+        Node next;
+        Object payload;
+
+        Node(int value) {
+            this.value = value;
+        }
+    }
+
+    static final class TreeNode {
+        final int depth;
+        final TreeNode left;
+        final TreeNode right;
+        final int[] data;
+
+        TreeNode(int depth) {
+            this.depth = depth;
+            this.left = depth == 0 ? null : new TreeNode(depth - 1);
+            this.right = depth == 0 ? null : new TreeNode(depth - 1);
+            this.data = new int[]{depth, -depth};
+        }
+    }
+
+    @Test
+    public void testChainSurvivesCollections() {
+        Node head = buildChain(0);
+        for (int i = 0; i < COLLECTIONS; i++) {
+            System.gc();
+            verifyChain(head, 0);
+        }
+    }
+
+    @Test
+    public void testChainGrowingBetweenCollections() {
+        Node head = buildChain(0);
+        Node tail = head;
+        while (tail.next != null) {
+            tail = tail.next;
+        }
+        for (int i = 1; i <= COLLECTIONS; i++) {
+            /* Young objects referenced from promoted ones are copied late in the collection. */
+            Node extension = buildChain(i * CHAIN_LENGTH);
+            tail.next = extension;
+            while (tail.next != null) {
+                tail = tail.next;
+            }
+            System.gc();
+            verifyChain(head, 0);
+        }
+    }
+
+    @Test
+    public void testTreeSurvivesCollections() {
+        TreeNode root = new TreeNode(TREE_DEPTH);
+        for (int i = 0; i < COLLECTIONS; i++) {
+            /* Garbage in between makes survivors land at varying offsets within chunks. */
+            allocateGarbage(i);
+            System.gc();
+            Assert.assertEquals((1 << (TREE_DEPTH + 1)) - 1, verifyTree(root, TREE_DEPTH));
+        }
+    }
+
+    private static Node buildChain(int firstValue) {
+        Node head = new Node(firstValue);
+        Node current = head;
+        for (int i = 1; i < CHAIN_LENGTH; i++) {
+            Node node = new Node(firstValue + i);
+            if (i % 7 == 0) {
+                node.payload = new long[]{firstValue + i};
+            } else if (i % 11 == 0) {
+                node.payload = String.valueOf(firstValue + i);
+            }
+            current.next = node;
+            current = node;
+        }
+        return head;
+    }
+
+    private static void verifyChain(Node head, int firstValue) {
+        int expected = firstValue;
+        for (Node node = head; node != null; node = node.next) {
+            Assert.assertEquals(expected, node.value);
+            int offset = expected % CHAIN_LENGTH;
+            if (offset != 0 && offset % 7 == 0) {
+                Assert.assertEquals(expected, ((long[]) node.payload)[0]);
+            } else if (offset != 0 && offset % 11 == 0) {
+                Assert.assertEquals(String.valueOf(expected), node.payload);
+            } else {
+                Assert.assertNull(node.payload);
+            }
+            expected++;
+        }
+    }
+
+    private static int verifyTree(TreeNode node, int depth) {
+        Assert.assertEquals(depth, node.depth);
+        Assert.assertEquals(depth, node.data[0]);
+        Assert.assertEquals(-depth, node.data[1]);
+        if (depth == 0) {
+            Assert.assertNull(node.left);
+            Assert.assertNull(node.right);
+            return 1;
+        }
+        return 1 + verifyTree(node.left, depth - 1) + verifyTree(node.right, depth - 1);
+    }
+
+    private static void allocateGarbage(int seed) {
+        Object[] garbage = new Object[1_000 + seed * 97];
+        for (int i = 0; i < garbage.length; i++) {
+            garbage[i] = new byte[(i + seed) % 64];
+        }
+    }
+}
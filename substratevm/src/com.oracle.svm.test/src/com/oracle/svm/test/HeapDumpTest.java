@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2021, 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.svm.test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.graalvm.nativeimage.ImageInfo;
+import org.graalvm.nativeimage.VMRuntime;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+/**
+ * Writes a heap dump with {@link VMRuntime#dumpHeap} and checks the HPROF header, the class and
+ * instance records of a known object, and the permissions of the dump file.
+ */
+public class HeapDumpTest {
+
+    private static final int TAG_STRING = 0x01;
+    private static final int TAG_LOAD_CLASS = 0x02;
+    private static final int TAG_HEAP_DUMP_SEGMENT = 0x1C;
+    private static final int INSTANCE_DUMP = 0x21;
+    private static final long MARKER_VALUE = 0x1122334455667788L;
+
+    static class Marker {
+        long value = MARKER_VALUE;
+    }
+
+    static Marker marker;
+
+    @Test
+    public void testDumpHeap() throws IOException {
+        Assume.assumeTrue("heap dumps are only supported in native images", ImageInfo.inImageRuntimeCode());
+        marker = new Marker();
+        Path directory = Files.createTempDirectory("heapdump");
+        Path dump = directory.resolve("test.hprof");
+        try {
+            VMRuntime.dumpHeap(dump.toString(), true);
+            Assert.assertTrue(marker.value == MARKER_VALUE);
+
+            if (directory.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+                Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(dump);
+                Assert.assertTrue("dump must not be accessible by others: " + permissions,
+                                EnumSet.of(PosixFilePermission.OWNER_READ, PosixFilePermission.OWNER_WRITE).containsAll(permissions));
+            }
+            checkDump(Files.readAllBytes(dump));
+
+            try {
+                VMRuntime.dumpHeap(dump.toString(), true);
+                Assert.fail("existing heap dump must not be overwritten");
+            } catch (IOException e) {
+                // expected
+            }
+        } finally {
+            Files.deleteIfExists(dump);
+            Files.delete(directory);
+        }
+    }
+
+    private static void checkDump(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        byte[] format = "JAVA PROFILE 1.0.2\0".getBytes(StandardCharsets.US_ASCII);
+        byte[] header = new byte[format.length];
+        buffer.get(header);
+        Assert.assertArrayEquals(format, header);
+        Assert.assertEquals(8, buffer.getInt());
+        buffer.getLong(); // time stamp
+
+        String markerClassName = Marker.class.getName().replace('.', '/');
+        Map<Long, String> strings = new HashMap<>();
+        long markerClassId = 0;
+        boolean markerInstanceFound = false;
+        while (buffer.hasRemaining()) {
+            int tag = buffer.get() & 0xFF;
+            buffer.getInt(); // time
+            int length = buffer.getInt();
+            int start = buffer.position();
+            if (tag == TAG_STRING) {
+                long id = buffer.getLong();
+                byte[] utf8 = new byte[length - 8];
+                buffer.get(utf8);
+                strings.put(id, new String(utf8, StandardCharsets.UTF_8));
+            } else if (tag == TAG_LOAD_CLASS) {
+                buffer.getInt(); // class serial
+                long classId = buffer.getLong();
+                buffer.getInt(); // stack trace serial
+                long nameId = buffer.getLong();
+                if (markerClassName.equals(strings.get(nameId))) {
+                    markerClassId = classId;
+                }
+            } else if (tag == TAG_HEAP_DUMP_SEGMENT && markerClassId != 0) {
+                markerInstanceFound |= containsMarkerInstance(bytes, start, start + length, markerClassId);
+            }
+            buffer.position(start + length);
+        }
+        Assert.assertNotEquals("no class record for " + markerClassName, 0L, markerClassId);
+        Assert.assertTrue("no instance record for the marker object", markerInstanceFound);
+    }
+
+    /**
+     * Looks for an instance dump of the marker class, i.e., the tag, an object id, a stack trace
+     * serial, the class id and the length of the instance data, which contains the marker value.
+     */
+    private static boolean containsMarkerInstance(byte[] bytes, int start, int end, long classId) {
+        for (int i = start; i + 25 <= end; i++) {
+            if ((bytes[i] & 0xFF) != INSTANCE_DUMP || ByteBuffer.wrap(bytes, i + 13, 8).getLong() != classId) {
+                continue;
+            }
+            int length = ByteBuffer.wrap(bytes, i + 21, 4).getInt();
+            for (int offset = 0; offset + 8 <= length && i + 25 + offset + 8 <= end; offset++) {
+                if (ByteBuffer.wrap(bytes, i + 25 + offset, 8).getLong() == MARKER_VALUE) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
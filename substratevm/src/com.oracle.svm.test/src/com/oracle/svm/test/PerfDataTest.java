@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2021, 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.svm.test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.graalvm.nativeimage.ImageInfo;
+import org.graalvm.nativeimage.Platform;
+import org.graalvm.nativeimage.ProcessProperties;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+/**
+ * Reads back the performance data counters that the image publishes in its {@code hsperfdata}
+ * file when it is built with {@code -H:+UsePerfData}.
+ */
+public class PerfDataTest {
+
+    private static final int MAGIC = 0xcafec0c0;
+
+    @Test
+    public void testReadCounters() throws IOException {
+        Assume.assumeTrue("performance data is only published by native images", ImageInfo.inImageRuntimeCode());
+        Assume.assumeTrue("performance data is only mapped from a file on posix", Platform.includedIn(Platform.LINUX.class) || Platform.includedIn(Platform.DARWIN.class));
+
+        Path directory = Paths.get(System.getProperty("java.io.tmpdir"), "hsperfdata_" + System.getProperty("user.name"));
+        Path file = directory.resolve(Long.toString(ProcessProperties.getProcessID()));
+        Assert.assertTrue("missing " + file, Files.isRegularFile(file));
+        Set<PosixFilePermission> directoryPermissions = Files.getPosixFilePermissions(directory);
+        Assert.assertFalse("directory must not be writable by others: " + directoryPermissions,
+                        directoryPermissions.contains(PosixFilePermission.GROUP_WRITE) || directoryPermissions.contains(PosixFilePermission.OTHERS_WRITE));
+        Set<PosixFilePermission> filePermissions = Files.getPosixFilePermissions(file);
+        Assert.assertTrue("file must not be accessible by others: " + filePermissions,
+                        EnumSet.of(PosixFilePermission.OWNER_READ, PosixFilePermission.OWNER_WRITE).containsAll(filePermissions));
+
+        Map<String, Long> before = readLongCounters(Files.readAllBytes(file));
+        Assert.assertTrue(before.get("sun.rt.createVmBeginTime") > 0);
+        long collectionsBefore = collections(before);
+
+        System.gc();
+
+        Map<String, Long> after = readLongCounters(Files.readAllBytes(file));
+        Assert.assertTrue("collection was not counted", collections(after) > collectionsBefore);
+    }
+
+    private static long collections(Map<String, Long> counters) {
+        long sum = 0;
+        for (Map.Entry<String, Long> counter : counters.entrySet()) {
+            if (counter.getKey().startsWith("sun.gc.collector.") && counter.getKey().endsWith(".invocations")) {
+                sum += counter.getValue();
+            }
+        }
+        return sum;
+    }
+
+    /** Parses the scalar long entries of an {@code hsperfdata} file, see perfMemory.hpp. */
+    private static Map<String, Long> readLongCounters(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        Assert.assertEquals(MAGIC, buffer.getInt(0));
+        buffer.order(bytes[4] == 0 ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN);
+        Assert.assertEquals(2, bytes[5]);
+        Assert.assertEquals("memory must be accessible", 1, bytes[7]);
+        int entryOffset = buffer.getInt(24);
+        int numEntries = buffer.getInt(28);
+
+        Map<String, Long> counters = new HashMap<>();
+        for (int i = 0; i < numEntries; i++) {
+            int entryLength = buffer.getInt(entryOffset);
+            int nameOffset = buffer.getInt(entryOffset + 4);
+            int vectorLength = buffer.getInt(entryOffset + 8);
+            byte dataType = buffer.get(entryOffset + 12);
+            int dataOffset = buffer.getInt(entryOffset + 16);
+            int nameEnd = entryOffset + nameOffset;
+            while (bytes[nameEnd] != 0) {
+                nameEnd++;
+            }
+            String name = new String(bytes, entryOffset + nameOffset, nameEnd - entryOffset - nameOffset, StandardCharsets.US_ASCII);
+            if (dataType == 'J' && vectorLength == 0) {
+                counters.put(name, buffer.getLong(entryOffset + dataOffset));
+            }
+            entryOffset += entryLength;
+        }
+        return counters;
+    }
+}
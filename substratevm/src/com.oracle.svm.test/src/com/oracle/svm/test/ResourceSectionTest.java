@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2021, 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.oracle.svm.test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.graalvm.nativeimage.ImageInfo;
+import org.graalvm.nativeimage.ImageSingletons;
+import org.graalvm.nativeimage.hosted.Feature;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+import com.oracle.svm.core.annotate.AutomaticFeature;
+import com.oracle.svm.core.configure.ResourcesRegistry;
+import com.oracle.svm.core.jdk.Resources;
+
+/**
+ * Reads a resource that is stored in the read-only resources section of the image, see
+ * {@link Resources.Options#ResourcesInImageSection}, through the public resource APIs.
+ */
+public class ResourceSectionTest {
+
+    private static final String RESOURCE_NAME = "resources/resource-section-test.txt";
+    private static final String RESOURCE_CONTENT = "Resource content served from the read-only svm_resources section of the image.\n";
+
+    @SuppressWarnings("unused")
+    @AutomaticFeature
+    private static final class RegisterResourceFeature implements Feature {
+        @Override
+        public void beforeAnalysis(BeforeAnalysisAccess access) {
+            ImageSingletons.lookup(ResourcesRegistry.class).addResources(RESOURCE_NAME);
+        }
+    }
+
+    private static void assumeResourcesInSection() {
+        Assume.assumeTrue("resources are only stored in the resources section of an image", ImageInfo.inImageRuntimeCode());
+        Assume.assumeTrue("image is built with -H:+ResourcesInImageSection", Resources.Options.ResourcesInImageSection.getValue());
+    }
+
+    private static String readFully(InputStream in) throws IOException {
+        Assert.assertNotNull("Resource " + RESOURCE_NAME + " is not found", in);
+        try (InputStream is = in) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[16];
+            int read;
+            while ((read = is.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    public void testByteBufferIsInSection() {
+        assumeResourcesInSection();
+        ByteBuffer buffer = Resources.getByteBuffer(RESOURCE_NAME);
+        Assert.assertNotNull(buffer);
+        Assert.assertTrue("resource buffer must point into the resources section", buffer.isDirect());
+        Assert.assertTrue(buffer.isReadOnly());
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        Assert.assertEquals(RESOURCE_CONTENT, new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testGetResourceAsStream() throws IOException {
+        assumeResourcesInSection();
+        Assert.assertEquals(RESOURCE_CONTENT, readFully(ResourceSectionTest.class.getResourceAsStream("/" + RESOURCE_NAME)));
+        Assert.assertEquals(RESOURCE_CONTENT, readFully(ClassLoader.getSystemResourceAsStream(RESOURCE_NAME)));
+    }
+
+    @Test
+    public void testURLOpenStream() throws IOException {
+        assumeResourcesInSection();
+        URL url = ResourceSectionTest.class.getResource("/" + RESOURCE_NAME);
+        Assert.assertNotNull("Resource " + RESOURCE_NAME + " is not found", url);
+        Assert.assertEquals(RESOURCE_CONTENT, readFully(url.openStream()));
+        Assert.assertEquals(RESOURCE_CONTENT.length(), url.openConnection().getContentLength());
+    }
+}
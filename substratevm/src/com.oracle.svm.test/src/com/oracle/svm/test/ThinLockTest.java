@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2021, 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.oracle.svm.test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests object monitors of classes with a monitor slot, which are thin-locked when the image is
+ * built with {@code -H:+ThinLocks}. Covers recursion beyond the maximum thin lock depth, inflation
+ * under contention and when waiting, and notification of a thin-locked object.
+ */
+public class ThinLockTest {
+
+    private static final int THREADS = 4;
+    private static final int ITERATIONS = 20_000;
+
+    static class Counter {
+        long value;
+    }
+
+    static class Waiter {
+        boolean notified;
+    }
+
+    @Test
+    public void testRecursiveLocking() throws InterruptedException {
+        Object lock = new Counter();
+        lockRecursively(lock, 32);
+        Assert.assertFalse(Thread.holdsLock(lock));
+
+        /* The lock must be released completely, so another thread can acquire it. */
+        boolean[] acquired = new boolean[1];
+        Thread other = new Thread(() -> {
+            synchronized (lock) {
+                acquired[0] = true;
+            }
+        });
+        other.start();
+        other.join(TimeUnit.SECONDS.toMillis(30));
+        Assert.assertTrue(acquired[0]);
+    }
+
+    private static void lockRecursively(Object lock, int depth) {
+        if (depth == 0) {
+            return;
+        }
+        synchronized (lock) {
+            Assert.assertTrue(Thread.holdsLock(lock));
+            lockRecursively(lock, depth - 1);
+            Assert.assertTrue(Thread.holdsLock(lock));
+        }
+    }
+
+    @Test
+    public void testContention() throws InterruptedException {
+        Counter counter = new Counter();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[THREADS];
+        Throwable[] failure = new Throwable[1];
+        for (int t = 0; t < THREADS; t++) {
+            threads[t] = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < ITERATIONS; i++) {
+                        synchronized (counter) {
+                            counter.value++;
+                        }
+                    }
+                } catch (Throwable e) {
+                    failure[0] = e;
+                }
+            });
+            threads[t].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assert.assertNull(failure[0]);
+        synchronized (counter) {
+            Assert.assertEquals((long) THREADS * ITERATIONS, counter.value);
+        }
+    }
+
+    @Test
+    public void testInflateLockHeldByOtherThread() throws InterruptedException {
+        Counter lock = new Counter();
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = new Thread(() -> {
+            synchronized (lock) {
+                synchronized (lock) {
+                    locked.countDown();
+                    awaitUninterruptibly(release);
+                    lock.value = 1;
+                }
+                lock.value++;
+            }
+        });
+        holder.start();
+        locked.await();
+
+        /* Not the owner: notify and wait must fail, even though they inflate the lock. */
+        try {
+            lock.notify();
+            Assert.fail("IllegalMonitorStateException expected");
+        } catch (IllegalMonitorStateException e) {
+            // expected
+        }
+        try {
+            lock.wait(1);
+            Assert.fail("IllegalMonitorStateException expected");
+        } catch (IllegalMonitorStateException e) {
+            // expected
+        }
+
+        /* Contend for the lock that is held recursively by the other thread. */
+        Thread contender = new Thread(() -> {
+            synchronized (lock) {
+                lock.value *= 10;
+            }
+        });
+        contender.start();
+        release.countDown();
+        holder.join();
+        contender.join();
+        Assert.assertFalse(Thread.holdsLock(lock));
+        synchronized (lock) {
+            Assert.assertEquals(20, lock.value);
+        }
+    }
+
+    @Test
+    public void testWaitNotify() throws InterruptedException {
+        Waiter waiter = new Waiter();
+        synchronized (waiter) {
+            /* Notifying a thin-locked object without waiters. */
+            waiter.notify();
+            waiter.notifyAll();
+        }
+
+        Thread notifier = new Thread(() -> {
+            synchronized (waiter) {
+                synchronized (waiter) {
+                    waiter.notified = true;
+                    waiter.notifyAll();
+                }
+            }
+        });
+        synchronized (waiter) {
+            synchronized (waiter) {
+                notifier.start();
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+                while (!waiter.notified && System.nanoTime() < deadline) {
+                    /* Waiting releases the recursively held lock completely. */
+                    waiter.wait(TimeUnit.SECONDS.toMillis(1));
+                }
+                Assert.assertTrue(waiter.notified);
+                Assert.assertTrue(Thread.holdsLock(waiter));
+            }
+            Assert.assertTrue(Thread.holdsLock(waiter));
+        }
+        Assert.assertFalse(Thread.holdsLock(waiter));
+        notifier.join();
+
+        try {
+            waiter.notify();
+            Assert.fail("IllegalMonitorStateException expected");
+        } catch (IllegalMonitorStateException e) {
+            // expected
+        }
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        while (true) {
+            try {
+                latch.await();
+                return;
+            } catch (InterruptedException e) {
+                // retry
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2021, 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.svm.test.pgo;
+
+import com.oracle.svm.core.annotate.NeverInline;
+
+/**
+ * Program for the PGO round trip of the {@code pgotest} mx command. The image is first built with
+ * {@code -H:+PGOInstrument}. The profile written at exit is checked for the exact execution count
+ * of {@link #fib} and of both successors of its branch, which the program prints. Then the image is
+ * rebuilt with {@code -H:PGO=<profile>}. The recursion runs in several threads at the same time, so
+ * lost counter updates would show up as wrong counts.
+ */
+public class PGOInstrumentationTest {
+
+    static final int THREADS = 4;
+    static final int N = 20;
+
+    @NeverInline("Every call must be counted.")
+    static int fib(int n) {
+        return n < 2 ? n : fib(n - 1) + fib(n - 2);
+    }
+
+    /** Returns {@code fib(n)} without calling {@link #fib}. */
+    static long fibLoop(int n) {
+        long a = 0;
+        long b = 1;
+        for (int i = 0; i < n; i++) {
+            long c = a + b;
+            a = b;
+            b = c;
+        }
+        return a;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int[] results = new int[THREADS];
+        Thread[] threads = new Thread[THREADS];
+        for (int i = 0; i < THREADS; i++) {
+            int index = i;
+            threads[i] = new Thread(() -> results[index] = fib(N));
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (int result : results) {
+            if (result != 6765) {
+                throw new AssertionError("Wrong result: " + result);
+            }
+        }
+        /* The recursion for fib(n) makes fib(n + 1) calls with n < 2 and fib(n + 1) - 1 others. */
+        long leafCalls = THREADS * fibLoop(N + 1);
+        long innerCalls = THREADS * (fibLoop(N + 1) - 1);
+        System.out.println(leafCalls + innerCalls);
+        System.out.println(leafCalls);
+        System.out.println(innerCalls);
+    }
+}
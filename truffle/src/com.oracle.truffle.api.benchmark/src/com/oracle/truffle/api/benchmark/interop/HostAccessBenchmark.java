@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2021, 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.api.benchmark.interop;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.HostAccess;
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.oracle.truffle.api.benchmark.TruffleBenchmark;
+
+/**
+ * Measures host method, constructor and field access through the polyglot API, which goes through
+ * the generated host accessor classes.
+ */
+@State(Scope.Thread)
+public class HostAccessBenchmark extends TruffleBenchmark {
+
+    private static final int ITERATIONS = 1000;
+
+    public static class HostService {
+
+        public int intField;
+        public static long staticField;
+
+        public HostService() {
+        }
+
+        public HostService(int value) {
+            this.intField = value;
+        }
+
+        public int add(int left, int right) {
+            return left + right;
+        }
+
+        public void increment() {
+            intField++;
+        }
+
+        public static long multiply(long left, long right) {
+            return left * right;
+        }
+    }
+
+    final Context context = Context.newBuilder().allowHostAccess(HostAccess.ALL).build();
+    final HostService service = new HostService();
+    final Value serviceValue = context.asValue(service);
+    final Value serviceClass = serviceValue.getMetaObject();
+    final Value serviceStatics = serviceClass.getMember("static");
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int invokeMethod() {
+        int sum = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            sum += serviceValue.invokeMember("add", i, sum).asInt();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public void invokeVoidMethod() {
+        for (int i = 0; i < ITERATIONS; i++) {
+            serviceValue.invokeMember("increment");
+        }
+    }
+
+    @Benchmark
+    public long invokeStaticMethod() {
+        long product = 1;
+        for (int i = 0; i < ITERATIONS; i++) {
+            product = serviceStatics.invokeMember("multiply", product, 3L).asLong();
+        }
+        return product;
+    }
+
+    @Benchmark
+    public int readField() {
+        int sum = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            sum += serviceValue.getMember("intField").asInt();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public void writeField() {
+        for (int i = 0; i < ITERATIONS; i++) {
+            serviceValue.putMember("intField", i);
+        }
+    }
+
+    @Benchmark
+    public void writeStaticField() {
+        for (int i = 0; i < ITERATIONS; i++) {
+            serviceStatics.putMember("staticField", (long) i);
+        }
+    }
+
+    @Benchmark
+    public Object newInstance() {
+        Object last = null;
+        for (int i = 0; i < ITERATIONS; i++) {
+            last = serviceClass.newInstance(i);
+        }
+        return last;
+    }
+}
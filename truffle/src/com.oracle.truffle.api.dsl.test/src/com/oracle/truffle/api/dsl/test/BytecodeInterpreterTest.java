@@ -0,0 +1,286 @@
+/*
+ * Copyright (c) 2021, 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.api.dsl.test;
+
+import static com.oracle.truffle.api.test.polyglot.AbstractPolyglotTest.assertFails;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.oracle.truffle.api.ThreadLocalAction;
+import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.api.dsl.GenerateBytecodeInterpreter;
+import com.oracle.truffle.api.dsl.GenerateBytecodeInterpreter.Operation;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.nodes.RootNode;
+import com.oracle.truffle.api.test.polyglot.AbstractPolyglotTest;
+
+public class BytecodeInterpreterTest extends AbstractPolyglotTest {
+
+    @GenerateBytecodeInterpreter
+    abstract static class Calculator extends RootNode {
+
+        protected Calculator() {
+            super(null);
+        }
+
+        @Operation
+        abstract static class Add extends Node {
+
+            abstract Object execute(Object left, Object right);
+
+            @Specialization
+            static int doInt(int left, int right) {
+                return left + right;
+            }
+
+            @Specialization
+            static String doString(String left, String right) {
+                return left + right;
+            }
+        }
+
+        @Operation
+        abstract static class LessThan extends Node {
+
+            abstract boolean execute(Object left, Object right);
+
+            @Specialization
+            static boolean doInt(int left, int right) {
+                return left < right;
+            }
+        }
+
+        @Operation
+        abstract static class RunAction extends Node {
+
+            abstract void execute(Object action);
+
+            @Specialization
+            static void doRunnable(Runnable action) {
+                action.run();
+            }
+        }
+
+        @Operation
+        abstract static class ArgumentCount extends Node {
+
+            abstract int execute(VirtualFrame frame);
+
+            @Specialization
+            static int doDefault(VirtualFrame frame) {
+                return frame.getArguments().length;
+            }
+        }
+    }
+
+    private static Object call(Calculator calculator, Object... arguments) {
+        return Truffle.getRuntime().createCallTarget(calculator).call(arguments);
+    }
+
+    @Test
+    public void testAdd() {
+        CalculatorGen.Builder b = CalculatorGen.newBuilder();
+        b.emitLoadArgument(0);
+        b.emitConstant(42);
+        b.emitAdd();
+        b.emitReturn();
+        Calculator calculator = b.build();
+        assertEquals(43, call(calculator, 1));
+    }
+
+    @Test
+    public void testFrameOperation() {
+        CalculatorGen.Builder b = CalculatorGen.newBuilder();
+        b.emitArgumentCount();
+        b.emitReturn();
+        assertEquals(3, call(b.build(), 1, 2, 3));
+    }
+
+    @Test
+    public void testLoop() {
+        // sum = 0; i = 0; while (i < n) { sum = sum + i; i = i + 1; } return sum;
+        CalculatorGen.Builder b = CalculatorGen.newBuilder();
+        int loop = b.createLabel();
+        int exit = b.createLabel();
+        b.emitConstant(0);
+        b.emitStoreLocal(0);
+        b.emitConstant(0);
+        b.emitStoreLocal(1);
+        b.emitLabel(loop);
+        b.emitLoadLocal(1);
+        b.emitLoadArgument(0);
+        b.emitLessThan();
+        b.emitJumpIfFalse(exit);
+        b.emitLoadLocal(0);
+        b.emitLoadLocal(1);
+        b.emitAdd();
+        b.emitStoreLocal(0);
+        b.emitLoadLocal(1);
+        b.emitConstant(1);
+        b.emitAdd();
+        b.emitStoreLocal(1);
+        b.emitJump(loop);
+        b.emitLabel(exit);
+        b.emitLoadLocal(0);
+        b.emitReturn();
+        Calculator calculator = b.build();
+        assertEquals(45, call(calculator, 10));
+        assertEquals(0, call(calculator, 0));
+    }
+
+    @Test
+    public void testLoopPollsSafepoint() throws Exception {
+        setupEnv();
+        AtomicInteger iterations = new AtomicInteger();
+        AtomicInteger performedInIteration = new AtomicInteger();
+        ThreadLocalAction action = new ThreadLocalAction(false, false) {
+            @Override
+            protected void perform(Access access) {
+                performedInIteration.set(iterations.get());
+            }
+        };
+        List<Future<Void>> futures = new ArrayList<>();
+        Runnable submit = () -> {
+            if (iterations.incrementAndGet() == 1) {
+                futures.add(languageEnv.submitThreadLocal(new Thread[]{Thread.currentThread()}, action));
+            }
+        };
+
+        // i = 0; while (i < n) { submit(); i = i + 1; } return i;
+        CalculatorGen.Builder b = CalculatorGen.newBuilder();
+        int loop = b.createLabel();
+        int exit = b.createLabel();
+        b.emitConstant(0);
+        b.emitStoreLocal(0);
+        b.emitLabel(loop);
+        b.emitLoadLocal(0);
+        b.emitLoadArgument(0);
+        b.emitLessThan();
+        b.emitJumpIfFalse(exit);
+        b.emitConstant(submit);
+        b.emitRunAction();
+        b.emitLoadLocal(0);
+        b.emitConstant(1);
+        b.emitAdd();
+        b.emitStoreLocal(0);
+        b.emitJump(loop);
+        b.emitLabel(exit);
+        b.emitLoadLocal(0);
+        b.emitReturn();
+        assertEquals(3, call(b.build(), 3));
+
+        // the action submitted in the first iteration runs at the backward jump that ends it
+        assertEquals(1, futures.size());
+        futures.get(0).get();
+        assertEquals(1, performedInIteration.get());
+    }
+
+    @Test
+    public void testOperationNodePerSite() {
+        CalculatorGen.Builder b = CalculatorGen.newBuilder();
+        b.emitLoadArgument(0);
+        b.emitLoadArgument(0);
+        b.emitAdd();
+        b.emitLoadArgument(1);
+        b.emitLoadArgument(1);
+        b.emitAdd();
+        b.emitPop();
+        b.emitReturn();
+        Calculator calculator = b.build();
+        assertEquals(2, call(calculator, 1, "a"));
+
+        List<Node> children = new ArrayList<>();
+        for (Node child : calculator.getChildren()) {
+            children.add(child);
+        }
+        assertEquals(2, children.size());
+        assertNotSame(children.get(0), children.get(1));
+    }
+
+    @Test
+    public void testInvalidBytecode() {
+        assertFails(() -> CalculatorGen.newBuilder().emitAdd(), IllegalStateException.class);
+        assertFails(() -> CalculatorGen.newBuilder().emitLoadArgument(-1), IllegalArgumentException.class);
+        assertFails(() -> CalculatorGen.newBuilder().emitJump(0), IllegalArgumentException.class);
+        assertFails(() -> {
+            CalculatorGen.Builder b = CalculatorGen.newBuilder();
+            b.emitConstant(42);
+            return b.build();
+        }, IllegalStateException.class);
+        assertFails(() -> {
+            CalculatorGen.Builder b = CalculatorGen.newBuilder();
+            b.emitJump(b.createLabel());
+            return b.build();
+        }, IllegalStateException.class);
+        assertFails(() -> {
+            CalculatorGen.Builder b = CalculatorGen.newBuilder();
+            b.emitConstant(42);
+            b.emitReturn();
+            b.build();
+            return b.build();
+        }, IllegalStateException.class);
+    }
+
+    @GenerateBytecodeInterpreter
+    @ExpectError("Bytecode interpreter classes must declare an abstract method 'Object execute(VirtualFrame)'.")
+    abstract static class ErrorMissingExecute extends Node {
+    }
+
+    @GenerateBytecodeInterpreter
+    @ExpectError("Bytecode interpreter classes must be abstract.")
+    static class ErrorNotAbstract extends Node {
+    }
+
+    @GenerateBytecodeInterpreter
+    @ExpectError("Bytecode interpreter classes must extend com.oracle.truffle.api.nodes.Node.")
+    abstract static class ErrorNoNode {
+    }
+
+}
@@ -0,0 +1,366 @@
+/*
+ * Copyright (c) 2021, 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.api.dsl.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.GenerateInline;
+import com.oracle.truffle.api.dsl.GenerateUncached;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.dsl.test.GenerateInlineTestFactory.AddAbsNodeGen;
+import com.oracle.truffle.api.dsl.test.GenerateInlineTestFactory.CachedChildUserNodeGen;
+import com.oracle.truffle.api.dsl.test.GenerateInlineTestFactory.CachedValueUserNodeGen;
+import com.oracle.truffle.api.dsl.test.GenerateInlineTestFactory.NotInlinedAddAbsNodeGen;
+import com.oracle.truffle.api.dsl.test.GenerateInlineTestFactory.UncachedUserNodeGen;
+import com.oracle.truffle.api.dsl.test.GenerateInlineTestFactory.WrongNodeArgumentUserNodeGen;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.nodes.Node.Child;
+import com.oracle.truffle.api.nodes.NodeUtil;
+
+@SuppressWarnings("unused")
+public class GenerateInlineTest {
+
+    @GenerateInline
+    @GenerateUncached
+    abstract static class AbsNode extends Node {
+
+        abstract int execute(Node node, int value);
+
+        @Specialization(guards = "value >= 0")
+        static int doPositive(Node node, int value) {
+            return value;
+        }
+
+        @Specialization(guards = "value < 0")
+        static int doNegative(Node node, int value) {
+            return -value;
+        }
+    }
+
+    abstract static class AddAbsNode extends Node {
+
+        abstract int execute(int left, int right);
+
+        @Specialization
+        int doInt(int left, int right,
+                        @Cached(inline = true) AbsNode leftAbs,
+                        @Cached(inline = true) AbsNode rightAbs) {
+            return leftAbs.execute(this, left) + rightAbs.execute(this, right);
+        }
+    }
+
+    abstract static class NotInlinedAddAbsNode extends Node {
+
+        abstract int execute(int left, int right);
+
+        @Specialization
+        int doInt(int left, int right,
+                        @Cached AbsNode leftAbs,
+                        @Cached AbsNode rightAbs) {
+            return leftAbs.execute(this, left) + rightAbs.execute(this, right);
+        }
+    }
+
+    @Test
+    public void testInlined() {
+        AddAbsNode node = AddAbsNodeGen.create();
+        assertEquals(5, node.execute(2, 3));
+        assertEquals(5, node.execute(-2, 3));
+        assertEquals(5, node.execute(2, -3));
+        assertEquals(5, node.execute(-2, -3));
+        // inlined nodes do not allocate child nodes
+        assertEquals(0, NodeUtil.findNodeChildren(node).size());
+
+        NotInlinedAddAbsNode notInlined = NotInlinedAddAbsNodeGen.create();
+        assertEquals(5, notInlined.execute(-2, -3));
+        assertEquals(2, NodeUtil.findNodeChildren(notInlined).size());
+    }
+
+    @Test
+    public void testFootprint() {
+        // inlined nodes keep their state in the fields of the node they are inlined into
+        assertEquals(Collections.emptyList(), instanceFields(AddAbsNodeGen.class, false));
+        List<Field> children = instanceFields(NotInlinedAddAbsNodeGen.class, false);
+        assertEquals(children.toString(), 2, children.size());
+        for (Field child : children) {
+            assertTrue(child.toString(), child.isAnnotationPresent(Child.class));
+            assertSame(AbsNode.class, child.getType());
+        }
+        assertTrue(instanceFields(AddAbsNodeGen.class, true).size() <= instanceFields(NotInlinedAddAbsNodeGen.class, true).size());
+    }
+
+    /**
+     * Returns the instance fields of primitive or reference type that a node class declares in
+     * addition to the fields of {@link Node}.
+     */
+    private static List<Field> instanceFields(Class<? extends Node> nodeClass, boolean primitive) {
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> c = nodeClass; c != Node.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) && field.getType().isPrimitive() == primitive) {
+                    fields.add(field);
+                }
+            }
+        }
+        return fields;
+    }
+
+    @GenerateInline
+    abstract static class CachedValueNode extends Node {
+
+        abstract Object execute(Node node, Object value);
+
+        @Specialization(guards = "value == cachedValue", limit = "2")
+        static String doCached(Node node, int value,
+                        @Cached("value") int cachedValue) {
+            return "cached" + cachedValue;
+        }
+
+        @Specialization(replaces = "doCached")
+        static String doGeneric(Node node, int value) {
+            return "generic" + value;
+        }
+
+        @Fallback
+        static String doFallback(Node node, Object value) {
+            return "fallback";
+        }
+    }
+
+    abstract static class CachedValueUserNode extends Node {
+
+        abstract Object execute(Object first, Object second);
+
+        @Specialization
+        Object doDefault(Object first, Object second,
+                        @Cached(inline = true) CachedValueNode firstNode,
+                        @Cached(inline = true) CachedValueNode secondNode) {
+            return firstNode.execute(this, first) + "," + secondNode.execute(this, second);
+        }
+    }
+
+    @Test
+    public void testInlinedState() {
+        CachedValueUserNode node = CachedValueUserNodeGen.create();
+        assertEquals("cached1,cached2", node.execute(1, 2));
+        assertEquals("cached3,cached2", node.execute(3, 2));
+        // the first inlined node is megamorphic, the second one stays monomorphic
+        assertEquals("generic4,cached2", node.execute(4, 2));
+        assertEquals("generic1,cached2", node.execute(1, 2));
+        assertEquals("fallback,fallback", node.execute("a", "b"));
+        assertEquals("generic5,cached2", node.execute(5, 2));
+
+        // every node instance has its own state
+        CachedValueUserNode otherNode = CachedValueUserNodeGen.create();
+        assertEquals("cached5,cached6", otherNode.execute(5, 6));
+    }
+
+    abstract static class ConstantNode extends Node {
+
+        abstract int execute();
+
+        @Specialization
+        static int doDefault() {
+            return 42;
+        }
+    }
+
+    @GenerateInline
+    abstract static class CachedChildNode extends Node {
+
+        abstract Node execute(Node node, int value);
+
+        @Specialization
+        static Node doDefault(Node node, int value,
+                        @Cached ConstantNode constant) {
+            assertEquals(42, constant.execute());
+            return constant;
+        }
+    }
+
+    abstract static class CachedChildUserNode extends Node {
+
+        abstract Node execute(int value);
+
+        @Specialization
+        Node doDefault(int value, @Cached(inline = true) CachedChildNode inlined) {
+            return inlined.execute(this, value);
+        }
+    }
+
+    @Test
+    public void testInlinedCachedChild() {
+        CachedChildUserNode node = CachedChildUserNodeGen.create();
+        Node constant = node.execute(1);
+        // cached nodes of the inlined node are adopted by the inlining node
+        assertSame(node, constant.getParent());
+        assertSame(constant, node.execute(2));
+    }
+
+    @GenerateUncached
+    abstract static class UncachedUserNode extends Node {
+
+        abstract int execute(int value);
+
+        @Specialization
+        int doDefault(int value, @Cached(inline = true) AbsNode abs) {
+            return abs.execute(this, value);
+        }
+    }
+
+    @Test
+    public void testUncached() {
+        assertEquals(3, UncachedUserNodeGen.create().execute(-3));
+        assertEquals(3, UncachedUserNodeGen.getUncached().execute(-3));
+    }
+
+    abstract static class WrongNodeArgumentUserNode extends Node {
+
+        abstract int execute(Node node, int value);
+
+        @Specialization
+        int doDefault(Node node, int value, @Cached(inline = true) AbsNode abs) {
+            // must pass this instead of the node argument
+            return abs.execute(node, value);
+        }
+    }
+
+    @Test
+    public void testWrongNodeArgument() {
+        WrongNodeArgumentUserNode node = WrongNodeArgumentUserNodeGen.create();
+        assertEquals(3, node.execute(node, -3));
+        for (Node wrongNode : new Node[]{AddAbsNodeGen.create(), null}) {
+            try {
+                node.execute(wrongNode, -3);
+                fail();
+            } catch (IllegalArgumentException e) {
+                assertTrue(e.getMessage(), e.getMessage().startsWith("The node argument of an inlined AbsNode must be the WrongNodeArgumentUserNode that declares the inlined cache"));
+            }
+        }
+    }
+
+    abstract static class ErrorNotInlinableNode extends Node {
+
+        abstract int execute(Node node, int value);
+
+        @Specialization
+        static int doDefault(Node node, int value) {
+            return value;
+        }
+    }
+
+    abstract static class ErrorUserNode extends Node {
+
+        abstract int execute(int value);
+
+        @Specialization
+        int doDefault(int value,
+                        @ExpectError("The cached type ErrorNotInlinableNode cannot be inlined. Annotate the type with @GenerateInline to resolve this.")//
+                        @Cached(inline = true) ErrorNotInlinableNode notInlinable) {
+            return value;
+        }
+    }
+
+    abstract static class ErrorWeakNode extends Node {
+
+        abstract int execute(int value);
+
+        @Specialization
+        int doDefault(int value,
+                        @ExpectError("Inlined cached parameters cannot be weak. Remove the weak or the inline attribute to resolve this.")//
+                        @Cached(inline = true, weak = true) AbsNode abs) {
+            return value;
+        }
+    }
+
+    @GenerateInline
+    @ExpectError("Nodes annotated with @GenerateInline must declare exactly one abstract execute method.")
+    abstract static class ErrorTwoExecuteNode extends Node {
+
+        abstract int execute(Node node, int value);
+
+        abstract Object executeGeneric(Node node, int value);
+
+        @Specialization
+        static int doDefault(Node node, int value) {
+            return value;
+        }
+    }
+
+    @GenerateInline
+    @ExpectError("The first dynamic parameter of the execute method of a node annotated with @GenerateInline must be of type Node. " +
+                    "The node that declares the inlined cache is passed for this parameter.")
+    abstract static class ErrorMissingNodeParameter extends Node {
+
+        abstract int execute(int value);
+
+        @Specialization
+        static int doDefault(int value) {
+            return value;
+        }
+    }
+
+    @GenerateInline
+    abstract static class ErrorInstanceSpecializationNode extends Node {
+
+        abstract int execute(Node node, int value);
+
+        @ExpectError("Specialization and fallback methods of nodes annotated with @GenerateInline must be static.")
+        @Specialization
+        int doDefault(Node node, int value) {
+            return value;
+        }
+    }
+
+}
@@ -354,6 +354,56 @@ public @interface Cached {
      */
     boolean adopt() default true;
 
+    /**
+     * Specifies whether the cached node should be inlined into the generated code of the current
+     * node. The type of the cached parameter must be annotated with {@link GenerateInline}. Instead
+     * of allocating a separate child node, the state and the cached values of the inlined node are
+     * stored in fields of the current node and its state bits are packed into the state fields of
+     * the current node. The cached parameter value is a shared stateless node that forwards its
+     * execute method to the generated code of the current node. The current node must therefore
+     * be passed as the first argument of the execute method, usually using <code>this</code>. If
+     * the specialization may be instantiated multiple times, then all instances share the state of
+     * the inlined node.
+     * <p>
+     * Inlined caches cannot be {@link #weak() weak} or {@link Shared shared} and the value
+     * expression cannot be specified. If the current node is {@link GenerateUncached uncached} then
+     * the inlined node must be uncached as well.
+     *
+     * <pre>
+     * &#64;GenerateInline
+     * abstract static class AbsNode extends Node {
+     *
+     *     abstract int execute(Node node, int value);
+     *
+     *     &#64;Specialization(guards = "value >= 0")
+     *     static int doPositive(Node node, int value) {
+     *         return value;
+     *     }
+     *
+     *     &#64;Specialization(guards = "value &lt; 0")
+     *     static int doNegative(Node node, int value) {
+     *         return -value;
+     *     }
+     * }
+     *
+     * abstract static class AddAbsNode extends Node {
+     *
+     *     abstract int execute(int left, int right);
+     *
+     *     &#64;Specialization
+     *     int doInt(int left, int right,
+     *                     &#64;Cached(inline = true) AbsNode leftAbs,
+     *                     &#64;Cached(inline = true) AbsNode rightAbs) {
+     *         return leftAbs.execute(this, left) + rightAbs.execute(this, right);
+     *     }
+     * }
+     * </pre>
+     *
+     * @see GenerateInline
+     * @since 21.3
+     */
+    boolean inline() default false;
+
     /**
      * Allows sharing between multiple Cached parameters between multiple specializations or
      * exported library messages. If no sharing is desired then the {@link Cached cached} parameter
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2021, 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.api.dsl;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates a bytecode interpreter for the annotated node class. Instead of representing the
+ * control flow of a guest function as a tree of nodes, the generated interpreter stores it as a
+ * byte array that is executed by a single dispatch loop.
+ * <p>
+ * The annotated class must be an abstract subclass of {@link com.oracle.truffle.api.nodes.Node}
+ * that declares an abstract method <code>Object execute(VirtualFrame)</code>. The class may also
+ * be a {@link com.oracle.truffle.api.nodes.RootNode}. The instructions of the interpreter are
+ * declared as static nested classes annotated with {@link Operation}. Each operation is a regular
+ * specializing node with a single abstract execute method. The parameters of the execute method
+ * are the operands of the instruction, which are popped from the operand stack. An optional
+ * leading {@link com.oracle.truffle.api.frame.VirtualFrame} parameter receives the current frame.
+ * A non-void return value is pushed onto the operand stack.
+ * <p>
+ * Every occurrence of an operation in the bytecode gets its own operation node, so each
+ * instruction specializes (quickens) independently on the values it observes. In addition to the
+ * declared operations, the interpreter supports instructions to push constants, read arguments,
+ * read and write local variables, discard values, jump, branch and return.
+ * <p>
+ * The processor generates a class named after the annotated class with the suffix <code>Gen</code>
+ * that contains the interpreter and a <code>Builder</code> to emit bytecode. The builder provides
+ * an <code>emit</code> method for each built-in instruction and operation, and one
+ * <code>build</code> method for each non-private constructor of the annotated class.
+ *
+ * <pre>
+ * &#64;GenerateBytecodeInterpreter
+ * abstract static class Calculator extends Node {
+ *
+ *     abstract Object execute(VirtualFrame frame);
+ *
+ *     &#64;Operation
+ *     abstract static class Add extends Node {
+ *
+ *         abstract Object execute(Object left, Object right);
+ *
+ *         &#64;Specialization
+ *         static int doInt(int left, int right) {
+ *             return left + right;
+ *         }
+ *     }
+ * }
+ *
+ * CalculatorGen.Builder b = CalculatorGen.newBuilder();
+ * b.emitLoadArgument(0);
+ * b.emitConstant(42);
+ * b.emitAdd();
+ * b.emitReturn();
+ * Calculator calculator = b.build();
+ * </pre>
+ *
+ * The generated dispatch loop is annotated with {@link com.oracle.truffle.api.nodes.ExplodeLoop}
+ * using {@link com.oracle.truffle.api.nodes.ExplodeLoop.LoopExplosionKind#MERGE_EXPLODE}, so
+ * partial evaluation produces one copy of each reachable instruction and keeps the operand stack
+ * and the local variables in virtualized arrays. Every jump to a preceding or the same bytecode
+ * index polls {@link com.oracle.truffle.api.TruffleSafepoint#poll(com.oracle.truffle.api.nodes.Node)
+ * safepoints}, and the number of such backward jumps is reported with
+ * {@link com.oracle.truffle.api.nodes.LoopNode#reportLoopCount(com.oracle.truffle.api.nodes.Node, int)}
+ * when the interpreter returns. On-stack replacement of guest loops is not supported.
+ * <p>
+ * The generated interpreter does not reduce the memory footprint compared to an equivalent AST.
+ * Every operation site still allocates its own operation node, and every call allocates a new
+ * operand stack and local variable array.
+ *
+ * @since 21.3
+ */
+@Retention(RetentionPolicy.CLASS)
+@Target({ElementType.TYPE})
+public @interface GenerateBytecodeInterpreter {
+
+    /**
+     * Marks a static nested class of a class annotated with {@link GenerateBytecodeInterpreter} as
+     * an instruction of the generated interpreter. The name of the emit method of the builder is
+     * derived from the simple name of the class.
+     *
+     * @since 21.3
+     */
+    @Retention(RetentionPolicy.CLASS)
+    @Target({ElementType.TYPE})
+    @interface Operation {
+    }
+
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2021, 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.api.dsl;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Allows a node with specializations to be inlined into the nodes that use it as
+ * {@link Cached#inline() inlined cached} parameter. An inlined node does not allocate a separate
+ * child node. Instead, its state bits are packed into the state fields of the using node and its
+ * cached values are stored in fields of the using node. This reduces the number of objects and
+ * the memory footprint of specialized ASTs that use many small helper nodes. The annotated node
+ * can still be used as a regular cached node if {@link Cached#inline()} is not set.
+ * <p>
+ * An inlinable node must fulfill the following requirements:
+ * <ul>
+ * <li>It declares exactly one abstract execute method. The first dynamic parameter of the execute
+ * method is of type {@link com.oracle.truffle.api.nodes.Node Node} and receives the node that
+ * declares the inlined cache, usually <code>this</code>.
+ * <li>All specialization and fallback methods are static and take the node as first parameter.
+ * <li>It declares no instance fields or non-abstract instance methods, and does not use
+ * {@link NodeChild} or {@link NodeField}.
+ * <li>It does not itself use inlined cached parameters.
+ * <li>It declares no constructor or a non-private constructor without parameters.
+ * </ul>
+ * If any of these requirements are violated then an error will be shown.
+ * <p>
+ * <b>Example:</b>
+ *
+ * <pre>
+ * &#64;GenerateInline
+ * abstract static class AbsNode extends Node {
+ *
+ *     abstract int execute(Node node, int value);
+ *
+ *     &#64;Specialization(guards = "value >= 0")
+ *     static int doPositive(Node node, int value) {
+ *         return value;
+ *     }
+ *
+ *     &#64;Specialization(guards = "value &lt; 0")
+ *     static int doNegative(Node node, int value) {
+ *         return -value;
+ *     }
+ * }
+ * </pre>
+ *
+ * @see Cached#inline()
+ * @since 21.3
+ */
+@Retention(RetentionPolicy.CLASS)
+@Target({ElementType.TYPE})
+public @interface GenerateInline {
+}
@@ -63,6 +63,7 @@ import com.oracle.truffle.api.nodes.LanguageInfo;
 import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.api.profiles.BranchProfile;
 import com.oracle.truffle.api.source.SourceSection;
+import com.oracle.truffle.api.strings.TruffleString;
 import com.oracle.truffle.api.utilities.TriState;
 
 import java.nio.ByteOrder;
@@ -108,8 +109,8 @@ import static com.oracle.truffle.api.interop.AssertUtils.violationPost;
  * <li>{@link TruffleObject}: Any subclass of {@link TruffleObject} is interpreted depending on the
  * interop messages it {@link ExportLibrary exports}. Truffle objects are expected but not required
  * to export interop library messages.
- * <li>{@link String} and {@link Character} are interpreted as {@link #isString(Object) string}
- * value.
+ * <li>{@link String}, {@link TruffleString} and {@link Character} are interpreted as
+ * {@link #isString(Object) string} value.
  * <li>{@link Boolean} is interpreted as {@link #isBoolean(Object) boolean} value.
  * <li>{@link Byte}, {@link Short}, {@link Integer}, {@link Long}, {@link Float} and {@link Double}
  * are interpreted as {@link #isNumber(Object) number} values.
@@ -186,6 +187,7 @@ import static com.oracle.truffle.api.interop.AssertUtils.violationPost;
 @DefaultExport(DefaultDoubleExports.class)
 @DefaultExport(DefaultCharacterExports.class)
 @DefaultExport(DefaultStringExports.class)
+@DefaultExport(DefaultTruffleStringExports.class)
 @SuppressWarnings("unused")
 public abstract class InteropLibrary extends Library {
 
@@ -2902,7 +2904,8 @@ public abstract class InteropLibrary extends Library {
                         || receiver instanceof Long //
                         || receiver instanceof Float //
                         || receiver instanceof Double //
-                        || receiver instanceof String;
+                        || receiver instanceof String //
+                        || receiver instanceof TruffleString;
     }
 
     /**
@@ -207,4 +207,103 @@ public class FrameDescriptorTest {
         assertEquals("c", frame.getObject(slot3));
         assertEquals("d", frame.getObject(slot4));
     }
+
+    @Test
+    public void indexedSlots() throws FrameSlotTypeException {
+        FrameDescriptor.Builder builder = FrameDescriptor.newBuilder().defaultValue("default");
+        int i0 = builder.addSlot(FrameSlotKind.Int);
+        int i1 = builder.addSlots(2, FrameSlotKind.Object);
+        FrameDescriptor d = builder.build();
+        assertEquals(0, i0);
+        assertEquals(1, i1);
+        assertEquals(3, d.getNumberOfSlots());
+        assertEquals(3, d.getSize());
+        assertTrue(d.getSlots().isEmpty());
+        assertEquals(FrameSlotKind.Int, d.getSlotKind(0));
+        assertEquals(FrameSlotKind.Object, d.getSlotKind(2));
+
+        VirtualFrame f = Truffle.getRuntime().createVirtualFrame(new Object[0], d);
+        assertIndexedFrame(f);
+        assertIndexedFrame(Truffle.getRuntime().createVirtualFrame(new Object[0], d).materialize());
+    }
+
+    private static void assertIndexedFrame(Frame f) throws FrameSlotTypeException {
+        assertTrue(f.isObject(0));
+        assertEquals("default", f.getObject(0));
+        assertEquals("default", f.getValue(2));
+
+        f.setInt(0, 42);
+        assertTrue(f.isInt(0));
+        assertFalse(f.isObject(0));
+        assertEquals(FrameSlotKind.Int.tag, f.getTag(0));
+        assertEquals(42, f.getInt(0));
+        assertEquals(42, f.getValue(0));
+        try {
+            f.getLong(0);
+            fail("expected FrameSlotTypeException");
+        } catch (FrameSlotTypeException e) {
+            // expected
+        }
+
+        f.setLong(1, 43L);
+        assertEquals(43L, f.getLong(1));
+        f.setDouble(1, 44.5d);
+        assertEquals(44.5d, f.getDouble(1), 0d);
+        f.setFloat(1, 45.5f);
+        assertEquals(45.5f, f.getFloat(1), 0f);
+        f.setBoolean(1, true);
+        assertTrue(f.getBoolean(1));
+        f.setByte(1, (byte) 46);
+        assertEquals((byte) 46, f.getByte(1));
+        assertTrue(f.isByte(1));
+        f.setObject(2, "value");
+        assertEquals("value", f.getObject(2));
+
+        f.clear(2);
+        assertEquals(FrameSlotKind.Illegal.tag, f.getTag(2));
+        assertNull(f.getValue(2));
+        try {
+            f.getObject(2);
+            fail("expected FrameSlotTypeException");
+        } catch (FrameSlotTypeException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void indexedSlotsAndFrameSlots() throws FrameSlotTypeException {
+        FrameDescriptor.Builder builder = FrameDescriptor.newBuilder(2);
+        builder.addSlots(2, FrameSlotKind.Long);
+        FrameDescriptor d = builder.build();
+        Frame frame = Truffle.getRuntime().createMaterializedFrame(new Object[0], d);
+        frame.setLong(1, 1L);
+
+        Assumption version = d.getVersion();
+        s1 = d.addFrameSlot("v1", FrameSlotKind.Object);
+        assertFalse(version.isValid());
+        assertEquals(2, d.getNumberOfSlots());
+        assertEquals(3, d.getSize());
+
+        frame.setObject(s1, "v1");
+        assertEquals("v1", frame.getObject(s1));
+        assertEquals(1L, frame.getLong(1));
+        assertTrue(frame.isObject(0));
+    }
+
+    @Test
+    public void indexedSlotKind() {
+        FrameDescriptor.Builder builder = FrameDescriptor.newBuilder();
+        builder.addSlot(FrameSlotKind.Illegal);
+        FrameDescriptor d = builder.build();
+        Assumption version = d.getVersion();
+
+        d.setSlotKind(0, FrameSlotKind.Double);
+        assertEquals(FrameSlotKind.Double, d.getSlotKind(0));
+        assertTrue("Indexed slot kinds do not use the version", version.isValid());
+
+        FrameDescriptor copy = d.copy();
+        assertEquals(1, copy.getNumberOfSlots());
+        assertEquals("Kind isn't copied", FrameSlotKind.Illegal, copy.getSlotKind(0));
+        assertEquals(FrameSlotKind.Double, d.getSlotKind(0));
+    }
 }
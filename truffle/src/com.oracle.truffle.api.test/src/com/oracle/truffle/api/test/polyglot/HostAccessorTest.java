@@ -0,0 +1,365 @@
+/*
+ * Copyright (c) 2015, 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.api.test.polyglot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.HostAccess;
+import org.graalvm.polyglot.PolyglotException;
+import org.graalvm.polyglot.PolyglotException.StackFrame;
+import org.graalvm.polyglot.Value;
+import org.junit.Test;
+
+/**
+ * Tests host member access through the accessor classes generated for host classes.
+ */
+public class HostAccessorTest {
+
+    /*
+     * Must match HostAccessorBytecodeGenerator.ACCESSOR_PACKAGE_PREFIX.
+     */
+    private static final String ACCESSOR_CLASS_PREFIX = "com.oracle.truffle.host.accessors.";
+
+    private static Context createContext() {
+        return Context.newBuilder().allowHostAccess(HostAccess.ALL).build();
+    }
+
+    public static class Primitives {
+        public boolean z;
+        public byte b;
+        public short s;
+        public char c;
+        public int i;
+        public long j;
+        public float f;
+        public double d;
+        public static int staticInt;
+
+        public boolean negate(boolean value) {
+            return !value;
+        }
+
+        public byte incrementByte(byte value) {
+            return (byte) (value + 1);
+        }
+
+        public short incrementShort(short value) {
+            return (short) (value + 1);
+        }
+
+        public char nextChar(char value) {
+            return (char) (value + 1);
+        }
+
+        public int addInt(int a, int b0) {
+            return a + b0;
+        }
+
+        public long addLong(long a, long b0) {
+            return a + b0;
+        }
+
+        public float half(float value) {
+            return value / 2;
+        }
+
+        public double half(double value) {
+            return value / 2;
+        }
+
+        public static long mix(boolean z0, byte b0, short s0, char c0, int i0, long j0, float f0, double d0) {
+            return (z0 ? 1 : 0) + b0 + s0 + c0 + i0 + j0 + (long) f0 + (long) d0;
+        }
+
+        public void noResult() {
+        }
+    }
+
+    @Test
+    public void testPrimitiveParametersAndResults() {
+        try (Context context = createContext()) {
+            Value v = context.asValue(new Primitives());
+            assertFalse(v.invokeMember("negate", true).asBoolean());
+            assertEquals(43, v.invokeMember("incrementByte", (byte) 42).asByte());
+            assertEquals(Short.MIN_VALUE, v.invokeMember("incrementShort", Short.MAX_VALUE).asShort());
+            assertEquals("b", v.invokeMember("nextChar", 'a').asString());
+            assertEquals(Integer.MIN_VALUE, v.invokeMember("addInt", Integer.MAX_VALUE, 1).asInt());
+            assertEquals(Long.MAX_VALUE, v.invokeMember("addLong", Long.MAX_VALUE - 1, 1L).asLong());
+            assertEquals(0.25f, v.invokeMember("half", 0.5f).asFloat(), 0f);
+            assertEquals(1e300, v.invokeMember("half", 2e300).asDouble(), 0d);
+            assertTrue(v.invokeMember("noResult").isNull());
+
+            Value statics = v.getMetaObject().getMember("static");
+            assertEquals(1 + 2 + 3 + 'a' + 5 + 6 + 7 + 8, statics.invokeMember("mix", true, (byte) 2, (short) 3, 'a', 5, 6L, 7.5f, 8.5d).asLong());
+        }
+    }
+
+    @Test
+    public void testPrimitiveFields() {
+        try (Context context = createContext()) {
+            Primitives p = new Primitives();
+            Value v = context.asValue(p);
+            v.putMember("z", true);
+            v.putMember("b", (byte) -1);
+            v.putMember("s", (short) -2);
+            v.putMember("c", 'x');
+            v.putMember("i", -3);
+            v.putMember("j", Long.MIN_VALUE);
+            v.putMember("f", 1.5f);
+            v.putMember("d", -2.5d);
+            assertTrue(p.z);
+            assertEquals(-1, p.b);
+            assertEquals(-2, p.s);
+            assertEquals('x', p.c);
+            assertEquals(-3, p.i);
+            assertEquals(Long.MIN_VALUE, p.j);
+            assertEquals(1.5f, p.f, 0f);
+            assertEquals(-2.5d, p.d, 0d);
+
+            assertTrue(v.getMember("z").asBoolean());
+            assertEquals(-1, v.getMember("b").asByte());
+            assertEquals(-2, v.getMember("s").asShort());
+            assertEquals("x", v.getMember("c").asString());
+            assertEquals(-3, v.getMember("i").asInt());
+            assertEquals(Long.MIN_VALUE, v.getMember("j").asLong());
+            assertEquals(1.5f, v.getMember("f").asFloat(), 0f);
+            assertEquals(-2.5d, v.getMember("d").asDouble(), 0d);
+
+            Value statics = v.getMetaObject().getMember("static");
+            statics.putMember("staticInt", 42);
+            assertEquals(42, Primitives.staticInt);
+            assertEquals(42, statics.getMember("staticInt").asInt());
+        }
+    }
+
+    public interface WithStaticMethod {
+
+        int value();
+
+        static int twice(int value) {
+            return value * 2;
+        }
+
+        default int thrice() {
+            return value() * 3;
+        }
+    }
+
+    public static class WithStaticMethodImpl implements WithStaticMethod {
+
+        public int value() {
+            return 7;
+        }
+    }
+
+    @Test
+    public void testInterfaceMethods() {
+        try (Context context = createContext()) {
+            Value statics = context.asValue(WithStaticMethod.class).getMember("static");
+            assertEquals(42, statics.invokeMember("twice", 21).asInt());
+
+            Value v = context.asValue(new WithStaticMethodImpl());
+            assertEquals(7, v.invokeMember("value").asInt());
+            assertEquals(21, v.invokeMember("thrice").asInt());
+        }
+    }
+
+    /*
+     * More public members than fit into a single accessor class.
+     */
+    public static class ManyMembers {
+        public int f000, f001, f002, f003, f004, f005, f006, f007, f008, f009;
+        public int f010, f011, f012, f013, f014, f015, f016, f017, f018, f019;
+        public int f020, f021, f022, f023, f024, f025, f026, f027, f028, f029;
+        public int f030, f031, f032, f033, f034, f035, f036, f037, f038, f039;
+        public int f040, f041, f042, f043, f044, f045, f046, f047, f048, f049;
+        public int f050, f051, f052, f053, f054, f055, f056, f057, f058, f059;
+        public int f060, f061, f062, f063, f064, f065, f066, f067, f068, f069;
+        public int f070, f071, f072, f073, f074, f075, f076, f077, f078, f079;
+        public int f080, f081, f082, f083, f084, f085, f086, f087, f088, f089;
+        public int f090, f091, f092, f093, f094, f095, f096, f097, f098, f099;
+        public int f100, f101, f102, f103, f104, f105, f106, f107, f108, f109;
+        public int f110, f111, f112, f113, f114, f115, f116, f117, f118, f119;
+        public int f120, f121, f122, f123, f124, f125, f126, f127, f128, f129;
+        public int f130, f131, f132, f133, f134, f135, f136, f137, f138, f139;
+        public int f140, f141, f142, f143, f144, f145, f146, f147, f148, f149;
+        public int f150, f151, f152, f153, f154, f155, f156, f157, f158, f159;
+        public int f160, f161, f162, f163, f164, f165, f166, f167, f168, f169;
+        public int f170, f171, f172, f173, f174, f175, f176, f177, f178, f179;
+        public int f180, f181, f182, f183, f184, f185, f186, f187, f188, f189;
+        public int f190, f191, f192, f193, f194, f195, f196, f197, f198, f199;
+        public int f200, f201, f202, f203, f204, f205, f206, f207, f208, f209;
+        public int f210, f211, f212, f213, f214, f215, f216, f217, f218, f219;
+        public int f220, f221, f222, f223, f224, f225, f226, f227, f228, f229;
+        public int f230, f231, f232, f233, f234, f235, f236, f237, f238, f239;
+        public int f240, f241, f242, f243, f244, f245, f246, f247, f248, f249;
+        public int f250, f251, f252, f253, f254, f255, f256, f257, f258, f259;
+        public int f260, f261, f262, f263, f264, f265, f266, f267, f268, f269;
+        public int f270, f271, f272, f273, f274, f275, f276, f277, f278, f279;
+        public int f280, f281, f282, f283, f284, f285, f286, f287, f288, f289;
+        public int f290, f291, f292, f293, f294, f295, f296, f297, f298, f299;
+    }
+
+    @Test
+    public void testManyMembers() throws ReflectiveOperationException {
+        try (Context context = createContext()) {
+            ManyMembers m = new ManyMembers();
+            Value v = context.asValue(m);
+            int count = ManyMembers.class.getFields().length;
+            assertTrue(count > 256);
+            for (int i = 0; i < count; i++) {
+                v.putMember(String.format("f%03d", i), i);
+            }
+            for (int i = 0; i < count; i++) {
+                String name = String.format("f%03d", i);
+                assertEquals(i, ManyMembers.class.getField(name).getInt(m));
+                assertEquals(i, v.getMember(name).asInt());
+            }
+        }
+    }
+
+    @Test
+    public void testBootstrapClasses() {
+        try (Context context = createContext()) {
+            assertNull(ArrayList.class.getClassLoader());
+            List<Object> list = new ArrayList<>();
+            Value v = context.asValue(list);
+            v.invokeMember("add", 42);
+            v.invokeMember("add", 0, "first");
+            assertEquals(2, v.invokeMember("size").asInt());
+            assertEquals("first", v.invokeMember("get", 0).asString());
+            assertEquals(42, v.invokeMember("get", 1).asInt());
+
+            Value math = context.asValue(Math.class).getMember("static");
+            assertEquals(3, math.invokeMember("max", 2, 3).asInt());
+            assertEquals(Math.PI, math.getMember("PI").asDouble(), 0d);
+
+            Value builder = context.asValue(StringBuilder.class).getMember("static").newInstance("ab");
+            builder.invokeMember("append", 'c');
+            assertEquals("abc", builder.invokeMember("toString").asString());
+        }
+    }
+
+    public static class Thrower {
+
+        public Thrower() {
+        }
+
+        public Thrower(boolean fail) throws IOException {
+            if (fail) {
+                throw new IOException("constructor");
+            }
+        }
+
+        public void throwChecked(String message) throws IOException {
+            throw new IOException(message);
+        }
+
+        public int throwUnchecked(int value) {
+            throw new IllegalArgumentException(String.valueOf(value));
+        }
+    }
+
+    @Test
+    public void testExceptions() {
+        try (Context context = createContext()) {
+            Value v = context.asValue(new Thrower());
+            try {
+                v.invokeMember("throwChecked", "checked");
+                fail();
+            } catch (PolyglotException e) {
+                // checked exceptions are not wrapped
+                assertTrue(e.isHostException());
+                assertSame(IOException.class, e.asHostException().getClass());
+                assertEquals("checked", e.asHostException().getMessage());
+                assertTopHostFrame(e, "throwChecked", "invokeMember");
+            }
+            try {
+                v.invokeMember("throwUnchecked", 42);
+                fail();
+            } catch (PolyglotException e) {
+                assertTrue(e.isHostException());
+                assertTrue(e.asHostException() instanceof IllegalArgumentException);
+                assertEquals("42", e.asHostException().getMessage());
+                assertTopHostFrame(e, "throwUnchecked", "invokeMember");
+            }
+            try {
+                v.getMetaObject().getMember("static").newInstance(true);
+                fail();
+            } catch (PolyglotException e) {
+                assertTrue(e.isHostException());
+                assertTrue(e.asHostException() instanceof IOException);
+                assertTopHostFrame(e, "<init>", "newInstance");
+            }
+        }
+    }
+
+    /*
+     * The polyglot stack trace continues with the frame of the Value method that called the host
+     * member. Frames of the generated accessor classes in between are filtered.
+     */
+    private static void assertTopHostFrame(PolyglotException e, String hostMethodName, String valueMethodName) {
+        for (StackFrame frame : e.getPolyglotStackTrace()) {
+            assertFalse(frame.toString(), frame.isHostFrame() && frame.toHostFrame().getClassName().startsWith(ACCESSOR_CLASS_PREFIX));
+        }
+        Iterator<StackFrame> frames = e.getPolyglotStackTrace().iterator();
+        StackFrame frame = frames.next();
+        assertTrue(frame.isHostFrame());
+        assertEquals(Thrower.class.getName(), frame.toHostFrame().getClassName());
+        assertEquals(hostMethodName, frame.toHostFrame().getMethodName());
+
+        frame = frames.next();
+        assertTrue(frame.isHostFrame());
+        assertEquals(Value.class.getName(), frame.toHostFrame().getClassName());
+        assertEquals(valueMethodName, frame.toHostFrame().getMethodName());
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2021, 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.api.test.strings;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import com.oracle.truffle.api.interop.InteropLibrary;
+import com.oracle.truffle.api.interop.UnsupportedMessageException;
+import com.oracle.truffle.api.strings.TruffleString;
+import com.oracle.truffle.api.strings.TruffleString.Encoding;
+
+public class TruffleStringTest {
+
+    private static final String[] STRINGS = {"", "a", "abc", "\u00e4\u00f6\u00fc", "\u20ac uro", "\ud83d\ude00 smile", "mixed \u00ff and \u0100"};
+
+    @Test
+    public void testFromJavaString() {
+        for (String s : STRINGS) {
+            TruffleString ts = TruffleString.fromJavaString(s);
+            assertEquals(s.length(), ts.length());
+            assertEquals(s, ts.toJavaString());
+            assertEquals(s.hashCode(), ts.hashCode());
+            for (int i = 0; i < s.length(); i++) {
+                assertEquals(s.charAt(i), ts.charAt(i));
+            }
+        }
+        String s = "abc";
+        assertSame(s, TruffleString.fromJavaString(s).toJavaString());
+    }
+
+    @Test
+    public void testCompact() {
+        assertTrue(TruffleString.fromJavaString("\u00e4\u00f6\u00fc").isCompact());
+        assertFalse(TruffleString.fromJavaString("\u20ac").isCompact());
+        TruffleString mixed = TruffleString.fromJavaString("\u00e4\u20ac");
+        assertTrue(mixed.substring(0, 1).isCompact());
+        assertEquals(TruffleString.fromJavaString("\u00e4"), mixed.substring(0, 1));
+    }
+
+    @Test
+    public void testEncodings() {
+        for (String s : STRINGS) {
+            TruffleString expected = TruffleString.fromJavaString(s);
+            assertRoundTrip(expected, s.getBytes(StandardCharsets.UTF_8), Encoding.UTF_8);
+            assertRoundTrip(expected, s.getBytes(StandardCharsets.UTF_16LE), Encoding.UTF_16);
+            assertRoundTrip(expected, utf32(s), Encoding.UTF_32);
+            if (expected.isCompact()) {
+                assertRoundTrip(expected, s.getBytes(StandardCharsets.ISO_8859_1), Encoding.ISO_8859_1);
+            }
+        }
+    }
+
+    private static void assertRoundTrip(TruffleString expected, byte[] bytes, Encoding encoding) {
+        TruffleString ts = TruffleString.fromByteArray(bytes, encoding);
+        assertEquals(expected.length(), ts.length());
+        assertEquals(expected.isCompact(), ts.isCompact());
+        assertArrayEquals(bytes, ts.getBytes(encoding));
+        assertEquals(expected, ts);
+        assertEquals(expected.hashCode(), ts.hashCode());
+        assertArrayEquals(bytes, expected.getBytes(encoding));
+        assertArrayEquals(bytes, ts.getBytes(encoding));
+    }
+
+    private static byte[] utf32(String s) {
+        int[] codePoints = s.codePoints().toArray();
+        byte[] bytes = new byte[codePoints.length * 4];
+        for (int i = 0; i < codePoints.length; i++) {
+            for (int j = 0; j < 4; j++) {
+                bytes[i * 4 + j] = (byte) (codePoints[i] >> (j * 8));
+            }
+        }
+        return bytes;
+    }
+
+    @Test
+    public void testMalformedInput() {
+        TruffleString ts = TruffleString.fromByteArray(new byte[]{'a', (byte) 0xC3, 'b', (byte) 0xFF}, Encoding.UTF_8);
+        assertEquals("a\ufffdb\ufffd", ts.toJavaString());
+        assertEquals("a\ufffd", TruffleString.fromByteArray(new byte[]{'a', 0, 'b'}, Encoding.UTF_16).toJavaString());
+        assertEquals("\ufffd", TruffleString.fromByteArray(new byte[]{0, 0, 0x11, 0}, Encoding.UTF_32).toJavaString());
+        TruffleString unpaired = TruffleString.fromJavaString("a\ud800");
+        assertArrayEquals(new byte[]{'a', (byte) 0xEF, (byte) 0xBF, (byte) 0xBD}, unpaired.getBytes(Encoding.UTF_8));
+        assertEquals(unpaired, TruffleString.fromByteArray(unpaired.getBytes(Encoding.UTF_16), Encoding.UTF_16));
+        assertArrayEquals(new byte[]{'a', '?'}, TruffleString.fromJavaString("a\u20ac").getBytes(Encoding.ISO_8859_1));
+    }
+
+    @Test
+    public void testConcat() {
+        TruffleString result = TruffleString.fromJavaString("");
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            String s = STRINGS[i % STRINGS.length];
+            result = result.concat(TruffleString.fromByteArray(s.getBytes(StandardCharsets.UTF_8), Encoding.UTF_8));
+            expected.append(s);
+        }
+        assertEquals(expected.length(), result.length());
+        assertEquals(expected.toString(), result.toJavaString());
+        assertEquals(expected.toString().hashCode(), result.hashCode());
+
+        TruffleString deep = TruffleString.fromJavaString("x");
+        for (int i = 0; i < 100000; i++) {
+            deep = TruffleString.fromJavaString("\u00e4").concat(deep);
+        }
+        assertEquals(100001, deep.length());
+        assertTrue(deep.isCompact());
+        assertEquals('x', deep.charAt(100000));
+    }
+
+    @Test
+    public void testSubstring() {
+        TruffleString ts = TruffleString.fromJavaString("hello \u20ac world");
+        assertEquals(TruffleString.fromJavaString("hello"), ts.substring(0, 5));
+        assertEquals(TruffleString.fromJavaString("\u20ac world"), ts.substring(6, ts.length()));
+        assertSame(ts, ts.substring(0, ts.length()));
+        assertEquals(0, ts.substring(3, 3).length());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testSubstringOutOfBounds() {
+        TruffleString.fromJavaString("abc").substring(2, 4);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testCharAtOutOfBounds() {
+        TruffleString.fromJavaString("abc").charAt(3);
+    }
+
+    @Test
+    public void testIndexOf() {
+        for (String s : new String[]{"abcabc", "\u20acbc\u20acbc"}) {
+            TruffleString ts = TruffleString.fromJavaString(s);
+            assertEquals(1, ts.indexOf(0, ts.length(), 'b'));
+            assertEquals(4, ts.indexOf(2, ts.length(), 'b'));
+            assertEquals(-1, ts.indexOf(2, 4, 'b'));
+            assertEquals(1, ts.indexOf(0, ts.length(), 'x', 'c', 'b'));
+            assertEquals(-1, ts.indexOf(0, ts.length(), '\u0100'));
+            assertEquals(1, ts.indexOf(TruffleString.fromJavaString("bc"), 0, ts.length()));
+            assertEquals(4, ts.indexOf(TruffleString.fromJavaString("bc"), 2, ts.length()));
+            assertEquals(-1, ts.indexOf(TruffleString.fromJavaString("bc"), 2, 5));
+            assertEquals(2, ts.indexOf(TruffleString.fromJavaString(""), 2, 2));
+            assertEquals(-1, ts.indexOf(TruffleString.fromJavaString("\u0100"), 0, ts.length()));
+        }
+        TruffleString ts = TruffleString.fromJavaString("abc\u20ac");
+        assertEquals(2, ts.indexOf(TruffleString.fromJavaString("c\u20ac"), 0, ts.length()));
+    }
+
+    @Test
+    public void testRegionEquals() {
+        TruffleString compact = TruffleString.fromJavaString("xabcx");
+        TruffleString nonCompact = TruffleString.fromJavaString("\u20acabc");
+        assertTrue(compact.regionEquals(1, nonCompact, 1, 3));
+        assertTrue(nonCompact.regionEquals(1, compact, 1, 3));
+        assertTrue(compact.regionEquals(1, TruffleString.fromJavaString("abc"), 0, 3));
+        assertFalse(compact.regionEquals(0, nonCompact, 0, 3));
+        assertFalse(compact.regionEquals(3, nonCompact, 1, 3));
+        assertFalse(compact.regionEquals(-1, nonCompact, 1, 1));
+    }
+
+    @Test
+    public void testCompareTo() {
+        for (String a : STRINGS) {
+            for (String b : STRINGS) {
+                int expected = Integer.signum(a.compareTo(b));
+                TruffleString ta = TruffleString.fromJavaString(a);
+                TruffleString tb = TruffleString.fromByteArray(b.getBytes(StandardCharsets.UTF_8), Encoding.UTF_8);
+                assertEquals(expected, Integer.signum(ta.compareTo(tb)));
+                assertEquals(a.equals(b), ta.equals(tb));
+            }
+        }
+        assertNotEquals(TruffleString.fromJavaString("\u00ff"), TruffleString.fromJavaString("\u0100"));
+    }
+
+    @Test
+    public void testInterop() throws UnsupportedMessageException {
+        TruffleString ts = TruffleString.fromByteArray("interop \u20ac".getBytes(StandardCharsets.UTF_8), Encoding.UTF_8);
+        InteropLibrary interop = InteropLibrary.getUncached();
+        assertTrue(InteropLibrary.isValidValue(ts));
+        assertTrue(interop.isString(ts));
+        assertEquals("interop \u20ac", interop.asString(ts));
+        assertSame(interop.asString(ts), interop.asString(ts));
+        assertFalse(interop.hasMetaObject(ts));
+    }
+}
@@ -275,4 +275,272 @@ public interface Frame {
     default void clear(FrameSlot slot) {
         throw new UnsupportedOperationException();
     }
+
+    /**
+     * Read access to an indexed local variable of type {@link Object}. Indexed slots are declared
+     * with {@link FrameDescriptor#newBuilder()} and are accessed without a {@link FrameSlot} object.
+     * If the index is a partial evaluation constant, the access is as efficient as an access to a
+     * field of the frame.
+     *
+     * @param slot the index of the local variable
+     * @return the current value of the local variable
+     * @throws FrameSlotTypeException if the current value is not of type {@link Object}
+     * @since 21.3
+     */
+    default Object getObject(int slot) throws FrameSlotTypeException {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Write access to an indexed local variable of type {@link Object}.
+     *
+     * @param slot the index of the local variable
+     * @param value the new value of the local variable
+     * @since 21.3
+     */
+    default void setObject(int slot, Object value) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Read access to an indexed local variable of type byte.
+     *
+     * @param slot the index of the local variable
+     * @return the current value of the local variable
+     * @throws FrameSlotTypeException if the current value is not of type byte
+     * @since 21.3
+     */
+    default byte getByte(int slot) throws FrameSlotTypeException {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Write access to an indexed local variable of type byte.
+     *
+     * @param slot the index of the local variable
+     * @param value the new value of the local variable
+     * @since 21.3
+     */
+    default void setByte(int slot, byte value) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Read access to an indexed local variable of type boolean.
+     *
+     * @param slot the index of the local variable
+     * @return the current value of the local variable
+     * @throws FrameSlotTypeException if the current value is not of type boolean
+     * @since 21.3
+     */
+    default boolean getBoolean(int slot) throws FrameSlotTypeException {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Write access to an indexed local variable of type boolean.
+     *
+     * @param slot the index of the local variable
+     * @param value the new value of the local variable
+     * @since 21.3
+     */
+    default void setBoolean(int slot, boolean value) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Read access to an indexed local variable of type int.
+     *
+     * @param slot the index of the local variable
+     * @return the current value of the local variable
+     * @throws FrameSlotTypeException if the current value is not of type int
+     * @since 21.3
+     */
+    default int getInt(int slot) throws FrameSlotTypeException {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Write access to an indexed local variable of type int.
+     *
+     * @param slot the index of the local variable
+     * @param value the new value of the local variable
+     * @since 21.3
+     */
+    default void setInt(int slot, int value) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Read access to an indexed local variable of type long.
+     *
+     * @param slot the index of the local variable
+     * @return the current value of the local variable
+     * @throws FrameSlotTypeException if the current value is not of type long
+     * @since 21.3
+     */
+    default long getLong(int slot) throws FrameSlotTypeException {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Write access to an indexed local variable of type long.
+     *
+     * @param slot the index of the local variable
+     * @param value the new value of the local variable
+     * @since 21.3
+     */
+    default void setLong(int slot, long value) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Read access to an indexed local variable of type float.
+     *
+     * @param slot the index of the local variable
+     * @return the current value of the local variable
+     * @throws FrameSlotTypeException if the current value is not of type float
+     * @since 21.3
+     */
+    default float getFloat(int slot) throws FrameSlotTypeException {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Write access to an indexed local variable of type float.
+     *
+     * @param slot the index of the local variable
+     * @param value the new value of the local variable
+     * @since 21.3
+     */
+    default void setFloat(int slot, float value) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Read access to an indexed local variable of type double.
+     *
+     * @param slot the index of the local variable
+     * @return the current value of the local variable
+     * @throws FrameSlotTypeException if the current value is not of type double
+     * @since 21.3
+     */
+    default double getDouble(int slot) throws FrameSlotTypeException {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Write access to an indexed local variable of type double.
+     *
+     * @param slot the index of the local variable
+     * @param value the new value of the local variable
+     * @since 21.3
+     */
+    default void setDouble(int slot, double value) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Read access to an indexed local variable of any type. Primitive values are boxed.
+     *
+     * @param slot the index of the local variable
+     * @return the current value of the local variable or <code>null</code> if the slot was cleared
+     * @since 21.3
+     */
+    default Object getValue(int slot) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Returns the {@link FrameSlotKind#tag tag} of the kind of the value currently stored in an
+     * indexed local variable. Slots that were never written have the tag of
+     * {@link FrameSlotKind#Object}, cleared slots the tag of {@link FrameSlotKind#Illegal}.
+     *
+     * @param slot the index of the local variable
+     * @since 21.3
+     */
+    default byte getTag(int slot) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Check whether the given indexed slot is of type {@link Object}.
+     *
+     * @param slot the index of the local variable
+     * @since 21.3
+     */
+    default boolean isObject(int slot) {
+        return getTag(slot) == FrameSlotKind.Object.tag;
+    }
+
+    /**
+     * Check whether the given indexed slot is of type byte.
+     *
+     * @param slot the index of the local variable
+     * @since 21.3
+     */
+    default boolean isByte(int slot) {
+        return getTag(slot) == FrameSlotKind.Byte.tag;
+    }
+
+    /**
+     * Check whether the given indexed slot is of type boolean.
+     *
+     * @param slot the index of the local variable
+     * @since 21.3
+     */
+    default boolean isBoolean(int slot) {
+        return getTag(slot) == FrameSlotKind.Boolean.tag;
+    }
+
+    /**
+     * Check whether the given indexed slot is of type int.
+     *
+     * @param slot the index of the local variable
+     * @since 21.3
+     */
+    default boolean isInt(int slot) {
+        return getTag(slot) == FrameSlotKind.Int.tag;
+    }
+
+    /**
+     * Check whether the given indexed slot is of type long.
+     *
+     * @param slot the index of the local variable
+     * @since 21.3
+     */
+    default boolean isLong(int slot) {
+        return getTag(slot) == FrameSlotKind.Long.tag;
+    }
+
+    /**
+     * Check whether the given indexed slot is of type float.
+     *
+     * @param slot the index of the local variable
+     * @since 21.3
+     */
+    default boolean isFloat(int slot) {
+        return getTag(slot) == FrameSlotKind.Float.tag;
+    }
+
+    /**
+     * Check whether the given indexed slot is of type double.
+     *
+     * @param slot the index of the local variable
+     * @since 21.3
+     */
+    default boolean isDouble(int slot) {
+        return getTag(slot) == FrameSlotKind.Double.tag;
+    }
+
+    /**
+     * Clears the given indexed slot in the frame. Subsequent reads of this slot, unless re-written
+     * to, will fail with {@link FrameSlotTypeException}. See {@link #clear(FrameSlot)}.
+     *
+     * @param slot the index of the local variable
+     * @since 21.3
+     */
+    default void clear(int slot) {
+        throw new UnsupportedOperationException();
+    }
 }
@@ -42,6 +42,7 @@ package com.oracle.truffle.api.frame;
 
 import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
@@ -63,6 +64,14 @@ import com.oracle.truffle.api.impl.TVMCI;
 /**
  * Descriptor of the slots of frame objects. Multiple frame instances are associated with one such
  * descriptor. The FrameDescriptor is thread-safe.
+ * <p>
+ * A descriptor has two kinds of slots. Indexed slots are declared once using a {@link Builder}
+ * created with {@link #newBuilder()} and are accessed with the <code>int</code> based methods of
+ * {@link Frame}, for example {@link Frame#getInt(int)}. Their number never changes after the
+ * descriptor is built, so accessing them requires neither a {@link FrameSlot} object nor the
+ * {@link #getVersion() version} assumption. {@link FrameSlot Frame slots} can be added to any
+ * descriptor at any time with {@link #addFrameSlot(Object)}; they are stored after the indexed
+ * slots.
  *
  * @since 0.8 or earlier
  */
@@ -74,6 +83,7 @@ public final class FrameDescriptor implements Cloneable {
     @CompilationFinal private volatile Assumption version;
     private EconomicMap<Object, Assumption> identifierToNotInFrameAssumptionMap;
     @CompilationFinal private volatile int size;
+    @CompilationFinal(dimensions = 1) private final byte[] indexedSlotTags;
     private final Object lock;
 
     /**
@@ -86,6 +96,8 @@ public final class FrameDescriptor implements Cloneable {
     boolean materializeCalled;
 
     private static final String NEVER_PART_OF_COMPILATION_MESSAGE = "interpreter-only. includes hashmap operations.";
+    private static final byte[] EMPTY_BYTE_ARRAY = {};
+    @CompilationFinal(dimensions = 1) private static final FrameSlotKind[] KINDS = FrameSlotKind.values();
 
     /**
      * Constructs empty descriptor. The {@link #getDefaultValue()} is <code>null</code>.
@@ -103,18 +115,86 @@ public final class FrameDescriptor implements Cloneable {
      * @since 0.8 or earlier
      */
     public FrameDescriptor(Object defaultValue) {
-        this(defaultValue, null);
+        this(defaultValue, EMPTY_BYTE_ARRAY);
     }
 
-    private FrameDescriptor(Object defaultValue, Object lock) {
+    private FrameDescriptor(Object defaultValue, byte[] indexedSlotTags) {
         CompilerAsserts.neverPartOfCompilation("do not create a FrameDescriptor from compiled code");
         this.defaultValue = defaultValue;
         this.slots = new ArrayList<>();
         this.identifierToSlotMap = EconomicMap.create();
-        this.lock = lock == null ? this : lock;
+        this.indexedSlotTags = indexedSlotTags;
+        this.size = indexedSlotTags.length;
+        this.lock = this;
         newVersion(this);
     }
 
+    /**
+     * Creates a builder for a descriptor with a fixed number of indexed slots.
+     *
+     * @since 21.3
+     */
+    public static Builder newBuilder() {
+        return new Builder(Builder.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a builder for a descriptor with a fixed number of indexed slots. The capacity is the
+     * expected number of indexed slots and is only used to avoid resizing while building.
+     *
+     * @param capacity the expected number of indexed slots
+     * @since 21.3
+     */
+    public static Builder newBuilder(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("negative capacity: " + capacity);
+        }
+        return new Builder(capacity);
+    }
+
+    /**
+     * Returns the number of indexed slots of this descriptor. The indexed slots have the indices
+     * <code>0</code> to <code>getNumberOfSlots() - 1</code>. The number of indexed slots is fixed
+     * when the descriptor is {@link Builder#build() built} and can therefore be folded by partial
+     * evaluation without any assumption.
+     *
+     * @since 21.3
+     */
+    public int getNumberOfSlots() {
+        return indexedSlotTags.length;
+    }
+
+    /**
+     * Returns the current kind of an indexed slot. The kind is initially the kind given to the
+     * {@link Builder}. Unlike {@link #getFrameSlotKind(FrameSlot)}, reading the kind in compiled code
+     * does not depend on the {@link #getVersion() version} assumption.
+     *
+     * @param index the index of the slot
+     * @since 21.3
+     */
+    public FrameSlotKind getSlotKind(int index) {
+        return KINDS[indexedSlotTags[index]];
+    }
+
+    /**
+     * Changes the kind of an indexed slot. The kind of an indexed slot is a hint for the language
+     * and the compiler and does not restrict the values that can be stored in the slot. Changing
+     * the kind deoptimizes the current compilation but does not invalidate the {@link #getVersion()
+     * version} assumption of this descriptor. Other compilations that read the old kind are
+     * expected to deoptimize on their own, for example because a
+     * {@link FrameSlotTypeException} is thrown by a typed access.
+     *
+     * @param index the index of the slot
+     * @param kind the new kind of the slot
+     * @since 21.3
+     */
+    public void setSlotKind(int index, FrameSlotKind kind) {
+        if (indexedSlotTags[index] != kind.tag) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            indexedSlotTags[index] = kind.tag;
+        }
+    }
+
     /**
      * Adds frame slot. Delegates to
      * {@link #addFrameSlot(java.lang.Object, java.lang.Object, FrameSlotKind) addFrameSlot}
@@ -355,8 +435,9 @@ public final class FrameDescriptor implements Cloneable {
     }
 
     /**
-     * Returns the size of an array which is needed for storing all the frame slots. (The number may
-     * be bigger than the number of slots, if some slots are removed.)
+     * Returns the size of an array which is needed for storing all the frame slots, including the
+     * {@link #getNumberOfSlots() indexed slots}. (The number may be bigger than the number of
+     * slots, if some slots are removed.)
      *
      * @return the size of the frame
      * @since 0.8 or earlier
@@ -468,7 +549,8 @@ public final class FrameDescriptor implements Cloneable {
     /**
      * Deeper copy of the descriptor. Copies all slots in the descriptor, but only their
      * {@linkplain FrameSlot#getIdentifier() identifier} and {@linkplain FrameSlot#getInfo() info}
-     * but not their {@linkplain FrameDescriptor#getFrameSlotKind(FrameSlot) kind}!
+     * but not their {@linkplain FrameDescriptor#getFrameSlotKind(FrameSlot) kind}! The copy has the
+     * same number of indexed slots, all with the kind {@link FrameSlotKind#Illegal}.
      *
      * @return new instance of a descriptor with copies of values from this one
      * @since 0.8 or earlier
@@ -476,7 +558,7 @@ public final class FrameDescriptor implements Cloneable {
     public FrameDescriptor copy() {
         CompilerAsserts.neverPartOfCompilation(NEVER_PART_OF_COMPILATION_MESSAGE);
         synchronized (lock) {
-            FrameDescriptor clonedFrameDescriptor = new FrameDescriptor(this.defaultValue);
+            FrameDescriptor clonedFrameDescriptor = new FrameDescriptor(this.defaultValue, newIllegalTags(indexedSlotTags.length));
             for (int i = 0; i < slots.size(); i++) {
                 FrameSlot slot = slots.get(i);
                 clonedFrameDescriptor.addFrameSlot(slot.getIdentifier(), slot.getInfo(), FrameSlotKind.Illegal);
@@ -485,6 +567,15 @@ public final class FrameDescriptor implements Cloneable {
         }
     }
 
+    private static byte[] newIllegalTags(int length) {
+        if (length == 0) {
+            return EMPTY_BYTE_ARRAY;
+        }
+        byte[] tags = new byte[length];
+        Arrays.fill(tags, FrameSlotKind.Illegal.tag);
+        return tags;
+    }
+
     /**
      * Invalidates the current, and create a new version assumption.
      */
@@ -572,6 +663,14 @@ public final class FrameDescriptor implements Cloneable {
             sb.append("FrameDescriptor@").append(Integer.toHexString(hashCode()));
             sb.append("{");
             boolean comma = false;
+            for (int i = 0; i < indexedSlotTags.length; i++) {
+                if (comma) {
+                    sb.append(", ");
+                } else {
+                    comma = true;
+                }
+                sb.append(i).append(":").append(KINDS[indexedSlotTags[i]]);
+            }
             for (FrameSlot slot : slots) {
                 if (comma) {
                     sb.append(", ");
@@ -584,4 +683,90 @@ public final class FrameDescriptor implements Cloneable {
             return sb.toString();
         }
     }
+
+    /**
+     * Builder for frame descriptors with a fixed number of indexed slots. A builder is created with
+     * {@link FrameDescriptor#newBuilder()}.
+     *
+     * <pre>
+     * FrameDescriptor.Builder builder = FrameDescriptor.newBuilder();
+     * int counter = builder.addSlot(FrameSlotKind.Int);
+     * int temps = builder.addSlots(3, FrameSlotKind.Illegal);
+     * FrameDescriptor descriptor = builder.build();
+     * </pre>
+     *
+     * @since 21.3
+     */
+    public static final class Builder {
+
+        private static final int DEFAULT_CAPACITY = 8;
+
+        private Object defaultValue;
+        private byte[] tags;
+        private int size;
+
+        Builder(int capacity) {
+            this.tags = new byte[capacity];
+        }
+
+        private void ensureCapacity(int count) {
+            if (size + count > tags.length) {
+                tags = Arrays.copyOf(tags, Math.max(size + count, tags.length * 2));
+            }
+        }
+
+        /**
+         * Sets the value that all slots of frames with the new descriptor initially hold.
+         *
+         * @param value the default value, may be <code>null</code>
+         * @since 21.3
+         */
+        public Builder defaultValue(Object value) {
+            this.defaultValue = value;
+            return this;
+        }
+
+        /**
+         * Adds an indexed slot with the given initial kind.
+         *
+         * @param kind the initial kind of the slot
+         * @return the index of the new slot
+         * @since 21.3
+         */
+        public int addSlot(FrameSlotKind kind) {
+            Objects.requireNonNull(kind, "kind");
+            ensureCapacity(1);
+            tags[size] = kind.tag;
+            return size++;
+        }
+
+        /**
+         * Adds a number of consecutive indexed slots with the same initial kind.
+         *
+         * @param count the number of slots to add
+         * @param kind the initial kind of the slots
+         * @return the index of the first new slot
+         * @since 21.3
+         */
+        public int addSlots(int count, FrameSlotKind kind) {
+            Objects.requireNonNull(kind, "kind");
+            if (count < 0) {
+                throw new IllegalArgumentException("negative slot count: " + count);
+            }
+            ensureCapacity(count);
+            int first = size;
+            Arrays.fill(tags, first, first + count, kind.tag);
+            size += count;
+            return first;
+        }
+
+        /**
+         * Creates the descriptor. The builder may be used to create further descriptors.
+         *
+         * @since 21.3
+         */
+        public FrameDescriptor build() {
+            return new FrameDescriptor(defaultValue, size == 0 ? EMPTY_BYTE_ARRAY : Arrays.copyOf(tags, size));
+        }
+    }
 }
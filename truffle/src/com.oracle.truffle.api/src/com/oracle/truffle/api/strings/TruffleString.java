@@ -0,0 +1,875 @@
+/*
+ * Copyright (c) 2021, 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.api.strings;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+import com.oracle.truffle.api.ArrayUtils;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.memory.MemoryFence;
+
+/**
+ * An immutable string that can be shared between languages and interop without copying or
+ * transcoding it at every boundary. Indices and lengths are expressed in UTF-16 code units, like
+ * for {@link String}. TRegex currently matches Truffle strings on their cached
+ * {@link #toJavaString() Java string}, which is created by copying the string once.
+ * <p>
+ * Truffle strings are stored in a compacted representation: strings that only consist of code
+ * units up to <code>0xFF</code> use one byte per code unit, all other strings use one
+ * <code>char</code> per code unit. The representation is normalized, so two equal strings always
+ * use the same representation and can be compared with the array operations of
+ * {@link ArrayUtils}, which are intrinsified by the compiler.
+ * <p>
+ * Several operations are performed lazily and their results are cached in the string:
+ * <ul>
+ * <li>Strings created {@link #fromByteArray(byte[], Encoding) from encoded bytes} keep the
+ * original bytes. The bytes are scanned once on creation to compute the length of the string, but
+ * the decoded code units are only stored when the contents are accessed. Requesting the
+ * {@link #getBytes(Encoding) bytes} in the original encoding does not transcode the string.
+ * <li>The {@link #toJavaString() Java string} and the {@link #hashCode() hash code} are computed
+ * at most once.
+ * <li>{@link #concat(TruffleString) Concatenation} produces a rope that is flattened when its
+ * contents are accessed for the first time.
+ * </ul>
+ *
+ * @since 21.3
+ */
+public final class TruffleString implements Comparable<TruffleString> {
+
+    /**
+     * Encodings supported for converting Truffle strings from and to byte arrays. Multi-byte
+     * encodings use little-endian byte order without a byte order mark. Malformed input is
+     * replaced with <code>U+FFFD</code> when decoding, unpaired surrogates are replaced with
+     * <code>U+FFFD</code> when encoding, except for {@link #UTF_16} which preserves them.
+     *
+     * @since 21.3
+     */
+    public enum Encoding {
+        /**
+         * @since 21.3
+         */
+        UTF_8,
+        /**
+         * @since 21.3
+         */
+        UTF_16,
+        /**
+         * @since 21.3
+         */
+        UTF_32,
+        /**
+         * Code units that cannot be represented are replaced with <code>'?'</code> when encoding.
+         *
+         * @since 21.3
+         */
+        ISO_8859_1
+    }
+
+    private static final TruffleString EMPTY = new TruffleString(new byte[0], 0, true);
+
+    /*
+     * Concatenations up to this length are copied eagerly if both parts are flat, as the rope
+     * would use more memory than the flat copy.
+     */
+    private static final int FLAT_CONCAT_LENGTH = 32;
+
+    private static final int REPLACEMENT_CHARACTER = 0xFFFD;
+
+    /*
+     * The contents of the string: a byte[] with one ISO-8859-1 code unit per element if the string
+     * is compact, a char[] of UTF-16 code units otherwise, or an Encoded or a Concat instance that
+     * is replaced with one of the arrays on first access. All lazily computed fields are benign
+     * races: they are always recomputed to the same value and arrays are published after a store
+     * fence.
+     */
+    private Object data;
+    private final int length;
+    private final boolean compact;
+    private int hash;
+    private String javaString;
+    private Encoded encoded;
+
+    private TruffleString(Object data, int length, boolean compact) {
+        this.data = data;
+        this.length = length;
+        this.compact = compact;
+    }
+
+    /**
+     * Creates a Truffle string with the contents of a Java string. The Java string is retained and
+     * returned by {@link #toJavaString()}.
+     *
+     * @since 21.3
+     */
+    @TruffleBoundary
+    public static TruffleString fromJavaString(String string) {
+        int length = string.length();
+        if (length == 0) {
+            return EMPTY;
+        }
+        TruffleString result;
+        if (isCompactible(string)) {
+            result = new TruffleString(string.getBytes(StandardCharsets.ISO_8859_1), length, true);
+        } else {
+            result = new TruffleString(string.toCharArray(), length, false);
+        }
+        result.javaString = string;
+        return result;
+    }
+
+    /**
+     * Creates a Truffle string from a range of UTF-16 code units. The code units are copied.
+     *
+     * @since 21.3
+     */
+    @TruffleBoundary
+    public static TruffleString fromCharArray(char[] chars, int offset, int length) {
+        checkRange(chars.length, offset, offset + length);
+        if (length == 0) {
+            return EMPTY;
+        }
+        return fromChars(Arrays.copyOfRange(chars, offset, offset + length));
+    }
+
+    /**
+     * Creates a Truffle string from a byte array in the given encoding. The bytes are copied and,
+     * unless the encoding is {@link Encoding#ISO_8859_1}, scanned once to compute the length of the
+     * decoded string. The decoded code units are only stored when the contents of the string are
+     * accessed.
+     *
+     * @since 21.3
+     */
+    public static TruffleString fromByteArray(byte[] bytes, Encoding encoding) {
+        return fromByteArray(bytes, 0, bytes.length, encoding);
+    }
+
+    /**
+     * Creates a Truffle string from a range of a byte array in the given encoding. The bytes are
+     * copied and, unless the encoding is {@link Encoding#ISO_8859_1}, scanned once to compute the
+     * length of the decoded string. The decoded code units are only stored when the contents of the
+     * string are accessed.
+     *
+     * @since 21.3
+     */
+    @TruffleBoundary
+    public static TruffleString fromByteArray(byte[] bytes, int offset, int length, Encoding encoding) {
+        checkRange(bytes.length, offset, offset + length);
+        if (length == 0) {
+            return EMPTY;
+        }
+        Encoded source = new Encoded(encoding, Arrays.copyOfRange(bytes, offset, offset + length));
+        TruffleString result;
+        if (encoding == Encoding.ISO_8859_1) {
+            result = new TruffleString(source.bytes, length, true);
+        } else {
+            /*
+             * The length is needed eagerly, so this is a full decoding pass over the bytes. It only
+             * computes the length and the representation of the decoded string; the decoded
+             * contents are materialized on first access.
+             */
+            Decoder decoder = new Decoder(source);
+            int decodedLength = 0;
+            boolean decodedCompact = true;
+            while (decoder.hasNext()) {
+                int c = decoder.next();
+                decodedLength += Character.charCount(c);
+                decodedCompact &= c <= 0xFF;
+            }
+            result = new TruffleString(source, decodedLength, decodedCompact);
+        }
+        result.encoded = source;
+        return result;
+    }
+
+    /**
+     * Returns the number of UTF-16 code units of this string.
+     *
+     * @since 21.3
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Returns <code>true</code> if all code units of this string are at most <code>0xFF</code>
+     * and the string is therefore stored with one byte per code unit.
+     *
+     * @since 21.3
+     */
+    public boolean isCompact() {
+        return compact;
+    }
+
+    /**
+     * Returns the UTF-16 code unit at the given index.
+     *
+     * @throws IndexOutOfBoundsException if the index is negative or not less than the
+     *             {@link #length() length}.
+     * @since 21.3
+     */
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw indexOutOfBounds();
+        }
+        return read(materialize(), index);
+    }
+
+    /**
+     * Returns the concatenation of this string and the given string. The result is a rope that
+     * refers to both strings and is only flattened when its contents are accessed.
+     *
+     * @since 21.3
+     */
+    public TruffleString concat(TruffleString other) {
+        if (other.length == 0) {
+            return this;
+        } else if (length == 0) {
+            return other;
+        }
+        int resultLength = length + other.length;
+        if (resultLength < 0) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            throw new OutOfMemoryError("Required length exceeds implementation limit");
+        }
+        boolean resultCompact = compact && other.compact;
+        if (resultLength <= FLAT_CONCAT_LENGTH && isFlat(data) && isFlat(other.data)) {
+            Object result = resultCompact ? new byte[resultLength] : new char[resultLength];
+            copy(data, result, 0, length);
+            copy(other.data, result, length, other.length);
+            return new TruffleString(result, resultLength, resultCompact);
+        }
+        return new TruffleString(new Concat(this, other), resultLength, resultCompact);
+    }
+
+    /**
+     * Returns the substring from <code>beginIndex</code> (inclusive) to <code>endIndex</code>
+     * (exclusive).
+     *
+     * @throws IndexOutOfBoundsException if the range is not contained in this string.
+     * @since 21.3
+     */
+    public TruffleString substring(int beginIndex, int endIndex) {
+        checkRange(length, beginIndex, endIndex);
+        if (beginIndex == 0 && endIndex == length) {
+            return this;
+        } else if (beginIndex == endIndex) {
+            return EMPTY;
+        }
+        Object d = materialize();
+        if (d instanceof byte[]) {
+            return new TruffleString(Arrays.copyOfRange((byte[]) d, beginIndex, endIndex), endIndex - beginIndex, true);
+        } else {
+            return fromChars(Arrays.copyOfRange((char[]) d, beginIndex, endIndex));
+        }
+    }
+
+    /**
+     * Returns the index of the first occurrence of any of the given code units in the range from
+     * <code>fromIndex</code> (inclusive) to <code>maxIndex</code> (exclusive), or <code>-1</code>
+     * if none is found. Performs best if <code>chars</code> is
+     * {@link com.oracle.truffle.api.CompilerDirectives.CompilationFinal} with
+     * <code>dimensions = 1</code>.
+     *
+     * @throws IndexOutOfBoundsException if the range is not contained in this string.
+     * @since 21.3
+     */
+    public int indexOf(int fromIndex, int maxIndex, char... chars) {
+        checkRange(length, fromIndex, maxIndex);
+        Object d = materialize();
+        if (d instanceof byte[]) {
+            byte[] needle = toCompactNeedle(chars);
+            if (needle.length == 0) {
+                return -1;
+            }
+            return ArrayUtils.indexOf((byte[]) d, fromIndex, maxIndex, needle);
+        } else {
+            return ArrayUtils.indexOf((char[]) d, fromIndex, maxIndex, chars);
+        }
+    }
+
+    /**
+     * Returns the index of the first occurrence of <code>needle</code> that is entirely contained
+     * in the range from <code>fromIndex</code> (inclusive) to <code>maxIndex</code> (exclusive),
+     * or <code>-1</code> if there is none.
+     *
+     * @throws IndexOutOfBoundsException if the range is not contained in this string.
+     * @since 21.3
+     */
+    public int indexOf(TruffleString needle, int fromIndex, int maxIndex) {
+        checkRange(length, fromIndex, maxIndex);
+        if (needle.length == 0) {
+            return fromIndex;
+        } else if (needle.length > maxIndex - fromIndex || (compact && !needle.compact)) {
+            // a compact string cannot contain a code unit greater than 0xFF
+            return -1;
+        }
+        Object d = materialize();
+        Object n = needle.materialize();
+        if (d instanceof byte[]) {
+            return ArrayUtils.indexOfWithOrMask((byte[]) d, fromIndex, maxIndex - fromIndex, (byte[]) n, null);
+        } else {
+            return ArrayUtils.indexOfWithOrMask((char[]) d, fromIndex, maxIndex - fromIndex, toCharArray(n), null);
+        }
+    }
+
+    /**
+     * Returns <code>true</code> if the region of this string starting at <code>fromIndex</code>
+     * equals the region of <code>other</code> starting at <code>otherFromIndex</code>, both of
+     * the given length. Returns <code>false</code> if either region is out of bounds.
+     *
+     * @since 21.3
+     */
+    public boolean regionEquals(int fromIndex, TruffleString other, int otherFromIndex, int regionLength) {
+        if (fromIndex < 0 || otherFromIndex < 0 || regionLength < 0 || fromIndex > length - regionLength || otherFromIndex > other.length - regionLength) {
+            return false;
+        }
+        Object a = materialize();
+        Object b = other.materialize();
+        if (a instanceof byte[] && b instanceof byte[]) {
+            return ArrayUtils.regionEqualsWithOrMask((byte[]) a, fromIndex, (byte[]) b, otherFromIndex, regionLength, null);
+        } else if (a instanceof char[] && b instanceof char[]) {
+            return ArrayUtils.regionEqualsWithOrMask((char[]) a, fromIndex, (char[]) b, otherFromIndex, regionLength, null);
+        }
+        for (int i = 0; i < regionLength; i++) {
+            if (read(a, fromIndex + i) != read(b, otherFromIndex + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compares two strings lexicographically by their UTF-16 code units, like
+     * {@link String#compareTo(String)}.
+     *
+     * @since 21.3
+     */
+    @Override
+    public int compareTo(TruffleString other) {
+        Object a = materialize();
+        Object b = other.materialize();
+        int n = Math.min(length, other.length);
+        if (a instanceof byte[] && b instanceof byte[]) {
+            byte[] bytesA = (byte[]) a;
+            byte[] bytesB = (byte[]) b;
+            for (int i = 0; i < n; i++) {
+                if (bytesA[i] != bytesB[i]) {
+                    return (bytesA[i] & 0xFF) - (bytesB[i] & 0xFF);
+                }
+            }
+        } else {
+            for (int i = 0; i < n; i++) {
+                char c1 = read(a, i);
+                char c2 = read(b, i);
+                if (c1 != c2) {
+                    return c1 - c2;
+                }
+            }
+        }
+        return length - other.length;
+    }
+
+    /**
+     * Returns <code>true</code> if the given object is a Truffle string with the same code units.
+     *
+     * @since 21.3
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        } else if (!(obj instanceof TruffleString)) {
+            return false;
+        }
+        TruffleString other = (TruffleString) obj;
+        if (length != other.length || compact != other.compact) {
+            return false;
+        }
+        int h1 = hash;
+        int h2 = other.hash;
+        if (h1 != 0 && h2 != 0 && h1 != h2) {
+            return false;
+        }
+        return regionEquals(0, other, 0, length);
+    }
+
+    /**
+     * Returns the hash code of this string, which is equal to the {@link String#hashCode() hash
+     * code} of the corresponding Java string. The hash code is cached after the first call.
+     *
+     * @since 21.3
+     */
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0 && length != 0) {
+            h = computeHash(materialize(), length);
+            hash = h;
+        }
+        return h;
+    }
+
+    /**
+     * Returns the contents of this string as a Java string. The result is cached after the first
+     * call.
+     *
+     * @since 21.3
+     */
+    @TruffleBoundary
+    public String toJavaString() {
+        String s = javaString;
+        if (s == null) {
+            Object d = materialize();
+            if (d instanceof byte[]) {
+                s = new String((byte[]) d, StandardCharsets.ISO_8859_1);
+            } else {
+                s = new String((char[]) d);
+            }
+            javaString = s;
+        }
+        return s;
+    }
+
+    /**
+     * Returns the contents of this string encoded with the given encoding. Returns a new array for
+     * every call, but the encoded bytes are cached, so that repeated calls with the same encoding
+     * and calls with the encoding the string was created from do not transcode the string again.
+     *
+     * @since 21.3
+     */
+    @TruffleBoundary
+    public byte[] getBytes(Encoding encoding) {
+        Encoded e = encoded;
+        if (e == null || e.encoding != encoding) {
+            e = new Encoded(encoding, encode(materialize(), length, encoding));
+            MemoryFence.storeStore();
+            encoded = e;
+        }
+        return e.bytes.clone();
+    }
+
+    /**
+     * Returns the same result as {@link #toJavaString()}.
+     *
+     * @since 21.3
+     */
+    @Override
+    public String toString() {
+        return toJavaString();
+    }
+
+    private Object materialize() {
+        Object d = data;
+        if (isFlat(d)) {
+            return d;
+        }
+        return flatten();
+    }
+
+    @TruffleBoundary
+    private Object flatten() {
+        Object d = data;
+        Object result;
+        if (d instanceof Encoded) {
+            result = decode((Encoded) d, length, compact);
+        } else if (d instanceof Concat) {
+            result = flattenConcat();
+        } else {
+            // flattened by another thread
+            return d;
+        }
+        MemoryFence.storeStore();
+        data = result;
+        return result;
+    }
+
+    /*
+     * Ropes may be arbitrarily deep, so they are flattened with an explicit stack. Only the leaves
+     * are materialized, inner ropes are not cached to avoid keeping intermediate copies alive.
+     */
+    private Object flattenConcat() {
+        Object result = compact ? new byte[length] : new char[length];
+        ArrayDeque<TruffleString> stack = new ArrayDeque<>();
+        stack.push(this);
+        int pos = 0;
+        while (!stack.isEmpty()) {
+            TruffleString s = stack.pop();
+            Object d = s.data;
+            if (d instanceof Concat) {
+                Concat c = (Concat) d;
+                stack.push(c.right);
+                stack.push(c.left);
+            } else {
+                copy(s.materialize(), result, pos, s.length);
+                pos += s.length;
+            }
+        }
+        assert pos == length;
+        return result;
+    }
+
+    private static boolean isFlat(Object d) {
+        return d instanceof byte[] || d instanceof char[];
+    }
+
+    private static char read(Object d, int index) {
+        if (d instanceof byte[]) {
+            return (char) (((byte[]) d)[index] & 0xFF);
+        } else {
+            return ((char[]) d)[index];
+        }
+    }
+
+    private static void copy(Object src, Object dst, int dstPos, int srcLength) {
+        if (dst instanceof byte[]) {
+            System.arraycopy((byte[]) src, 0, (byte[]) dst, dstPos, srcLength);
+        } else if (src instanceof char[]) {
+            System.arraycopy((char[]) src, 0, (char[]) dst, dstPos, srcLength);
+        } else {
+            byte[] bytes = (byte[]) src;
+            char[] chars = (char[]) dst;
+            for (int i = 0; i < srcLength; i++) {
+                chars[dstPos + i] = (char) (bytes[i] & 0xFF);
+            }
+        }
+    }
+
+    private static char[] toCharArray(Object d) {
+        if (d instanceof char[]) {
+            return (char[]) d;
+        }
+        byte[] bytes = (byte[]) d;
+        char[] chars = new char[bytes.length];
+        copy(bytes, chars, 0, bytes.length);
+        return chars;
+    }
+
+    private static byte[] toCompactNeedle(char[] chars) {
+        int count = 0;
+        for (char c : chars) {
+            if (c <= 0xFF) {
+                count++;
+            }
+        }
+        byte[] bytes = new byte[count];
+        int i = 0;
+        for (char c : chars) {
+            if (c <= 0xFF) {
+                bytes[i++] = (byte) c;
+            }
+        }
+        return bytes;
+    }
+
+    private static boolean isCompactible(String string) {
+        for (int i = 0; i < string.length(); i++) {
+            if (string.charAt(i) > 0xFF) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static TruffleString fromChars(char[] chars) {
+        for (char c : chars) {
+            if (c > 0xFF) {
+                return new TruffleString(chars, chars.length, false);
+            }
+        }
+        byte[] bytes = new byte[chars.length];
+        for (int i = 0; i < chars.length; i++) {
+            bytes[i] = (byte) chars[i];
+        }
+        return new TruffleString(bytes, chars.length, true);
+    }
+
+    private static int computeHash(Object d, int length) {
+        int h = 0;
+        if (d instanceof byte[]) {
+            byte[] bytes = (byte[]) d;
+            for (int i = 0; i < length; i++) {
+                h = 31 * h + (bytes[i] & 0xFF);
+            }
+        } else {
+            char[] chars = (char[]) d;
+            for (int i = 0; i < length; i++) {
+                h = 31 * h + chars[i];
+            }
+        }
+        return h;
+    }
+
+    private static Object decode(Encoded source, int length, boolean compact) {
+        Decoder decoder = new Decoder(source);
+        if (compact) {
+            byte[] bytes = new byte[length];
+            for (int i = 0; i < length; i++) {
+                bytes[i] = (byte) decoder.next();
+            }
+            return bytes;
+        }
+        char[] chars = new char[length];
+        int i = 0;
+        while (i < length) {
+            i += Character.toChars(decoder.next(), chars, i);
+        }
+        return chars;
+    }
+
+    private static byte[] encode(Object d, int length, Encoding encoding) {
+        switch (encoding) {
+            case ISO_8859_1:
+                if (d instanceof byte[]) {
+                    return (byte[]) d;
+                } else {
+                    byte[] bytes = new byte[length];
+                    char[] chars = (char[]) d;
+                    for (int i = 0; i < length; i++) {
+                        bytes[i] = chars[i] <= 0xFF ? (byte) chars[i] : (byte) '?';
+                    }
+                    return bytes;
+                }
+            case UTF_16: {
+                byte[] bytes = new byte[length * 2];
+                for (int i = 0; i < length; i++) {
+                    char c = read(d, i);
+                    bytes[i * 2] = (byte) c;
+                    bytes[i * 2 + 1] = (byte) (c >> 8);
+                }
+                return bytes;
+            }
+            case UTF_32: {
+                int[] codePoints = toCodePoints(d, length);
+                byte[] bytes = new byte[codePoints.length * 4];
+                for (int i = 0; i < codePoints.length; i++) {
+                    int c = codePoints[i];
+                    bytes[i * 4] = (byte) c;
+                    bytes[i * 4 + 1] = (byte) (c >> 8);
+                    bytes[i * 4 + 2] = (byte) (c >> 16);
+                    bytes[i * 4 + 3] = (byte) (c >> 24);
+                }
+                return bytes;
+            }
+            case UTF_8: {
+                int[] codePoints = toCodePoints(d, length);
+                byte[] bytes = new byte[codePoints.length * 4];
+                int pos = 0;
+                for (int c : codePoints) {
+                    if (c < 0x80) {
+                        bytes[pos++] = (byte) c;
+                    } else if (c < 0x800) {
+                        bytes[pos++] = (byte) (0xC0 | (c >> 6));
+                        bytes[pos++] = (byte) (0x80 | (c & 0x3F));
+                    } else if (c < 0x10000) {
+                        bytes[pos++] = (byte) (0xE0 | (c >> 12));
+                        bytes[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                        bytes[pos++] = (byte) (0x80 | (c & 0x3F));
+                    } else {
+                        bytes[pos++] = (byte) (0xF0 | (c >> 18));
+                        bytes[pos++] = (byte) (0x80 | ((c >> 12) & 0x3F));
+                        bytes[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                        bytes[pos++] = (byte) (0x80 | (c & 0x3F));
+                    }
+                }
+                return Arrays.copyOf(bytes, pos);
+            }
+            default:
+                throw CompilerDirectives.shouldNotReachHere(encoding.name());
+        }
+    }
+
+    /*
+     * Combines surrogate pairs and replaces unpaired surrogates with the replacement character.
+     */
+    private static int[] toCodePoints(Object d, int length) {
+        int[] codePoints = new int[length];
+        int count = 0;
+        for (int i = 0; i < length; i++) {
+            char c = read(d, i);
+            if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(read(d, i + 1))) {
+                codePoints[count++] = Character.toCodePoint(c, read(d, ++i));
+            } else if (Character.isSurrogate(c)) {
+                codePoints[count++] = REPLACEMENT_CHARACTER;
+            } else {
+                codePoints[count++] = c;
+            }
+        }
+        return Arrays.copyOf(codePoints, count);
+    }
+
+    private static void checkRange(int arrayLength, int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex < fromIndex || toIndex > arrayLength) {
+            throw indexOutOfBounds();
+        }
+    }
+
+    private static IndexOutOfBoundsException indexOutOfBounds() {
+        CompilerDirectives.transferToInterpreterAndInvalidate();
+        return new IndexOutOfBoundsException();
+    }
+
+    private static final class Encoded {
+
+        final Encoding encoding;
+        final byte[] bytes;
+
+        Encoded(Encoding encoding, byte[] bytes) {
+            this.encoding = encoding;
+            this.bytes = bytes;
+        }
+    }
+
+    private static final class Concat {
+
+        final TruffleString left;
+        final TruffleString right;
+
+        Concat(TruffleString left, TruffleString right) {
+            this.left = left;
+            this.right = right;
+        }
+    }
+
+    /*
+     * Reads code points from encoded bytes. For UTF-16, unpaired surrogates are returned as is, so
+     * that decoding preserves all UTF-16 code units.
+     */
+    private static final class Decoder {
+
+        private final byte[] bytes;
+        private final Encoding encoding;
+        private int pos;
+
+        Decoder(Encoded source) {
+            this.bytes = source.bytes;
+            this.encoding = source.encoding;
+        }
+
+        boolean hasNext() {
+            return pos < bytes.length;
+        }
+
+        int next() {
+            switch (encoding) {
+                case ISO_8859_1:
+                    return bytes[pos++] & 0xFF;
+                case UTF_16:
+                    return nextUTF16();
+                case UTF_32:
+                    return nextUTF32();
+                case UTF_8:
+                    return nextUTF8();
+                default:
+                    throw CompilerDirectives.shouldNotReachHere(encoding.name());
+            }
+        }
+
+        private int nextUTF16() {
+            if (pos + 1 >= bytes.length) {
+                pos = bytes.length;
+                return REPLACEMENT_CHARACTER;
+            }
+            int c = readUnit(pos);
+            pos += 2;
+            if (Character.isHighSurrogate((char) c) && pos + 1 < bytes.length && Character.isLowSurrogate((char) readUnit(pos))) {
+                int low = readUnit(pos);
+                pos += 2;
+                return Character.toCodePoint((char) c, (char) low);
+            }
+            return c;
+        }
+
+        private int readUnit(int index) {
+            return (bytes[index] & 0xFF) | (bytes[index + 1] & 0xFF) << 8;
+        }
+
+        private int nextUTF32() {
+            if (pos + 3 >= bytes.length) {
+                pos = bytes.length;
+                return REPLACEMENT_CHARACTER;
+            }
+            int c = (bytes[pos] & 0xFF) | (bytes[pos + 1] & 0xFF) << 8 | (bytes[pos + 2] & 0xFF) << 16 | (bytes[pos + 3] & 0xFF) << 24;
+            pos += 4;
+            if (c < 0 || c > Character.MAX_CODE_POINT || (c >= Character.MIN_SURROGATE && c <= Character.MAX_SURROGATE)) {
+                return REPLACEMENT_CHARACTER;
+            }
+            return c;
+        }
+
+        private int nextUTF8() {
+            int b = bytes[pos++] & 0xFF;
+            if (b < 0x80) {
+                return b;
+            }
+            int n;
+            int c;
+            int min;
+            if ((b & 0xE0) == 0xC0) {
+                n = 1;
+                c = b & 0x1F;
+                min = 0x80;
+            } else if ((b & 0xF0) == 0xE0) {
+                n = 2;
+                c = b & 0x0F;
+                min = 0x800;
+            } else if ((b & 0xF8) == 0xF0) {
+                n = 3;
+                c = b & 0x07;
+                min = 0x10000;
+            } else {
+                return REPLACEMENT_CHARACTER;
+            }
+            for (int i = 0; i < n; i++) {
+                if (pos >= bytes.length || (bytes[pos] & 0xC0) != 0x80) {
+                    return REPLACEMENT_CHARACTER;
+                }
+                c = (c << 6) | (bytes[pos++] & 0x3F);
+            }
+            if (c < min || c > Character.MAX_CODE_POINT || (c >= Character.MIN_SURROGATE && c <= Character.MAX_SURROGATE)) {
+                return REPLACEMENT_CHARACTER;
+            }
+            return c;
+        }
+    }
+}
@@ -60,6 +60,8 @@ import javax.lang.model.type.DeclaredType;
 import javax.tools.Diagnostic.Kind;
 
 import com.oracle.truffle.dsl.processor.ProcessorContext.ProcessCallback;
+import com.oracle.truffle.dsl.processor.bytecode.BytecodeInterpreterGenerator;
+import com.oracle.truffle.dsl.processor.bytecode.BytecodeInterpreterParser;
 import com.oracle.truffle.dsl.processor.generator.NodeCodeGenerator;
 import com.oracle.truffle.dsl.processor.generator.TypeSystemCodeGenerator;
 import com.oracle.truffle.dsl.processor.java.ElementUtils;
@@ -197,6 +199,8 @@ public class TruffleProcessor extends AbstractProcessor implements ProcessCallba
         annotations.add(TruffleTypes.ExportLibrary_Name);
         annotations.add(TruffleTypes.ExportMessage_Name);
         annotations.add(TruffleTypes.ExportLibrary_Repeat_Name);
+        annotations.add(TruffleTypes.GenerateBytecodeInterpreter_Name);
+        annotations.add(TruffleTypes.GenerateBytecodeInterpreter_Operation_Name);
         return annotations;
     }
 
@@ -206,6 +210,7 @@ public class TruffleProcessor extends AbstractProcessor implements ProcessCallba
         generators.add(new AnnotationProcessor<>(NodeParser.createDefaultParser(), new NodeCodeGenerator()));
         generators.add(new AnnotationProcessor<>(new LibraryParser(), new LibraryGenerator()));
         generators.add(new AnnotationProcessor<>(new ExportsParser(), new ExportsGenerator(new LinkedHashMap<>())));
+        generators.add(new AnnotationProcessor<>(new BytecodeInterpreterParser(), new BytecodeInterpreterGenerator()));
         return generators;
     }
 
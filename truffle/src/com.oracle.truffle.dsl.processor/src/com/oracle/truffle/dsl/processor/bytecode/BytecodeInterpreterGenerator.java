@@ -0,0 +1,610 @@
+/*
+ * Copyright (c) 2021, 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.dsl.processor.bytecode;
+
+import static com.oracle.truffle.dsl.processor.generator.GeneratorUtils.createClass;
+import static com.oracle.truffle.dsl.processor.java.ElementUtils.modifiers;
+import static javax.lang.model.element.Modifier.ABSTRACT;
+import static javax.lang.model.element.Modifier.FINAL;
+import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.element.Modifier.PUBLIC;
+import static javax.lang.model.element.Modifier.STATIC;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+
+import com.oracle.truffle.dsl.processor.AnnotationProcessor;
+import com.oracle.truffle.dsl.processor.ProcessorContext;
+import com.oracle.truffle.dsl.processor.generator.CodeTypeElementFactory;
+import com.oracle.truffle.dsl.processor.generator.GeneratorUtils;
+import com.oracle.truffle.dsl.processor.generator.NodeCodeGenerator;
+import com.oracle.truffle.dsl.processor.java.ElementUtils;
+import com.oracle.truffle.dsl.processor.java.model.CodeAnnotationMirror;
+import com.oracle.truffle.dsl.processor.java.model.CodeAnnotationValue;
+import com.oracle.truffle.dsl.processor.java.model.CodeExecutableElement;
+import com.oracle.truffle.dsl.processor.java.model.CodeTreeBuilder;
+import com.oracle.truffle.dsl.processor.java.model.CodeTypeElement;
+import com.oracle.truffle.dsl.processor.java.model.CodeTypeMirror.ArrayCodeTypeMirror;
+import com.oracle.truffle.dsl.processor.java.model.CodeVariableElement;
+
+/**
+ * Generates a bytecode interpreter for a class annotated with <code>GenerateBytecodeInterpreter</code>.
+ * Each instruction consists of a one byte opcode optionally followed by a two byte big-endian
+ * operand. Built-in instructions use the operand as constant, argument, local or jump target
+ * index. Operations use the operand as index into the array of operation nodes, so every
+ * occurrence of an operation specializes independently.
+ */
+public class BytecodeInterpreterGenerator extends CodeTypeElementFactory<BytecodeInterpreterData> {
+
+    private static final String BUILDER_CLASS_NAME = "Builder";
+    private static final int MAX_OPERAND = 0xFFFF;
+
+    private ProcessorContext context;
+    private BytecodeInterpreterData model;
+
+    @Override
+    public List<CodeTypeElement> create(ProcessorContext context1, AnnotationProcessor<?> processor, BytecodeInterpreterData model1) {
+        this.context = context1;
+        this.model = model1;
+        if (model.hasErrors()) {
+            return Collections.emptyList();
+        }
+
+        TypeElement templateType = model.getTemplateType();
+        CodeTypeElement genClass = createClass(model, null, modifiers(FINAL), createGenTypeName(model), templateType.asType());
+        ElementUtils.setVisibility(genClass.getModifiers(), ElementUtils.getVisibility(templateType.getModifiers()));
+
+        for (int i = 0; i < BytecodeInterpreterParser.BUILTIN_INSTRUCTIONS.size(); i++) {
+            genClass.add(createOpcodeConstant(BytecodeInterpreterParser.BUILTIN_INSTRUCTIONS.get(i), i));
+        }
+        for (BytecodeOperationData operation : model.getOperations()) {
+            genClass.add(createOpcodeConstant(operation.getName(), operation.getOpcode()));
+        }
+
+        genClass.add(compilationFinal(new CodeVariableElement(modifiers(PRIVATE, FINAL), byteArray(), "bc")));
+        genClass.add(compilationFinal(new CodeVariableElement(modifiers(PRIVATE, FINAL), objectArray(), "constants")));
+        CodeVariableElement operationNodes = new CodeVariableElement(modifiers(PRIVATE, FINAL), nodeArray(), "operationNodes");
+        operationNodes.addAnnotationMirror(new CodeAnnotationMirror(types.Node_Children));
+        genClass.add(operationNodes);
+        genClass.add(new CodeVariableElement(modifiers(PRIVATE, FINAL), context.getType(int.class), "maxLocals"));
+        genClass.add(new CodeVariableElement(modifiers(PRIVATE, FINAL), context.getType(int.class), "maxStack"));
+
+        List<ExecutableElement> userConstructors = findUserConstructors(templateType);
+        for (ExecutableElement userConstructor : userConstructors) {
+            genClass.add(createConstructor(genClass, userConstructor));
+        }
+        genClass.add(createExecute());
+        genClass.add(createReadShort());
+
+        CodeTypeElement builderClass = createBuilderClass(genClass, userConstructors);
+        CodeExecutableElement newBuilder = new CodeExecutableElement(modifiers(PUBLIC, STATIC), builderClass.asType(), "newBuilder");
+        newBuilder.createBuilder().startReturn().startNew(builderClass.asType()).end().end();
+        genClass.add(newBuilder);
+        genClass.add(builderClass);
+
+        return Arrays.asList(genClass);
+    }
+
+    static String createGenTypeName(BytecodeInterpreterData type) {
+        return ElementUtils.firstLetterUpperCase(type.getTemplateType().getSimpleName().toString()) + "Gen";
+    }
+
+    private static String opcodeConstantName(String instructionName) {
+        return "OP_" + ElementUtils.createConstantName(instructionName);
+    }
+
+    private CodeVariableElement createOpcodeConstant(String instructionName, int opcode) {
+        return new CodeVariableElement(modifiers(PRIVATE, STATIC, FINAL), context.getType(byte.class), opcodeConstantName(instructionName), String.valueOf(opcode));
+    }
+
+    private static CodeVariableElement compilationFinal(CodeVariableElement field) {
+        CodeAnnotationMirror annotation = new CodeAnnotationMirror(ProcessorContext.getInstance().getTypes().CompilerDirectives_CompilationFinal);
+        annotation.setElementValue(annotation.findExecutableElement("dimensions"), new CodeAnnotationValue(1));
+        field.addAnnotationMirror(annotation);
+        return field;
+    }
+
+    private ArrayType byteArray() {
+        return new ArrayCodeTypeMirror(context.getType(byte.class));
+    }
+
+    private ArrayType intArray() {
+        return new ArrayCodeTypeMirror(context.getType(int.class));
+    }
+
+    private ArrayType objectArray() {
+        return new ArrayCodeTypeMirror(context.getType(Object.class));
+    }
+
+    private ArrayType nodeArray() {
+        return new ArrayCodeTypeMirror(types.Node);
+    }
+
+    private static List<ExecutableElement> findUserConstructors(TypeElement type) {
+        List<ExecutableElement> constructors = new ArrayList<>();
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (!constructor.getModifiers().contains(PRIVATE)) {
+                constructors.add(constructor);
+            }
+        }
+        return constructors;
+    }
+
+    private CodeExecutableElement createConstructor(CodeTypeElement genClass, ExecutableElement userConstructor) {
+        CodeExecutableElement constructor = GeneratorUtils.createSuperConstructor(genClass, userConstructor);
+        ElementUtils.setVisibility(constructor.getModifiers(), PRIVATE);
+        constructor.addParameter(new CodeVariableElement(byteArray(), "$bc"));
+        constructor.addParameter(new CodeVariableElement(objectArray(), "$constants"));
+        constructor.addParameter(new CodeVariableElement(nodeArray(), "$operationNodes"));
+        constructor.addParameter(new CodeVariableElement(context.getType(int.class), "$maxLocals"));
+        constructor.addParameter(new CodeVariableElement(context.getType(int.class), "$maxStack"));
+        CodeTreeBuilder b = constructor.appendBuilder();
+        b.statement("this.bc = $bc");
+        b.statement("this.constants = $constants");
+        b.statement("this.operationNodes = $operationNodes");
+        b.statement("this.maxLocals = $maxLocals");
+        b.statement("this.maxStack = $maxStack");
+        return constructor;
+    }
+
+    private CodeExecutableElement createExecute() {
+        CodeExecutableElement execute = CodeExecutableElement.cloneNoAnnotations(model.getExecuteMethod());
+        execute.getModifiers().remove(ABSTRACT);
+        execute.renameArguments("frame");
+        GeneratorUtils.addOverride(execute);
+
+        CodeAnnotationMirror explodeLoop = new CodeAnnotationMirror(types.ExplodeLoop);
+        explodeLoop.setElementValue(explodeLoop.findExecutableElement("kind"),
+                        new CodeAnnotationValue(ElementUtils.findVariableElement(types.ExplodeLoop_LoopExplosionKind, "MERGE_EXPLODE")));
+        execute.addAnnotationMirror(explodeLoop);
+        execute.addAnnotationMirror(new CodeAnnotationMirror(types.HostCompilerDirectives_BytecodeInterpreterSwitch));
+
+        CodeTreeBuilder b = execute.createBuilder();
+        b.statement("Object[] locals = new Object[maxLocals]");
+        b.statement("Object[] stack = new Object[maxStack]");
+        b.statement("int sp = 0");
+        b.statement("int bci = 0");
+        b.statement("int loopCount = 0");
+        b.startWhile().string("true").end().startBlock();
+        b.startStatement().startStaticCall(types.CompilerAsserts, "partialEvaluationConstant").string("bci").end().end();
+        b.startSwitch().string("bc[bci]").end().startBlock();
+
+        b.startCase().string(opcodeConstantName("Constant")).end().startCaseBlock();
+        b.statement("stack[sp] = constants[readShort(bc, bci + 1)]");
+        b.statement("sp += 1");
+        b.statement("bci += 3");
+        b.statement("continue");
+        b.end();
+
+        b.startCase().string(opcodeConstantName("LoadArgument")).end().startCaseBlock();
+        b.statement("stack[sp] = frame.getArguments()[readShort(bc, bci + 1)]");
+        b.statement("sp += 1");
+        b.statement("bci += 3");
+        b.statement("continue");
+        b.end();
+
+        b.startCase().string(opcodeConstantName("LoadLocal")).end().startCaseBlock();
+        b.statement("stack[sp] = locals[readShort(bc, bci + 1)]");
+        b.statement("sp += 1");
+        b.statement("bci += 3");
+        b.statement("continue");
+        b.end();
+
+        b.startCase().string(opcodeConstantName("StoreLocal")).end().startCaseBlock();
+        b.statement("sp -= 1");
+        b.statement("locals[readShort(bc, bci + 1)] = stack[sp]");
+        b.statement("bci += 3");
+        b.statement("continue");
+        b.end();
+
+        b.startCase().string(opcodeConstantName("Pop")).end().startCaseBlock();
+        b.statement("sp -= 1");
+        b.statement("bci += 1");
+        b.statement("continue");
+        b.end();
+
+        b.startCase().string(opcodeConstantName("Jump")).end().startCaseBlock();
+        createJump(b);
+        b.statement("continue");
+        b.end();
+
+        b.startCase().string(opcodeConstantName("JumpIfFalse")).end().startCaseBlock();
+        b.statement("sp -= 1");
+        b.startIf().string("(boolean) stack[sp]").end().startBlock();
+        b.statement("bci += 3");
+        b.end().startElseBlock();
+        createJump(b);
+        b.end();
+        b.statement("continue");
+        b.end();
+
+        b.startCase().string(opcodeConstantName("Return")).end().startCaseBlock();
+        b.startIf().string("loopCount > 0").end().startBlock();
+        b.startStatement().startStaticCall(types.LoopNode, "reportLoopCount").string("this").string("loopCount").end().end();
+        b.end();
+        b.statement("return stack[sp - 1]");
+        b.end();
+
+        for (BytecodeOperationData operation : model.getOperations()) {
+            int operandCount = operation.getOperandCount();
+            b.startCase().string(opcodeConstantName(operation.getName())).end().startCaseBlock();
+            b.startStatement();
+            if (operation.isReturnsValue()) {
+                b.string("stack[", stackIndex(operandCount), "] = ");
+            }
+            b.startCall(b.create().string("(").cast(operation.getType().asType()).string("operationNodes[readShort(bc, bci + 1)])").build(),
+                            operation.getExecuteMethod().getSimpleName().toString());
+            if (operation.isFrame()) {
+                b.string("frame");
+            }
+            for (int i = operandCount; i > 0; i--) {
+                b.string("stack[" + stackIndex(i) + "]");
+            }
+            b.end();
+            b.end();
+            int stackChange = (operation.isReturnsValue() ? 1 : 0) - operandCount;
+            if (stackChange > 0) {
+                b.statement("sp += " + stackChange);
+            } else if (stackChange < 0) {
+                b.statement("sp -= " + (-stackChange));
+            }
+            b.statement("bci += 3");
+            b.statement("continue");
+            b.end();
+        }
+
+        b.caseDefault().startCaseBlock();
+        b.tree(GeneratorUtils.createShouldNotReachHere());
+        b.end();
+
+        b.end(); // switch
+        b.end(); // while
+        return execute;
+    }
+
+    /*
+     * A jump to a bci that is not greater than the current one closes a guest loop. Polling there
+     * guarantees that thread local actions and cancellation are processed in guest loops, and
+     * counting the iterations lets the runtime account them for compilation and inlining
+     * decisions like a LoopNode would.
+     */
+    private void createJump(CodeTreeBuilder b) {
+        b.startIf().string("readShort(bc, bci + 1) <= bci").end().startBlock();
+        b.statement("loopCount++");
+        b.startStatement().startStaticCall(types.TruffleSafepoint, "poll").string("this").end().end();
+        b.end();
+        b.statement("bci = readShort(bc, bci + 1)");
+    }
+
+    private static String stackIndex(int depth) {
+        return depth == 0 ? "sp" : "sp - " + depth;
+    }
+
+    private CodeExecutableElement createReadShort() {
+        CodeExecutableElement method = new CodeExecutableElement(modifiers(PRIVATE, STATIC), context.getType(int.class), "readShort");
+        method.addParameter(new CodeVariableElement(byteArray(), "bc"));
+        method.addParameter(new CodeVariableElement(context.getType(int.class), "index"));
+        method.createBuilder().statement("return ((bc[index] & 0xFF) << 8) | (bc[index + 1] & 0xFF)");
+        return method;
+    }
+
+    private CodeTypeElement createBuilderClass(CodeTypeElement genClass, List<ExecutableElement> userConstructors) {
+        CodeTypeElement builderClass = new CodeTypeElement(modifiers(PUBLIC, STATIC, FINAL), ElementKind.CLASS, null, BUILDER_CLASS_NAME);
+        builderClass.add(new CodeVariableElement(modifiers(PRIVATE), byteArray(), "bc", "new byte[32]"));
+        builderClass.add(new CodeVariableElement(modifiers(PRIVATE), context.getType(int.class), "bci"));
+        builderClass.add(new CodeVariableElement(modifiers(PRIVATE), objectArray(), "constants", "new Object[8]"));
+        builderClass.add(new CodeVariableElement(modifiers(PRIVATE), context.getType(int.class), "constantCount"));
+        CodeVariableElement operationNodes = new CodeVariableElement(modifiers(PRIVATE), nodeArray(), "operationNodes");
+        operationNodes.createInitBuilder().startNewArray(nodeArray(), CodeTreeBuilder.singleString("8")).end();
+        builderClass.add(operationNodes);
+        builderClass.add(new CodeVariableElement(modifiers(PRIVATE), context.getType(int.class), "operationNodeCount"));
+        builderClass.add(new CodeVariableElement(modifiers(PRIVATE), intArray(), "labelTargets", "new int[8]"));
+        builderClass.add(new CodeVariableElement(modifiers(PRIVATE), intArray(), "labelStackHeights", "new int[8]"));
+        builderClass.add(new CodeVariableElement(modifiers(PRIVATE), context.getType(int.class), "labelCount"));
+        builderClass.add(new CodeVariableElement(modifiers(PRIVATE), intArray(), "jumpFixups", "new int[8]"));
+        builderClass.add(new CodeVariableElement(modifiers(PRIVATE), context.getType(int.class), "jumpFixupCount"));
+        builderClass.add(new CodeVariableElement(modifiers(PRIVATE), context.getType(int.class), "stackHeight"));
+        builderClass.add(new CodeVariableElement(modifiers(PRIVATE), context.getType(boolean.class), "reachable", "true"));
+        builderClass.add(new CodeVariableElement(modifiers(PRIVATE), context.getType(int.class), "maxStack"));
+        builderClass.add(new CodeVariableElement(modifiers(PRIVATE), context.getType(int.class), "maxLocals"));
+
+        builderClass.add(new CodeExecutableElement(modifiers(PRIVATE), null, BUILDER_CLASS_NAME));
+
+        CodeExecutableElement createLabel = new CodeExecutableElement(modifiers(PUBLIC), context.getType(int.class), "createLabel");
+        CodeTreeBuilder b = createLabel.createBuilder();
+        b.startIf().string("labelCount == labelTargets.length").end().startBlock();
+        b.startStatement().string("labelTargets = ").startStaticCall(context.getType(Arrays.class), "copyOf").string("labelTargets").string("labelCount * 2").end().end();
+        b.startStatement().string("labelStackHeights = ").startStaticCall(context.getType(Arrays.class), "copyOf").string("labelStackHeights").string("labelCount * 2").end().end();
+        b.end();
+        b.statement("labelTargets[labelCount] = -1");
+        b.statement("labelStackHeights[labelCount] = -1");
+        b.statement("return labelCount++");
+        builderClass.add(createLabel);
+
+        CodeExecutableElement emitLabel = createEmitMethod("Label", context.getType(int.class), "label");
+        b = emitLabel.createBuilder();
+        b.statement("checkLabel(label)");
+        b.startIf().string("labelTargets[label] != -1").end().startBlock();
+        throwException(b, IllegalStateException.class, "Label was already emitted.");
+        b.end();
+        b.startIf().string("!reachable").end().startBlock();
+        b.statement("stackHeight = Math.max(labelStackHeights[label], 0)");
+        b.statement("reachable = true");
+        b.end();
+        b.statement("recordStackHeight(label)");
+        b.statement("labelTargets[label] = bci");
+        builderClass.add(emitLabel);
+
+        CodeExecutableElement emitConstant = createEmitMethod("Constant", context.getType(Object.class), "value");
+        b = emitConstant.createBuilder();
+        b.statement("emitInstruction(" + opcodeConstantName("Constant") + ", constantCount, 0, 1)");
+        b.startIf().string("constantCount == constants.length").end().startBlock();
+        b.startStatement().string("constants = ").startStaticCall(context.getType(Arrays.class), "copyOf").string("constants").string("constantCount * 2").end().end();
+        b.end();
+        b.statement("constants[constantCount++] = value");
+        builderClass.add(emitConstant);
+
+        CodeExecutableElement emitLoadArgument = createEmitMethod("LoadArgument", context.getType(int.class), "index");
+        emitLoadArgument.createBuilder().statement("emitInstruction(" + opcodeConstantName("LoadArgument") + ", index, 0, 1)");
+        builderClass.add(emitLoadArgument);
+
+        CodeExecutableElement emitLoadLocal = createEmitMethod("LoadLocal", context.getType(int.class), "index");
+        b = emitLoadLocal.createBuilder();
+        b.statement("emitInstruction(" + opcodeConstantName("LoadLocal") + ", index, 0, 1)");
+        b.statement("maxLocals = Math.max(maxLocals, index + 1)");
+        builderClass.add(emitLoadLocal);
+
+        CodeExecutableElement emitStoreLocal = createEmitMethod("StoreLocal", context.getType(int.class), "index");
+        b = emitStoreLocal.createBuilder();
+        b.statement("emitInstruction(" + opcodeConstantName("StoreLocal") + ", index, 1, 0)");
+        b.statement("maxLocals = Math.max(maxLocals, index + 1)");
+        builderClass.add(emitStoreLocal);
+
+        CodeExecutableElement emitPop = createEmitMethod("Pop", null, null);
+        emitPop.createBuilder().statement("emitOpcode(" + opcodeConstantName("Pop") + ", 1, 0)");
+        builderClass.add(emitPop);
+
+        CodeExecutableElement emitJump = createEmitMethod("Jump", context.getType(int.class), "label");
+        b = emitJump.createBuilder();
+        b.statement("emitBranch(" + opcodeConstantName("Jump") + ", label, 0)");
+        b.statement("reachable = false");
+        builderClass.add(emitJump);
+
+        CodeExecutableElement emitJumpIfFalse = createEmitMethod("JumpIfFalse", context.getType(int.class), "label");
+        emitJumpIfFalse.createBuilder().statement("emitBranch(" + opcodeConstantName("JumpIfFalse") + ", label, 1)");
+        builderClass.add(emitJumpIfFalse);
+
+        CodeExecutableElement emitReturn = createEmitMethod("Return", null, null);
+        b = emitReturn.createBuilder();
+        b.statement("emitOpcode(" + opcodeConstantName("Return") + ", 1, 0)");
+        b.statement("reachable = false");
+        builderClass.add(emitReturn);
+
+        for (BytecodeOperationData operation : model.getOperations()) {
+            CodeExecutableElement emitOperation = createEmitMethod(operation.getName(), null, null);
+            b = emitOperation.createBuilder();
+            b.statement("emitInstruction(" + opcodeConstantName(operation.getName()) + ", operationNodeCount, " + operation.getOperandCount() + ", " + (operation.isReturnsValue() ? 1 : 0) + ")");
+            b.startIf().string("operationNodeCount == operationNodes.length").end().startBlock();
+            b.startStatement().string("operationNodes = ").startStaticCall(context.getType(Arrays.class), "copyOf").string("operationNodes").string("operationNodeCount * 2").end().end();
+            b.end();
+            b.startStatement().string("operationNodes[operationNodeCount++] = ").startStaticCall(NodeCodeGenerator.factoryOrNodeType(operation.getType()), "create").end().end();
+            builderClass.add(emitOperation);
+        }
+
+        for (ExecutableElement userConstructor : userConstructors) {
+            builderClass.add(createBuild(genClass, userConstructor));
+        }
+
+        builderClass.add(createCheckLabel());
+        builderClass.add(createRecordStackHeight());
+        builderClass.add(createEmitBranch());
+        builderClass.add(createEmitInstruction());
+        builderClass.add(createEmitOpcode());
+        builderClass.add(createAdjustStack());
+        builderClass.add(createEnsureCapacity());
+        return builderClass;
+    }
+
+    private CodeExecutableElement createEmitMethod(String instructionName, TypeMirror parameterType, String parameterName) {
+        CodeExecutableElement method = new CodeExecutableElement(modifiers(PUBLIC), context.getType(void.class), "emit" + instructionName);
+        if (parameterType != null) {
+            method.addParameter(new CodeVariableElement(parameterType, parameterName));
+        }
+        return method;
+    }
+
+    private void throwException(CodeTreeBuilder b, Class<?> exceptionClass, String message) {
+        b.startThrow().startNew(context.getType(exceptionClass)).doubleQuote(message).end().end();
+    }
+
+    private CodeExecutableElement createBuild(CodeTypeElement genClass, ExecutableElement userConstructor) {
+        CodeExecutableElement build = new CodeExecutableElement(modifiers(PUBLIC), model.getTemplateType().asType(), "build");
+        for (VariableElement parameter : userConstructor.getParameters()) {
+            build.addParameter(CodeVariableElement.clone(parameter));
+        }
+        build.setVarArgs(userConstructor.isVarArgs());
+        GeneratorUtils.addThrownExceptions(build, userConstructor.getThrownTypes());
+
+        CodeTreeBuilder b = build.createBuilder();
+        b.startIf().string("bc == null").end().startBlock();
+        throwException(b, IllegalStateException.class, "The builder was already used to build an interpreter.");
+        b.end();
+        b.startIf().string("reachable").end().startBlock();
+        throwException(b, IllegalStateException.class, "The last instruction must be a jump or a return.");
+        b.end();
+        b.startFor().string("int i = 0; i < jumpFixupCount; i++").end().startBlock();
+        b.statement("int index = jumpFixups[i]");
+        b.statement("int target = labelTargets[readShort(bc, index)]");
+        b.startIf().string("target == -1").end().startBlock();
+        throwException(b, IllegalStateException.class, "A jump target label was not emitted.");
+        b.end();
+        b.statement("bc[index] = (byte) (target >> 8)");
+        b.statement("bc[index + 1] = (byte) target");
+        b.end();
+        b.startStatement().type(genClass.asType()).string(" result = ").startNew(genClass.asType());
+        for (VariableElement parameter : userConstructor.getParameters()) {
+            b.string(parameter.getSimpleName().toString());
+        }
+        b.startStaticCall(context.getType(Arrays.class), "copyOf").string("bc").string("bci").end();
+        b.startStaticCall(context.getType(Arrays.class), "copyOf").string("constants").string("constantCount").end();
+        b.startStaticCall(context.getType(Arrays.class), "copyOf").string("operationNodes").string("operationNodeCount").end();
+        b.string("maxLocals");
+        b.string("maxStack");
+        b.end().end();
+        b.lineComment("operation nodes must not be shared between interpreters");
+        b.statement("bc = null");
+        b.statement("return result");
+        return build;
+    }
+
+    private CodeExecutableElement createCheckLabel() {
+        CodeExecutableElement method = new CodeExecutableElement(modifiers(PRIVATE), context.getType(void.class), "checkLabel");
+        method.addParameter(new CodeVariableElement(context.getType(int.class), "label"));
+        CodeTreeBuilder b = method.createBuilder();
+        b.startIf().string("label < 0 || label >= labelCount").end().startBlock();
+        b.startThrow().startNew(context.getType(IllegalArgumentException.class)).string("\"Invalid label \" + label + \".\"").end().end();
+        b.end();
+        return method;
+    }
+
+    private CodeExecutableElement createRecordStackHeight() {
+        CodeExecutableElement method = new CodeExecutableElement(modifiers(PRIVATE), context.getType(void.class), "recordStackHeight");
+        method.addParameter(new CodeVariableElement(context.getType(int.class), "label"));
+        CodeTreeBuilder b = method.createBuilder();
+        b.startIf().string("labelStackHeights[label] == -1").end().startBlock();
+        b.statement("labelStackHeights[label] = stackHeight");
+        b.end().startElseIf().string("labelStackHeights[label] != stackHeight").end().startBlock();
+        throwException(b, IllegalStateException.class, "Inconsistent operand stack height at label.");
+        b.end();
+        return method;
+    }
+
+    private CodeExecutableElement createEmitBranch() {
+        CodeExecutableElement method = new CodeExecutableElement(modifiers(PRIVATE), context.getType(void.class), "emitBranch");
+        method.addParameter(new CodeVariableElement(context.getType(byte.class), "opcode"));
+        method.addParameter(new CodeVariableElement(context.getType(int.class), "label"));
+        method.addParameter(new CodeVariableElement(context.getType(int.class), "pops"));
+        CodeTreeBuilder b = method.createBuilder();
+        b.statement("checkLabel(label)");
+        b.lineComment("the operand refers to the label until the jump targets are resolved in build");
+        b.statement("emitInstruction(opcode, label, pops, 0)");
+        b.statement("recordStackHeight(label)");
+        b.startIf().string("jumpFixupCount == jumpFixups.length").end().startBlock();
+        b.startStatement().string("jumpFixups = ").startStaticCall(context.getType(Arrays.class), "copyOf").string("jumpFixups").string("jumpFixupCount * 2").end().end();
+        b.end();
+        b.statement("jumpFixups[jumpFixupCount++] = bci - 2");
+        return method;
+    }
+
+    private CodeExecutableElement createEmitInstruction() {
+        CodeExecutableElement method = new CodeExecutableElement(modifiers(PRIVATE), context.getType(void.class), "emitInstruction");
+        method.addParameter(new CodeVariableElement(context.getType(byte.class), "opcode"));
+        method.addParameter(new CodeVariableElement(context.getType(int.class), "operand"));
+        method.addParameter(new CodeVariableElement(context.getType(int.class), "pops"));
+        method.addParameter(new CodeVariableElement(context.getType(int.class), "pushes"));
+        CodeTreeBuilder b = method.createBuilder();
+        b.startIf().string("operand < 0 || operand > " + MAX_OPERAND).end().startBlock();
+        b.startThrow().startNew(context.getType(IllegalArgumentException.class)).string("\"Operand out of range: \" + operand + \".\"").end().end();
+        b.end();
+        b.statement("adjustStack(pops, pushes)");
+        b.statement("ensureCapacity(3)");
+        b.statement("bc[bci] = opcode");
+        b.statement("bc[bci + 1] = (byte) (operand >> 8)");
+        b.statement("bc[bci + 2] = (byte) operand");
+        b.statement("bci += 3");
+        return method;
+    }
+
+    private CodeExecutableElement createEmitOpcode() {
+        CodeExecutableElement method = new CodeExecutableElement(modifiers(PRIVATE), context.getType(void.class), "emitOpcode");
+        method.addParameter(new CodeVariableElement(context.getType(byte.class), "opcode"));
+        method.addParameter(new CodeVariableElement(context.getType(int.class), "pops"));
+        method.addParameter(new CodeVariableElement(context.getType(int.class), "pushes"));
+        CodeTreeBuilder b = method.createBuilder();
+        b.statement("adjustStack(pops, pushes)");
+        b.statement("ensureCapacity(1)");
+        b.statement("bc[bci++] = opcode");
+        return method;
+    }
+
+    private CodeExecutableElement createAdjustStack() {
+        CodeExecutableElement method = new CodeExecutableElement(modifiers(PRIVATE), context.getType(void.class), "adjustStack");
+        method.addParameter(new CodeVariableElement(context.getType(int.class), "pops"));
+        method.addParameter(new CodeVariableElement(context.getType(int.class), "pushes"));
+        CodeTreeBuilder b = method.createBuilder();
+        b.startIf().string("bc == null").end().startBlock();
+        throwException(b, IllegalStateException.class, "The builder was already used to build an interpreter.");
+        b.end();
+        b.startIf().string("!reachable").end().startBlock();
+        throwException(b, IllegalStateException.class, "Unreachable instruction. Emit a label before the instruction.");
+        b.end();
+        b.startIf().string("stackHeight < pops").end().startBlock();
+        throwException(b, IllegalStateException.class, "Operand stack underflow.");
+        b.end();
+        b.statement("stackHeight += pushes - pops");
+        b.statement("maxStack = Math.max(maxStack, stackHeight)");
+        return method;
+    }
+
+    private CodeExecutableElement createEnsureCapacity() {
+        CodeExecutableElement method = new CodeExecutableElement(modifiers(PRIVATE), context.getType(void.class), "ensureCapacity");
+        method.addParameter(new CodeVariableElement(context.getType(int.class), "length"));
+        CodeTreeBuilder b = method.createBuilder();
+        b.startIf().string("bci + length > " + (MAX_OPERAND + 1)).end().startBlock();
+        throwException(b, IllegalStateException.class, "Bytecode too large.");
+        b.end();
+        b.startIf().string("bci + length > bc.length").end().startBlock();
+        b.startStatement().string("bc = ").startStaticCall(context.getType(Arrays.class), "copyOf").string("bc").string("bc.length * 2").end().end();
+        b.end();
+        return method;
+    }
+
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2021, 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.dsl.processor.bytecode;
+
+import static com.oracle.truffle.dsl.processor.java.ElementUtils.findAnnotationMirror;
+import static com.oracle.truffle.dsl.processor.java.ElementUtils.getQualifiedName;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.util.ElementFilter;
+
+import com.oracle.truffle.dsl.processor.generator.NodeCodeGenerator;
+import com.oracle.truffle.dsl.processor.java.ElementUtils;
+import com.oracle.truffle.dsl.processor.java.compiler.CompilerFactory;
+import com.oracle.truffle.dsl.processor.parser.AbstractParser;
+
+public class BytecodeInterpreterParser extends AbstractParser<BytecodeInterpreterData> {
+
+    /**
+     * Names of the built-in instructions in the order of their opcodes. Operation opcodes follow
+     * the built-in opcodes.
+     */
+    static final List<String> BUILTIN_INSTRUCTIONS = Arrays.asList("Constant", "LoadArgument", "LoadLocal", "StoreLocal", "Pop", "Jump", "JumpIfFalse", "Return");
+
+    static final String EXECUTE_METHOD_NAME = "execute";
+
+    @Override
+    public DeclaredType getAnnotationType() {
+        return types.GenerateBytecodeInterpreter;
+    }
+
+    @Override
+    protected BytecodeInterpreterData parse(Element element, List<AnnotationMirror> mirrors) {
+        TypeElement type = (TypeElement) element;
+        if (mirrors.isEmpty()) {
+            return null;
+        }
+        BytecodeInterpreterData model = new BytecodeInterpreterData(type, mirrors.iterator().next());
+
+        if (!ElementUtils.isAssignable(type.asType(), types.Node)) {
+            model.addError("Bytecode interpreter classes must extend %s.", getQualifiedName(types.Node));
+            return model;
+        }
+        if (!type.getModifiers().contains(Modifier.ABSTRACT)) {
+            model.addError("Bytecode interpreter classes must be abstract.");
+            return model;
+        }
+        if (type.getModifiers().contains(Modifier.PRIVATE)) {
+            model.addError("Bytecode interpreter classes must not be private.");
+            return model;
+        }
+        if (type.getEnclosingElement().getKind() != ElementKind.PACKAGE && !type.getModifiers().contains(Modifier.STATIC)) {
+            model.addError("Bytecode interpreter classes declared as inner classes must be static.");
+            return model;
+        }
+        if (!type.getTypeParameters().isEmpty()) {
+            model.addError("Bytecode interpreter classes must not declare type parameters.");
+            return model;
+        }
+
+        ExecutableElement executeMethod = findInterpreterExecuteMethod(type);
+        if (executeMethod == null) {
+            model.addError("Bytecode interpreter classes must declare an abstract method 'Object %s(VirtualFrame)'.", EXECUTE_METHOD_NAME);
+            return model;
+        }
+        model.setExecuteMethod(executeMethod);
+
+        int opcode = BUILTIN_INSTRUCTIONS.size();
+        for (TypeElement operationType : ElementFilter.typesIn(CompilerFactory.getCompiler(type).getEnclosedElementsInDeclarationOrder(type))) {
+            if (findAnnotationMirror(operationType, types.GenerateBytecodeInterpreter_Operation) == null) {
+                continue;
+            }
+            BytecodeOperationData operation = parseOperation(model, operationType, opcode);
+            if (operation != null) {
+                model.getOperations().add(operation);
+                opcode++;
+            }
+        }
+        if (opcode > Byte.MAX_VALUE + 1) {
+            model.addError("Too many operations declared. At most %s operations are supported.", Byte.MAX_VALUE + 1 - BUILTIN_INSTRUCTIONS.size());
+        }
+        return model;
+    }
+
+    private ExecutableElement findInterpreterExecuteMethod(TypeElement type) {
+        for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))) {
+            if (!method.getSimpleName().toString().equals(EXECUTE_METHOD_NAME) || !method.getModifiers().contains(Modifier.ABSTRACT)) {
+                continue;
+            }
+            List<? extends VariableElement> parameters = method.getParameters();
+            if (parameters.size() == 1 && ElementUtils.typeEquals(parameters.get(0).asType(), types.VirtualFrame) &&
+                            ElementUtils.typeEquals(method.getReturnType(), context.getType(Object.class))) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    private BytecodeOperationData parseOperation(BytecodeInterpreterData model, TypeElement operationType, int opcode) {
+        String name = ElementUtils.firstLetterUpperCase(operationType.getSimpleName().toString());
+        if (BUILTIN_INSTRUCTIONS.contains(name) || name.equals("Label")) {
+            model.addError(operationType, "The operation name '%s' is reserved for a built-in instruction.", name);
+            return null;
+        }
+        if (!operationType.getModifiers().contains(Modifier.STATIC) || operationType.getModifiers().contains(Modifier.PRIVATE)) {
+            model.addError(operationType, "Operation classes must be static and must not be private.");
+            return null;
+        }
+        if (!ElementUtils.isAssignable(operationType.asType(), types.Node) || !NodeCodeGenerator.isSpecializedNode(operationType.asType())) {
+            model.addError(operationType, "Operation classes must extend %s and declare at least one @%s method.", getQualifiedName(types.Node),
+                            ElementUtils.getSimpleName(types.Specialization));
+            return null;
+        }
+        if (findAnnotationMirror(operationType, types.NodeChild) != null || findAnnotationMirror(operationType, types.NodeChildren) != null ||
+                        findAnnotationMirror(operationType, types.NodeField) != null || findAnnotationMirror(operationType, types.NodeFields) != null) {
+            model.addError(operationType, "Operation classes must not declare node children or node fields. Operands are passed to the execute method.");
+            return null;
+        }
+        if (!hasDefaultConstructor(operationType)) {
+            model.addError(operationType, "Operation classes must declare a non-private constructor without parameters.");
+            return null;
+        }
+
+        List<ExecutableElement> executeMethods = new ArrayList<>();
+        for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(operationType))) {
+            if (method.getModifiers().contains(Modifier.ABSTRACT)) {
+                executeMethods.add(method);
+            }
+        }
+        if (executeMethods.size() != 1) {
+            model.addError(operationType, "Operation classes must declare exactly one abstract execute method but %s were found.", executeMethods.size());
+            return null;
+        }
+        ExecutableElement executeMethod = executeMethods.get(0);
+        if (!executeMethod.getThrownTypes().isEmpty()) {
+            model.addError(operationType, "The execute method of an operation must not declare thrown exceptions.");
+            return null;
+        }
+        List<? extends VariableElement> parameters = executeMethod.getParameters();
+        boolean frame = !parameters.isEmpty() && ElementUtils.typeEquals(parameters.get(0).asType(), types.VirtualFrame);
+        for (VariableElement parameter : parameters.subList(frame ? 1 : 0, parameters.size())) {
+            if (!ElementUtils.typeEquals(parameter.asType(), context.getType(Object.class))) {
+                model.addError(operationType, "The operand '%s' of the execute method must be of type Object.", parameter.getSimpleName().toString());
+                return null;
+            }
+        }
+        return new BytecodeOperationData(operationType, executeMethod, frame, opcode);
+    }
+
+    private static boolean hasDefaultConstructor(TypeElement type) {
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (!constructor.getModifiers().contains(Modifier.PRIVATE) && constructor.getParameters().isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
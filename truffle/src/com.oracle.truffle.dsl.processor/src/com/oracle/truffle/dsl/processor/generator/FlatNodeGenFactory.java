@@ -202,7 +202,8 @@ public class FlatNodeGenFactory {
 
     public enum GeneratorMode {
         DEFAULT,
-        EXPORTED_MESSAGE
+        EXPORTED_MESSAGE,
+        INLINED
     }
 
     public FlatNodeGenFactory(ProcessorContext context, GeneratorMode mode, NodeData node, Map<String, CodeVariableElement> libraryConstants) {
@@ -663,7 +664,7 @@ public class FlatNodeGenFactory {
             generateAOT(clazz);
         }
 
-        if (node.isUncachable() && node.isGenerateUncached()) {
+        if (generatorMode != GeneratorMode.INLINED && node.isUncachable() && node.isGenerateUncached()) {
             CodeTypeElement uncached = GeneratorUtils.createClass(node, null, modifiers(PRIVATE, STATIC, FINAL), "Uncached", node.getTemplateType().asType());
             uncached.getEnclosedElements().addAll(createUncachedFields());
 
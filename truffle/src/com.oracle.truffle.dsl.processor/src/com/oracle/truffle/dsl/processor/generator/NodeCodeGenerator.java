@@ -42,6 +42,7 @@ package com.oracle.truffle.dsl.processor.generator;
 
 import static com.oracle.truffle.dsl.processor.java.ElementUtils.modifiers;
 import static javax.lang.model.element.Modifier.FINAL;
+import static javax.lang.model.element.Modifier.PRIVATE;
 import static javax.lang.model.element.Modifier.PUBLIC;
 import static javax.lang.model.element.Modifier.STATIC;
 
@@ -51,6 +52,7 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 
 import javax.lang.model.element.Element;
@@ -59,6 +61,7 @@ import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.Modifier;
 import javax.lang.model.element.PackageElement;
 import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
 import javax.lang.model.type.TypeMirror;
 import javax.lang.model.util.ElementFilter;
 import javax.lang.model.util.Types;
@@ -68,9 +71,13 @@ import com.oracle.truffle.dsl.processor.ProcessorContext;
 import com.oracle.truffle.dsl.processor.generator.FlatNodeGenFactory.GeneratorMode;
 import com.oracle.truffle.dsl.processor.java.ElementUtils;
 import com.oracle.truffle.dsl.processor.java.model.CodeExecutableElement;
+import com.oracle.truffle.dsl.processor.java.model.CodeNames;
 import com.oracle.truffle.dsl.processor.java.model.CodeTreeBuilder;
 import com.oracle.truffle.dsl.processor.java.model.CodeTypeElement;
 import com.oracle.truffle.dsl.processor.java.model.CodeVariableElement;
+import com.oracle.truffle.dsl.processor.java.model.GeneratedTypeMirror;
+import com.oracle.truffle.dsl.processor.model.CacheExpression;
+import com.oracle.truffle.dsl.processor.model.ExecutableTypeData;
 import com.oracle.truffle.dsl.processor.model.MessageContainer.Message;
 import com.oracle.truffle.dsl.processor.model.NodeChildData;
 import com.oracle.truffle.dsl.processor.model.NodeData;
@@ -252,6 +259,28 @@ public class NodeCodeGenerator extends CodeTypeElementFactory<NodeData> {
         }
     }
 
+    /**
+     * Resolves the type that declares the static <code>create</code> methods for a specialized
+     * node that was not parsed yet, e.g. a node declared by another template.
+     */
+    public static TypeMirror factoryOrNodeType(TypeElement element) {
+        List<TypeElement> typeHierarchy = ElementUtils.getDirectSuperTypes(element);
+        typeHierarchy.add(0, element);
+        boolean generateFactory = false;
+        for (TypeElement type : typeHierarchy) {
+            if (ElementUtils.findAnnotationMirror(type, ProcessorContext.getInstance().getTypes().GenerateNodeFactory) != null) {
+                generateFactory = true;
+                break;
+            }
+        }
+        CodeTypeElement type = (CodeTypeElement) buildClassName(element, true, generateFactory);
+        if (generateFactory) {
+            return type.getEnclosingElement().asType();
+        } else {
+            return type.asType();
+        }
+    }
+
     private static final String NODE_SUFFIX = "NodeGen";
 
     private static String resolveNodeId(TypeElement node) {
@@ -278,11 +307,138 @@ public class NodeCodeGenerator extends CodeTypeElementFactory<NodeData> {
             return Arrays.asList(type);
         }
 
-        type = new FlatNodeGenFactory(context, GeneratorMode.DEFAULT, node, libraryConstants).create(type);
+        List<NodeData> inlinedNodes = node.getInlinedNodes();
+        if (inlinedNodes.isEmpty()) {
+            type = new FlatNodeGenFactory(context, GeneratorMode.DEFAULT, node, libraryConstants).create(type);
+        } else {
+            type = createWithInlinedNodes(context, node, inlinedNodes, type, libraryConstants);
+        }
 
         return Arrays.asList(type);
     }
 
+    public static String createInlinedFieldName(NodeData inlinedNode) {
+        return "INLINED_" + ElementUtils.createConstantName(inlinedNode.getNodeId());
+    }
+
+    /*
+     * Inlined nodes share the state fields with the generated node, so their state bits are packed
+     * together with the bits of the generated node. All fields and methods of the inlined nodes
+     * are generated into the generated node, prefixed with the id of the inlined node.
+     */
+    private static CodeTypeElement createWithInlinedNodes(ProcessorContext context, NodeData node, List<NodeData> inlinedNodes, CodeTypeElement type,
+                    Map<String, CodeVariableElement> libraryConstants) {
+        List<NodeData> stateSharingNodes = new ArrayList<>();
+        stateSharingNodes.add(node);
+        stateSharingNodes.addAll(inlinedNodes);
+
+        Map<CacheExpression, String> sharedCaches = new LinkedHashMap<>(node.getSharedCaches());
+        for (NodeData inlinedNode : inlinedNodes) {
+            for (Entry<CacheExpression, String> entry : inlinedNode.getSharedCaches().entrySet()) {
+                sharedCaches.put(entry.getKey(), createInlinedPrefix(inlinedNode) + entry.getValue());
+            }
+        }
+
+        new FlatNodeGenFactory(context, GeneratorMode.DEFAULT, node, stateSharingNodes, sharedCaches, libraryConstants).create(type);
+
+        for (NodeData inlinedNode : inlinedNodes) {
+            CodeTypeElement inlinedType = GeneratorUtils.createClass(inlinedNode, null, modifiers(), "Inlined", context.getTypes().Node);
+            new FlatNodeGenFactory(context, GeneratorMode.INLINED, inlinedNode, stateSharingNodes, sharedCaches, libraryConstants).create(inlinedType);
+
+            ExecutableElement executeMethod = findInlinedExecuteMethod(inlinedNode);
+            String executeName = createInlinedPrefix(inlinedNode) + executeMethod.getSimpleName().toString();
+            for (Element element : inlinedType.getEnclosedElements()) {
+                if (element.getKind() == ElementKind.CONSTRUCTOR) {
+                    continue;
+                } else if (element.getKind() == ElementKind.METHOD) {
+                    CodeExecutableElement method = (CodeExecutableElement) element;
+                    if (method.getSimpleName().toString().equals(executeMethod.getSimpleName().toString())) {
+                        method.setSimpleName(CodeNames.of(executeName));
+                        method.getAnnotationMirrors().removeIf((mirror) -> ElementUtils.typeEquals(mirror.getAnnotationType(), context.getType(Override.class)));
+                        ElementUtils.setVisibility(method.getModifiers(), Modifier.PRIVATE);
+                    } else if (containsMethod(type, method)) {
+                        // helper methods like expect methods may be generated more than once
+                        continue;
+                    }
+                }
+                type.getEnclosedElements().add(element);
+            }
+
+            CodeTypeElement forwardingType = GeneratorUtils.createClass(inlinedNode, null, modifiers(PRIVATE, STATIC, FINAL), inlinedNode.getNodeId() + "Inlined_",
+                            inlinedNode.getTemplateType().asType());
+            CodeExecutableElement forwardingExecute = CodeExecutableElement.clone(executeMethod);
+            forwardingExecute.getModifiers().remove(Modifier.ABSTRACT);
+            GeneratorUtils.addOverride(forwardingExecute);
+            CodeTreeBuilder builder = forwardingExecute.createBuilder();
+            /*
+             * The forwarding node is shared by all nodes that use the inlined node, so the node
+             * argument is the only way to find the state of the current use. A node of another
+             * type would otherwise fail with an obscure ClassCastException.
+             */
+            String nodeParameter = findInlinedNodeParameter(context, executeMethod);
+            builder.startIf().string("!(").string(nodeParameter).instanceOf(type.asType()).string(")").end().startBlock();
+            builder.tree(GeneratorUtils.createTransferToInterpreterAndInvalidate());
+            builder.startThrow().startNew(context.getType(IllegalArgumentException.class));
+            builder.startGroup();
+            builder.doubleQuote("The node argument of an inlined " + ElementUtils.getSimpleName(inlinedNode.getTemplateType()) + " must be the " + ElementUtils.getSimpleName(node.getTemplateType()) +
+                            " that declares the inlined cache, usually 'this', but was: ");
+            builder.string(" + ").string(nodeParameter);
+            builder.end(); // group
+            builder.end().end(); // new, throw
+            builder.end(); // block
+            if (ElementUtils.isVoid(executeMethod.getReturnType())) {
+                builder.startStatement();
+            } else {
+                builder.startReturn();
+            }
+            builder.startCall("((" + type.getSimpleName() + ") " + nodeParameter + ")", executeName);
+            for (VariableElement parameter : forwardingExecute.getParameters()) {
+                builder.string(parameter.getSimpleName().toString());
+            }
+            builder.end(); // call
+            builder.end(); // statement
+            forwardingType.add(forwardingExecute);
+            type.add(forwardingType);
+
+            GeneratedTypeMirror forwardingTypeMirror = new GeneratedTypeMirror("", forwardingType.getSimpleName().toString());
+            CodeVariableElement field = type.add(new CodeVariableElement(modifiers(PRIVATE, STATIC, FINAL), inlinedNode.getTemplateType().asType(), createInlinedFieldName(inlinedNode)));
+            field.createInitBuilder().startNew(forwardingTypeMirror).end();
+        }
+        return type;
+    }
+
+    private static String createInlinedPrefix(NodeData inlinedNode) {
+        return ElementUtils.firstLetterLowerCase(inlinedNode.getNodeId()) + "_";
+    }
+
+    private static ExecutableElement findInlinedExecuteMethod(NodeData inlinedNode) {
+        for (ExecutableTypeData executable : inlinedNode.getExecutableTypes()) {
+            ExecutableElement method = executable.getMethod();
+            if (method != null && method.getModifiers().contains(Modifier.ABSTRACT)) {
+                return method;
+            }
+        }
+        throw new AssertionError("Missing execute method for inlined node " + inlinedNode.getNodeId());
+    }
+
+    private static String findInlinedNodeParameter(ProcessorContext context, ExecutableElement executeMethod) {
+        for (VariableElement parameter : executeMethod.getParameters()) {
+            if (ElementUtils.typeEquals(parameter.asType(), context.getTypes().Node)) {
+                return parameter.getSimpleName().toString();
+            }
+        }
+        throw new AssertionError("Missing node parameter for inlined execute method " + executeMethod.getSimpleName());
+    }
+
+    private static boolean containsMethod(CodeTypeElement type, ExecutableElement method) {
+        for (ExecutableElement otherMethod : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            if (ElementUtils.signatureEquals(otherMethod, method)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private static void generateErrorNode(ProcessorContext context, NodeData node, CodeTypeElement type) {
         for (ExecutableElement superConstructor : GeneratorUtils.findUserConstructors(node.getTemplateType().asType())) {
             CodeExecutableElement constructor = GeneratorUtils.createConstructorUsingFields(modifiers(), type, superConstructor);
@@ -79,6 +79,7 @@ public final class CacheExpression extends MessageContainer {
 
     private LibraryData cachedlibrary;
     private boolean usedInGuard;
+    private NodeData inlinedNode;
 
     public CacheExpression(Parameter sourceParameter, AnnotationMirror sourceAnnotationMirror) {
         this.sourceParameter = sourceParameter;
@@ -91,9 +92,18 @@ public final class CacheExpression extends MessageContainer {
         copy.defaultExpression = this.defaultExpression;
         copy.uncachedExpression = this.uncachedExpression;
         copy.alwaysInitialized = this.alwaysInitialized;
+        copy.inlinedNode = this.inlinedNode;
         return copy;
     }
 
+    public NodeData getInlinedNode() {
+        return inlinedNode;
+    }
+
+    public void setInlinedNode(NodeData inlinedNode) {
+        this.inlinedNode = inlinedNode;
+    }
+
     public void setIsUsedInGuard(boolean b) {
         this.usedInGuard = b;
     }
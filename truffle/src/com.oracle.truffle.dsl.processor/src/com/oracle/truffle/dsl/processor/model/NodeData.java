@@ -61,7 +61,7 @@ import com.oracle.truffle.dsl.processor.model.NodeChildData.Cardinality;
 
 public class NodeData extends Template implements Comparable<NodeData> {
 
-    private final String nodeId;
+    private String nodeId;
     private final List<NodeData> enclosingNodes = new ArrayList<>();
     private NodeData declaringNode;
 
@@ -309,6 +309,29 @@ public class NodeData extends Template implements Comparable<NodeData> {
         return nodeId;
     }
 
+    public void setNodeId(String nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    /**
+     * Returns the nodes that are inlined into this node using inlined cached parameters of
+     * reachable specializations.
+     */
+    public List<NodeData> getInlinedNodes() {
+        List<NodeData> inlinedNodes = new ArrayList<>();
+        for (SpecializationData specialization : getSpecializations()) {
+            if (!specialization.isReachable()) {
+                continue;
+            }
+            for (CacheExpression cache : specialization.getCaches()) {
+                if (cache.getInlinedNode() != null) {
+                    inlinedNodes.add(cache.getInlinedNode());
+                }
+            }
+        }
+        return inlinedNodes;
+    }
+
     public TypeMirror getNodeType() {
         return getTemplateType().asType();
     }
@@ -162,6 +162,7 @@ public final class NodeParser extends AbstractParser<NodeData> {
     }
 
     private boolean nodeOnly;
+    private boolean inlineTarget;
     private final ParseMode mode;
     private final TypeMirror exportLibraryType;
     private final TypeElement exportDeclarationType;
@@ -373,6 +374,7 @@ public final class NodeParser extends AbstractParser<NodeData> {
         verifyVisibilities(node);
         verifyMissingAbstractMethods(node, members);
         verifyConstructors(node);
+        verifyInlinable(node);
         verifySpecializationThrows(node);
         verifyFrame(node);
         if (isGenerateSlowPathOnly(node)) {
@@ -2308,8 +2310,11 @@ public final class NodeParser extends AbstractParser<NodeData> {
             caches.add(cache);
 
             if (cache.isCached()) {
+                boolean inline = getAnnotationValue(Boolean.class, foundCached, "inline");
                 boolean weakReference = getAnnotationValue(Boolean.class, foundCached, "weak");
-                if (weakReference) {
+                if (inline) {
+                    parseInlinedCached(cache, specialization, resolver, parameter);
+                } else if (weakReference) {
                     if (ElementUtils.isPrimitive(cache.getParameter().getType())) {
                         cache.addError("Cached parameters with primitive types cannot be weak. Set weak to false to resolve this.");
                     }
@@ -2854,6 +2859,70 @@ public final class NodeParser extends AbstractParser<NodeData> {
         cache.setAdopt(getAnnotationValue(Boolean.class, cachedAnnotation, "adopt", true));
     }
 
+    private void parseInlinedCached(CacheExpression cache, SpecializationData specialization, DSLExpressionResolver resolver, Parameter parameter) {
+        AnnotationMirror cachedAnnotation = cache.getMessageAnnotation();
+        TypeMirror type = parameter.getType();
+        String inlineName = getSimpleName(types.GenerateInline);
+        if (getAnnotationValue(Boolean.class, cachedAnnotation, "weak")) {
+            cache.addError("Inlined cached parameters cannot be weak. Remove the weak or the inline attribute to resolve this.");
+        }
+        if (getAnnotationValue(cachedAnnotation, "value", false) != null) {
+            cache.addError("The value attribute cannot be specified for inlined cached parameters. Remove the value or the inline attribute to resolve this.");
+        }
+        if (cache.getSharedGroup() != null) {
+            cache.addError("Inlined cached parameters cannot be shared. Remove the @%s annotation or the inline attribute to resolve this.", getSimpleName(types.Cached_Shared));
+        }
+        TypeElement typeElement = type.getKind() == TypeKind.DECLARED ? fromTypeMirror(type) : null;
+        if (typeElement == null || findAnnotationMirror(typeElement, types.GenerateInline) == null) {
+            cache.addError("The cached type %s cannot be inlined. Annotate the type with @%s to resolve this.", getSimpleName(type), inlineName);
+        }
+        if (inlineTarget) {
+            cache.addError("Nodes annotated with @%s cannot inline other nodes. Remove the inline attribute to resolve this.", inlineName);
+        }
+        if (mode == ParseMode.EXPORTED_MESSAGE) {
+            cache.addError("Inlined cached parameters are not supported for exported messages. Remove the inline attribute to resolve this.");
+        } else if (specialization.getNode().isGenerateAOT()) {
+            cache.addError("Inlined cached parameters are not supported for nodes annotated with @%s. Remove the inline attribute to resolve this.", getSimpleName(types.GenerateAOT));
+        }
+        if (cache.hasErrors()) {
+            return;
+        }
+
+        NodeParser parser = NodeParser.createDefaultParser();
+        parser.inlineTarget = true;
+        NodeData inlinedNode = parser.parseNode(typeElement);
+        if (inlinedNode == null || inlinedNode.hasErrors()) {
+            cache.addError("The inlined node %s is invalid. Resolve the errors of the inlined node to resolve this.", getSimpleName(type));
+            return;
+        }
+        inlinedNode.setNodeId(firstLetterUpperCase(specialization.getId()) + firstLetterUpperCase(parameter.getLocalName()));
+
+        /*
+         * The cached value is a static stateless node that forwards to the inlined code of the
+         * generated node. It is always initialized and therefore requires no field.
+         */
+        CodeVariableElement inlinedVariable = new CodeVariableElement(modifiers(Modifier.STATIC, Modifier.FINAL), type, NodeCodeGenerator.createInlinedFieldName(inlinedNode));
+        DSLExpressionResolver inlinedResolver = resolver.copy(Arrays.asList(inlinedVariable));
+        cache.setDefaultExpression(parseCachedExpression(inlinedResolver, cache, type, inlinedVariable.getName()));
+        cache.setAlwaysInitialized(true);
+        cache.setAdopt(false);
+        cache.setInlinedNode(inlinedNode);
+
+        if (specialization.getNode().isGenerateUncached()) {
+            String uncached = getAnnotationValue(String.class, cachedAnnotation, "uncached").replace("$parameters", "");
+            DSLExpressionResolver uncachedResolver = resolver;
+            List<CodeExecutableElement> executables = parseNodeFactoryMethods(type);
+            if (executables != null) {
+                uncachedResolver = resolver.copy(executables);
+            }
+            cache.setUncachedExpression(parseCachedExpression(uncachedResolver, cache, type, uncached));
+            if (cache.hasErrors()) {
+                cache.setUncachedExpressionError(cache.getMessages().iterator().next());
+                cache.getMessages().clear();
+            }
+        }
+    }
+
     private static class FactoryMethodCacheKey {
     }
 
@@ -3243,6 +3312,65 @@ public final class NodeParser extends AbstractParser<NodeData> {
         }
     }
 
+    private void verifyInlinable(NodeData node) {
+        TypeElement templateType = node.getTemplateType();
+        if (findAnnotationMirror(templateType, types.GenerateInline) == null) {
+            return;
+        }
+        String annotationName = getSimpleName(types.GenerateInline);
+        if (!node.getChildren().isEmpty() || !node.getFields().isEmpty()) {
+            node.addError("Nodes annotated with @%s must not use @%s or @%s.", annotationName,
+                            getSimpleName(types.NodeChild), getSimpleName(types.NodeField));
+        }
+
+        List<ExecutableTypeData> executables = new ArrayList<>();
+        for (ExecutableTypeData executable : node.getExecutableTypes()) {
+            if (executable.getMethod() != null && executable.getMethod().getModifiers().contains(Modifier.ABSTRACT)) {
+                executables.add(executable);
+            }
+        }
+        if (executables.size() != 1) {
+            node.addError("Nodes annotated with @%s must declare exactly one abstract execute method.", annotationName);
+        } else {
+            List<TypeMirror> signature = executables.get(0).getSignatureParameters();
+            if (signature.isEmpty() || !typeEquals(signature.get(0), types.Node)) {
+                node.addError("The first dynamic parameter of the execute method of a node annotated with @%s must be of type %s. " +
+                                "The node that declares the inlined cache is passed for this parameter.", annotationName, getSimpleName(types.Node));
+            }
+        }
+
+        for (SpecializationData specialization : node.getSpecializations()) {
+            ExecutableElement method = specialization.getMethod();
+            if (method != null && !method.getModifiers().contains(Modifier.STATIC)) {
+                specialization.addError("Specialization and fallback methods of nodes annotated with @%s must be static.", annotationName);
+            }
+        }
+
+        for (ExecutableElement method : ElementFilter.methodsIn(templateType.getEnclosedElements())) {
+            Set<Modifier> modifiers = method.getModifiers();
+            if (!modifiers.contains(Modifier.STATIC) && !modifiers.contains(Modifier.ABSTRACT) && findAnnotationMirror(method, types.Specialization) == null &&
+                            findAnnotationMirror(method, types.Fallback) == null) {
+                node.addError(method, "Nodes annotated with @%s must not declare non-abstract instance methods. Make the method static to resolve this.", annotationName);
+            }
+        }
+        for (VariableElement field : ElementFilter.fieldsIn(templateType.getEnclosedElements())) {
+            if (!field.getModifiers().contains(Modifier.STATIC)) {
+                node.addError(field, "Nodes annotated with @%s must not declare instance fields.", annotationName);
+            }
+        }
+
+        List<ExecutableElement> constructors = ElementFilter.constructorsIn(templateType.getEnclosedElements());
+        boolean defaultConstructor = constructors.isEmpty();
+        for (ExecutableElement constructor : constructors) {
+            if (constructor.getParameters().isEmpty() && getVisibility(constructor.getModifiers()) != Modifier.PRIVATE) {
+                defaultConstructor = true;
+            }
+        }
+        if (!defaultConstructor) {
+            node.addError("Nodes annotated with @%s must declare a non-private constructor without parameters.", annotationName);
+        }
+    }
+
     private static AnnotationMirror findFirstAnnotation(List<? extends Element> elements, DeclaredType annotation) {
         for (Element element : elements) {
             AnnotationMirror mirror = findAnnotationMirror(element, annotation);
@@ -42,13 +42,13 @@ package com.oracle.truffle.host;
 
 import static com.oracle.truffle.host.GuestToHostRootNode.createGuestToHost;
 
-import java.lang.invoke.MethodHandle;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.ZoneId;
 import java.util.NoSuchElementException;
+import java.util.function.BiFunction;
 
 import com.oracle.truffle.api.interop.InteropException;
 import com.oracle.truffle.api.interop.StopIterationException;
@@ -74,7 +74,7 @@ import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.interop.InvalidArrayIndexException;
 import com.oracle.truffle.api.interop.UnsupportedMessageException;
 import com.oracle.truffle.host.HostMethodDesc.SingleMethod;
-import com.oracle.truffle.host.HostMethodDesc.SingleMethod.MHBase;
+import com.oracle.truffle.host.HostMethodDesc.SingleMethod.AccessorBase;
 
 final class GuestToHostCodeCache {
 
@@ -84,18 +84,19 @@ final class GuestToHostCodeCache {
         this.language = language;
     }
 
-    final CallTarget methodHandleHostInvoke = GuestToHostRootNode.createGuestToHost(new GuestToHostRootNode(HostObject.class, "doInvoke") {
+    final CallTarget accessorHostInvoke = GuestToHostRootNode.createGuestToHost(new GuestToHostRootNode(HostObject.class, "doInvoke") {
         @Override
         protected Object executeImpl(Object receiver, Object[] callArguments) {
             if (TruffleOptions.AOT) {
-                throw CompilerDirectives.shouldNotReachHere("MHBase.invokeHandle can only be used in non AOT mode.");
+                throw CompilerDirectives.shouldNotReachHere("AccessorBase.invokeAccessor can only be used in non AOT mode.");
             }
 
-            MethodHandle methodHandle = (MethodHandle) callArguments[ARGUMENT_OFFSET];
+            @SuppressWarnings("unchecked")
+            BiFunction<Object, Object[], Object> accessor = (BiFunction<Object, Object[], Object>) callArguments[ARGUMENT_OFFSET];
             Object[] arguments = (Object[]) callArguments[ARGUMENT_OFFSET + 1];
             Object ret;
             try {
-                ret = MHBase.invokeHandle(methodHandle, receiver, arguments);
+                ret = AccessorBase.invokeAccessor(accessor, receiver, arguments);
             } catch (Throwable e) {
                 throw HostInteropReflect.rethrow(e);
             }
@@ -0,0 +1,412 @@
+/*
+ * Copyright (c) 2021, 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.host;
+
+import static com.oracle.truffle.api.impl.asm.Opcodes.ACC_FINAL;
+import static com.oracle.truffle.api.impl.asm.Opcodes.ACC_PRIVATE;
+import static com.oracle.truffle.api.impl.asm.Opcodes.ACC_PUBLIC;
+import static com.oracle.truffle.api.impl.asm.Opcodes.ACC_STATIC;
+import static com.oracle.truffle.api.impl.asm.Opcodes.ACC_SUPER;
+import static com.oracle.truffle.api.impl.asm.Opcodes.ACC_SYNTHETIC;
+import static com.oracle.truffle.api.impl.asm.Opcodes.RETURN;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import com.oracle.truffle.api.impl.asm.ClassWriter;
+import com.oracle.truffle.api.impl.asm.Label;
+import com.oracle.truffle.api.impl.asm.Opcodes;
+import com.oracle.truffle.api.impl.asm.Type;
+import com.oracle.truffle.api.impl.asm.commons.InstructionAdapter;
+
+/**
+ * Generates bytecode for a host accessor class. Used by the {@link HostAccessorFactory}.
+ *
+ * <p>
+ * An accessor class provides direct access to a group of public methods, constructors and fields
+ * of a host class. For every member, the accessor class has a static method that unboxes and casts
+ * the arguments, calls the method or constructor or accesses the field with a regular
+ * <code>invoke*</code>, <code>new</code>, <code>get*</code> or <code>put*</code> instruction, and
+ * boxes the result. This avoids the overhead of {@link Method#invoke} and of spreading and adapting
+ * method handles, in particular in the interpreter and in megamorphic call sites.
+ * </p>
+ * <p>
+ * Every instance of an accessor class is bound to one member by its index. The accessor class only
+ * implements interfaces of {@code java.base}, so that it can be used from any class loader and
+ * module without exporting host interop internals:
+ * <ul>
+ * <li>{@link BiFunction#apply} invokes a method or constructor with the receiver and an
+ * {@code Object[]} of arguments.</li>
+ * <li>{@link Function#apply} reads a field of the receiver.</li>
+ * <li>{@link BiConsumer#accept} writes a non-final field of the receiver.</li>
+ * </ul>
+ * Each of these methods dispatches on the index of the bound member, which is a constant for
+ * partial evaluation, so compiled code calls the member directly.
+ * </p>
+ */
+final class HostAccessorBytecodeGenerator {
+
+    private static final String INIT = "<init>";
+
+    /*
+     * Accessor classes are never defined in the package of the host class, as that is not possible
+     * for java.* packages.
+     */
+    static final String ACCESSOR_PACKAGE_PREFIX = "com/oracle/truffle/host/accessors/";
+    private static final String ACCESSOR_CLASS_NAME_SUFFIX = "$$Accessor";
+    private static final int MAX_GENERATED_TYPE_NAME_LENGTH = 255;
+
+    private static final Type OBJECT_TYPE = Type.getType(Object.class);
+    private static final String OBJECT_TYPE_NAME = OBJECT_TYPE.getInternalName();
+    private static final Type OBJECT_ARRAY_TYPE = Type.getType(Object[].class);
+    private static final String ILLEGAL_STATE_TYPE_NAME = Type.getInternalName(IllegalStateException.class);
+    private static final String[] INTERFACE_NAMES = {Type.getInternalName(BiFunction.class), Type.getInternalName(Function.class), Type.getInternalName(BiConsumer.class)};
+
+    private static final String INDEX_FIELD_NAME = "index";
+    private static final String INVOKE_PREFIX = "invoke";
+    private static final String GET_PREFIX = "get";
+    private static final String SET_PREFIX = "set";
+
+    private static final String APPLY_NAME = "apply";
+    private static final String ACCEPT_NAME = "accept";
+    private static final String INVOKE_DESCRIPTOR = Type.getMethodDescriptor(OBJECT_TYPE, OBJECT_TYPE, OBJECT_ARRAY_TYPE);
+    private static final String GET_DESCRIPTOR = Type.getMethodDescriptor(OBJECT_TYPE, OBJECT_TYPE);
+    private static final String SET_DESCRIPTOR = Type.getMethodDescriptor(Type.VOID_TYPE, OBJECT_TYPE, OBJECT_TYPE);
+    private static final String BI_FUNCTION_APPLY_DESCRIPTOR = Type.getMethodDescriptor(OBJECT_TYPE, OBJECT_TYPE, OBJECT_TYPE);
+    private static final String FUNCTION_APPLY_DESCRIPTOR = GET_DESCRIPTOR;
+    private static final String BI_CONSUMER_ACCEPT_DESCRIPTOR = SET_DESCRIPTOR;
+
+    // Binary name of the generated class.
+    private final String generatedClassName;
+    private final List<Member> members;
+
+    private final ClassWriter cw;
+
+    /**
+     * Creates a generator for the bytecode of an accessor class for the given members.
+     *
+     * @param namingType the host class the members were collected from, used to name the
+     *            accessor class.
+     * @param chunk the number of the accessor class for the host class.
+     * @param members the public methods, constructors and fields to access.
+     */
+    HostAccessorBytecodeGenerator(Class<?> namingType, int chunk, List<Member> members) {
+        assert !members.isEmpty();
+        this.generatedClassName = getGeneratedClassName(namingType, chunk);
+        this.members = members;
+
+        cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS) {
+            @Override
+            protected String getCommonSuperClass(final String type1, final String type2) {
+                /*
+                 * The generated code never merges frames with different reference types, so we
+                 * do not need to load any classes here.
+                 */
+                return OBJECT_TYPE_NAME;
+            }
+        };
+
+        cw.visit(Opcodes.V1_8, ACC_PUBLIC | ACC_SUPER | ACC_FINAL, generatedClassName, null, OBJECT_TYPE_NAME, INTERFACE_NAMES);
+        cw.visitField(ACC_PRIVATE | ACC_FINAL, INDEX_FIELD_NAME, Type.INT_TYPE.getDescriptor(), null, null).visitEnd();
+
+        generateConstructor();
+        for (int i = 0; i < members.size(); i++) {
+            Member member = members.get(i);
+            if (member instanceof Method) {
+                generateInvokeMethod(i, (Method) member);
+            } else if (member instanceof Constructor<?>) {
+                generateInvokeConstructor(i, (Constructor<?>) member);
+            } else {
+                Field field = (Field) member;
+                generateGetField(i, field);
+                if (!Modifier.isFinal(field.getModifiers())) {
+                    generateSetField(i, field);
+                }
+            }
+        }
+        generateDispatch(APPLY_NAME, BI_FUNCTION_APPLY_DESCRIPTOR, INVOKE_PREFIX, INVOKE_DESCRIPTOR, Kind.EXECUTABLE);
+        generateDispatch(APPLY_NAME, FUNCTION_APPLY_DESCRIPTOR, GET_PREFIX, GET_DESCRIPTOR, Kind.READABLE_FIELD);
+        generateDispatch(ACCEPT_NAME, BI_CONSUMER_ACCEPT_DESCRIPTOR, SET_PREFIX, SET_DESCRIPTOR, Kind.WRITABLE_FIELD);
+
+        cw.visitEnd();
+    }
+
+    /**
+     * Defines the accessor class in a new {@link HostAccessorClassLoader} with the given parent.
+     */
+    Class<?> generateClass(ClassLoader parentLoader) {
+        return new HostAccessorClassLoader(parentLoader, generatedClassName, cw.toByteArray()).loadAccessorClass();
+    }
+
+    private static String getGeneratedClassName(Class<?> namingType, int chunk) {
+        String simpleName = namingType.getSimpleName();
+        StringBuilder buf = new StringBuilder(ACCESSOR_PACKAGE_PREFIX);
+        if (simpleName.isEmpty()) {
+            buf.append("Host");
+        } else {
+            // names of hidden and array classes are not valid class name parts
+            for (int i = 0; i < simpleName.length(); i++) {
+                char c = simpleName.charAt(i);
+                buf.append(Character.isJavaIdentifierPart(c) ? c : '_');
+            }
+        }
+        buf.append(ACCESSOR_CLASS_NAME_SUFFIX).append(chunk);
+        return buf.toString().substring(0, Math.min(MAX_GENERATED_TYPE_NAME_LENGTH, buf.length()));
+    }
+
+    private void generateConstructor() {
+        InstructionAdapter mv = new InstructionAdapter(cw.visitMethod(ACC_PUBLIC, INIT, Type.getMethodDescriptor(Type.VOID_TYPE, Type.INT_TYPE), null, null));
+        mv.visitCode();
+        mv.load(0, OBJECT_TYPE);
+        mv.invokespecial(OBJECT_TYPE_NAME, INIT, Type.getMethodDescriptor(Type.VOID_TYPE), false);
+        mv.load(0, OBJECT_TYPE);
+        mv.load(1, Type.INT_TYPE);
+        mv.putfield(generatedClassName, INDEX_FIELD_NAME, Type.INT_TYPE.getDescriptor());
+        mv.visitInsn(RETURN);
+        endMethod(mv);
+    }
+
+    private InstructionAdapter visitMemberMethod(String prefix, int index, String descriptor) {
+        InstructionAdapter mv = new InstructionAdapter(cw.visitMethod(ACC_PRIVATE | ACC_STATIC | ACC_SYNTHETIC, prefix + index, descriptor, null, null));
+        mv.visitCode();
+        return mv;
+    }
+
+    private void generateInvokeMethod(int index, Method method) {
+        InstructionAdapter mv = visitMemberMethod(INVOKE_PREFIX, index, INVOKE_DESCRIPTOR);
+        Class<?> declaringClass = method.getDeclaringClass();
+        String owner = Type.getInternalName(declaringClass);
+        boolean isInterface = declaringClass.isInterface();
+        String descriptor = Type.getMethodDescriptor(method);
+        if (Modifier.isStatic(method.getModifiers())) {
+            loadArguments(mv, method);
+            mv.invokestatic(owner, method.getName(), descriptor, isInterface);
+        } else {
+            mv.load(0, OBJECT_TYPE);
+            mv.checkcast(Type.getType(declaringClass));
+            loadArguments(mv, method);
+            if (isInterface) {
+                mv.invokeinterface(owner, method.getName(), descriptor);
+            } else {
+                mv.invokevirtual(owner, method.getName(), descriptor, false);
+            }
+        }
+        box(mv, Type.getType(method.getReturnType()));
+        mv.areturn(OBJECT_TYPE);
+        endMethod(mv);
+    }
+
+    private void generateInvokeConstructor(int index, Constructor<?> constructor) {
+        InstructionAdapter mv = visitMemberMethod(INVOKE_PREFIX, index, INVOKE_DESCRIPTOR);
+        Type declaringType = Type.getType(constructor.getDeclaringClass());
+        mv.anew(declaringType);
+        mv.dup();
+        loadArguments(mv, constructor);
+        mv.invokespecial(declaringType.getInternalName(), INIT, Type.getConstructorDescriptor(constructor), false);
+        mv.areturn(OBJECT_TYPE);
+        endMethod(mv);
+    }
+
+    private void generateGetField(int index, Field field) {
+        InstructionAdapter mv = visitMemberMethod(GET_PREFIX, index, GET_DESCRIPTOR);
+        String owner = Type.getInternalName(field.getDeclaringClass());
+        Type fieldType = Type.getType(field.getType());
+        if (Modifier.isStatic(field.getModifiers())) {
+            mv.getstatic(owner, field.getName(), fieldType.getDescriptor());
+        } else {
+            mv.load(0, OBJECT_TYPE);
+            mv.checkcast(Type.getType(field.getDeclaringClass()));
+            mv.getfield(owner, field.getName(), fieldType.getDescriptor());
+        }
+        box(mv, fieldType);
+        mv.areturn(OBJECT_TYPE);
+        endMethod(mv);
+    }
+
+    private void generateSetField(int index, Field field) {
+        InstructionAdapter mv = visitMemberMethod(SET_PREFIX, index, SET_DESCRIPTOR);
+        String owner = Type.getInternalName(field.getDeclaringClass());
+        Type fieldType = Type.getType(field.getType());
+        if (Modifier.isStatic(field.getModifiers())) {
+            mv.load(1, OBJECT_TYPE);
+            unboxOrCast(mv, fieldType);
+            mv.putstatic(owner, field.getName(), fieldType.getDescriptor());
+        } else {
+            mv.load(0, OBJECT_TYPE);
+            mv.checkcast(Type.getType(field.getDeclaringClass()));
+            mv.load(1, OBJECT_TYPE);
+            unboxOrCast(mv, fieldType);
+            mv.putfield(owner, field.getName(), fieldType.getDescriptor());
+        }
+        mv.visitInsn(RETURN);
+        endMethod(mv);
+    }
+
+    /**
+     * Generates an interface method that dispatches on the index field to the static member
+     * methods with the given prefix. Indices of members of another kind throw
+     * {@link IllegalStateException}.
+     */
+    private void generateDispatch(String name, String descriptor, String prefix, String memberDescriptor, Kind kind) {
+        InstructionAdapter mv = new InstructionAdapter(cw.visitMethod(ACC_PUBLIC, name, descriptor, null, null));
+        mv.visitCode();
+        Label unsupported = new Label();
+        Label[] labels = new Label[members.size()];
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = kind.includes(members.get(i)) ? new Label() : unsupported;
+        }
+        mv.load(0, OBJECT_TYPE);
+        mv.getfield(generatedClassName, INDEX_FIELD_NAME, Type.INT_TYPE.getDescriptor());
+        mv.tableswitch(0, labels.length - 1, unsupported, labels);
+        Type[] parameterTypes = Type.getArgumentTypes(memberDescriptor);
+        Type returnType = Type.getReturnType(memberDescriptor);
+        for (int i = 0; i < labels.length; i++) {
+            if (labels[i] == unsupported) {
+                continue;
+            }
+            mv.mark(labels[i]);
+            for (int p = 0; p < parameterTypes.length; p++) {
+                mv.load(p + 1, OBJECT_TYPE);
+                if (!parameterTypes[p].equals(OBJECT_TYPE)) {
+                    mv.checkcast(parameterTypes[p]);
+                }
+            }
+            mv.invokestatic(generatedClassName, prefix + i, memberDescriptor, false);
+            if (returnType.equals(Type.VOID_TYPE)) {
+                mv.visitInsn(RETURN);
+            } else {
+                mv.areturn(OBJECT_TYPE);
+            }
+        }
+        mv.mark(unsupported);
+        mv.anew(Type.getObjectType(ILLEGAL_STATE_TYPE_NAME));
+        mv.dup();
+        mv.invokespecial(ILLEGAL_STATE_TYPE_NAME, INIT, Type.getMethodDescriptor(Type.VOID_TYPE), false);
+        mv.athrow();
+        endMethod(mv);
+    }
+
+    private static void loadArguments(InstructionAdapter mv, Executable executable) {
+        Class<?>[] parameterTypes = executable.getParameterTypes();
+        for (int i = 0; i < parameterTypes.length; i++) {
+            mv.load(1, OBJECT_ARRAY_TYPE);
+            mv.iconst(i);
+            mv.aload(OBJECT_TYPE);
+            unboxOrCast(mv, Type.getType(parameterTypes[i]));
+        }
+    }
+
+    private static void unboxOrCast(InstructionAdapter mv, Type type) {
+        Type boxedType = getBoxedType(type);
+        if (boxedType != null) {
+            mv.checkcast(boxedType);
+            mv.invokevirtual(boxedType.getInternalName(), type.getClassName() + "Value", Type.getMethodDescriptor(type), false);
+        } else if (!type.equals(OBJECT_TYPE)) {
+            mv.checkcast(type);
+        }
+    }
+
+    private static void box(InstructionAdapter mv, Type type) {
+        if (type.equals(Type.VOID_TYPE)) {
+            mv.aconst(null);
+            return;
+        }
+        Type boxedType = getBoxedType(type);
+        if (boxedType != null) {
+            mv.invokestatic(boxedType.getInternalName(), "valueOf", Type.getMethodDescriptor(boxedType, type), false);
+        }
+    }
+
+    private static Type getBoxedType(Type type) {
+        switch (type.getSort()) {
+            case Type.BOOLEAN:
+                return Type.getType(Boolean.class);
+            case Type.BYTE:
+                return Type.getType(Byte.class);
+            case Type.CHAR:
+                return Type.getType(Character.class);
+            case Type.SHORT:
+                return Type.getType(Short.class);
+            case Type.INT:
+                return Type.getType(Integer.class);
+            case Type.LONG:
+                return Type.getType(Long.class);
+            case Type.FLOAT:
+                return Type.getType(Float.class);
+            case Type.DOUBLE:
+                return Type.getType(Double.class);
+            default:
+                return null;
+        }
+    }
+
+    private static void endMethod(InstructionAdapter mv) {
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    private enum Kind {
+        EXECUTABLE,
+        READABLE_FIELD,
+        WRITABLE_FIELD;
+
+        boolean includes(Member member) {
+            switch (this) {
+                case EXECUTABLE:
+                    return member instanceof Executable;
+                case READABLE_FIELD:
+                    return member instanceof Field;
+                case WRITABLE_FIELD:
+                    return member instanceof Field && !Modifier.isFinal(member.getModifiers());
+                default:
+                    throw new AssertionError(this);
+            }
+        }
+    }
+}
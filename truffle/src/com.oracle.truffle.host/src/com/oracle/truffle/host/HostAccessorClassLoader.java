@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2021, 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.host;
+
+import java.security.SecureClassLoader;
+
+/**
+ * Loads a single host accessor class generated by {@link HostAccessorBytecodeGenerator}. All other
+ * classes are loaded by the parent class loader, which is the class loader of the host class.
+ * Accessor classes deliberately do not use the {@link HostAdapterClassLoader}, so that they are not
+ * mistaken for host adapter classes, e.g., by {@link HostAdapterClassLoader#isGeneratedClass}.
+ */
+final class HostAccessorClassLoader extends SecureClassLoader {
+
+    private final String className;
+    private final byte[] classBytes;
+
+    /**
+     * @param parentLoader the class loader of the host class, or {@code null} for classes loaded by
+     *            the bootstrap class loader
+     */
+    HostAccessorClassLoader(ClassLoader parentLoader, String className, byte[] classBytes) {
+        super(parentLoader);
+        this.className = className.replace('/', '.');
+        this.classBytes = classBytes;
+    }
+
+    /**
+     * Loads and initializes the accessor class.
+     */
+    Class<?> loadAccessorClass() {
+        try {
+            return Class.forName(className, true, this);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        if (name.equals(className)) {
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> c = findLoadedClass(name);
+                if (c == null) {
+                    c = findClass(name);
+                }
+                if (resolve) {
+                    resolveClass(c);
+                }
+                return c;
+            }
+        }
+        return super.loadClass(name, resolve);
+    }
+
+    @Override
+    protected Class<?> findClass(String name) throws ClassNotFoundException {
+        if (name.equals(className)) {
+            return defineClass(name, classBytes, 0, classBytes.length, HostAdapterClassLoader.GENERATED_PROTECTION_DOMAIN);
+        }
+        throw new ClassNotFoundException(name);
+    }
+}
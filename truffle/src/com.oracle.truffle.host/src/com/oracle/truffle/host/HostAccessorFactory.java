@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2021, 2021, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or
+ * data (collectively the "Software"), free of charge and under any and all
+ * copyright rights in the Software, and any and all patent rights owned or
+ * freely licensable by each licensor hereunder covering either (i) the
+ * unmodified Software as contributed to or provided by such licensor, or (ii)
+ * the Larger Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ *
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ * one is included with the Software each a "Larger Work" to which the Software
+ * is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.truffle.host;
+
+import java.lang.reflect.Member;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.oracle.truffle.api.CompilerAsserts;
+
+/**
+ * Collects the members of a host class that are accessed through generated accessor classes and
+ * lazily generates these classes. Members are grouped into accessor classes of at most
+ * {@link #MEMBERS_PER_CLASS} members, each generated on first access to one of its members, so
+ * that large host classes neither exceed class file limits nor pay for members that are never
+ * used.
+ *
+ * @see HostAccessorBytecodeGenerator
+ */
+final class HostAccessorFactory {
+
+    static final int MEMBERS_PER_CLASS = 256;
+
+    private final Class<?> type;
+    private final List<Member> members = new ArrayList<>();
+    private Class<?>[] accessorClasses = new Class<?>[0];
+
+    HostAccessorFactory(Class<?> type) {
+        this.type = type;
+    }
+
+    /**
+     * Registers a public method, constructor or field and returns its index. All members must be
+     * registered before the first accessor is created.
+     */
+    synchronized int register(Member member) {
+        assert accessorClasses.length == 0 : "accessor classes already generated";
+        members.add(member);
+        return members.size() - 1;
+    }
+
+    /**
+     * Returns a new accessor instance for the member with the given index. The instance implements
+     * the interfaces described in {@link HostAccessorBytecodeGenerator}.
+     */
+    synchronized Object createAccessor(int index) {
+        CompilerAsserts.neverPartOfCompilation();
+        int chunk = index / MEMBERS_PER_CLASS;
+        if (chunk >= accessorClasses.length) {
+            accessorClasses = Arrays.copyOf(accessorClasses, (members.size() + MEMBERS_PER_CLASS - 1) / MEMBERS_PER_CLASS);
+        }
+        Class<?> accessorClass = accessorClasses[chunk];
+        if (accessorClass == null) {
+            int from = chunk * MEMBERS_PER_CLASS;
+            List<Member> chunkMembers = new ArrayList<>(members.subList(from, Math.min(from + MEMBERS_PER_CLASS, members.size())));
+            HostAccessorBytecodeGenerator bytecodeGenerator = new HostAccessorBytecodeGenerator(type, chunk, chunkMembers);
+            // the class loader of the host class can see all classes of its public members
+            accessorClass = bytecodeGenerator.generateClass(type.getClassLoader());
+            accessorClasses[chunk] = accessorClass;
+        }
+        try {
+            return accessorClass.getConstructor(int.class).newInstance(index % MEMBERS_PER_CLASS);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -141,11 +141,12 @@ final class HostClassDesc {
             Map<String, HostFieldDesc> fieldMap = new LinkedHashMap<>();
             Map<String, HostFieldDesc> staticFieldMap = new LinkedHashMap<>();
             HostMethodDesc functionalInterfaceMethod = null;
+            HostAccessorFactory accessors = new HostAccessorFactory(type);
 
-            collectPublicMethods(hostAccess, type, methodMap, staticMethodMap);
-            collectPublicFields(hostAccess, type, fieldMap, staticFieldMap);
+            collectPublicMethods(hostAccess, type, methodMap, staticMethodMap, accessors);
+            collectPublicFields(hostAccess, type, fieldMap, staticFieldMap, accessors);
 
-            HostMethodDesc ctor = collectPublicConstructors(hostAccess, type);
+            HostMethodDesc ctor = collectPublicConstructors(hostAccess, type, accessors);
 
             if (!Modifier.isInterface(type.getModifiers()) && !Modifier.isAbstract(type.getModifiers())) {
                 String functionalInterfaceMethodName = findFunctionalInterfaceMethodName(type);
@@ -166,26 +167,27 @@ final class HostClassDesc {
             return Modifier.isPublic(declaringClass.getModifiers()) && HostAccessor.JDKSERVICES.verifyModuleVisibility(hostAccess.getUnnamedModule(), declaringClass);
         }
 
-        private static HostMethodDesc collectPublicConstructors(HostClassCache hostAccess, Class<?> type) {
+        private static HostMethodDesc collectPublicConstructors(HostClassCache hostAccess, Class<?> type, HostAccessorFactory accessors) {
             HostMethodDesc ctor = null;
             if (isClassAccessible(type, hostAccess)) {
                 for (Constructor<?> c : type.getConstructors()) {
                     if (!hostAccess.allowsAccess(c)) {
                         continue;
                     }
-                    SingleMethod overload = SingleMethod.unreflect(c);
+                    SingleMethod overload = SingleMethod.unreflect(c, accessors);
                     ctor = ctor == null ? overload : merge(ctor, overload);
                 }
             }
             return ctor;
         }
 
-        private static void collectPublicMethods(HostClassCache hostAccess, Class<?> type, Map<String, HostMethodDesc> methodMap, Map<String, HostMethodDesc> staticMethodMap) {
-            collectPublicMethods(hostAccess, type, methodMap, staticMethodMap, new HashSet<>(), type);
+        private static void collectPublicMethods(HostClassCache hostAccess, Class<?> type, Map<String, HostMethodDesc> methodMap, Map<String, HostMethodDesc> staticMethodMap,
+                        HostAccessorFactory accessors) {
+            collectPublicMethods(hostAccess, type, methodMap, staticMethodMap, new HashSet<>(), type, accessors);
         }
 
         private static void collectPublicMethods(HostClassCache hostAccess, Class<?> type, Map<String, HostMethodDesc> methodMap, Map<String, HostMethodDesc> staticMethodMap, Set<Object> visited,
-                        Class<?> startType) {
+                        Class<?> startType, HostAccessorFactory accessors) {
             boolean isPublicType = isClassAccessible(type, hostAccess) && !Proxy.isProxyClass(type);
             boolean allMethodsPublic = true;
             List<Method> bridgeMethods = null;
@@ -223,7 +225,7 @@ final class HostClassDesc {
                         continue;
                     }
                     if (visited.add(methodInfo(m))) {
-                        putMethod(hostAccess, m, methodMap, staticMethodMap);
+                        putMethod(hostAccess, m, methodMap, staticMethodMap, accessors);
                     }
                 }
             }
@@ -233,11 +235,11 @@ final class HostClassDesc {
              */
             if (!isPublicType || !allMethodsPublic) {
                 if (type.getSuperclass() != null) {
-                    collectPublicMethods(hostAccess, type.getSuperclass(), methodMap, staticMethodMap, visited, startType);
+                    collectPublicMethods(hostAccess, type.getSuperclass(), methodMap, staticMethodMap, visited, startType, accessors);
                 }
                 for (Class<?> intf : type.getInterfaces()) {
                     if (visited.add(intf)) {
-                        collectPublicMethods(hostAccess, intf, methodMap, staticMethodMap, visited, startType);
+                        collectPublicMethods(hostAccess, intf, methodMap, staticMethodMap, visited, startType, accessors);
                     }
                 }
             }
@@ -245,7 +247,7 @@ final class HostClassDesc {
             if (bridgeMethods != null && !bridgeMethods.isEmpty()) {
                 for (Method m : bridgeMethods) {
                     if (visited.add(methodInfo(m))) {
-                        putMethod(hostAccess, m, methodMap, staticMethodMap);
+                        putMethod(hostAccess, m, methodMap, staticMethodMap, accessors);
                     }
                 }
             }
@@ -280,11 +282,12 @@ final class HostClassDesc {
             return new MethodInfo();
         }
 
-        private static void putMethod(HostClassCache hostAccess, Method m, Map<String, HostMethodDesc> methodMap, Map<String, HostMethodDesc> staticMethodMap) {
+        private static void putMethod(HostClassCache hostAccess, Method m, Map<String, HostMethodDesc> methodMap, Map<String, HostMethodDesc> staticMethodMap,
+                        HostAccessorFactory accessors) {
             if (!hostAccess.allowsAccess(m)) {
                 return;
             }
-            SingleMethod method = SingleMethod.unreflect(m);
+            SingleMethod method = SingleMethod.unreflect(m, accessors);
             Map<String, HostMethodDesc> map = Modifier.isStatic(m.getModifiers()) ? staticMethodMap : methodMap;
             map.merge(m.getName(), method, MERGE);
         }
@@ -301,7 +304,8 @@ final class HostClassDesc {
             }
         }
 
-        private static void collectPublicFields(HostClassCache hostAccess, Class<?> type, Map<String, HostFieldDesc> fieldMap, Map<String, HostFieldDesc> staticFieldMap) {
+        private static void collectPublicFields(HostClassCache hostAccess, Class<?> type, Map<String, HostFieldDesc> fieldMap, Map<String, HostFieldDesc> staticFieldMap,
+                        HostAccessorFactory accessors) {
             if (isClassAccessible(type, hostAccess)) {
                 boolean inheritedPublicInstanceFields = false;
                 boolean inheritedPublicInaccessibleFields = false;
@@ -310,7 +314,7 @@ final class HostClassDesc {
                         if (f.getDeclaringClass() == type) {
                             assert !fieldMap.containsKey(f.getName());
                             if (hostAccess.allowsAccess(f)) {
-                                fieldMap.put(f.getName(), HostFieldDesc.unreflect(f));
+                                fieldMap.put(f.getName(), HostFieldDesc.unreflect(f, accessors));
                             }
                         } else {
                             if (isClassAccessible(f.getDeclaringClass(), hostAccess)) {
@@ -322,21 +326,22 @@ final class HostClassDesc {
                     } else {
                         // do not inherit static fields
                         if (f.getDeclaringClass() == type && hostAccess.allowsAccess(f)) {
-                            staticFieldMap.put(f.getName(), HostFieldDesc.unreflect(f));
+                            staticFieldMap.put(f.getName(), HostFieldDesc.unreflect(f, accessors));
                         }
                     }
                 }
                 if (inheritedPublicInstanceFields) {
-                    collectPublicInstanceFields(hostAccess, type, fieldMap, inheritedPublicInaccessibleFields);
+                    collectPublicInstanceFields(hostAccess, type, fieldMap, inheritedPublicInaccessibleFields, accessors);
                 }
             } else {
                 if (!Modifier.isInterface(type.getModifiers())) {
-                    collectPublicInstanceFields(hostAccess, type, fieldMap, true);
+                    collectPublicInstanceFields(hostAccess, type, fieldMap, true, accessors);
                 }
             }
         }
 
-        private static void collectPublicInstanceFields(HostClassCache hostAccess, Class<?> type, Map<String, HostFieldDesc> fieldMap, boolean mayHaveInaccessibleFields) {
+        private static void collectPublicInstanceFields(HostClassCache hostAccess, Class<?> type, Map<String, HostFieldDesc> fieldMap, boolean mayHaveInaccessibleFields,
+                        HostAccessorFactory accessors) {
             Set<String> fieldNames = new HashSet<>();
             for (Class<?> superclass = type; superclass != null && superclass != Object.class; superclass = superclass.getSuperclass()) {
                 boolean inheritedPublicInstanceFields = false;
@@ -356,7 +361,7 @@ final class HostClassDesc {
                     }
                     if (isClassAccessible(f.getDeclaringClass(), hostAccess)) {
                         if (hostAccess.allowsAccess(f)) {
-                            fieldMap.putIfAbsent(f.getName(), HostFieldDesc.unreflect(f));
+                            fieldMap.putIfAbsent(f.getName(), HostFieldDesc.unreflect(f, accessors));
                         }
                     } else {
                         assert mayHaveInaccessibleFields;
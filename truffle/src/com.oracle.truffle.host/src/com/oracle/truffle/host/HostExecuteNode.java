@@ -1053,7 +1053,7 @@ abstract class HostExecuteNode extends Node {
         public abstract SingleMethod execute(SingleMethod method);
 
         @Specialization
-        static SingleMethod mono(SingleMethod.MHBase method) {
+        static SingleMethod mono(SingleMethod.AccessorBase method) {
             return method;
         }
 
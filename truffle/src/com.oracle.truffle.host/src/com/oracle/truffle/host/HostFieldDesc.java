@@ -42,12 +42,11 @@ package com.oracle.truffle.host;
 
 import static com.oracle.truffle.api.CompilerDirectives.shouldNotReachHere;
 
-import java.lang.invoke.MethodHandle;
-import java.lang.invoke.MethodHandles;
-import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives;
@@ -89,12 +88,12 @@ abstract class HostFieldDesc {
 
     public abstract void set(Object receiver, Object value) throws ClassCastException, NullPointerException, IllegalArgumentException;
 
-    static HostFieldDesc unreflect(Field reflectionField) {
+    static HostFieldDesc unreflect(Field reflectionField, HostAccessorFactory accessors) {
         assert isAccessible(reflectionField);
-        if (TruffleOptions.AOT) { // use reflection instead of MethodHandle
+        if (TruffleOptions.AOT) { // use reflection instead of generated accessors
             return new ReflectImpl(reflectionField);
         } else {
-            return new MHImpl(reflectionField);
+            return new AccessorImpl(reflectionField, accessors);
         }
     }
 
@@ -144,78 +143,64 @@ abstract class HostFieldDesc {
         }
     }
 
-    private static final class MHImpl extends HostFieldDesc {
+    /*
+     * Accesses the field through a generated accessor class, see HostAccessorBytecodeGenerator.
+     */
+    private static final class AccessorImpl extends HostFieldDesc {
         private final Field field;
-        @CompilationFinal private MethodHandle getHandle;
-        @CompilationFinal private MethodHandle setHandle;
+        private final HostAccessorFactory accessors;
+        private final int accessorIndex;
+        @CompilationFinal private Function<Object, Object> getAccessor;
+        @CompilationFinal private BiConsumer<Object, Object> setAccessor;
 
-        MHImpl(Field field) {
+        AccessorImpl(Field field, HostAccessorFactory accessors) {
             super(field.getType(), field.getGenericType(), field.getName(), Modifier.isFinal(field.getModifiers()));
             this.field = field;
+            this.accessors = accessors;
+            this.accessorIndex = accessors.register(field);
         }
 
+        @SuppressWarnings("unchecked")
         @Override
         public Object get(Object receiver) {
-            if (getHandle == null) {
+            if (getAccessor == null) {
                 CompilerDirectives.transferToInterpreterAndInvalidate();
-                getHandle = makeGetMethodHandle();
+                getAccessor = (Function<Object, Object>) createAccessor();
             }
             try {
-                return invokeGetHandle(getHandle, receiver);
+                return invokeGetAccessor(getAccessor, receiver);
             } catch (Throwable e) {
                 throw HostInteropReflect.rethrow(e);
             }
         }
 
+        @SuppressWarnings("unchecked")
         @Override
         public void set(Object receiver, Object value) {
-            if (setHandle == null) {
+            if (setAccessor == null) {
                 CompilerDirectives.transferToInterpreterAndInvalidate();
-                setHandle = makeSetMethodHandle();
+                setAccessor = (BiConsumer<Object, Object>) createAccessor();
             }
             try {
-                invokeSetHandle(setHandle, receiver, value);
+                invokeSetAccessor(setAccessor, receiver, value);
             } catch (Throwable e) {
                 throw HostInteropReflect.rethrow(e);
             }
         }
 
         @TruffleBoundary(allowInlining = true)
-        private static Object invokeGetHandle(MethodHandle invokeHandle, Object receiver) throws Throwable {
-            return invokeHandle.invokeExact(receiver);
+        private static Object invokeGetAccessor(Function<Object, Object> accessor, Object receiver) {
+            return accessor.apply(receiver);
         }
 
         @TruffleBoundary(allowInlining = true)
-        private static void invokeSetHandle(MethodHandle invokeHandle, Object receiver, Object value) throws Throwable {
-            invokeHandle.invokeExact(receiver, value);
+        private static void invokeSetAccessor(BiConsumer<Object, Object> accessor, Object receiver, Object value) {
+            accessor.accept(receiver, value);
         }
 
-        private MethodHandle makeGetMethodHandle() {
+        private Object createAccessor() {
             CompilerAsserts.neverPartOfCompilation();
-            try {
-                MethodHandle getter = MethodHandles.publicLookup().unreflectGetter(field);
-                if (Modifier.isStatic(field.getModifiers())) {
-                    return MethodHandles.dropArguments(getter.asType(MethodType.methodType(Object.class)), 0, Object.class);
-                } else {
-                    return getter.asType(MethodType.methodType(Object.class, Object.class));
-                }
-            } catch (IllegalAccessException e) {
-                throw new IllegalStateException(e);
-            }
-        }
-
-        private MethodHandle makeSetMethodHandle() {
-            CompilerAsserts.neverPartOfCompilation();
-            try {
-                MethodHandle setter = MethodHandles.publicLookup().unreflectSetter(field);
-                if (Modifier.isStatic(field.getModifiers())) {
-                    return MethodHandles.dropArguments(setter.asType(MethodType.methodType(void.class, Object.class)), 0, Object.class);
-                } else {
-                    return setter.asType(MethodType.methodType(void.class, Object.class, Object.class));
-                }
-            } catch (IllegalAccessException e) {
-                throw new IllegalStateException(e);
-            }
+            return accessors.createAccessor(accessorIndex);
         }
 
         @Override
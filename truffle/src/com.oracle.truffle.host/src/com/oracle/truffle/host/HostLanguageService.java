@@ -288,8 +288,8 @@ public class HostLanguageService extends AbstractHostService {
         assert assertClassNameUnchanged(SingleMethod.class, "com.oracle.truffle.host.HostMethodDesc$SingleMethod");
 
         switch (element.getClassName()) {
-            case "com.oracle.truffle.host.HostMethodDesc$SingleMethod$MHBase":
-                return element.getMethodName().equals("invokeHandle");
+            case "com.oracle.truffle.host.HostMethodDesc$SingleMethod$AccessorBase":
+                return element.getMethodName().equals("invokeAccessor");
             case "com.oracle.truffle.host.HostMethodDesc$SingleMethod$MethodReflectImpl":
                 return element.getMethodName().equals("reflectInvoke");
             case "com.oracle.truffle.host.HostObject$GuestToHostCalls":
@@ -306,6 +306,8 @@ public class HostLanguageService extends AbstractHostService {
         throw new AssertionError("Class name is outdated. Expected " + name + " but got " + c.getName());
     }
 
+    private static final String ACCESSOR_CLASS_PREFIX = HostAccessorBytecodeGenerator.ACCESSOR_PACKAGE_PREFIX.replace('/', '.');
+
     private static boolean isGuestToHostReflectiveCall(StackTraceElement element) {
         switch (element.getClassName()) {
             case "sun.reflect.NativeMethodAccessorImpl":
@@ -315,7 +317,7 @@ public class HostLanguageService extends AbstractHostService {
             case "java.lang.reflect.Method":
                 return element.getMethodName().startsWith("invoke");
             default:
-                return false;
+                return element.getClassName().startsWith(ACCESSOR_CLASS_PREFIX);
         }
     }
 
@@ -41,8 +41,6 @@
 package com.oracle.truffle.host;
 
 import java.lang.annotation.Annotation;
-import java.lang.invoke.MethodHandle;
-import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Executable;
 import java.lang.reflect.InvocationTargetException;
@@ -50,6 +48,7 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
 import java.util.StringJoiner;
+import java.util.function.BiFunction;
 
 import com.oracle.truffle.api.CallTarget;
 import com.oracle.truffle.api.CompilerAsserts;
@@ -129,21 +128,21 @@ abstract class HostMethodDesc {
             return getReflectionMethod() instanceof Constructor<?>;
         }
 
-        static SingleMethod unreflect(Method reflectionMethod) {
+        static SingleMethod unreflect(Method reflectionMethod, HostAccessorFactory accessors) {
             assert isAccessible(reflectionMethod);
             if (TruffleOptions.AOT || isCallerSensitive(reflectionMethod)) {
                 return new MethodReflectImpl(reflectionMethod);
             } else {
-                return new MethodMHImpl(reflectionMethod);
+                return new MethodAccessorImpl(reflectionMethod, accessors);
             }
         }
 
-        static SingleMethod unreflect(Constructor<?> reflectionConstructor) {
+        static SingleMethod unreflect(Constructor<?> reflectionConstructor, HostAccessorFactory accessors) {
             assert isAccessible(reflectionConstructor);
             if (TruffleOptions.AOT || isCallerSensitive(reflectionConstructor)) {
                 return new ConstructorReflectImpl(reflectionConstructor);
             } else {
-                return new ConstructorMHImpl(reflectionConstructor);
+                return new ConstructorAccessorImpl(reflectionConstructor, accessors);
             }
         }
 
@@ -261,67 +260,66 @@ abstract class HostMethodDesc {
             }
         }
 
-        abstract static class MHBase extends SingleMethod {
-            @CompilationFinal private MethodHandle methodHandle;
+        /*
+         * Invokes the method through a generated accessor class, see HostAccessorBytecodeGenerator.
+         */
+        abstract static class AccessorBase extends SingleMethod {
+            private final HostAccessorFactory accessors;
+            private final int accessorIndex;
+            @CompilationFinal private BiFunction<Object, Object[], Object> accessor;
 
-            MHBase(Executable executable) {
+            AccessorBase(Executable executable, HostAccessorFactory accessors) {
                 super(executable);
+                this.accessors = accessors;
+                this.accessorIndex = accessors.register(executable);
             }
 
             @Override
             public final Object invoke(Object receiver, Object[] arguments) throws Throwable {
-                MethodHandle handle = methodHandle;
-                if (handle == null) {
+                BiFunction<Object, Object[], Object> a = accessor;
+                if (a == null) {
                     CompilerDirectives.transferToInterpreterAndInvalidate();
-                    handle = makeMethodHandle();
-                    methodHandle = handle;
+                    a = createAccessor();
+                    accessor = a;
                 }
-                return invokeHandle(handle, receiver, arguments);
+                return invokeAccessor(a, receiver, arguments);
             }
 
             @TruffleBoundary(allowInlining = true)
-            static Object invokeHandle(MethodHandle invokeHandle, Object receiver, Object[] arguments) throws Throwable {
-                return invokeHandle.invokeExact(receiver, arguments);
+            static Object invokeAccessor(BiFunction<Object, Object[], Object> invokeAccessor, Object receiver, Object[] arguments) {
+                return invokeAccessor.apply(receiver, arguments);
             }
 
-            protected abstract MethodHandle makeMethodHandle();
-
-            protected static MethodHandle adaptSignature(MethodHandle originalHandle, boolean isStatic, int parameterCount) {
-                MethodHandle adaptedHandle = originalHandle;
-                adaptedHandle = adaptedHandle.asType(adaptedHandle.type().changeReturnType(Object.class));
-                if (isStatic) {
-                    adaptedHandle = MethodHandles.dropArguments(adaptedHandle, 0, Object.class);
-                } else {
-                    adaptedHandle = adaptedHandle.asType(adaptedHandle.type().changeParameterType(0, Object.class));
-                }
-                adaptedHandle = adaptedHandle.asSpreader(Object[].class, parameterCount);
-                return adaptedHandle;
+            @SuppressWarnings("unchecked")
+            @TruffleBoundary
+            private BiFunction<Object, Object[], Object> createAccessor() {
+                return (BiFunction<Object, Object[], Object>) accessors.createAccessor(accessorIndex);
             }
 
             @Override
             public Object invokeGuestToHost(Object receiver, Object[] arguments, GuestToHostCodeCache cache, HostContext hostContext, Node node) {
-                MethodHandle handle = methodHandle;
-                if (handle == null) {
+                BiFunction<Object, Object[], Object> a = accessor;
+                if (a == null) {
                     if (CompilerDirectives.isPartialEvaluationConstant(this)) {
-                        // we must not repeatedly deoptimize if MHBase is uncached.
-                        // it ok to modify the methodHandle here even though it is compilation final
-                        // because it is always initialized to the same value.
+                        // we must not repeatedly deoptimize if AccessorBase is uncached.
+                        // it ok to modify the accessor here even though it is compilation final
+                        // because it is always initialized to an equivalent value.
                         CompilerDirectives.transferToInterpreterAndInvalidate();
                     }
-                    methodHandle = handle = makeMethodHandle();
+                    accessor = a = createAccessor();
                 }
-                CallTarget target = cache.methodHandleHostInvoke;
+                CallTarget target = cache.accessorHostInvoke;
                 CompilerAsserts.partialEvaluationConstant(target);
-                return GuestToHostRootNode.guestToHostCall(node, target, hostContext, receiver, handle, arguments);
+                return GuestToHostRootNode.guestToHostCall(node, target, hostContext, receiver, a, arguments);
             }
 
         }
 
-        private static final class MethodMHImpl extends MHBase {
+        private static final class MethodAccessorImpl extends AccessorBase {
             private final Method reflectionMethod;
 
-            MethodMHImpl(Method reflectionMethod) {
-                super(reflectionMethod);
+            MethodAccessorImpl(Method reflectionMethod, HostAccessorFactory accessors) {
+                super(reflectionMethod, accessors);
                 this.reflectionMethod = reflectionMethod;
             }
 
@@ -340,25 +338,13 @@ abstract class HostMethodDesc {
             public boolean isInternal() {
                 return getReflectionMethod().getDeclaringClass() == Object.class;
             }
-
-            @Override
-            @TruffleBoundary
-            protected MethodHandle makeMethodHandle() {
-                try {
-                    Method m = reflectionMethod;
-                    final MethodHandle methodHandle = MethodHandles.publicLookup().unreflect(m);
-                    return adaptSignature(methodHandle, Modifier.isStatic(m.getModifiers()), m.getParameterCount());
-                } catch (IllegalAccessException e) {
-                    throw new IllegalStateException(e);
-                }
-            }
         }
 
-        private static final class ConstructorMHImpl extends MHBase {
+        private static final class ConstructorAccessorImpl extends AccessorBase {
             private final Constructor<?> reflectionConstructor;
 
-            ConstructorMHImpl(Constructor<?> reflectionConstructor) {
-                super(reflectionConstructor);
+            ConstructorAccessorImpl(Constructor<?> reflectionConstructor, HostAccessorFactory accessors) {
+                super(reflectionConstructor, accessors);
                 this.reflectionConstructor = reflectionConstructor;
             }
 
@@ -372,18 +358,6 @@ abstract class HostMethodDesc {
             public Class<?> getReturnType() {
                 return getReflectionMethod().getDeclaringClass();
             }
-
-            @Override
-            @TruffleBoundary
-            protected MethodHandle makeMethodHandle() {
-                CompilerAsserts.neverPartOfCompilation();
-                try {
-                    final MethodHandle methodHandle = MethodHandles.publicLookup().unreflectConstructor(reflectionConstructor);
-                    return adaptSignature(methodHandle, true, getParameterCount());
-                } catch (IllegalAccessException e) {
-                    throw new IllegalStateException(e);
-                }
-            }
         }
     }
 
@@ -47,6 +47,7 @@ import org.graalvm.polyglot.Source;
 import org.graalvm.polyglot.Value;
 import org.graalvm.polyglot.io.ByteSequence;
 import org.graalvm.wasm.WasmContext;
+import org.graalvm.wasm.constants.Sizes;
 import org.graalvm.wasm.memory.UnsafeWasmMemory;
 import org.graalvm.wasm.utils.Assert;
 import org.junit.Test;
@@ -102,6 +103,45 @@ public class WasmPolyglotTestSuite {
         Assert.assertTrue("Memory should have been freed.", memory.freed());
     }
 
+    @Test
+    public void unsafeMemoryGrowth() {
+        final int maxPages = 20;
+        try (UnsafeWasmMemory memory = new UnsafeWasmMemory(1, maxPages, maxPages)) {
+            // Fill the initial page, then grow one page at a time, so that the backing allocation
+            // is enlarged several times.
+            for (int address = 0; address < Sizes.MEMORY_PAGE_SIZE; address += 4) {
+                memory.store_i32(null, address, address ^ 0x5a5a5a5a);
+            }
+            for (int page = 1; page < maxPages; page++) {
+                Assert.assertTrue("Memory should grow.", memory.grow(1));
+                Assert.assertEquals("Memory size", page + 1, memory.size());
+                final int pageStart = page * Sizes.MEMORY_PAGE_SIZE;
+                for (int address = pageStart; address < pageStart + Sizes.MEMORY_PAGE_SIZE; address += 8) {
+                    Assert.assertEquals("Grown memory should be zeroed", 0L, memory.load_i64(null, address));
+                }
+                memory.store_i32(null, pageStart, page);
+                memory.store_i32(null, pageStart + Sizes.MEMORY_PAGE_SIZE - 4, -page);
+            }
+            Assert.assertTrue("Memory should not grow beyond its maximum.", !memory.grow(1));
+
+            for (int address = 0; address < Sizes.MEMORY_PAGE_SIZE; address += 4) {
+                Assert.assertEquals("Initial page", address ^ 0x5a5a5a5a, memory.load_i32(null, address));
+            }
+            for (int page = 1; page < maxPages; page++) {
+                final int pageStart = page * Sizes.MEMORY_PAGE_SIZE;
+                Assert.assertEquals("First word of page " + page, page, memory.load_i32(null, pageStart));
+                Assert.assertEquals("Last word of page " + page, -page, memory.load_i32(null, pageStart + Sizes.MEMORY_PAGE_SIZE - 4));
+            }
+
+            // Growing after a reset reuses the allocation, which must be cleared again.
+            memory.reset();
+            Assert.assertTrue("Memory should grow after reset.", memory.grow(maxPages - 1));
+            for (int address = 0; address < memory.byteSize(); address += 8) {
+                Assert.assertEquals("Memory should be zeroed after reset", 0L, memory.load_i64(null, address));
+            }
+        }
+    }
+
     @Test
     public void overwriteElement() throws IOException, InterruptedException {
         final ByteSequence test = ByteSequence.create(compileWat("test", textOverwriteElement));
@@ -135,6 +175,45 @@ public class WasmPolyglotTestSuite {
         }
     }
 
+    @Test
+    public void parallelParsing() throws IOException {
+        final Source source = Source.newBuilder("wasm", ByteSequence.create(binaryMultipleFunctions), "main").build();
+        try (Context sequential = Context.create("wasm");
+                        Context parallel = Context.newBuilder("wasm").allowExperimentalOptions(true).option("wasm.ParallelParsingThreads", "4").build()) {
+            sequential.eval(source);
+            parallel.eval(source);
+            final Value sequentialModule = sequential.getBindings("wasm").getMember("main");
+            final Value parallelModule = parallel.getBindings("wasm").getMember("main");
+            Assert.assertEquals("main", 145, parallelModule.getMember("main").execute().asInt());
+            Assert.assertEquals("main", sequentialModule.getMember("main").execute().asInt(), parallelModule.getMember("main").execute().asInt());
+            for (int i = 0; i < 10; i++) {
+                Assert.assertEquals("fact(" + i + ")", sequentialModule.getMember("fact").execute(i).asInt(), parallelModule.getMember("fact").execute(i).asInt());
+                Assert.assertEquals("sumSquares(" + i + ", 7)", sequentialModule.getMember("sumSquares").execute(i, 7).asInt(),
+                                parallelModule.getMember("sumSquares").execute(i, 7).asInt());
+            }
+        }
+    }
+
+    @Test
+    public void parallelParsingReportsFirstInvalidFunction() throws IOException {
+        final String sequentialMessage = parseErrorMessage(binaryInvalidFunctions, 1);
+        final String parallelMessage = parseErrorMessage(binaryInvalidFunctions, 4);
+        Assert.assertNotNull("Parsing should fail.", sequentialMessage);
+        Assert.assertEquals("Parallel parsing should report the same error", sequentialMessage, parallelMessage);
+    }
+
+    private static String parseErrorMessage(byte[] binary, int parsingThreads) throws IOException {
+        final Source source = Source.newBuilder("wasm", ByteSequence.create(binary), "main").build();
+        try (Context context = Context.newBuilder("wasm").allowExperimentalOptions(true).option("wasm.ParallelParsingThreads", String.valueOf(parsingThreads)).build()) {
+            context.eval(source);
+            context.getBindings("wasm").getMember("main").getMember("main").execute();
+        } catch (PolyglotException pex) {
+            Assert.assertTrue("Must not be an internal error.", !pex.isInternalError());
+            return pex.getMessage();
+        }
+        return null;
+    }
+
     // (module
     // (type (;0;) (func))
     // (type (;1;) (func (result i32)))
@@ -177,4 +256,44 @@ public class WasmPolyglotTestSuite {
                     "  (elem (i32.const 5) $f)\n" +
                     "  (elem (i32.const 3) $g)\n" +
                     ")";
+
+    // (module
+    // (func $square (param i32) (result i32)
+    // local.get 0 local.get 0 i32.mul)
+    // (func $sumSquares (param i32 i32) (result i32)
+    // local.get 0 call $square local.get 1 call $square i32.add)
+    // (func $fact (param i32) (result i32)
+    // local.get 0 i32.eqz
+    // if (result i32) i32.const 1
+    // else local.get 0 local.get 0 i32.const 1 i32.sub call $fact i32.mul end)
+    // (func $f (result i32) i32.const 3 i32.const 4 call $sumSquares)
+    // (func $g (result i32) i32.const 5 call $fact)
+    // (func $main (result i32) call $f call $g i32.add)
+    // (export "sumSquares" (func $sumSquares))
+    // (export "fact" (func $fact))
+    // (export "main" (func $main)))
+    private static final byte[] binaryMultipleFunctions = hexStringToByteArray(
+                    "0061736d0100000001100360017f017f",
+                    "60027f7f017f6000017f030706000100",
+                    "020202071c030a73756d537175617265",
+                    "73000104666163740002046d61696e00",
+                    "050a43060700200020006c0b0b002000",
+                    "1000200110006a0b1500200045047f41",
+                    "01052000200041016b10026c0b0b0800",
+                    "4103410410010b0600410510020b0700",
+                    "100310046a0b");
+
+    // The second and the fourth function return values of the wrong type.
+    // (module
+    // (func (param i32) (result i32) local.get 0)
+    // (func (result i32) i64.const 1)
+    // (func (param i32) (result i32) local.get 0)
+    // (func (result i32) f32.const 0)
+    // (export "main" (func 0)))
+    private static final byte[] binaryInvalidFunctions = hexStringToByteArray(
+                    "0061736d0100000001100360017f017f",
+                    "60027f7f017f6000017f030504000200",
+                    "02070801046d61696e00000a18040400",
+                    "20000b040042010b040020000b070043",
+                    "000000000b");
 }
@@ -70,7 +70,14 @@ import java.nio.charset.CharsetDecoder;
 import java.nio.charset.CodingErrorAction;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 
 import static org.graalvm.wasm.Assert.assertByteEqual;
 import static org.graalvm.wasm.Assert.assertIntEqual;
@@ -112,6 +119,11 @@ public class BinaryParser extends BinaryStreamParser {
     private final WasmLanguage language;
     private final WasmModule module;
     private final int[] limitsResult;
+    /**
+     * Link actions of the code entry that is being decoded by a parallel parsing worker. They are
+     * added to the module in code entry order once all workers finished.
+     */
+    private ArrayList<BiConsumer<WasmContext, WasmInstance>> pendingLinkActions;
 
     @CompilerDirectives.TruffleBoundary
     public BinaryParser(WasmLanguage language, WasmModule module) {
@@ -432,6 +444,11 @@ public class BinaryParser extends BinaryStreamParser {
         for (int entry = 0; entry != numCodeEntries; ++entry) {
             rootNodes[entry] = createCodeEntry(instance, numImportedFunctions + entry);
         }
+        final int numThreads = Math.min(WasmOptions.ParallelParsingThreads.getValue(context.environment().getOptions()), numCodeEntries);
+        if (numThreads > 1) {
+            readCodeEntriesInParallel(context, instance, rootNodes, numThreads);
+            return;
+        }
         for (int entryIndex = 0; entryIndex != numCodeEntries; ++entryIndex) {
             final int codeEntrySize = readUnsignedInt32();
             final int startOffset = offset;
@@ -442,6 +459,100 @@ public class BinaryParser extends BinaryStreamParser {
         }
     }
 
+    /**
+     * Decodes the code entries on several worker threads. Code entries are independent of each
+     * other: all call targets are created before decoding, and calls are resolved by link actions.
+     * Each worker uses its own parser. The link actions and failures are collected per code entry,
+     * so that the result does not depend on the order in which the workers decode the entries.
+     */
+    private void readCodeEntriesInParallel(WasmContext context, WasmInstance instance, WasmRootNode[] rootNodes, int numThreads) {
+        final int numImportedFunctions = instance.module().importedFunctions().size();
+        final int numCodeEntries = rootNodes.length;
+        final int[] entryOffsets = new int[numCodeEntries];
+        final int[] entrySizes = new int[numCodeEntries];
+        for (int entryIndex = 0; entryIndex != numCodeEntries; ++entryIndex) {
+            entrySizes[entryIndex] = readUnsignedInt32();
+            entryOffsets[entryIndex] = offset;
+            offset += entrySizes[entryIndex];
+        }
+
+        @SuppressWarnings("unchecked")
+        final ArrayList<BiConsumer<WasmContext, WasmInstance>>[] linkActions = new ArrayList[numCodeEntries];
+        final Throwable[] failures = new Throwable[numCodeEntries];
+        final AtomicInteger nextEntry = new AtomicInteger();
+        // Entries are claimed in order, so the entries before a failing one are still decoded.
+        final AtomicBoolean failed = new AtomicBoolean();
+        final Runnable worker = () -> {
+            final BinaryParser parser = new BinaryParser(language, module);
+            int entryIndex;
+            while (!failed.get() && (entryIndex = nextEntry.getAndIncrement()) < numCodeEntries) {
+                try {
+                    parser.offset = entryOffsets[entryIndex];
+                    parser.pendingLinkActions = new ArrayList<>();
+                    parser.readCodeEntry(instance, numImportedFunctions + entryIndex, rootNodes[entryIndex]);
+                    assertIntEqual(parser.offset - entryOffsets[entryIndex], entrySizes[entryIndex], String.format("Code entry %d size is incorrect", entryIndex), Failure.UNSPECIFIED_MALFORMED);
+                    linkActions[entryIndex] = parser.pendingLinkActions;
+                } catch (Throwable t) {
+                    failures[entryIndex] = t;
+                    failed.set(true);
+                }
+            }
+        };
+
+        final int requestedSize = WasmOptions.AsyncParsingStackSize.getValue(context.environment().getOptions()) * 1000;
+        final int stackSize = requestedSize != 0 ? requestedSize : MAX_DEFAULT_ASYNC_STACK_SIZE;
+        final ExecutorService executor = context.parsingExecutor(WasmOptions.ParallelParsingThreads.getValue(context.environment().getOptions()), stackSize);
+        final List<Future<?>> results = new ArrayList<>(numThreads);
+        for (int i = 0; i != numThreads; ++i) {
+            results.add(executor.submit(worker));
+        }
+        try {
+            for (Future<?> result : results) {
+                if (failed.get()) {
+                    // Workers that did not start yet have nothing left to do.
+                    result.cancel(false);
+                }
+                if (!result.isCancelled()) {
+                    result.get();
+                }
+            }
+        } catch (InterruptedException e) {
+            failed.set(true);
+            for (Future<?> result : results) {
+                result.cancel(true);
+            }
+            Thread.currentThread().interrupt();
+            throw WasmException.create(Failure.UNSPECIFIED_INVALID, "Parallel parsing interrupted.");
+        } catch (ExecutionException e) {
+            throw WasmException.create(Failure.UNSPECIFIED_INVALID, "Parallel parsing failed.");
+        }
+
+        for (int entryIndex = 0; entryIndex != numCodeEntries; ++entryIndex) {
+            final Throwable failure = failures[entryIndex];
+            if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
+            } else if (failure instanceof Error) {
+                throw (Error) failure;
+            } else if (failure != null) {
+                throw WasmException.create(Failure.UNSPECIFIED_INVALID, "Parallel parsing failed.");
+            }
+        }
+        for (int entryIndex = 0; entryIndex != numCodeEntries; ++entryIndex) {
+            for (BiConsumer<WasmContext, WasmInstance> action : linkActions[entryIndex]) {
+                module.addLinkAction(action);
+            }
+            context.linker().resolveCodeEntry(module, entryIndex);
+        }
+    }
+
+    private void addLinkAction(BiConsumer<WasmContext, WasmInstance> action) {
+        if (pendingLinkActions != null) {
+            pendingLinkActions.add(action);
+        } else {
+            module.addLinkAction(action);
+        }
+    }
+
     private WasmRootNode createCodeEntry(WasmInstance instance, int funcIndex) {
         final WasmFunction function = module.symbolTable().function(funcIndex);
         WasmCodeEntry codeEntry = new WasmCodeEntry(function, data);
@@ -663,7 +774,7 @@ public class BinaryParser extends BinaryStreamParser {
                     // after the call target from the other module exists.
                     children.add(new WasmCallStubNode(function));
                     final int stubIndex = children.size() - 1;
-                    module.addLinkAction((context, inst) -> context.linker().resolveCallsite(inst, currentBlock, stubIndex, function));
+                    addLinkAction((context, inst) -> context.linker().resolveCallsite(inst, currentBlock, stubIndex, function));
 
                     break;
                 }
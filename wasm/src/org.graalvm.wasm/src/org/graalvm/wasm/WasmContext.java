@@ -49,6 +49,9 @@ import org.graalvm.wasm.predefined.wasi.fd.FdManager;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public final class WasmContext {
     private final Env env;
@@ -62,6 +65,7 @@ public final class WasmContext {
     private final Map<String, WasmInstance> moduleInstances;
     private int moduleNameCount;
     private final FdManager filesManager;
+    private ExecutorService parsingExecutor;
 
     public static WasmContext getCurrent() {
         return WasmLanguage.getCurrentContext();
@@ -124,6 +128,29 @@ public final class WasmContext {
         return filesManager;
     }
 
+    /**
+     * Returns the executor that decodes the code entries of modules in parallel, creating it on
+     * first use. Its threads are shared by all the modules parsed in this context.
+     */
+    synchronized ExecutorService parsingExecutor(int numThreads, int stackSize) {
+        if (parsingExecutor == null) {
+            final AtomicInteger threadCount = new AtomicInteger();
+            parsingExecutor = Executors.newFixedThreadPool(numThreads, runnable -> {
+                final Thread thread = new Thread(null, runnable, "wasm-parsing-worker-" + threadCount.getAndIncrement(), stackSize);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return parsingExecutor;
+    }
+
+    synchronized void shutdownParsingExecutor() {
+        if (parsingExecutor != null) {
+            parsingExecutor.shutdownNow();
+            parsingExecutor = null;
+        }
+    }
+
     /**
      * Returns the map with all the modules that have been parsed.
      */
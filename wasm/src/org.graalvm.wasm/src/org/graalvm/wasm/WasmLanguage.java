@@ -99,6 +99,7 @@ public final class WasmLanguage extends TruffleLanguage<WasmContext> {
     @Override
     protected void finalizeContext(WasmContext context) {
         super.finalizeContext(context);
+        context.shutdownParsingExecutor();
         for (int i = 0; i < context.memories().count(); ++i) {
             final WasmMemory memory = context.memories().memory(i);
             if (memory instanceof UnsafeWasmMemory) {
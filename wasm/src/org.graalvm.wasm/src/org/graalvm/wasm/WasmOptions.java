@@ -57,6 +57,9 @@ public class WasmOptions {
     @Option(help = "The stack size in kilobytes to use during async parsing, or zero to use defaults.", category = OptionCategory.USER, stability = OptionStability.STABLE)//
     public static final OptionKey<Integer> AsyncParsingStackSize = new OptionKey<>(0);
 
+    @Option(help = "The number of threads that decode function bodies of a module in parallel. One decodes them on the parsing thread.", category = OptionCategory.EXPERT, stability = OptionStability.EXPERIMENTAL)//
+    public static final OptionKey<Integer> ParallelParsingThreads = new OptionKey<>(1);
+
     @Option(help = "A comma-separated list of pre-opened Wasi directories: [<virtual-dir>:]<host-dir>.", category = OptionCategory.USER, stability = OptionStability.STABLE)//
     public static final OptionKey<String> WasiMapDirs = new OptionKey<>("");
 
@@ -73,6 +73,13 @@ public final class UnsafeWasmMemory extends WasmMemory implements AutoCloseable
     private long startAddress;
     private int size;
 
+    /**
+     * The number of bytes currently allocated at {@link #startAddress}. This is at least
+     * {@link #byteSize()}, and can be larger, so that subsequent {@link #grow} calls only need to
+     * clear the newly exposed pages instead of reallocating the whole memory.
+     */
+    private long byteCapacity;
+
     /**
      * The maximum practical size of this memory instance (measured in number of
      * {@link Sizes#MEMORY_PAGE_SIZE pages}).
@@ -102,7 +109,7 @@ public final class UnsafeWasmMemory extends WasmMemory implements AutoCloseable
 
         this.declaredMinSize = declaredMinSize;
         this.declaredMaxSize = declaredMaxSize;
-        this.size = declaredMinSize;
+        this.size = initialSize;
         this.maxAllowedSize = maxAllowedSize;
         final long byteSize = byteSize();
         try {
@@ -111,6 +118,7 @@ public final class UnsafeWasmMemory extends WasmMemory implements AutoCloseable
             CompilerDirectives.transferToInterpreter();
             throw WasmException.create(Failure.MEMORY_ALLOCATION_FAILED);
         }
+        this.byteCapacity = byteSize;
         unsafe.setMemory(startAddress, byteSize, (byte) 0);
     }
 
@@ -119,7 +127,8 @@ public final class UnsafeWasmMemory extends WasmMemory implements AutoCloseable
     }
 
     public void validateAddress(Node node, int address, int offset) {
-        if (address < 0 || address + offset > this.byteSize()) {
+        // A negative address becomes a large unsigned value, so a single comparison suffices.
+        if (Integer.toUnsignedLong(address) + offset > this.byteSize()) {
             CompilerDirectives.transferToInterpreter();
             throw trapOutOfBounds(node, address, offset);
         }
@@ -140,9 +149,9 @@ public final class UnsafeWasmMemory extends WasmMemory implements AutoCloseable
 
     @Override
     public void reset() {
+        // Keep the current allocation: the pages above the new size are cleared again on growth.
         size = declaredMinSize;
-        unsafe.freeMemory(startAddress);
-        startAddress = unsafe.allocateMemory(byteSize());
+        unsafe.setMemory(startAddress, byteSize(), (byte) 0);
     }
 
     @Override
@@ -174,22 +183,37 @@ public final class UnsafeWasmMemory extends WasmMemory implements AutoCloseable
             // Condition above and limit on maxPageSize (see ModuleLimits#MAX_MEMORY_SIZE) ensure
             // computation of targetByteSize does not overflow.
             final int targetByteSize = multiplyExact(addExact(size(), extraPageSize), MEMORY_PAGE_SIZE);
-            try {
-                final long updatedStartAddress = unsafe.allocateMemory(targetByteSize);
-                unsafe.copyMemory(startAddress, updatedStartAddress, byteSize());
-                unsafe.setMemory(updatedStartAddress + byteSize(), targetByteSize - byteSize(), (byte) 0);
-                unsafe.freeMemory(startAddress);
-                startAddress = updatedStartAddress;
-                size += extraPageSize;
-                return true;
-            } catch (OutOfMemoryError error) {
-                throw WasmException.create(Failure.MEMORY_ALLOCATION_FAILED);
+            if (targetByteSize > byteCapacity) {
+                ensureCapacity(targetByteSize);
             }
+            unsafe.setMemory(startAddress + byteSize(), targetByteSize - byteSize(), (byte) 0);
+            size += extraPageSize;
+            return true;
         } else {
             return false;
         }
     }
 
+    /**
+     * Enlarges the backing allocation so that it can hold at least {@code targetByteSize} bytes.
+     * <p>
+     * The capacity grows geometrically (bounded by {@link #maxAllowedSize}), so that a sequence of
+     * small {@code memory.grow} instructions does not reallocate the memory every time. The
+     * allocation is enlarged in place with {@link Unsafe#reallocateMemory}, which for large blocks
+     * remaps the existing pages instead of copying them and does not require a second, temporary
+     * copy of the memory contents.
+     */
+    private void ensureCapacity(int targetByteSize) {
+        final long maxAllowedByteSize = (long) maxAllowedSize * MEMORY_PAGE_SIZE;
+        final long updatedCapacity = Math.min(Math.max(targetByteSize, 2 * byteCapacity), maxAllowedByteSize);
+        try {
+            startAddress = unsafe.reallocateMemory(startAddress, updatedCapacity);
+        } catch (OutOfMemoryError error) {
+            throw WasmException.create(Failure.MEMORY_ALLOCATION_FAILED);
+        }
+        byteCapacity = updatedCapacity;
+    }
+
     @Override
     public int load_i32(Node node, int address) {
         validateAddress(node, address, 4);
@@ -355,6 +379,7 @@ public final class UnsafeWasmMemory extends WasmMemory implements AutoCloseable
         unsafe.freeMemory(this.startAddress);
         startAddress = 0;
         size = 0;
+        byteCapacity = 0;
     }
 
     public boolean freed() {